@@ -0,0 +1,132 @@
+package com.fingerprint.thales.benchmark;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_AcquisitionEvents;
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.AcquisitionStatesEnum;
+import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.sdk.SimulatedGbmsSdk;
+import com.fingerprint.thales.sdk.SimulatedScannerConfig;
+import com.fingerprint.thales.service.core.AcquisitionHandler;
+import com.fingerprint.thales.utils.LogLevels;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks del callback de adquisicion con el SDK simulado.
+ * <p>
+ * {@code validFrame} mide el camino de cada VALID_FRAME_ACQUIRED (contraste, copia al anillo
+ * de frames y diagnosticos) sobre un frame nativo sintetico; con {@code -prof gc} el valor
+ * {@code gc.alloc.rate.norm} debe quedarse en 0 B/op. {@code captureEndToEnd} mide una captura
+ * completa sin vista previa: latencia desde StartAcquisition hasta el resultado.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AcquisitionCallbackBenchmark {
+
+  /**
+   * Captura en curso que nunca termina sola: el simulado espera una hora antes de arrancar, de
+   * modo que el benchmark entrega los frames directamente al handler.
+   */
+  @State(Scope.Benchmark)
+  public static class FrameState {
+
+    @Param({"400x500", "1600x1500"})
+    public String frameSize;
+
+    @Param({"0", "1"})
+    public int diagnostic;
+
+    AcquisitionHandler handler;
+    Memory frame;
+    int width;
+    int height;
+    Pointer userParams;
+    Thread captureThread;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      LogLevels.apply(false);
+      String[] size = frameSize.split("x");
+      width = Integer.parseInt(size[0]);
+      height = Integer.parseInt(size[1]);
+      frame = new Memory((long) width * height);
+      for (long i = 0; i < frame.size(); i++) {
+        frame.setByte(i, (byte) i);
+      }
+
+      var sdk = new SimulatedGbmsSdk(SimulatedScannerConfig.builder()
+              .fps(0).width(width).height(height).previewFrames(0).minutiae(0)
+              .startDelayMs(TimeUnit.HOURS.toMillis(1)).devices(1)
+              .build());
+      sdk.loadLibrary();
+      handler = new AcquisitionHandler(sdk);
+      captureThread = new Thread(() -> handler.captureFingerprint(TimeUnit.DAYS.toMillis(1)));
+      captureThread.setDaemon(true);
+      captureThread.start();
+      while (handler.getAcqState() != AcquisitionStatesEnum.SCANNER_START.getCode()) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+      }
+      // Primera captura del handler: generacion 1.
+      userParams = Pointer.createConstant(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+      captureThread.interrupt();
+      captureThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  /**
+   * Servicio con una captura simulada sin vista previa ni retardo.
+   */
+  @State(Scope.Benchmark)
+  public static class CaptureState {
+
+    AcquisitionHandler handler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      LogLevels.apply(false);
+      var sdk = new SimulatedGbmsSdk(SimulatedScannerConfig.builder()
+              .fps(0).width(Constants.SIM_DEFAULT_WIDTH).height(Constants.SIM_DEFAULT_HEIGHT)
+              .previewFrames(0).minutiae(Constants.SIM_DEFAULT_MINUTIAE).startDelayMs(0)
+              .devices(1)
+              .build());
+      sdk.loadLibrary();
+      handler = new AcquisitionHandler(sdk);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int validFrame(FrameState state) {
+    return state.handler.invoke(
+            GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED, 0, 0, state.frame,
+            state.width, state.height, 15.0, 15.0, state.diagnostic, state.userParams);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public ResponseOk captureEndToEnd(CaptureState state) {
+    return state.handler.captureFingerprint(TimeUnit.SECONDS.toMillis(5));
+  }
+}
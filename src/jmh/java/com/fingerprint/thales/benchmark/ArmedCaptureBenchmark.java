@@ -0,0 +1,84 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.sdk.SimulatedGbmsSdk;
+import com.fingerprint.thales.sdk.SimulatedScannerConfig;
+import com.fingerprint.thales.service.core.AcquisitionHandler;
+import com.fingerprint.thales.utils.LogLevels;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Capturas consecutivas con y sin sesión armada sobre el SDK simulado con un arranque de
+ * escáner de 50 ms ({@code startDelayMs}) y una pausa de {@code gapMs} entre solicitudes que no
+ * se mide. Sin armar, cada captura paga el reinicio, la configuración y el arranque; armada, la
+ * siguiente solicitud adopta la vista previa ya en marcha, así que la diferencia entre ambos es
+ * la reducción del tiempo hasta el primer frame.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class ArmedCaptureBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class ScannerState {
+
+    @Param({"false", "true"})
+    public boolean armed;
+
+    @Param({"100"})
+    public long gapMs;
+
+    AcquisitionHandler handler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      LogLevels.apply(false);
+      var sdk = new SimulatedGbmsSdk(SimulatedScannerConfig.builder()
+              .fps(500).width(Constants.SIM_DEFAULT_WIDTH).height(Constants.SIM_DEFAULT_HEIGHT)
+              .previewFrames(6).minutiae(Constants.SIM_DEFAULT_MINUTIAE).startDelayMs(50)
+              .devices(1)
+              .build());
+      sdk.loadLibrary();
+      handler = new AcquisitionHandler(sdk);
+    }
+
+    /**
+     * Pausa entre solicitudes (fuera de la medición), como la de un operador entre dedos.
+     */
+    @Setup(Level.Invocation)
+    public void operatorGap() {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(gapMs));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      handler.disarm();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object consecutiveCapture(ScannerState state) {
+    var response = state.handler.captureFingerprint(TimeUnit.SECONDS.toMillis(5));
+    if (state.armed) {
+      // Como ScannerDevice: se arma después de entregar el resultado.
+      state.handler.arm(TimeUnit.SECONDS.toMillis(5));
+    }
+    return response;
+  }
+}
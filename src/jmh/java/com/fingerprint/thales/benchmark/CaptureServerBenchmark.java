@@ -0,0 +1,129 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.main.ApplicationThales;
+import com.fingerprint.thales.sdk.GbmsSdkProvider;
+import com.fingerprint.thales.sdk.SimulatedGbmsSdk;
+import com.fingerprint.thales.sdk.SimulatedScannerConfig;
+import com.fingerprint.thales.server.CaptureServer;
+import com.fingerprint.thales.service.AcquisitionService;
+import com.fingerprint.thales.utils.LogLevels;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Modo servidor frente a un proceso por captura, con el mismo escáner simulado (sin vista
+ * previa ni retardo) detrás: lo medido es el coste de la integración, no el de la captura.
+ * <p>
+ * {@code spawnPerCapture} lanza {@code java ... ApplicationThales} y lee su salida, como hace hoy
+ * el front-end; {@code serverCapture} hace {@code POST /capture} contra un servidor ya caliente.
+ * {@code serverCaptureConcurrent} usa 4 llamantes sobre un solo escáner: mide la espera en la cola
+ * del dispositivo (el modelo de un proceso por captura no puede compartir el escáner).
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CaptureServerBenchmark {
+
+  private static final List<String> SIM_PROPERTIES = List.of(
+          "-D" + Constants.SDK_PROPERTY + "=" + Constants.SDK_SIMULATED,
+          "-D" + Constants.SIM_FPS_PROPERTY + "=0",
+          "-D" + Constants.SIM_PREVIEW_FRAMES_PROPERTY + "=0",
+          "-D" + Constants.SIM_START_DELAY_PROPERTY + "=0");
+
+  @State(Scope.Benchmark)
+  public static class ServerState {
+
+    AcquisitionService service;
+    CaptureServer server;
+    HttpClient client;
+    HttpRequest capture;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+      LogLevels.apply(false);
+      var sdk = new SimulatedGbmsSdk(SimulatedScannerConfig.builder()
+              .fps(0).width(Constants.SIM_DEFAULT_WIDTH).height(Constants.SIM_DEFAULT_HEIGHT)
+              .previewFrames(0).minutiae(Constants.SIM_DEFAULT_MINUTIAE).startDelayMs(0)
+              .devices(1)
+              .build());
+      GbmsSdkProvider.set(sdk);
+      service = new AcquisitionService(sdk);
+      server = new CaptureServer(service, 0);
+      server.start();
+      client = HttpClient.newHttpClient();
+      capture = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort()
+                      + Constants.PATH_CAPTURE + "?timeout=5"))
+              .POST(HttpRequest.BodyPublishers.noBody())
+              .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      server.close();
+      service.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class SpawnState {
+
+    ProcessBuilder command;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      var args = new ArrayList<String>();
+      args.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+      args.addAll(SIM_PROPERTIES);
+      args.addAll(List.of("-cp", System.getProperty("java.class.path"),
+              ApplicationThales.class.getName(), "5", "30", "false", "false"));
+      command = new ProcessBuilder(args).redirectErrorStream(true);
+    }
+  }
+
+  @Benchmark
+  public String serverCapture(ServerState state) throws IOException, InterruptedException {
+    return state.client.send(state.capture, HttpResponse.BodyHandlers.ofString()).body();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String serverCaptureConcurrent(ServerState state)
+          throws IOException, InterruptedException {
+    return state.client.send(state.capture, HttpResponse.BodyHandlers.ofString()).body();
+  }
+
+  @Benchmark
+  public byte[] spawnPerCapture(SpawnState state) throws IOException, InterruptedException {
+    Process process = state.command.start();
+    byte[] output;
+    try (InputStream in = process.getInputStream()) {
+      output = in.readAllBytes();
+    }
+    process.waitFor();
+    return output;
+  }
+}
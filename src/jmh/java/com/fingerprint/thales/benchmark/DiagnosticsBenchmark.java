@@ -0,0 +1,74 @@
+package com.fingerprint.thales.benchmark;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_DiagnosticMessages;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_EventInfo;
+import com.fingerprint.thales.utils.GbmsApiDeviceUtil;
+import com.fingerprint.thales.utils.LogLevels;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks de la decodificacion de diagnosticos y flags de evento que se ejecuta en cada
+ * frame y al final de la captura.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DiagnosticsBenchmark {
+
+  /**
+   * none: sin diagnosticos; single: un mensaje; many: varios bits activos a la vez.
+   */
+  @Param({"none", "single", "many"})
+  public String diagnostics;
+
+  private int diagnostic;
+
+  private int eventInfo;
+
+  @Setup
+  public void setUp() {
+    LogLevels.apply(false);
+    diagnostic = switch (diagnostics) {
+      case "single" -> GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_DRY_FINGER;
+      case "many" -> GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_DRY_FINGER
+              | GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_EXT_LIGHT_TOO_STRONG
+              | GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_SCANNER_SURFACE_NOT_NORMA;
+      default -> 0;
+    };
+    eventInfo = GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_ACQUISITION_PHASE
+            | GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_IS_ISO_19794_2_2005_TEMPLATE;
+  }
+
+  @Benchmark
+  public List<String> getDiagsToDisplay() {
+    return GbmsApiDeviceUtil.getDiagsToDisplay(diagnostic);
+  }
+
+  @Benchmark
+  public int displayableDiagnostics() {
+    return GbmsApiDeviceUtil.displayableDiagnostics(diagnostic);
+  }
+
+  /**
+   * Con el log en WARN (valor por defecto de la CLI) debe ser practicamente gratis.
+   */
+  @Benchmark
+  public void decodeEventFlags() {
+    GbmsApiDeviceUtil.decodeEventFlags(eventInfo);
+  }
+}
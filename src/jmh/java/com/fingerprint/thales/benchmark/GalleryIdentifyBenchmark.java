@@ -0,0 +1,170 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.gallery.TemplateGallery;
+import com.fingerprint.thales.model.Candidate;
+import com.fingerprint.thales.template.MinutiaeTemplate;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Una identificación 1:N de {@link TemplateGallery} sobre una galería sintética de
+ * {@code gallery} huellas aleatorias de 40 minucias, creada en un directorio temporal.
+ * <p>
+ * Las muestras son huellas de la galería distorsionadas como en {@link TemplateMatchBenchmark}
+ * (rotación, traslación, ruido, minucias perdidas y espurias). Además del tiempo, los contadores
+ * {@code hits} / {@code misses} dan la tasa de acierto: la huella correcta es la primera de la
+ * lista con umbral 0.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GalleryIdentifyBenchmark {
+
+  private static final int MINUTIAE = 40;
+
+  private static final int PROBES = 512;
+
+  @Param({"10000", "100000"})
+  public int gallery;
+
+  @Param({"16", "64"})
+  public int candidates;
+
+  private Path directory;
+
+  private TemplateGallery templates;
+
+  private MinutiaeTemplate[] probes;
+
+  private String[] expected;
+
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("gallery-bench");
+    templates = TemplateGallery.open(directory, Runtime.getRuntime().availableProcessors(),
+            candidates);
+    var random = new Random(gallery);
+    int[][][] subjects = new int[gallery][][];
+    for (int i = 0; i < gallery; i++) {
+      subjects[i] = randomMinutiae(random, MINUTIAE);
+      templates.append("S" + i, buildIso(subjects[i]));
+    }
+    probes = new MinutiaeTemplate[PROBES];
+    expected = new String[PROBES];
+    for (int p = 0; p < PROBES; p++) {
+      int subject = random.nextInt(gallery);
+      probes[p] = new MinutiaeTemplate().wrap(ByteBuffer.wrap(buildIso(distort(random,
+              subjects[subject], random.nextInt(33) - 16, random.nextInt(81) - 40,
+              random.nextInt(81) - 40))));
+      expected[p] = "S" + subject;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    templates.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Recall {
+
+    public long hits;
+
+    public long misses;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+
+  private static int[][] randomMinutiae(Random random, int count) {
+    int[][] minutiae = new int[count][];
+    for (int i = 0; i < count; i++) {
+      minutiae[i] = new int[]{30 + random.nextInt(340), 30 + random.nextInt(440), random.nextInt(256)};
+    }
+    return minutiae;
+  }
+
+  private static int[][] distort(Random random, int[][] source, int rotation, int dx, int dy) {
+    double radians = 2 * Math.PI * rotation / 256;
+    double cos = Math.cos(radians);
+    double sin = Math.sin(radians);
+    List<int[]> minutiae = new ArrayList<>();
+    for (int[] m : source) {
+      if (random.nextDouble() < 0.2) continue;
+      int x = (int) Math.round(m[0] * cos + m[1] * sin + dx + random.nextGaussian() * 3);
+      int y = (int) Math.round(m[1] * cos - m[0] * sin + dy + random.nextGaussian() * 3);
+      if (x < 0 || y < 0) continue;
+      int angle = (m[2] + rotation + (int) Math.round(random.nextGaussian() * 4)) & 0xFF;
+      minutiae.add(new int[]{x, y, angle});
+    }
+    for (int i = 0; i < source.length / 5; i++) {
+      minutiae.add(new int[]{30 + random.nextInt(340), 30 + random.nextInt(440), random.nextInt(256)});
+    }
+    return minutiae.toArray(new int[0][]);
+  }
+
+  /**
+   * Registro ISO de una vista (400x500 a 197 ppcm) con las minucias indicadas.
+   */
+  private static byte[] buildIso(int[][] minutiae) {
+    int length = 24 + 4 + minutiae.length * 6 + 2;
+    ByteBuffer buf = ByteBuffer.allocate(length);
+    buf.put(new byte[]{'F', 'M', 'R', 0, ' ', '2', '0', 0}).putInt(length);
+    buf.putShort((short) 0).putShort((short) 400).putShort((short) 500)
+            .putShort((short) 197).putShort((short) 197).put((byte) 1).put((byte) 0);
+    buf.put((byte) 2).put((byte) 0).put((byte) 60).put((byte) minutiae.length);
+    for (int[] m : minutiae) {
+      buf.putShort((short) (1 << 14 | m[0])).putShort((short) m[1]).put((byte) m[2]).put((byte) 60);
+    }
+    buf.putShort((short) 0);
+    return buf.array();
+  }
+
+  @Benchmark
+  public List<Candidate> identify(Recall recall) {
+    int p = next++ & (PROBES - 1);
+    List<Candidate> found = templates.identify(probes[p], 0);
+    if (!found.isEmpty() && found.get(0).id().equals(expected[p])) {
+      recall.hits++;
+    } else {
+      recall.misses++;
+    }
+    return found;
+  }
+}
@@ -0,0 +1,161 @@
+package com.fingerprint.thales.benchmark;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_AcquisitionEvents;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.fingerprint.thales.enums.AcquisitionStatesEnum;
+import com.fingerprint.thales.sdk.SimulatedGbmsSdk;
+import com.fingerprint.thales.sdk.SimulatedScannerConfig;
+import com.fingerprint.thales.service.core.AcquisitionHandler;
+import com.fingerprint.thales.utils.LogLevels;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Latencia del callback VALID_FRAME_ACQUIRED con los logs en INFO, con los appenders del
+ * {@code logback.xml} de producción ({@code async}) o con los mismos appenders conectados
+ * directamente al logger raíz ({@code sync}, la configuración anterior).
+ * <p>
+ * La consola se redirige a un stream que descarta los bytes y, con {@code consoleStallMicros},
+ * tarda ese tiempo en cada escritura: modela una terminal lenta o un pipe que el proceso padre no
+ * lee a tiempo. El archivo va a un temporal que se borra al terminar.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class LoggingCallbackBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class FrameState {
+
+    @Param({"sync", "async"})
+    public String appenders;
+
+    @Param({"0", "500"})
+    public long consoleStallMicros;
+
+    AcquisitionHandler handler;
+    Memory frame;
+    Pointer userParams;
+    Thread captureThread;
+    PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+      originalOut = System.out;
+      System.setOut(new PrintStream(new StalledOutputStream(consoleStallMicros), false));
+      configureLogging("sync".equals(appenders));
+      LogLevels.apply(true);
+
+      frame = new Memory(400L * 500L);
+      frame.clear();
+      var sdk = new SimulatedGbmsSdk(SimulatedScannerConfig.builder()
+              .fps(0).width(400).height(500).previewFrames(0).minutiae(0)
+              .startDelayMs(TimeUnit.HOURS.toMillis(1)).devices(1)
+              .build());
+      sdk.loadLibrary();
+      handler = new AcquisitionHandler(sdk);
+      captureThread = new Thread(() -> handler.captureFingerprint(TimeUnit.DAYS.toMillis(1)));
+      captureThread.setDaemon(true);
+      captureThread.start();
+      while (handler.getAcqState() != AcquisitionStatesEnum.SCANNER_START.getCode()) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+      }
+      userParams = Pointer.createConstant(1);
+    }
+
+    /**
+     * Redirige el archivo de log a un temporal y, en modo {@code sync}, sustituye cada
+     * AsyncAppender del logger raíz por el appender que envuelve.
+     */
+    private static void configureLogging(boolean sync) throws IOException {
+      var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+      Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+      var attached = new ArrayList<Appender<ILoggingEvent>>();
+      root.iteratorForAppenders().forEachRemaining(attached::add);
+      var sink = File.createTempFile("thales-bench", ".log");
+      sink.deleteOnExit();
+      for (Appender<ILoggingEvent> appender : attached) {
+        if (!(appender instanceof AsyncAppender async)) continue;
+        Appender<ILoggingEvent> target = async.iteratorForAppenders().next();
+        if (sync) {
+          root.detachAppender(async);
+          // Detener el AsyncAppender detiene también el appender que envuelve.
+          async.stop();
+          root.addAppender(target);
+        }
+        if (target instanceof FileAppender<ILoggingEvent> file) {
+          file.stop();
+          file.setFile(sink.getAbsolutePath());
+        }
+        if (!target.isStarted()) {
+          target.start();
+        }
+      }
+    }
+
+    /**
+     * Descarta lo escrito; cada escritura (una por evento de log) tarda {@code stallMicros}.
+     */
+    private static final class StalledOutputStream extends OutputStream {
+
+      private final long stallNanos;
+
+      private StalledOutputStream(long stallMicros) {
+        this.stallNanos = TimeUnit.MICROSECONDS.toNanos(stallMicros);
+      }
+
+      @Override
+      public void write(int b) {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        if (stallNanos > 0) {
+          LockSupport.parkNanos(stallNanos);
+        }
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+      captureThread.interrupt();
+      captureThread.join(TimeUnit.SECONDS.toMillis(5));
+      System.setOut(originalOut);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int validFrame(FrameState state) {
+    return state.handler.invoke(
+            GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED, 0, 0, state.frame,
+            400, 500, 15.0, 15.0, 0, state.userParams);
+  }
+}
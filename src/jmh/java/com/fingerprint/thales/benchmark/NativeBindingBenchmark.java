@@ -0,0 +1,95 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.sdk.DirectGbmsSdk;
+import com.fingerprint.thales.sdk.GbmsSdk;
+import com.fingerprint.thales.sdk.NativeGbmsSdk;
+import com.sun.jna.Memory;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coste por llamada de GBMSAPI con el proxy de JNA ({@code GBMSAPI_Library.INSTANCE}) frente
+ * al enlace directo ({@link DirectGbmsSdk}), contra el stub de {@code src/jmh/native}: las
+ * funciones nativas no hacen nada, así que lo medido es el paso Java -> nativo.
+ * <p>
+ * Solo Linux. Antes de ejecutarlo: {@code sh src/jmh/native/build-stub.sh}; el directorio del
+ * stub se puede cambiar con {@code -Dthales.bench.stubDir} (por defecto {@code target/native}).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class NativeBindingBenchmark {
+
+  private static final String STUB_DIR_PROPERTY = "thales.bench.stubDir";
+
+  private static final String STUB_LIBRARY = "libGBMSAPI.so";
+
+  @Param({"proxy", "direct"})
+  public String binding;
+
+  private GbmsSdk sdk;
+
+  private final ByteByReference contrast = new ByteByReference();
+
+  private final IntByReference size = new IntByReference();
+
+  private final IntByReference outSize = new IntByReference();
+
+  private Memory template;
+
+  @Setup
+  public void setUp() {
+    var stubDir = Path.of(System.getProperty(STUB_DIR_PROPERTY, "target/native")).toAbsolutePath();
+    if (!Files.isRegularFile(stubDir.resolve(STUB_LIBRARY))) {
+      throw new IllegalStateException("No existe " + stubDir.resolve(STUB_LIBRARY)
+              + "; compílalo con sh src/jmh/native/build-stub.sh");
+    }
+    System.setProperty("jna.library.path", stubDir.toString());
+    sdk = "direct".equals(binding) ? new DirectGbmsSdk() : new NativeGbmsSdk();
+    sdk.loadLibrary();
+    template = new Memory(1024);
+  }
+
+  /**
+   * Llamada de cada frame en el callback.
+   */
+  @Benchmark
+  public byte fingerprintContrast() {
+    sdk.getFingerprintContrast(contrast);
+    return contrast.getValue();
+  }
+
+  /**
+   * Llamada sin argumentos: solo el coste fijo de cada modelo.
+   */
+  @Benchmark
+  public int stopAcquisition() {
+    return sdk.stopAcquisition();
+  }
+
+  /**
+   * Las dos llamadas de la extracción del template al final de la captura.
+   */
+  @Benchmark
+  public int isoTemplate() {
+    sdk.getTemplateBufferSize(size);
+    return sdk.getIso19794Template(template, (int) template.size(), outSize);
+  }
+}
@@ -0,0 +1,101 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.idemia.IdemiaError;
+import com.fingerprint.thales.model.ResponseError;
+import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.utils.Jsons;
+import com.fingerprint.thales.utils.ResponseWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks de la construccion de la respuesta: mapeo de errores Thales -> IDEMIA y
+ * serializacion JSON de {@link ResponseOk} y {@link ResponseError}, tanto con
+ * {@link Jsons#toPrettyJson(Object)} como con {@link ResponseWriter} en modo compacto.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+
+  /**
+   * Tamano aproximado de un template de 40 minucias.
+   */
+  private static final int TEMPLATE_SIZE = 270;
+
+  private ResponseOk ok;
+
+  private ResponseOk okTemplate;
+
+  private ResponseWriter compactWriter;
+
+  private ResponseError error;
+
+  private int sdkCode;
+
+  private AcquisitionException.ErrorCode errorCode;
+
+  @Setup
+  public void setUp() throws IOException {
+    byte[] template = new byte[TEMPLATE_SIZE];
+    new Random(TEMPLATE_SIZE).nextBytes(template);
+    ok = ResponseOk.builder().fingerprint(Base64.getEncoder().encodeToString(template)).build();
+    okTemplate = ResponseOk.builder().template(template).build();
+    compactWriter = new ResponseWriter(OutputStream.nullOutputStream(), true);
+    error = ResponseError.from(
+            new AcquisitionException(AcquisitionException.ErrorCode.ACQUISITION_TIMEOUT));
+    // Ultimo codigo de la tabla: peor caso de la busqueda lineal.
+    sdkCode = AcquisitionException.ErrorCode.EXCEPTION.getCode();
+    errorCode = AcquisitionException.ErrorCode.NOT_ALLOWED_FAKE_FINGER_DETECTED;
+  }
+
+  @Benchmark
+  public AcquisitionException.ErrorCode errorCodeFromCode() {
+    return AcquisitionException.ErrorCode.fromCode(sdkCode);
+  }
+
+  @Benchmark
+  public IdemiaError mapThalesToIdemia() {
+    return ResponseError.mapThalesToIdemia(errorCode);
+  }
+
+  @Benchmark
+  public String toPrettyJsonOk() {
+    return Jsons.toPrettyJson(ok);
+  }
+
+  @Benchmark
+  public String toPrettyJsonError() {
+    return Jsons.toPrettyJson(error);
+  }
+
+  /**
+   * Modo daemon: template en bytes codificado en Base64 directo sobre el stream.
+   */
+  @Benchmark
+  public void writeCompactOk() throws IOException {
+    compactWriter.write(okTemplate);
+  }
+
+  @Benchmark
+  public void writeCompactError() throws IOException {
+    compactWriter.write(error);
+  }
+}
@@ -0,0 +1,55 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.utils.BiometricAdapter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark de la adaptacion ISO 19794-2 -> variante INE al final de cada captura.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TemplateAdapterBenchmark {
+
+  private static final int ISO_HEADER = 24;
+
+  private static final int ISO_VIEW_HEADER = 4;
+
+  private static final int ISO_MINUTIA = 6;
+
+  @Param({"40", "120"})
+  public int minutiae;
+
+  private byte[] template;
+
+  @Setup
+  public void setUp() {
+    // Registro ISO sintetico del tamano real (cabecera + vista + minucias + extension).
+    template = new byte[ISO_HEADER + ISO_VIEW_HEADER + minutiae * ISO_MINUTIA + 2];
+    new Random(minutiae).nextBytes(template);
+    template[0] = 'F';
+    template[1] = 'M';
+    template[2] = 'R';
+    template[3] = 0;
+  }
+
+  @Benchmark
+  public byte[] adapterINE() {
+    return BiometricAdapter.adapterINE(template);
+  }
+}
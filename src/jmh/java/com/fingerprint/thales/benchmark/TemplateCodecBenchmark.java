@@ -0,0 +1,97 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import com.fingerprint.thales.template.MinutiaeTemplate;
+import com.fingerprint.thales.template.TemplateCodec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Análisis de un template ISO 19794-2 y conversión a ANSI / INE con {@link TemplateCodec}.
+ * <p>
+ * El registro está en un buffer directo con el orden nativo, como el que devuelve
+ * {@code Memory.getByteBuffer} sobre el buffer de template del handler. {@code parseAndConvert}
+ * escribe en un buffer reutilizado; {@code parseAndConvertAll} es lo que hace la captura con
+ * {@code -Dthales.template.formats=iso,ansi,ine}: un arreglo de tamaño exacto por formato.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TemplateCodecBenchmark {
+
+  private static final Set<TemplateFormatEnum> ALL_FORMATS = EnumSet.allOf(TemplateFormatEnum.class);
+
+  @Param({"30", "80"})
+  public int minutiae;
+
+  @Param({"ANSI", "INE"})
+  public TemplateFormatEnum target;
+
+  private ByteBuffer iso;
+
+  private ByteBuffer out;
+
+  private final MinutiaeTemplate view = new MinutiaeTemplate();
+
+  @Setup
+  public void setUp() {
+    byte[] record = buildIso(new Random(minutiae), minutiae);
+    iso = ByteBuffer.allocateDirect(record.length).order(ByteOrder.nativeOrder());
+    iso.put(record).flip();
+    out = ByteBuffer.allocate(record.length * 2);
+  }
+
+  /**
+   * Registro ISO de una vista (400x500 a 197 ppcm) con minucias pseudoaleatorias.
+   */
+  private static byte[] buildIso(Random random, int count) {
+    int length = 24 + 4 + count * 6 + 2;
+    ByteBuffer buf = ByteBuffer.allocate(length);
+    buf.put(new byte[]{'F', 'M', 'R', 0, ' ', '2', '0', 0}).putInt(length);
+    buf.putShort((short) 0).putShort((short) 400).putShort((short) 500)
+            .putShort((short) 197).putShort((short) 197).put((byte) 1).put((byte) 0);
+    buf.put((byte) 2).put((byte) 0).put((byte) 60).put((byte) count);
+    for (int i = 0; i < count; i++) {
+      buf.putShort((short) ((1 + random.nextInt(2)) << 14 | random.nextInt(400)));
+      buf.putShort((short) random.nextInt(500));
+      buf.put((byte) random.nextInt(256)).put((byte) (40 + random.nextInt(60)));
+    }
+    buf.putShort((short) 0);
+    return buf.array();
+  }
+
+  @Benchmark
+  public int parse() {
+    return view.wrap(iso).getMinutiaeCount();
+  }
+
+  @Benchmark
+  public int parseAndConvert() {
+    out.clear();
+    return TemplateCodec.encode(view.wrap(iso), target, out);
+  }
+
+  @Benchmark
+  public Map<TemplateFormatEnum, byte[]> parseAndConvertAll() {
+    return TemplateCodec.encode(view.wrap(iso), ALL_FORMATS);
+  }
+}
@@ -0,0 +1,110 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.template.MinutiaeMatcher;
+import com.fingerprint.thales.template.MinutiaeTemplate;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Una comparación 1:1 de {@link MinutiaeMatcher} con templates ya analizados, como en la
+ * verificación tras la captura.
+ * <p>
+ * {@code genuine}: la muestra es la referencia rotada (hasta ±22°), trasladada (hasta ±40 px) y
+ * con ruido (σ 3 px y 4 unidades de ángulo), sin el 20 % de sus minucias y con un 20 % de minucias
+ * espurias. {@code impostor}: otra huella aleatoria del mismo tamaño.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TemplateMatchBenchmark {
+
+  @Param({"30", "40", "80"})
+  public int minutiae;
+
+  @Param({"genuine", "impostor"})
+  public String pair;
+
+  private final MinutiaeMatcher matcher = new MinutiaeMatcher();
+
+  private MinutiaeTemplate probe;
+
+  private MinutiaeTemplate reference;
+
+  @Setup
+  public void setUp() {
+    var random = new Random(minutiae);
+    int[][] minutiaeOfReference = randomMinutiae(random, minutiae);
+    int[][] minutiaeOfProbe = "genuine".equals(pair)
+            ? distort(random, minutiaeOfReference, random.nextInt(33) - 16,
+                    random.nextInt(81) - 40, random.nextInt(81) - 40)
+            : randomMinutiae(random, minutiae);
+    reference = new MinutiaeTemplate().wrap(ByteBuffer.wrap(buildIso(minutiaeOfReference)));
+    probe = new MinutiaeTemplate().wrap(ByteBuffer.wrap(buildIso(minutiaeOfProbe)));
+  }
+
+  private static int[][] randomMinutiae(Random random, int count) {
+    int[][] minutiae = new int[count][];
+    for (int i = 0; i < count; i++) {
+      minutiae[i] = new int[]{30 + random.nextInt(340), 30 + random.nextInt(440), random.nextInt(256)};
+    }
+    return minutiae;
+  }
+
+  private static int[][] distort(Random random, int[][] source, int rotation, int dx, int dy) {
+    double radians = 2 * Math.PI * rotation / 256;
+    double cos = Math.cos(radians);
+    double sin = Math.sin(radians);
+    List<int[]> minutiae = new ArrayList<>();
+    for (int[] m : source) {
+      if (random.nextDouble() < 0.2) continue;
+      int x = (int) Math.round(m[0] * cos + m[1] * sin + dx + random.nextGaussian() * 3);
+      int y = (int) Math.round(m[1] * cos - m[0] * sin + dy + random.nextGaussian() * 3);
+      if (x < 0 || y < 0) continue;
+      int angle = (m[2] + rotation + (int) Math.round(random.nextGaussian() * 4)) & 0xFF;
+      minutiae.add(new int[]{x, y, angle});
+    }
+    for (int i = 0; i < source.length / 5; i++) {
+      minutiae.add(new int[]{30 + random.nextInt(340), 30 + random.nextInt(440), random.nextInt(256)});
+    }
+    return minutiae.toArray(new int[0][]);
+  }
+
+  /**
+   * Registro ISO de una vista (400x500 a 197 ppcm) con las minucias indicadas.
+   */
+  private static byte[] buildIso(int[][] minutiae) {
+    int length = 24 + 4 + minutiae.length * 6 + 2;
+    ByteBuffer buf = ByteBuffer.allocate(length);
+    buf.put(new byte[]{'F', 'M', 'R', 0, ' ', '2', '0', 0}).putInt(length);
+    buf.putShort((short) 0).putShort((short) 400).putShort((short) 500)
+            .putShort((short) 197).putShort((short) 197).put((byte) 1).put((byte) 0);
+    buf.put((byte) 2).put((byte) 0).put((byte) 60).put((byte) minutiae.length);
+    for (int[] m : minutiae) {
+      buf.putShort((short) (1 << 14 | m[0])).putShort((short) m[1]).put((byte) m[2]).put((byte) 60);
+    }
+    buf.putShort((short) 0);
+    return buf.array();
+  }
+
+  @Benchmark
+  public int score() {
+    return matcher.score(probe, reference);
+  }
+}
@@ -0,0 +1,123 @@
+package com.fingerprint.thales.benchmark;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.sdk.SimulatedGbmsSdk;
+import com.fingerprint.thales.sdk.SimulatedScannerConfig;
+import com.fingerprint.thales.server.CaptureServer;
+import com.fingerprint.thales.server.UnixSocketClient;
+import com.fingerprint.thales.server.UnixSocketServer;
+import com.fingerprint.thales.service.AcquisitionService;
+import com.fingerprint.thales.utils.LogLevels;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ida y vuelta de una captura por el socket binario frente a HTTP + JSON, con 4 escáneres
+ * simulados (sin vista previa) detrás del mismo servicio. Cada hilo del benchmark es un cliente
+ * con su propia conexión; los métodos {@code *Concurrent} usan 16 clientes a la vez.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UnixSocketBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class ServerState {
+
+    AcquisitionService service;
+    UnixSocketServer socket;
+    CaptureServer http;
+    Path path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+      LogLevels.apply(false);
+      var sdk = new SimulatedGbmsSdk(SimulatedScannerConfig.builder()
+              .fps(0).width(Constants.SIM_DEFAULT_WIDTH).height(Constants.SIM_DEFAULT_HEIGHT)
+              .previewFrames(0).minutiae(Constants.SIM_DEFAULT_MINUTIAE).startDelayMs(0)
+              .devices(4)
+              .build());
+      service = new AcquisitionService(sdk);
+      path = Files.createTempDirectory("thales-bench").resolve("thales.sock");
+      socket = new UnixSocketServer(service, path);
+      socket.start();
+      http = new CaptureServer(service, 0);
+      http.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      http.close();
+      socket.close();
+      service.close();
+      Files.deleteIfExists(path.getParent());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ClientState {
+
+    UnixSocketClient client;
+    HttpClient httpClient;
+    HttpRequest capture;
+
+    @Setup(Level.Trial)
+    public void setUp(ServerState server) throws IOException {
+      client = new UnixSocketClient(server.path);
+      httpClient = HttpClient.newHttpClient();
+      capture = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.http.getPort()
+                      + Constants.PATH_CAPTURE + "?timeout=5"))
+              .POST(HttpRequest.BodyPublishers.noBody())
+              .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      client.close();
+    }
+  }
+
+  @Benchmark
+  public Object socketRoundTrip(ClientState state) throws IOException {
+    return state.client.capture(Constants.DEVICE_ANY, 5000);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public Object socketRoundTripConcurrent(ClientState state) throws IOException {
+    return state.client.capture(Constants.DEVICE_ANY, 5000);
+  }
+
+  @Benchmark
+  public String httpRoundTrip(ClientState state) throws IOException, InterruptedException {
+    return state.httpClient.send(state.capture, HttpResponse.BodyHandlers.ofString()).body();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public String httpRoundTripConcurrent(ClientState state)
+          throws IOException, InterruptedException {
+    return state.httpClient.send(state.capture, HttpResponse.BodyHandlers.ofString()).body();
+  }
+}
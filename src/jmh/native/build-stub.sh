@@ -0,0 +1,7 @@
+#!/bin/sh
+# Compila el stub de GBMSAPI (Linux) en target/native/libGBMSAPI.so para NativeBindingBenchmark.
+set -e
+cd "$(dirname "$0")/../../.."
+mkdir -p target/native
+${CC:-cc} -O2 -shared -fPIC -o target/native/libGBMSAPI.so src/jmh/native/gbmsapi_stub.c
+echo "target/native/libGBMSAPI.so"
@@ -0,0 +1,86 @@
+/*
+ * Stub de GBMSAPI para benchmarks en Linux: exporta las funciones que usa el wrapper con
+ * cuerpos triviales, de modo que el tiempo medido sea el del paso Java -> nativo.
+ * Se compila con build-stub.sh como libGBMSAPI.so.
+ */
+#include <string.h>
+
+typedef int (*acquisition_callback)(int, int, int, void *, int, int, double, double, int, void *);
+
+static unsigned char contrast = 42;
+
+int GBMSAPI_LoadLibrary(void) { return 0; }
+
+int GBMSAPI_UnloadLibrary(void) { return 0; }
+
+void GBMSAPI_GetMultiScanAPIVersion(unsigned char *major, unsigned char *minor,
+                                    unsigned char *build, unsigned char *revision) {
+    *major = 1;
+    *minor = 0;
+    *build = 0;
+    *revision = 0;
+}
+
+int GBMSAPI_GetAttachedDeviceList(void *devices, int *device_count, int *usb_error) {
+    (void) devices;
+    *device_count = 0;
+    *usb_error = 0;
+    return 0;
+}
+
+int GBMSAPI_SetCurrentDevice(unsigned char device_id, const char *serial_number) {
+    (void) device_id;
+    (void) serial_number;
+    return 0;
+}
+
+int GBMSAPI_GetDeviceFeatures(int *features) { *features = 0; return 0; }
+
+int GBMSAPI_GetSupportedScanOptions(int *scan_options) { *scan_options = 0; return 0; }
+
+int GBMSAPI_GetScannableTypes(int *scannable_types) { *scannable_types = 0; return 0; }
+
+int GBMSAPI_FlatAutoCaptureModeIsSupported(int mode, int *supported) {
+    (void) mode;
+    *supported = 1;
+    return 0;
+}
+
+int GBMSAPI_SetFlatAutoCaptureMode(int mode) { (void) mode; return 0; }
+
+int GBMSAPI_SetSelectImageTimeout(int timeout) { (void) timeout; return 0; }
+
+int GBMSAPI_SetMembraneUsageForFakeFingerDetection(int usage) { (void) usage; return 0; }
+
+int GBMSAPI_EnableAutoCaptureBlockForDetectedFakes(unsigned char enable) { (void) enable; return 0; }
+
+int GBMSAPI_StartAcquisition(int obj_to_scan, int options, acquisition_callback callback,
+                             void *user_params, int display_options,
+                             unsigned char contrast_limit, unsigned char completeness_limit) {
+    (void) obj_to_scan;
+    (void) options;
+    (void) callback;
+    (void) user_params;
+    (void) display_options;
+    (void) contrast_limit;
+    (void) completeness_limit;
+    return 0;
+}
+
+int GBMSAPI_StopAcquisition(void) { return 0; }
+
+int GBMSAPI_GetFingerprintContrast(unsigned char *value) { *value = contrast; return 0; }
+
+int GBMSAPI_GetTemplateBufferSize(int *size) { *size = 1024; return 0; }
+
+int GBMSAPI_GetIso19794_2_2005_Template(unsigned char *buffer, int buffer_size, int *template_size) {
+    memset(buffer, 0, (size_t) buffer_size);
+    *template_size = buffer_size;
+    return 0;
+}
+
+int GBMSAPI_ImageFinalization(void *frame) { (void) frame; return 0; }
+
+int GBMSAPI_VUI_LED_BlinkDuringAcquisition(int blink) { (void) blink; return 0; }
+
+int GBMSAPI_SetAutoCaptureBlocking(int blocking) { (void) blocking; return 0; }
@@ -12,6 +12,20 @@ public class Constants {
 
   public static final String FINGERPRINT = "Fingerprint";
 
+  public static final String FINGERS = "Fingers";
+
+  public static final String OBJECT = "Object";
+
+  public static final String TEMPLATES = "Templates";
+
+  public static final String SCORE = "Score";
+
+  public static final String MATCH = "Match";
+
+  public static final String OBJECT_SEPARATOR = ",";
+
+  public static final String NO_VALUE = "-";
+
   public static final String RESULT_LOGGER = "result";
 
   public static final String RESOURCE_MOCK_FINGERPRINT = "mock/fingerprint_base64.txt";
@@ -36,10 +50,376 @@ public class Constants {
 
   public static final String END_LOG_MOCK = "Terminando proceso de captura de huella (MOCK)...";
 
+  public static final String DAEMON_READY_LOG = "Modo daemon listo, esperando solicitudes por STDIN...";
+
+  public static final String DAEMON_END_LOG = "Terminando modo daemon...";
+
+  public static final String SERVER_READY_LOG = "Modo servidor listo en http://{}:{}";
+
+  public static final String SERVER_END_LOG = "Terminando modo servidor...";
+
+  public static final String JVM_LATENCY_LOG = "Latencia total desde arranque de JVM: {} ms";
+
+  public static final String REQUEST_LATENCY_LOG = "Latencia total de la solicitud: {} ms";
+
+  public static final Set<String> DAEMON_EXIT_COMMANDS = Set.of("exit", "quit");
+
+  public static final char NEW_LINE = '\n';
+
+  public static final String WHITESPACE_REGEX = "\\s+";
+
+  // Constantes RunModesEnum.
+
+  public static final String MODE_CLI = "cli";
+
+  public static final String MODE_DAEMON = "daemon";
+
+  public static final String MODE_SERVER = "server";
+
+  public static final String MODE_BATCH = "batch";
+
+  public static final String MODE_IDENTIFY = "identify";
+
+  // Constantes modo batch (JSONL).
+
+  public static final String BATCH_FILE_PROPERTY = "thales.batch.file";
+
+  public static final String BATCH_IN_FLIGHT_PROPERTY = "thales.batch.maxInFlight";
+
+  public static final String BATCH_READY_LOG = "Modo batch listo: leyendo solicitudes JSONL de {} ({} en paralelo)...";
+
+  public static final String BATCH_SUMMARY_LOG = "Modo batch: {} solicitudes procesadas en {} ms";
+
+  public static final String BATCH_END_LOG = "Terminando modo batch...";
+
+  public static final String BATCH_STDIN = "STDIN";
+
+  public static final String FIELD_ID = "id";
+
+  public static final String FIELD_REQUEST_ID = "request_id";
+
+  public static final String FIELD_THRESHOLD = "threshold";
+
+  public static final String FIELD_FINGER = "finger";
+
+  public static final String FIELD_MOCK = "mock";
+
+  public static final String FIELD_IDENTIFY = "identify";
+
+  public static final String REQUEST_ID = "Id";
+
+  // Constantes CaptureServer.
+
+  public static final String SERVER_PORT_PROPERTY = "thales.server.port";
+
+  public static final int DEFAULT_SERVER_PORT = 8765;
+
+  public static final String HTTP_SERVER_NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+  public static final String SERVER_THREAD_NAME = "http-";
+
+  public static final String SERVER_SHUTDOWN_THREAD_NAME = "server-shutdown";
+
+  public static final String PATH_CAPTURE = "/capture";
+
+  public static final String PATH_STATUS = "/status";
+
+  public static final String PATH_CANCEL = "/cancel";
+
+  public static final String PATH_IDENTIFY = "/identify";
+
+  public static final String METHOD_GET = "GET";
+
+  public static final String METHOD_POST = "POST";
+
+  public static final String PARAM_TIMEOUT = "timeout";
+
+  public static final String PARAM_DEVICE = "device";
+
+  public static final String PARAM_OBJECTS = "objects";
+
+  public static final String PARAM_PRIORITY = "priority";
+
+  public static final String PARAM_REFERENCE = "reference";
+
+  public static final String PARAM_ENROLL = "enroll";
+
+  public static final String QUERY_SEPARATOR = "&";
+
+  public static final String QUERY_ASSIGN = "=";
+
+  public static final String HEADER_CONTENT_TYPE = "Content-Type";
+
+  public static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+
+  // Constantes UnixSocketServer / protocolo binario.
+
+  public static final String SOCKET_PATH_PROPERTY = "thales.socket.path";
+
+  public static final String SOCKET_READY_LOG = "Socket binario listo en {}";
+
+  public static final String SOCKET_ACCEPT_THREAD_NAME = "uds-accept";
+
+  public static final String SOCKET_THREAD_NAME = "uds-";
+
+  public static final byte PROTOCOL_VERSION = 1;
+
+  public static final int PROTOCOL_LENGTH_BYTES = 4;
+
+  public static final int PROTOCOL_MAX_REQUEST = 4096;
+
+  /**
+   * Bytes UTF-8 máximos de un texto con longitud de un byte (serial, nombre de objeto).
+   */
+  public static final int PROTOCOL_MAX_SHORT_TEXT = 255;
+
+  /**
+   * Bytes UTF-8 máximos de un texto con longitud de dos bytes (lista de objetos).
+   */
+  public static final int PROTOCOL_MAX_TEXT = 65_535;
+
+  public static final int PROTOCOL_HEADER_CAPACITY = 64;
+
+  public static final int PROTOCOL_PAYLOAD_CAPACITY = 16 * 1024;
+
+  public static final byte OP_CAPTURE = 1;
+
+  public static final byte OP_CANCEL = 2;
+
+  public static final byte RESPONSE_TEMPLATE = 0;
+
+  public static final byte RESPONSE_ERROR = 1;
+
+  public static final byte RESPONSE_BATCH = 2;
+
+  public static final byte RESPONSE_CANCELLED = 3;
+
+  public static final String DEVICES = "Devices";
+
+  public static final String SERIAL = "Serial";
+
+  public static final String DEVICE_TYPE = "Type";
+
+  public static final String STATE = "State";
+
+  public static final String PENDING = "Pending";
+
+  public static final String CANCELLED = "Cancelled";
+
+  public static final String QUEUED = "Queued";
+
+  public static final String REJECTED = "Rejected";
+
+  public static final String EXPIRED = "Expired";
+
+  public static final String COMPLETED = "Completed";
+
+  public static final String QUEUE_WAIT_AVG_MS = "QueueWaitAvgMs";
+
+  public static final String QUEUE_WAIT_MAX_MS = "QueueWaitMaxMs";
+
+  public static final String CAPTURE_AVG_MS = "CaptureAvgMs";
+
+  public static final String CAPTURE_MAX_MS = "CaptureMaxMs";
+
+  // Constantes CapturePriorityEnum / CaptureScheduler.
+
+  public static final String PRIORITY_OPERATOR = "operator";
+
+  public static final String PRIORITY_AUTOMATED = "automated";
+
+  public static final String QUEUE_CAPACITY_PROPERTY = "thales.queue.capacity";
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+  public static final String ARMED_IDLE_PROPERTY = "thales.armed.idleMs";
+
+  public static final long DEFAULT_ARMED_IDLE_MS = 0L;
+
+  public static final int NOT_ARMED = -1;
+
+  public static final String QUEUE_LATENCY_LOG = "Dispositivo {}: espera en cola {} ms, captura {} ms";
+
   // Constantes AcquisitionService class.
 
   public static final String NOT_AVAILABLE = "NOT AVAILABLE";
 
+  // Constantes GbmsSdkProvider / SimulatedGbmsSdk.
+
+  public static final String SDK_PROPERTY = "thales.sdk";
+
+  public static final String SDK_NATIVE = "native";
+
+  public static final String SDK_SIMULATED = "simulated";
+
+  public static final String SDK_BINDING_PROPERTY = "thales.sdk.binding";
+
+  public static final String SDK_BINDING_DIRECT = "direct";
+
+  public static final String SDK_BINDING_PROXY = "proxy";
+
+  public static final String GBMSAPI_LIBRARY = "GBMSAPI";
+
+  public static final String SIM_FPS_PROPERTY = "thales.sim.fps";
+
+  public static final String SIM_WIDTH_PROPERTY = "thales.sim.width";
+
+  public static final String SIM_HEIGHT_PROPERTY = "thales.sim.height";
+
+  public static final String SIM_PREVIEW_FRAMES_PROPERTY = "thales.sim.previewFrames";
+
+  public static final String SIM_MINUTIAE_PROPERTY = "thales.sim.minutiae";
+
+  public static final String SIM_START_DELAY_PROPERTY = "thales.sim.startDelayMs";
+
+  public static final String SIM_DEVICES_PROPERTY = "thales.sim.devices";
+
+  public static final long SIM_IDLE_FRAME_NANOS = 1_000_000L;
+
+  public static final int SIM_DEFAULT_FPS = 15;
+
+  public static final int SIM_DEFAULT_WIDTH = 400;
+
+  public static final int SIM_DEFAULT_HEIGHT = 500;
+
+  public static final int SIM_DEFAULT_PREVIEW_FRAMES = 15;
+
+  public static final int SIM_DEFAULT_MINUTIAE = 40;
+
+  public static final int SIM_MAX_MINUTIAE = 255;
+
+  public static final int SIM_TEMPLATE_BUFFER_SIZE = 2048;
+
+  public static final int SIM_RESOLUTION_PPCM = 197;
+
+  public static final int SIM_MIN_QUALITY = 40;
+
+  public static final int SIM_QUALITY_SPREAD = 60;
+
+  public static final int SIM_FINGER_CONTRAST = 80;
+
+  public static final String SIM_SERIAL_PREFIX = "SIM";
+
+  public static final String SIM_THREAD_NAME = "GBMSAPI-SIM-ACQ-";
+
+  // Constantes template ISO 19794-2:2005.
+
+  public static final int ISO_HEADER_LENGTH = 24;
+
+  public static final int ISO_VIEW_HEADER_LENGTH = 4;
+
+  public static final int ISO_MINUTIA_LENGTH = 6;
+
+  public static final int ISO_ANGLE_STEPS = 256;
+
+  // Constantes template ANSI INCITS 378-2004 y variante INE.
+
+  public static final int ANSI_HEADER_LENGTH = 26;
+
+  public static final int ANSI_LONG_LENGTH_EXTRA = 4;
+
+  public static final int ANSI_SHORT_LENGTH_MAX = 65535;
+
+  public static final int ANSI_ANGLE_STEPS = 180;
+
+  public static final int INE_CBEFF_OWNER = 0x0031;
+
+  public static final int INE_CBEFF_TYPE = 0x0107;
+
+  // Constantes TemplateCodec.
+
+  public static final String TEMPLATE_FORMATS_PROPERTY = "thales.template.formats";
+
+  public static final String TEMPLATE_FORMAT_ISO = "ISO";
+
+  public static final String TEMPLATE_FORMAT_ANSI = "ANSI";
+
+  public static final String TEMPLATE_FORMAT_INE = "INE";
+
+  public static final int MINUTIA_TYPE_SHIFT = 14;
+
+  public static final int MINUTIA_COORDINATE_MASK = 0x3FFF;
+
+  public static final int VIEW_NUMBER_SHIFT = 4;
+
+  public static final int IMPRESSION_TYPE_MASK = 0x0F;
+
+  public static final int INITIAL_MINUTIAE_CAPACITY = 64;
+
+  // Constantes MinutiaeMatcher (verificación 1:1).
+
+  public static final int MATCH_ROTATION_BIN_SHIFT = 3;
+
+  public static final int MATCH_TRANSLATION_BIN_SHIFT = 5;
+
+  public static final int MATCH_VOTE_TABLE_BITS = 14;
+
+  public static final int MATCH_PEAKS = 3;
+
+  public static final int MATCH_DISTANCE_TOLERANCE = 16;
+
+  public static final int MATCH_ANGLE_TOLERANCE = 16;
+
+  public static final int MATCH_MAX_SCORE = 100;
+
+  // Constantes TemplateGallery (identificación 1:N).
+
+  public static final String CANDIDATES = "Candidates";
+
+  public static final String ENROLLED = "Enrolled";
+
+  public static final String GALLERY_PATH_PROPERTY = "thales.gallery.path";
+
+  public static final String GALLERY_PARALLELISM_PROPERTY = "thales.gallery.parallelism";
+
+  public static final String GALLERY_CANDIDATES_PROPERTY = "thales.gallery.candidates";
+
+  public static final String GALLERY_INDEX_FILE = "templates.idx";
+
+  public static final String GALLERY_DATA_FILE = "templates.dat";
+
+  public static final int GALLERY_INDEX_MAGIC = 0x54474958;
+
+  public static final int GALLERY_DATA_MAGIC = 0x54474454;
+
+  public static final int GALLERY_VERSION = 1;
+
+  public static final int GALLERY_INDEX_HEADER_LENGTH = 16;
+
+  public static final int GALLERY_INDEX_ENTRY_LENGTH = 16;
+
+  public static final int GALLERY_DATA_HEADER_LENGTH = 8;
+
+  public static final int GALLERY_INITIAL_ENTRIES = 1024;
+
+  public static final int GALLERY_INITIAL_DATA_BYTES = 1 << 20;
+
+  public static final int GALLERY_MAX_ID_LENGTH = 255;
+
+  public static final int GALLERY_DEFAULT_CANDIDATES = 64;
+
+  public static final int GALLERY_MAX_RESULTS = 10;
+
+  public static final int GALLERY_MIN_VOTES = 2;
+
+  public static final int GALLERY_SCORE_BATCH = 4;
+
+  public static final int GALLERY_NEIGHBOURS = 5;
+
+  public static final int GALLERY_MIN_PAIR_DISTANCE = 16;
+
+  public static final int GALLERY_DISTANCE_BIN_SHIFT = 2;
+
+  public static final int GALLERY_DISTANCE_BINS = 32;
+
+  public static final int GALLERY_ANGLE_BIN_SHIFT = 3;
+
+  public static final float GALLERY_DISTANCE_PROBE = 1.5f;
+
+  public static final float GALLERY_ANGLE_PROBE = 2.5f;
+
+  public static final String GALLERY_THREAD_NAME = "gallery-";
+
   // Constantes GbmsApiDeviceUtil class
 
   public static final String FLAG_ACQUISITION_PHASE = "ACQUISITION_PHASE";
@@ -118,13 +498,201 @@ public class Constants {
 
   public static final int FIVE = 5;
 
+  public static final int SIX = 6;
+
+  public static final int SEVEN = 7;
+
+  public static final int EIGHT = 8;
+
+  public static final int NINE = 9;
+
+  public static final int TEN = 10;
+
+  public static final long NANOS_PER_MILLI = 1_000_000L;
+
   public static final byte ZERO_B = 0x00;
 
   public static final Long ZERO_LONG = 0L;
 
   public static final Long MILLISECONDS = 1000L;
 
-  public static final int POLLING_INTERVAL_MS = 200;
+  public static final String DEVICE_THREAD_NAME = "device-";
+
+  public static final String DEVICE_ANY = "any";
+
+  public static final String DEVICE_WATCH_PROPERTY = "thales.deviceWatchMs";
+
+  public static final long DEFAULT_DEVICE_WATCH_MS = 2000L;
+
+  public static final String DAEMON_WRITER_THREAD_NAME = "daemon-writer";
+
+  public static final String SCHEDULER_THREAD_NAME = "acquisition-scheduler";
+
+  // Métricas (histogramas por fase, contadores, JMX y textfile Prometheus).
+
+  public static final String METRICS_TEXTFILE_PROPERTY = "thales.metrics.textfile";
+
+  public static final String METRICS_INTERVAL_PROPERTY = "thales.metrics.intervalMs";
+
+  public static final long DEFAULT_METRICS_INTERVAL_MS = 15_000L;
+
+  public static final String METRICS_MBEAN_NAME = "com.fingerprint.thales:type=Metrics";
+
+  public static final String METRICS_TMP_SUFFIX = ".tmp";
+
+  public static final String METRICS_EXPORTER_READY_LOG = "Métricas Prometheus en {} cada {} ms.";
+
+  public static final int HISTOGRAM_SUB_BUCKETS = 32;
+
+  public static final int HISTOGRAM_MAX_BITS = 41;
+
+  public static final long ONE_LONG = 1L;
+
+  public static final long NANOS_PER_MICRO = 1_000L;
+
+  public static final double NANOS_PER_SECOND = 1e9;
+
+  public static final double QUANTILE_P50 = 0.5;
+
+  public static final double QUANTILE_P90 = 0.9;
+
+  public static final double QUANTILE_P99 = 0.99;
+
+  public static final String PHASE_INITIALIZE = "initialize";
+
+  public static final String PHASE_LOAD_LIBRARY = "load_library";
+
+  public static final String PHASE_DEVICE_ENUMERATION = "device_enumeration";
+
+  public static final String PHASE_DEVICE_CONFIGURE = "device_configure";
+
+  public static final String PHASE_CAPTURE = "capture";
+
+  public static final String PHASE_FIRST_FRAME = "first_frame";
+
+  public static final String PHASE_FINGER = "finger";
+
+  public static final String PHASE_CALLBACK_SCANNER_STARTED = "callback_scanner_started";
+
+  public static final String PHASE_CALLBACK_VALID_FRAME = "callback_valid_frame";
+
+  public static final String PHASE_CALLBACK_PREVIEW_END = "callback_preview_end";
+
+  public static final String PHASE_CALLBACK_ACQUISITION_END = "callback_acquisition_end";
+
+  public static final String PHASE_CALLBACK_ACQUISITION_ERROR = "callback_acquisition_error";
+
+  public static final String PHASE_CALLBACK_RETURN = "callback_return";
+
+  public static final String PHASE_CALLBACK_QUEUE_WAIT = "callback_queue_wait";
+
+  public static final String PHASE_TEMPLATE_EXTRACTION = "template_extraction";
+
+  public static final String PHASE_TEMPLATE_ADAPTER = "template_adapter";
+
+  public static final String PHASE_TEMPLATE_CODEC = "template_codec";
+
+  public static final String PHASE_TEMPLATE_MATCH = "template_match";
+
+  public static final String PHASE_IDENTIFY_CANDIDATES = "identify_candidates";
+
+  public static final String PHASE_IDENTIFY_SCORE = "identify_score";
+
+  public static final String PHASE_JSON_OUTPUT = "json_output";
+
+  public static final String COUNTER_CAPTURES = "captures";
+
+  public static final String COUNTER_FRAMES = "frames";
+
+  public static final String COUNTER_FAKE_FINGERS = "fake_fingers";
+
+  public static final String COUNTER_DROPPED_FRAMES = "dropped_frames";
+
+  public static final String COUNTER_DROPPED_EVENTS = "dropped_events";
+
+  // Java Flight Recorder (eventos del SDK y grabación continua).
+
+  public static final String JFR_CATEGORY = "Thales";
+
+  public static final String JFR_CATEGORY_SDK = "GBMSAPI";
+
+  public static final String JFR_EVENT_SDK_CALL = "com.fingerprint.thales.SdkCall";
+
+  public static final String JFR_EVENT_SDK_CALLBACK = "com.fingerprint.thales.SdkCallback";
+
+  public static final String JFR_EVENT_CAPTURE_PHASE = "com.fingerprint.thales.CapturePhase";
+
+  public static final String JFR_CONTINUOUS_PROPERTY = "thales.jfr.continuous";
+
+  public static final String JFR_MAX_AGE_PROPERTY = "thales.jfr.maxAgeSec";
+
+  public static final long DEFAULT_JFR_MAX_AGE_SEC = 300L;
+
+  public static final String JFR_MAX_SIZE_PROPERTY = "thales.jfr.maxSizeMb";
+
+  public static final long DEFAULT_JFR_MAX_SIZE_MB = 64L;
+
+  public static final String JFR_DUMP_DIR_PROPERTY = "thales.jfr.dumpDir";
+
+  public static final String DEFAULT_JFR_DUMP_DIR = "logs";
+
+  public static final String JFR_DUMP_INTERVAL_PROPERTY = "thales.jfr.dumpIntervalMs";
+
+  public static final long DEFAULT_JFR_DUMP_INTERVAL_MS = 60_000L;
+
+  public static final String JFR_RECORDING_NAME = "thales-continuous";
+
+  public static final String JFR_CONFIGURATION = "default";
+
+  public static final String JFR_DUMP_FILE = "thales-%s-%d.jfr";
+
+  public static final long BYTES_PER_MB = 1024L * 1024L;
+
+  public static final String JFR_READY_LOG = "Grabación JFR continua activa (máx. {} s / {} MB).";
+
+  public static final String JFR_DUMP_LOG = "Grabación JFR volcada en {} ({}).";
+
+  public static final String FN_LOAD_LIBRARY = "GBMSAPI_LoadLibrary";
+
+  public static final String FN_UNLOAD_LIBRARY = "GBMSAPI_UnloadLibrary";
+
+  public static final String FN_GET_MULTI_SCAN_API_VERSION = "GBMSAPI_GetMultiScanAPIVersion";
+
+  public static final String FN_GET_ATTACHED_DEVICE_LIST = "GBMSAPI_GetAttachedDeviceList";
+
+  public static final String FN_SET_CURRENT_DEVICE = "GBMSAPI_SetCurrentDevice";
+
+  public static final String FN_GET_DEVICE_FEATURES = "GBMSAPI_GetDeviceFeatures";
+
+  public static final String FN_GET_SUPPORTED_SCAN_OPTIONS = "GBMSAPI_GetSupportedScanOptions";
+
+  public static final String FN_GET_SCANNABLE_TYPES = "GBMSAPI_GetScannableTypes";
+
+  public static final String FN_FLAT_AUTO_CAPTURE_MODE_IS_SUPPORTED = "GBMSAPI_FlatAutoCaptureModeIsSupported";
+
+  public static final String FN_SET_FLAT_AUTO_CAPTURE_MODE = "GBMSAPI_SetFlatAutoCaptureMode";
+
+  public static final String FN_SET_SELECT_IMAGE_TIMEOUT = "GBMSAPI_SetSelectImageTimeout";
+
+  public static final String FN_SET_MEMBRANE_USAGE_FOR_FAKE_FINGER_DETECTION = "GBMSAPI_SetMembraneUsageForFakeFingerDetection";
+
+  public static final String FN_ENABLE_AUTO_CAPTURE_BLOCK_FOR_DETECTED_FAKES = "GBMSAPI_EnableAutoCaptureBlockForDetectedFakes";
+
+  public static final String FN_START_ACQUISITION = "GBMSAPI_StartAcquisition";
+
+  public static final String FN_STOP_ACQUISITION = "GBMSAPI_StopAcquisition";
+
+  public static final String FN_GET_FINGERPRINT_CONTRAST = "GBMSAPI_GetFingerprintContrast";
+
+  public static final String FN_GET_TEMPLATE_BUFFER_SIZE = "GBMSAPI_GetTemplateBufferSize";
+
+  public static final String FN_GET_ISO19794_2_2005_TEMPLATE = "GBMSAPI_GetIso19794_2_2005_Template";
+
+  public static final String FN_IMAGE_FINALIZATION = "GBMSAPI_ImageFinalization";
+
+  public static final String FN_VUI_LED_BLINK_DURING_ACQUISITION = "GBMSAPI_VUI_LED_BlinkDuringAcquisition";
+
+  public static final String FN_SET_AUTO_CAPTURE_BLOCKING = "GBMSAPI_SetAutoCaptureBlocking";
 
   // AcquisitionStatesEnum descriptions.
 
@@ -138,8 +706,40 @@ public class Constants {
 
   public static final String DESC_ACQUISITION_END = "ACQUISITION END";
 
+  // DeviceSettingsEnum descriptions.
+
+  public static final String DESC_SELECT_IMAGE_TIMEOUT = "SetSelectImageTimeout";
+
+  public static final String DESC_MEMBRANE_USAGE = "SetMembraneUsageForFakeFingerDetection";
+
+  public static final String DESC_AUTO_CAPTURE_BLOCK_FAKES = "EnableAutoCaptureBlockForDetectedFakes";
+
+  public static final String DESC_FLAT_AUTO_CAPTURE_MODE = "SetFlatAutoCaptureMode";
+
   // AcquisitionHandler class
 
   public static final String FLAT_RIGHT_INDEX = "FLAT_RIGHT_INDEX";
 
+  public static final int FRAME_POOL_SLOTS = 4;
+
+  public static final long FRAME_LOG_SAMPLE = 15L;
+
+  public static final int STATE_CODE_BITS = 8;
+
+  public static final int STATE_CODE_MASK = 0xFF;
+
+  public static final int STATE_GENERATION_MASK = 0x00FF_FFFF;
+
+  public static final int CALLBACK_QUEUE_CAPACITY = 16;
+
+  public static final int CALLBACK_QUEUE_RESERVED = 4;
+
+  public static final String CALLBACK_NATIVE_THREAD_NAME = "GBMSAPI-CB-";
+
+  public static final String CALLBACK_CONSUMER_THREAD_NAME = "callback-";
+
+  public static final long CALLBACK_IDLE_PARK_NANOS = 100_000_000L;
+
+  public static final long CALLBACK_STOP_TIMEOUT_MS = 1000L;
+
 }
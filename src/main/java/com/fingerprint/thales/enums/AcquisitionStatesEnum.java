@@ -15,6 +15,11 @@ public enum AcquisitionStatesEnum {
   SCANNER_ERROR(Constants.FOUR, Constants.ERROR),
   ACQUISITION_END(Constants.FIVE, Constants.DESC_ACQUISITION_END);
 
+  /**
+   * Copia única de values(): fromCode se usa en cada transición del callback.
+   */
+  private static final AcquisitionStatesEnum[] VALUES = values();
+
   private final int code;
 
   private final String description;
@@ -23,12 +28,19 @@ public enum AcquisitionStatesEnum {
    * 🔍 Devuelve el enum correspondiente o null si no existe
    */
   public static AcquisitionStatesEnum fromCode(int code) {
-    for (var state : values()) {
+    for (var state : VALUES) {
       if (state.code == code) return state;
     }
     return null;
   }
 
+  /**
+   * Indica si el estado cierra la captura (fin correcto o error).
+   */
+  public boolean isTerminal() {
+    return this == ACQUISITION_END || this == SCANNER_ERROR;
+  }
+
   /**
    * 🔍 Devuelve descripción legible o "UNKNOWN" si el código no existe
    */
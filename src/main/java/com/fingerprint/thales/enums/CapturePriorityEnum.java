@@ -0,0 +1,36 @@
+package com.fingerprint.thales.enums;
+
+import com.fingerprint.thales.constants.Constants;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Clases de prioridad de una solicitud de captura. El orden de declaración es el orden de
+ * atención: las capturas de operador pasan delante de los reintentos automáticos.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CapturePriorityEnum {
+
+  OPERATOR(Constants.PRIORITY_OPERATOR),
+  AUTOMATED(Constants.PRIORITY_AUTOMATED);
+
+  private final String value;
+
+  /**
+   * 🔍 Devuelve la prioridad correspondiente u OPERATOR si no existe
+   */
+  public static CapturePriorityEnum fromValue(String value) {
+    if (value == null) return OPERATOR;
+    String normalized = value.trim().toLowerCase();
+    for (var priority : values()) {
+      if (priority.value.equals(normalized)) return priority;
+    }
+    return OPERATOR;
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -0,0 +1,26 @@
+package com.fingerprint.thales.enums;
+
+import com.fingerprint.thales.constants.Constants;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ajustes del dispositivo que se aplican con un setter nativo y se recuerdan para no
+ * repetir la llamada si el valor no cambió.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DeviceSettingsEnum {
+
+  SELECT_IMAGE_TIMEOUT(Constants.DESC_SELECT_IMAGE_TIMEOUT),
+  MEMBRANE_USAGE(Constants.DESC_MEMBRANE_USAGE),
+  AUTO_CAPTURE_BLOCK_FAKES(Constants.DESC_AUTO_CAPTURE_BLOCK_FAKES),
+  FLAT_AUTO_CAPTURE_MODE(Constants.DESC_FLAT_AUTO_CAPTURE_MODE);
+
+  private final String description;
+
+  @Override
+  public String toString() {
+    return description;
+  }
+}
@@ -0,0 +1,27 @@
+package com.fingerprint.thales.enums;
+
+import com.fingerprint.thales.constants.Constants;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Contadores de {@link com.fingerprint.thales.metrics.Metrics}. Los errores se cuentan aparte,
+ * por código Thales.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum MetricCounterEnum {
+
+  CAPTURES(Constants.COUNTER_CAPTURES),
+  FRAMES(Constants.COUNTER_FRAMES),
+  FAKE_FINGERS(Constants.COUNTER_FAKE_FINGERS),
+  DROPPED_FRAMES(Constants.COUNTER_DROPPED_FRAMES),
+  DROPPED_EVENTS(Constants.COUNTER_DROPPED_EVENTS);
+
+  private final String value;
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -0,0 +1,43 @@
+package com.fingerprint.thales.enums;
+
+import com.fingerprint.thales.constants.Constants;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fases cronometradas por {@link com.fingerprint.thales.metrics.Metrics}. El valor es la
+ * etiqueta {@code phase} del exportador Prometheus y la clave de los atributos JMX.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum MetricPhaseEnum {
+
+  INITIALIZE(Constants.PHASE_INITIALIZE),
+  LOAD_LIBRARY(Constants.PHASE_LOAD_LIBRARY),
+  DEVICE_ENUMERATION(Constants.PHASE_DEVICE_ENUMERATION),
+  DEVICE_CONFIGURE(Constants.PHASE_DEVICE_CONFIGURE),
+  CAPTURE(Constants.PHASE_CAPTURE),
+  FIRST_FRAME(Constants.PHASE_FIRST_FRAME),
+  FINGER(Constants.PHASE_FINGER),
+  CALLBACK_SCANNER_STARTED(Constants.PHASE_CALLBACK_SCANNER_STARTED),
+  CALLBACK_VALID_FRAME(Constants.PHASE_CALLBACK_VALID_FRAME),
+  CALLBACK_PREVIEW_END(Constants.PHASE_CALLBACK_PREVIEW_END),
+  CALLBACK_ACQUISITION_END(Constants.PHASE_CALLBACK_ACQUISITION_END),
+  CALLBACK_ACQUISITION_ERROR(Constants.PHASE_CALLBACK_ACQUISITION_ERROR),
+  CALLBACK_RETURN(Constants.PHASE_CALLBACK_RETURN),
+  CALLBACK_QUEUE_WAIT(Constants.PHASE_CALLBACK_QUEUE_WAIT),
+  TEMPLATE_EXTRACTION(Constants.PHASE_TEMPLATE_EXTRACTION),
+  TEMPLATE_ADAPTER(Constants.PHASE_TEMPLATE_ADAPTER),
+  TEMPLATE_CODEC(Constants.PHASE_TEMPLATE_CODEC),
+  TEMPLATE_MATCH(Constants.PHASE_TEMPLATE_MATCH),
+  IDENTIFY_CANDIDATES(Constants.PHASE_IDENTIFY_CANDIDATES),
+  IDENTIFY_SCORE(Constants.PHASE_IDENTIFY_SCORE),
+  JSON_OUTPUT(Constants.PHASE_JSON_OUTPUT);
+
+  private final String value;
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
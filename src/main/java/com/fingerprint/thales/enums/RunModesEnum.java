@@ -0,0 +1,38 @@
+package com.fingerprint.thales.enums;
+
+import com.fingerprint.thales.constants.Constants;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Modos de ejecucion de la aplicacion.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RunModesEnum {
+
+  CLI(Constants.MODE_CLI),
+  DAEMON(Constants.MODE_DAEMON),
+  SERVER(Constants.MODE_SERVER),
+  BATCH(Constants.MODE_BATCH),
+  IDENTIFY(Constants.MODE_IDENTIFY);
+
+  private final String value;
+
+  /**
+   * 🔍 Devuelve el modo correspondiente o CLI si no existe
+   */
+  public static RunModesEnum fromValue(String value) {
+    if (value == null) return CLI;
+    String normalized = value.trim().toLowerCase();
+    for (var mode : values()) {
+      if (mode.value.equals(normalized)) return mode;
+    }
+    return CLI;
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
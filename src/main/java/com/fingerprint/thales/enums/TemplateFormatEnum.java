@@ -0,0 +1,53 @@
+package com.fingerprint.thales.enums;
+
+import com.fingerprint.thales.constants.Constants;
+import java.util.EnumSet;
+import java.util.Set;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Formatos de template de minucias. El valor es la clave del objeto {@code Templates} de la
+ * respuesta y el nombre aceptado en {@code -Dthales.template.formats}.
+ * <p>
+ * INE es un registro ANSI INCITS 378 con el CBEFF owner 0x0031, el tipo 0x0107 y el equipo de
+ * captura a cero.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TemplateFormatEnum {
+
+  ISO(Constants.TEMPLATE_FORMAT_ISO),
+  ANSI(Constants.TEMPLATE_FORMAT_ANSI),
+  INE(Constants.TEMPLATE_FORMAT_INE);
+
+  private final String value;
+
+  /**
+   * 🔍 Formatos de una lista separada por comas (p. ej. {@code "ansi,ine"}), sin distinguir
+   * mayúsculas. Los nombres desconocidos se ignoran.
+   */
+  public static Set<TemplateFormatEnum> parseList(String list) {
+    var formats = EnumSet.noneOf(TemplateFormatEnum.class);
+    if (list == null) return formats;
+    for (String item : list.split(Constants.OBJECT_SEPARATOR)) {
+      String normalized = item.trim().toUpperCase();
+      for (var format : values()) {
+        if (format.value.equals(normalized)) formats.add(format);
+      }
+    }
+    return formats;
+  }
+
+  /**
+   * Indica si el registro lleva la cabecera ANSI (ANSI e INE).
+   */
+  public boolean isAnsi() {
+    return this != ISO;
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -27,6 +27,9 @@ public class AcquisitionException extends RuntimeException {
     INIT_NO_DEVICES_FOUND(-10, "No Green Bit devices detected", "No se detectaron dispositivos Green Bit conectados"),
     UNKNOWN(-11, "Unknown error", Constants.UNKNOWN_MSG),
     ACQUISITION_TIMEOUT(-20, "Acquisition timeout", "No se detecto actividad durante el tiempo maximo permitido"),
+    ACQUISITION_CANCELLED(-21, "Acquisition cancelled", "La adquisicion fue cancelada por el cliente"),
+    QUEUE_FULL(-22, "Capture queue full", "La cola de capturas del dispositivo esta llena"),
+    QUEUE_DEADLINE_EXCEEDED(-23, "Queue deadline exceeded", "La captura no pudo iniciarse antes de su plazo"),
     NO_FINGERPRINT(-30, "No Fingerprint", "No se genero huella — respuesta vacia."),
 
     // SDK GBMSAPI (0 - 255)
@@ -56,6 +59,8 @@ public class AcquisitionException extends RuntimeException {
     NOT_ALLOWED_FAKE_FINGER_DETECTED(41, "Fake finger detected - not allowed", "Dedo falso detectado: operacion no permitida"),
     EXCEPTION(255, "Exception occurred in GBMSAPI library", "Excepcion detectada dentro de la biblioteca GBMSAPI");
 
+    private static final ErrorCode[] VALUES = values();
+
     private final int code;
 
     private final String message;
@@ -63,7 +68,7 @@ public class AcquisitionException extends RuntimeException {
     private final String messageEs;
 
     public static ErrorCode fromCode(int code) {
-      for (ErrorCode e : values()) {
+      for (ErrorCode e : VALUES) {
         if (e.code == code) return e;
       }
       return GENERIC;
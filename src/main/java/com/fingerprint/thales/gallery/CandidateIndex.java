@@ -0,0 +1,87 @@
+package com.fingerprint.thales.gallery;
+
+import com.fingerprint.thales.constants.Constants;
+import java.util.Arrays;
+
+/**
+ * Índice invertido en memoria de la galería: por cada clave de {@link PairHasher}, los templates
+ * que la tienen.
+ * <p>
+ * Las listas son arreglos de int que crecen al doble (4 bytes por par indexado: con 40 minucias
+ * por template, ~800 bytes por template). La búsqueda suma un voto a cada template por cada clave
+ * compartida con la muestra y devuelve los más votados, que son los únicos que se puntúan.
+ * No es thread-safe para altas: {@link TemplateGallery} las serializa frente a las búsquedas.
+ */
+final class CandidateIndex {
+
+  private static final int INITIAL_POSTINGS = 8;
+
+  private final int[][] postings = new int[PairHasher.KEY_SPACE][];
+
+  private final int[] sizes = new int[PairHasher.KEY_SPACE];
+
+  /**
+   * Indexa las claves del template {@code template} (su posición en la galería).
+   */
+  void add(int template, int[] keys, int keyCount) {
+    for (int k = Constants.ZERO; k < keyCount; k++) {
+      int key = keys[k];
+      int[] list = postings[key];
+      int size = sizes[key];
+      if (list == null) {
+        list = postings[key] = new int[INITIAL_POSTINGS];
+      } else if (size == list.length) {
+        list = postings[key] = Arrays.copyOf(list, size * Constants.TWO);
+      }
+      list[size] = template;
+      sizes[key] = size + Constants.ONE;
+    }
+  }
+
+  /**
+   * Los templates con más claves en común con la muestra, al menos
+   * {@value Constants#GALLERY_MIN_VOTES}.
+   *
+   * @param keys       claves de la muestra ({@link PairHasher#queryKeys}).
+   * @param templates  templates en la galería.
+   * @param candidates máximo de candidatos.
+   * @return posiciones de los candidatos en la galería, sin orden.
+   */
+  int[] candidates(int[] keys, int keyCount, int templates, int candidates) {
+    int[] votes = new int[templates];
+    int maxVotes = Constants.ZERO;
+    for (int k = Constants.ZERO; k < keyCount; k++) {
+      int key = keys[k];
+      int[] list = postings[key];
+      for (int p = Constants.ZERO, size = sizes[key]; p < size; p++) {
+        maxVotes = Math.max(maxVotes, ++votes[list[p]]);
+      }
+    }
+    if (maxVotes < Constants.GALLERY_MIN_VOTES) {
+      return new int[Constants.ZERO];
+    }
+
+    // Corte por histograma: el menor número de votos que deja como mucho `candidates` templates
+    // por encima; los empatados en el corte entran por orden hasta completar.
+    int[] histogram = new int[maxVotes + Constants.ONE];
+    for (int vote : votes) {
+      histogram[vote]++;
+    }
+    int cutoff = maxVotes;
+    int above = histogram[maxVotes];
+    while (cutoff > Constants.GALLERY_MIN_VOTES && above + histogram[cutoff - Constants.ONE] <= candidates) {
+      cutoff--;
+      above += histogram[cutoff];
+    }
+    int[] selected = new int[Math.min(candidates, above + (cutoff > Constants.GALLERY_MIN_VOTES
+            ? histogram[cutoff - Constants.ONE] : Constants.ZERO))];
+    int count = Constants.ZERO;
+    for (int t = Constants.ZERO; t < templates && count < selected.length; t++) {
+      if (votes[t] >= cutoff) selected[count++] = t;
+    }
+    for (int t = Constants.ZERO; t < templates && count < selected.length; t++) {
+      if (votes[t] == cutoff - Constants.ONE) selected[count++] = t;
+    }
+    return count == selected.length ? selected : Arrays.copyOf(selected, count);
+  }
+}
@@ -0,0 +1,217 @@
+package com.fingerprint.thales.gallery;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import com.fingerprint.thales.template.MinutiaeTemplate;
+import com.fingerprint.thales.template.TemplateCodec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Almacén de solo anexado de la galería: dos archivos mapeados en memoria dentro de un
+ * directorio.
+ * <ul>
+ *   <li>{@code templates.dat}: cabecera (magic, versión) y, por cada template, su identificador
+ *   en UTF-8 seguido del registro ISO 19794-2.</li>
+ *   <li>{@code templates.idx}: cabecera (magic, versión, número de templates) y una entrada de 16
+ *   bytes por template: posición en {@code templates.dat} (8), longitud del registro (4),
+ *   longitud del identificador (2) y 2 reservados.</li>
+ * </ul>
+ * Cada alta escribe primero el registro, luego la entrada y por último el contador de la
+ * cabecera, así que un corte a mitad deja la galería en el último alta completa. Los archivos se
+ * mapean con holgura y, si no alcanza, se vuelven a mapear al doble.
+ * <p>
+ * No es thread-safe: {@link TemplateGallery} serializa las altas frente a las lecturas.
+ */
+final class GalleryStore implements AutoCloseable {
+
+  private static final int COUNT_OFFSET = 8;
+
+  private static final int ENTRY_LENGTH_OFFSET = 8;
+
+  private static final int ENTRY_ID_LENGTH_OFFSET = 12;
+
+  private static final int SHORT_MASK = 0xFFFF;
+
+  private final FileChannel indexChannel;
+
+  private final FileChannel dataChannel;
+
+  private MappedByteBuffer index;
+
+  private MappedByteBuffer data;
+
+  private int count;
+
+  private long dataEnd;
+
+  private GalleryStore(FileChannel indexChannel, FileChannel dataChannel) {
+    this.indexChannel = indexChannel;
+    this.dataChannel = dataChannel;
+  }
+
+  /**
+   * Abre la galería del directorio, creándola vacía si no existe.
+   *
+   * @throws IOException si no se puede abrir o los archivos no son de una galería.
+   */
+  static GalleryStore open(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    var store = new GalleryStore(
+            openChannel(directory.resolve(Constants.GALLERY_INDEX_FILE)),
+            openChannel(directory.resolve(Constants.GALLERY_DATA_FILE)));
+    try {
+      store.load();
+      return store;
+    } catch (IOException | RuntimeException e) {
+      store.close();
+      throw e;
+    }
+  }
+
+  private static FileChannel openChannel(Path file) throws IOException {
+    return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+  }
+
+  private void load() throws IOException {
+    boolean created = indexChannel.size() == Constants.ZERO_LONG;
+    index = indexChannel.map(FileChannel.MapMode.READ_WRITE, Constants.ZERO_LONG, Math.max(
+            indexChannel.size(), indexOffset(Constants.GALLERY_INITIAL_ENTRIES)));
+    data = dataChannel.map(FileChannel.MapMode.READ_WRITE, Constants.ZERO_LONG, Math.max(
+            dataChannel.size(), Constants.GALLERY_INITIAL_DATA_BYTES));
+    if (created) {
+      index.putInt(Constants.ZERO, Constants.GALLERY_INDEX_MAGIC)
+              .putInt(Constants.FOUR, Constants.GALLERY_VERSION)
+              .putInt(COUNT_OFFSET, Constants.ZERO);
+      data.putInt(Constants.ZERO, Constants.GALLERY_DATA_MAGIC)
+              .putInt(Constants.FOUR, Constants.GALLERY_VERSION);
+    }
+    if (index.getInt(Constants.ZERO) != Constants.GALLERY_INDEX_MAGIC
+            || data.getInt(Constants.ZERO) != Constants.GALLERY_DATA_MAGIC) {
+      throw new IOException("Los archivos de " + Constants.GALLERY_INDEX_FILE + " / "
+              + Constants.GALLERY_DATA_FILE + " no son de una galería de templates");
+    }
+    if (index.getInt(Constants.FOUR) != Constants.GALLERY_VERSION
+            || data.getInt(Constants.FOUR) != Constants.GALLERY_VERSION) {
+      throw new IOException("Versión de galería no soportada: " + index.getInt(Constants.FOUR));
+    }
+    count = index.getInt(COUNT_OFFSET);
+    dataEnd = count == Constants.ZERO
+            ? Constants.GALLERY_DATA_HEADER_LENGTH
+            : offset(count - Constants.ONE) + idLength(count - Constants.ONE)
+            + templateLength(count - Constants.ONE);
+    if (indexOffset(count) > index.capacity() || dataEnd > data.capacity()) {
+      throw new IOException("Galería truncada: " + count + " templates en el índice");
+    }
+  }
+
+  int size() {
+    return count;
+  }
+
+  /**
+   * Registro ISO del template {@code i}, como vista del archivo mapeado (sin copiarlo).
+   */
+  ByteBuffer template(int i) {
+    return data.slice((int) offset(i) + idLength(i), templateLength(i));
+  }
+
+  /**
+   * Identificador con el que se enroló el template {@code i}.
+   */
+  String id(int i) {
+    byte[] id = new byte[idLength(i)];
+    data.get((int) offset(i), id);
+    return new String(id, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Anexa el template escrito en ISO 19794-2 con {@link TemplateCodec}, directamente sobre el
+   * archivo mapeado.
+   *
+   * @return índice del template en la galería.
+   * @throws IllegalArgumentException si el identificador está vacío o es demasiado largo.
+   */
+  int append(String id, MinutiaeTemplate template) throws IOException {
+    byte[] idBytes = id == null ? new byte[Constants.ZERO] : id.getBytes(StandardCharsets.UTF_8);
+    if (idBytes.length == Constants.ZERO || idBytes.length > Constants.GALLERY_MAX_ID_LENGTH) {
+      throw new IllegalArgumentException("Identificador de galería vacío o de más de "
+              + Constants.GALLERY_MAX_ID_LENGTH + " bytes");
+    }
+    int length = TemplateCodec.encodedLength(template, TemplateFormatEnum.ISO);
+    long end = dataEnd + idBytes.length + length;
+    if (end > Integer.MAX_VALUE) {
+      throw new IOException("La galería superó el tamaño máximo de un archivo mapeado");
+    }
+    ensureCapacity(count + Constants.ONE, end);
+
+    int position = (int) dataEnd;
+    data.put(position, idBytes);
+    TemplateCodec.encode(template, TemplateFormatEnum.ISO,
+            data.slice(position + idBytes.length, length));
+
+    int entry = (int) indexOffset(count);
+    index.putLong(entry, dataEnd)
+            .putInt(entry + ENTRY_LENGTH_OFFSET, length)
+            .putShort(entry + ENTRY_ID_LENGTH_OFFSET, (short) idBytes.length)
+            .putShort(entry + ENTRY_ID_LENGTH_OFFSET + Constants.TWO, (short) Constants.ZERO);
+    index.putInt(COUNT_OFFSET, count + Constants.ONE);
+    dataEnd = end;
+    return count++;
+  }
+
+  /**
+   * Fuerza a disco lo escrito en ambos archivos.
+   */
+  void force() {
+    data.force();
+    index.force();
+  }
+
+  private void ensureCapacity(int entries, long dataBytes) throws IOException {
+    if (indexOffset(entries) > index.capacity()) {
+      index = indexChannel.map(FileChannel.MapMode.READ_WRITE, Constants.ZERO_LONG,
+              Math.max(indexOffset(entries), (long) index.capacity() * Constants.TWO));
+    }
+    if (dataBytes > data.capacity()) {
+      data = dataChannel.map(FileChannel.MapMode.READ_WRITE, Constants.ZERO_LONG,
+              Math.min(Integer.MAX_VALUE, Math.max(dataBytes, (long) data.capacity() * Constants.TWO)));
+    }
+  }
+
+  private long offset(int i) {
+    return index.getLong((int) indexOffset(i));
+  }
+
+  private int templateLength(int i) {
+    return index.getInt((int) indexOffset(i) + ENTRY_LENGTH_OFFSET);
+  }
+
+  private int idLength(int i) {
+    return index.getShort((int) indexOffset(i) + ENTRY_ID_LENGTH_OFFSET) & SHORT_MASK;
+  }
+
+  private static long indexOffset(int entries) {
+    return Constants.GALLERY_INDEX_HEADER_LENGTH
+            + (long) entries * Constants.GALLERY_INDEX_ENTRY_LENGTH;
+  }
+
+  /**
+   * Cierra los archivos. Los mapeos se liberan cuando el GC recoge los buffers.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      indexChannel.close();
+    } finally {
+      dataChannel.close();
+    }
+  }
+}
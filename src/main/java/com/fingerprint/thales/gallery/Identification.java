@@ -0,0 +1,33 @@
+package com.fingerprint.thales.gallery;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.template.TemplateCheck;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Identificación 1:N pedida junto con una captura: la huella capturada se busca en la galería y,
+ * si se indicó {@code enrollAs} y ningún candidato alcanza el umbral, se enrola con ese
+ * identificador (alta sin duplicados).
+ *
+ * @param gallery   Galería en la que buscar.
+ * @param threshold Puntuación mínima (0-100) de un candidato.
+ * @param enrollAs  Identificador para enrolar la huella si no hay candidatos, o null para solo
+ *                  buscar.
+ */
+public record Identification(TemplateGallery gallery, int threshold, String enrollAs)
+        implements TemplateCheck {
+
+  /**
+   * @throws AcquisitionException PARAMETER si {@code enrollAs} está vacío o supera
+   *                              {@value Constants#GALLERY_MAX_ID_LENGTH} bytes.
+   */
+  public Identification {
+    if (enrollAs != null && (enrollAs.isBlank()
+            || enrollAs.getBytes(StandardCharsets.UTF_8).length > Constants.GALLERY_MAX_ID_LENGTH)) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER,
+              new IllegalArgumentException("Identificador de galería vacío o de más de "
+                      + Constants.GALLERY_MAX_ID_LENGTH + " bytes"));
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package com.fingerprint.thales.gallery;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.template.MinutiaeTemplate;
+
+/**
+ * Claves de hashing geométrico de un template para el índice de candidatos.
+ * <p>
+ * Cada minucia se une con sus {@value Constants#GALLERY_NEIGHBOURS} vecinas más cercanas. El par
+ * se describe con tres magnitudes que no cambian al rotar ni trasladar la huella: la distancia
+ * entre ambas y el ángulo de cada minucia medido desde la dirección del segmento que las une.
+ * Cuantizadas (4 px y 8 unidades ISO, ~11°) forman una clave de 15 bits.
+ * <p>
+ * Al indexar cada par aporta su clave. Al buscar, si alguna magnitud cae cerca del borde de su
+ * intervalo también se consulta el intervalo vecino, para que el ruido de la captura no saque al
+ * par de su celda. No es thread-safe: una instancia por hilo; los arreglos solo crecen.
+ */
+final class PairHasher {
+
+  private static final int ANGLE_BINS = Constants.ISO_ANGLE_STEPS >> Constants.GALLERY_ANGLE_BIN_SHIFT;
+
+  /** Claves distintas: intervalos de distancia x intervalos de ángulo x intervalos de ángulo. */
+  static final int KEY_SPACE = Constants.GALLERY_DISTANCE_BINS * ANGLE_BINS * ANGLE_BINS;
+
+  private static final float ISO_UNITS_PER_RADIAN =
+          (float) (Constants.ISO_ANGLE_STEPS / (Math.PI * Constants.TWO));
+
+  private static final float ANGLE_BIN_WIDTH = Constants.ONE << Constants.GALLERY_ANGLE_BIN_SHIFT;
+
+  private static final float DISTANCE_BIN_WIDTH = Constants.ONE << Constants.GALLERY_DISTANCE_BIN_SHIFT;
+
+  private static final int MAX_PAIR_DISTANCE = Constants.GALLERY_MIN_PAIR_DISTANCE
+          + (Constants.GALLERY_DISTANCE_BINS << Constants.GALLERY_DISTANCE_BIN_SHIFT);
+
+  /** Consultas por par como máximo: dos intervalos por cada una de las tres magnitudes. */
+  private static final int MAX_PROBES = 8;
+
+  private int[] x = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  private int[] y = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  private int[] angle = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+
+  private final int[] neighbours = new int[Constants.GALLERY_NEIGHBOURS];
+  private final int[] neighbourDistances = new int[Constants.GALLERY_NEIGHBOURS];
+
+  private int[] keys = new int[Constants.INITIAL_MINUTIAE_CAPACITY * Constants.GALLERY_NEIGHBOURS];
+  private int keyCount;
+
+  /**
+   * Claves de los pares de la primera vista, para indexarla.
+   *
+   * @return número de claves en {@link #keys()}.
+   */
+  int indexKeys(MinutiaeTemplate template) {
+    return hash(template, false);
+  }
+
+  /**
+   * Claves de los pares de la primera vista, con los intervalos vecinos de las magnitudes que
+   * caen cerca de un borde, para buscarla.
+   *
+   * @return número de claves en {@link #keys()}.
+   */
+  int queryKeys(MinutiaeTemplate template) {
+    return hash(template, true);
+  }
+
+  int[] keys() {
+    return keys;
+  }
+
+  private int hash(MinutiaeTemplate template, boolean probe) {
+    int count = load(template);
+    int maxKeys = count * Constants.GALLERY_NEIGHBOURS * (probe ? MAX_PROBES : Constants.ONE);
+    if (keys.length < maxKeys) {
+      keys = new int[maxKeys];
+    }
+    keyCount = Constants.ZERO;
+    for (int i = Constants.ZERO; i < count; i++) {
+      int found = nearest(i, count);
+      for (int n = Constants.ZERO; n < found; n++) {
+        pair(i, neighbours[n], probe);
+      }
+    }
+    return keyCount;
+  }
+
+  private int load(MinutiaeTemplate template) {
+    int count = template.getViewCount() == Constants.ZERO
+            ? Constants.ZERO : template.minutiaeCount(Constants.ZERO);
+    if (x.length < count) {
+      x = new int[count];
+      y = new int[count];
+      angle = new int[count];
+    }
+    int first = count == Constants.ZERO ? Constants.ZERO : template.firstMinutia(Constants.ZERO);
+    for (int i = Constants.ZERO; i < count; i++) {
+      x[i] = template.x(first + i);
+      y[i] = template.y(first + i);
+      angle[i] = template.isoAngle(first + i);
+    }
+    return count;
+  }
+
+  /**
+   * Vecinas más cercanas de la minucia {@code i} dentro del rango de distancias indexado,
+   * ordenadas por distancia (inserción sobre un arreglo de tamaño fijo).
+   *
+   * @return número de vecinas en {@link #neighbours}.
+   */
+  private int nearest(int i, int count) {
+    int found = Constants.ZERO;
+    int minSquared = Constants.GALLERY_MIN_PAIR_DISTANCE * Constants.GALLERY_MIN_PAIR_DISTANCE;
+    int maxSquared = MAX_PAIR_DISTANCE * MAX_PAIR_DISTANCE;
+    for (int j = Constants.ZERO; j < count; j++) {
+      int dx = x[j] - x[i];
+      int dy = y[j] - y[i];
+      int squared = dx * dx + dy * dy;
+      if (j == i || squared < minSquared || squared >= maxSquared) continue;
+      if (found == Constants.GALLERY_NEIGHBOURS
+              && squared >= neighbourDistances[found - Constants.ONE]) {
+        continue;
+      }
+      int position = found < Constants.GALLERY_NEIGHBOURS ? found++ : found - Constants.ONE;
+      while (position > Constants.ZERO && neighbourDistances[position - Constants.ONE] > squared) {
+        neighbours[position] = neighbours[position - Constants.ONE];
+        neighbourDistances[position] = neighbourDistances[position - Constants.ONE];
+        position--;
+      }
+      neighbours[position] = j;
+      neighbourDistances[position] = squared;
+    }
+    return found;
+  }
+
+  private void pair(int i, int j, boolean probe) {
+    int dx = x[j] - x[i];
+    int dy = y[j] - y[i];
+    // Coordenadas de imagen (y hacia abajo) y ángulos ISO antihorarios: se invierte dy.
+    float direction = (float) Math.atan2(-dy, dx) * ISO_UNITS_PER_RADIAN;
+    float distance = ((float) Math.sqrt(dx * dx + dy * dy) - Constants.GALLERY_MIN_PAIR_DISTANCE)
+            / DISTANCE_BIN_WIDTH;
+    float first = wrapAngle(angle[i] - direction) / ANGLE_BIN_WIDTH;
+    float second = wrapAngle(angle[j] - direction) / ANGLE_BIN_WIDTH;
+
+    int distanceBin = Math.min((int) distance, Constants.GALLERY_DISTANCE_BINS - Constants.ONE);
+    int firstBin = (int) first;
+    int secondBin = (int) second;
+    keys[keyCount++] = key(distanceBin, firstBin, secondBin);
+    if (!probe) return;
+
+    int distanceAlt = neighbourBin(distance, distanceBin,
+            Constants.GALLERY_DISTANCE_PROBE / DISTANCE_BIN_WIDTH);
+    if (distanceAlt < Constants.ZERO || distanceAlt >= Constants.GALLERY_DISTANCE_BINS) {
+      distanceAlt = distanceBin;
+    }
+    int firstAlt = neighbourBin(first, firstBin, Constants.GALLERY_ANGLE_PROBE / ANGLE_BIN_WIDTH)
+            & (ANGLE_BINS - Constants.ONE);
+    int secondAlt = neighbourBin(second, secondBin, Constants.GALLERY_ANGLE_PROBE / ANGLE_BIN_WIDTH)
+            & (ANGLE_BINS - Constants.ONE);
+    if (distanceAlt != distanceBin) keys[keyCount++] = key(distanceAlt, firstBin, secondBin);
+    if (firstAlt != firstBin) keys[keyCount++] = key(distanceBin, firstAlt, secondBin);
+    if (secondAlt != secondBin) keys[keyCount++] = key(distanceBin, firstBin, secondAlt);
+    if (distanceAlt != distanceBin && firstAlt != firstBin) {
+      keys[keyCount++] = key(distanceAlt, firstAlt, secondBin);
+    }
+    if (distanceAlt != distanceBin && secondAlt != secondBin) {
+      keys[keyCount++] = key(distanceAlt, firstBin, secondAlt);
+    }
+    if (firstAlt != firstBin && secondAlt != secondBin) {
+      keys[keyCount++] = key(distanceBin, firstAlt, secondAlt);
+      if (distanceAlt != distanceBin) keys[keyCount++] = key(distanceAlt, firstAlt, secondAlt);
+    }
+  }
+
+  /**
+   * Intervalo vecino más cercano al valor si está a menos de {@code margin} del borde, o el
+   * mismo intervalo si no.
+   */
+  private static int neighbourBin(float value, int bin, float margin) {
+    float fraction = value - bin;
+    if (fraction < margin) return bin - Constants.ONE;
+    if (fraction > Constants.ONE - margin) return bin + Constants.ONE;
+    return bin;
+  }
+
+  private static float wrapAngle(float angle) {
+    float wrapped = angle % Constants.ISO_ANGLE_STEPS;
+    if (wrapped < Constants.ZERO) wrapped += Constants.ISO_ANGLE_STEPS;
+    // -0.00001 + 256 redondea a 256.
+    return wrapped < Constants.ISO_ANGLE_STEPS ? wrapped : Constants.ZERO;
+  }
+
+  private static int key(int distanceBin, int firstBin, int secondBin) {
+    return ((distanceBin * ANGLE_BINS) + (firstBin & (ANGLE_BINS - Constants.ONE))) * ANGLE_BINS
+            + (secondBin & (ANGLE_BINS - Constants.ONE));
+  }
+}
@@ -0,0 +1,80 @@
+package com.fingerprint.thales.gallery;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.template.MinutiaeMatcher;
+import com.fingerprint.thales.template.MinutiaeTemplate;
+import java.nio.ByteBuffer;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Puntúa los candidatos de una búsqueda contra la muestra en el pool fork-join de la galería:
+ * divide el rango a la mitad hasta {@value Constants#GALLERY_SCORE_BATCH} candidatos y cada hoja
+ * los compara con el {@link MinutiaeMatcher} de su hilo.
+ * <p>
+ * La muestra solo se lee, así que todas las hojas la comparten; cada template de la galería se
+ * analiza directamente sobre el archivo mapeado.
+ */
+final class ScoreTask extends RecursiveAction {
+
+  /**
+   * Las tareas solo viven dentro del pool de la galería; nunca se serializan.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private static final ThreadLocal<Scorer> SCORERS = ThreadLocal.withInitial(Scorer::new);
+
+  private final MinutiaeTemplate probe;
+
+  private final GalleryStore store;
+
+  private final int[] candidates;
+
+  private final int[] scores;
+
+  private final int from;
+
+  private final int to;
+
+  ScoreTask(MinutiaeTemplate probe, GalleryStore store, int[] candidates, int[] scores, int from,
+            int to) {
+    this.probe = probe;
+    this.store = store;
+    this.candidates = candidates;
+    this.scores = scores;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  protected void compute() {
+    if (to - from <= Constants.GALLERY_SCORE_BATCH) {
+      Scorer scorer = SCORERS.get();
+      for (int i = from; i < to; i++) {
+        scores[i] = scorer.score(probe, store.template(candidates[i]));
+      }
+      return;
+    }
+    int middle = (from + to) >>> Constants.ONE;
+    invokeAll(new ScoreTask(probe, store, candidates, scores, from, middle),
+            new ScoreTask(probe, store, candidates, scores, middle, to));
+  }
+
+  /**
+   * Comparador y vista reutilizados por cada hilo del pool.
+   */
+  private static final class Scorer {
+
+    private final MinutiaeMatcher matcher = new MinutiaeMatcher();
+
+    private final MinutiaeTemplate view = new MinutiaeTemplate();
+
+    int score(MinutiaeTemplate probe, ByteBuffer template) {
+      try {
+        return matcher.score(probe, view.wrap(template));
+      } catch (IllegalArgumentException e) {
+        // Un registro dañado no detiene la búsqueda: simplemente no coincide.
+        return Constants.ZERO;
+      }
+    }
+  }
+}
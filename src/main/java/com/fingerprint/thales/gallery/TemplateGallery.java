@@ -0,0 +1,231 @@
+package com.fingerprint.thales.gallery;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.MetricPhaseEnum;
+import com.fingerprint.thales.metrics.Metrics;
+import com.fingerprint.thales.model.Candidate;
+import com.fingerprint.thales.template.MinutiaeTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Galería local de templates para la identificación 1:N (p. ej. detectar un enrolamiento
+ * duplicado en ventanilla).
+ * <p>
+ * Los templates se guardan en ISO 19794-2 en un almacén de solo anexado mapeado en memoria
+ * ({@link GalleryStore}). Al abrirla se construye en memoria un índice de hashing geométrico
+ * ({@link PairHasher}, {@link CandidateIndex}); una búsqueda vota con las claves de la muestra,
+ * toma los {@code thales.gallery.candidates} templates más votados y solo esos se puntúan con
+ * {@link com.fingerprint.thales.template.MinutiaeMatcher}, en paralelo en un
+ * {@link ForkJoinPool} propio de {@code thales.gallery.parallelism} hilos.
+ * <p>
+ * Las búsquedas pueden correr a la vez; un alta espera a que terminen las que están en curso.
+ */
+@Slf4j
+public final class TemplateGallery implements AutoCloseable {
+
+  @Getter
+  private final Path directory;
+
+  private final GalleryStore store;
+
+  private final CandidateIndex index = new CandidateIndex();
+
+  private final PairHasher indexHasher = new PairHasher();
+
+  private final MinutiaeTemplate indexView = new MinutiaeTemplate();
+
+  private final ForkJoinPool pool;
+
+  private final int maxCandidates;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private TemplateGallery(Path directory, GalleryStore store, int parallelism, int maxCandidates) {
+    this.directory = directory;
+    this.store = store;
+    this.maxCandidates = Math.max(Constants.ONE, maxCandidates);
+    this.pool = new ForkJoinPool(Math.max(Constants.ONE, parallelism), pool -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName(Constants.GALLERY_THREAD_NAME + thread.getPoolIndex());
+      thread.setDaemon(true);
+      return thread;
+    }, null, false);
+  }
+
+  /**
+   * Abre la galería de {@code -Dthales.gallery.path}, con el paralelismo de
+   * {@code -Dthales.gallery.parallelism} (por defecto, un hilo por CPU) y los candidatos de
+   * {@code -Dthales.gallery.candidates}.
+   *
+   * @return la galería, o null si la propiedad no está configurada.
+   * @throws IOException si no se puede abrir.
+   */
+  public static TemplateGallery fromSystemProperties() throws IOException {
+    String path = System.getProperty(Constants.GALLERY_PATH_PROPERTY);
+    if (path == null || path.isBlank()) {
+      return null;
+    }
+    return open(Path.of(path.trim()),
+            Integer.getInteger(Constants.GALLERY_PARALLELISM_PROPERTY,
+                    Runtime.getRuntime().availableProcessors()),
+            Integer.getInteger(Constants.GALLERY_CANDIDATES_PROPERTY,
+                    Constants.GALLERY_DEFAULT_CANDIDATES));
+  }
+
+  /**
+   * Abre (o crea vacía) la galería del directorio y construye su índice de candidatos.
+   *
+   * @param parallelism   hilos para puntuar candidatos.
+   * @param maxCandidates templates que se puntúan por búsqueda.
+   * @throws IOException si no se puede abrir o los archivos no son de una galería.
+   */
+  public static TemplateGallery open(Path directory, int parallelism, int maxCandidates)
+          throws IOException {
+    long start = System.currentTimeMillis();
+    var gallery = new TemplateGallery(directory, GalleryStore.open(directory), parallelism,
+            maxCandidates);
+    for (int i = Constants.ZERO; i < gallery.store.size(); i++) {
+      gallery.indexTemplate(i);
+    }
+    log.info("Galería {} abierta: {} templates indexados en {} ms", directory,
+            gallery.store.size(), System.currentTimeMillis() - start);
+    return gallery;
+  }
+
+  /**
+   * Templates en la galería.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return store.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Enrola un template ya analizado (se guarda en ISO). No fuerza la escritura a disco: ver
+   * {@link #force()}.
+   *
+   * @return posición del template en la galería.
+   * @throws IllegalArgumentException si el identificador está vacío o es demasiado largo.
+   * @throws UncheckedIOException     si no se puede escribir.
+   */
+  public int append(String id, MinutiaeTemplate template) {
+    lock.writeLock().lock();
+    try {
+      int position = store.append(id, template);
+      indexTemplate(position);
+      return position;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Enrola un template ISO / ANSI / INE.
+   *
+   * @throws IllegalArgumentException si no es un template válido o el identificador no lo es.
+   */
+  public int append(String id, byte[] template) {
+    return append(id, new MinutiaeTemplate().wrap(ByteBuffer.wrap(template)));
+  }
+
+  /**
+   * Fuerza a disco los templates enrolados.
+   */
+  public void force() {
+    lock.writeLock().lock();
+    try {
+      store.force();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Busca la muestra en la galería.
+   *
+   * @param probe     template capturado; no debe cambiar durante la búsqueda.
+   * @param threshold puntuación mínima (0-100) para devolver un candidato.
+   * @return lista inmutable de hasta {@value Constants#GALLERY_MAX_RESULTS} candidatos con
+   * puntuación mayor o igual que el umbral, de mayor a menor puntuación.
+   */
+  public List<Candidate> identify(MinutiaeTemplate probe, int threshold) {
+    lock.readLock().lock();
+    try {
+      long start = System.nanoTime();
+      var hasher = new PairHasher();
+      int keyCount = hasher.queryKeys(probe);
+      int[] candidates = index.candidates(hasher.keys(), keyCount, store.size(), maxCandidates);
+      Metrics.recordSince(MetricPhaseEnum.IDENTIFY_CANDIDATES, start);
+
+      long scoreStart = System.nanoTime();
+      int[] scores = new int[candidates.length];
+      if (candidates.length > Constants.ZERO) {
+        pool.invoke(new ScoreTask(probe, store, candidates, scores, Constants.ZERO,
+                candidates.length));
+      }
+      var results = new ArrayList<Candidate>();
+      for (int i = Constants.ZERO; i < candidates.length; i++) {
+        if (scores[i] >= threshold) {
+          results.add(new Candidate(store.id(candidates[i]), scores[i]));
+        }
+      }
+      results.sort(Comparator.comparingInt(Candidate::score).reversed());
+      Metrics.recordSince(MetricPhaseEnum.IDENTIFY_SCORE, scoreStart);
+      log.info("Identificación 1:N: {} candidatos de {} templates, {} sobre el umbral {}",
+              candidates.length, store.size(), results.size(), threshold);
+      return List.copyOf(results.size() > Constants.GALLERY_MAX_RESULTS
+              ? results.subList(Constants.ZERO, Constants.GALLERY_MAX_RESULTS)
+              : results);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Analiza el template {@code position} del almacén y lo añade al índice de candidatos. Solo
+   * se llama al abrir o con el bloqueo de escritura.
+   */
+  private void indexTemplate(int position) {
+    try {
+      indexView.wrap(store.template(position));
+    } catch (IllegalArgumentException e) {
+      log.warn("Template {} de la galería no válido, no se indexa: {}", position, e.getMessage());
+      return;
+    }
+    int keyCount = indexHasher.indexKeys(indexView);
+    index.add(position, indexHasher.keys(), keyCount);
+  }
+
+  /**
+   * Detiene el pool y cierra los archivos.
+   */
+  @Override
+  public void close() {
+    lock.writeLock().lock();
+    try {
+      pool.shutdownNow();
+      store.close();
+    } catch (IOException e) {
+      log.warn("No se pudo cerrar la galería {}: {}", directory, e.getMessage());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
@@ -27,10 +27,22 @@ public enum IdemiaError {
   QUALITY_NOT_MEETING_THRESHOLD(66, "El MorphoSmart no logro capturar la huella con una calidad mayor o igual al umbral especificado"),
   FEATURE_NOT_AVAILABLE_ON_DEVICE(72, "Una funcionalidad ha sido solicitada, pero no esta disponible en el dispositivo conectado");
 
+  private static final IdemiaError[] VALUES = values();
+
   private final int code;
 
   private final String description;
 
+  /**
+   * Devuelve el error IDEMIA con ese código, o MSO_UNKNOWN_STATUS si no existe.
+   */
+  public static IdemiaError fromCode(int code) {
+    for (IdemiaError error : VALUES) {
+      if (error.code == code) return error;
+    }
+    return MSO_UNKNOWN_STATUS;
+  }
+
   /**
    * Mensaje final listo: "Descripcion (THALES_ENUM), codigo de error: <code>"
    */
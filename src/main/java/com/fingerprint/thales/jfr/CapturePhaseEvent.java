@@ -0,0 +1,31 @@
+package com.fingerprint.thales.jfr;
+
+import com.fingerprint.thales.constants.Constants;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Cambio de estado de una captura ({@link com.fingerprint.thales.enums.AcquisitionStatesEnum}).
+ * Es instantáneo; el tiempo en cada estado es la distancia entre dos eventos de la misma
+ * generación.
+ */
+@Name(Constants.JFR_EVENT_CAPTURE_PHASE)
+@Label("Capture Phase")
+@Category(Constants.JFR_CATEGORY)
+@Description("Transición de estado de la adquisición")
+@StackTrace(false)
+public class CapturePhaseEvent extends Event {
+
+  @Label("From")
+  public String from;
+
+  @Label("To")
+  public String to;
+
+  @Label("Generation")
+  public int generation;
+}
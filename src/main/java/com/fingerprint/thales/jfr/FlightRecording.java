@@ -0,0 +1,81 @@
+package com.fingerprint.thales.jfr;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Grabación continua de Java Flight Recorder para análisis post-mortem.
+ * <p>
+ * Con {@code -Dthales.jfr.continuous=true} se arranca una grabación con el perfil "default" y
+ * un anillo acotado ({@code thales.jfr.maxAgeSec} / {@code thales.jfr.maxSizeMb}). Cuando una
+ * solicitud termina con {@link AcquisitionException}, el anillo se vuelca a
+ * {@code thales.jfr.dumpDir}: llamadas al SDK, callbacks, fases de la captura, GC y bloqueos de
+ * los últimos minutos. Para no llenar el disco con una racha de errores, como mucho se vuelca una
+ * vez cada {@code thales.jfr.dumpIntervalMs}.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FlightRecording {
+
+  private static final AtomicLong LAST_DUMP = new AtomicLong();
+
+  private static volatile Recording recording;
+
+  /**
+   * Arranca la grabación continua si está configurada. Un fallo solo se registra en el log.
+   */
+  public static synchronized void startIfConfigured() {
+    if (recording != null || !Boolean.getBoolean(Constants.JFR_CONTINUOUS_PROPERTY)) return;
+    long maxAgeSec = Long.getLong(Constants.JFR_MAX_AGE_PROPERTY, Constants.DEFAULT_JFR_MAX_AGE_SEC);
+    long maxSizeMb = Long.getLong(Constants.JFR_MAX_SIZE_PROPERTY, Constants.DEFAULT_JFR_MAX_SIZE_MB);
+    try {
+      var continuous = new Recording(Configuration.getConfiguration(Constants.JFR_CONFIGURATION));
+      continuous.setName(Constants.JFR_RECORDING_NAME);
+      continuous.setToDisk(true);
+      continuous.setMaxAge(Duration.ofSeconds(maxAgeSec));
+      continuous.setMaxSize(maxSizeMb * Constants.BYTES_PER_MB);
+      continuous.start();
+      recording = continuous;
+      log.info(Constants.JFR_READY_LOG, maxAgeSec, maxSizeMb);
+    } catch (IOException | ParseException | RuntimeException e) {
+      log.warn("No se pudo iniciar la grabación JFR: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Vuelca la grabación continua por un error de adquisición, si está activa y no se volcó
+   * hace menos de {@code thales.jfr.dumpIntervalMs}.
+   */
+  public static void dumpOnError(AcquisitionException error) {
+    Recording continuous = recording;
+    if (continuous == null) return;
+    long now = System.currentTimeMillis();
+    long last = LAST_DUMP.get();
+    long interval = Long.getLong(Constants.JFR_DUMP_INTERVAL_PROPERTY,
+            Constants.DEFAULT_JFR_DUMP_INTERVAL_MS);
+    if (last != Constants.ZERO_LONG && now - last < interval || !LAST_DUMP.compareAndSet(last, now)) {
+      return;
+    }
+    var path = Path.of(System.getProperty(Constants.JFR_DUMP_DIR_PROPERTY,
+                    Constants.DEFAULT_JFR_DUMP_DIR),
+            String.format(Constants.JFR_DUMP_FILE, error.getErrorCode().name(), now));
+    try {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+      continuous.dump(path);
+      log.info(Constants.JFR_DUMP_LOG, path, error.getErrorCode());
+    } catch (IOException | RuntimeException e) {
+      log.warn("No se pudo volcar la grabación JFR en {}: {}", path, e.getMessage());
+    }
+  }
+}
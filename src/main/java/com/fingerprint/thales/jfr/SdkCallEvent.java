@@ -0,0 +1,28 @@
+package com.fingerprint.thales.jfr;
+
+import com.fingerprint.thales.constants.Constants;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Una llamada a una función GBMSAPI, con su duración y su código de retorno. La emite
+ * {@link com.fingerprint.thales.sdk.FlightRecorderGbmsSdk}.
+ */
+@Name(Constants.JFR_EVENT_SDK_CALL)
+@Label("GBMSAPI Call")
+@Category({Constants.JFR_CATEGORY, Constants.JFR_CATEGORY_SDK})
+@Description("Llamada a una función del SDK GBMSAPI")
+@StackTrace(false)
+public class SdkCallEvent extends Event {
+
+  @Label("Function")
+  public String function;
+
+  @Label("Result")
+  @Description("Código de retorno GBMSAPI (0 = sin error)")
+  public int result;
+}
@@ -0,0 +1,53 @@
+package com.fingerprint.thales.jfr;
+
+import com.fingerprint.thales.constants.Constants;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Una invocación de {@code invoke()} desde el hilo de adquisición del SDK; la duración es lo que
+ * el callback tuvo retenido ese hilo.
+ */
+@Name(Constants.JFR_EVENT_SDK_CALLBACK)
+@Label("GBMSAPI Callback")
+@Category({Constants.JFR_CATEGORY, Constants.JFR_CATEGORY_SDK})
+@Description("Evento de adquisición entregado por el SDK GBMSAPI")
+@StackTrace(false)
+public class SdkCallbackEvent extends Event {
+
+  @Label("Event Code")
+  public int eventCode;
+
+  @Label("Frame Error")
+  public int frameError;
+
+  @Label("Event Info")
+  public int eventInfo;
+
+  @Label("Frame Width")
+  public int sizeX;
+
+  @Label("Frame Height")
+  public int sizeY;
+
+  @Label("Frame Size")
+  @Description("Bytes del frame (ancho x alto)")
+  public long frameSize;
+
+  @Label("Current Rate")
+  public double currentRate;
+
+  @Label("Nominal Rate")
+  public double nominalRate;
+
+  @Label("Diagnostic")
+  public int diagnostic;
+
+  @Label("Generation")
+  @Description("Generación de la captura a la que pertenece el evento")
+  public int generation;
+}
@@ -1,15 +1,37 @@
 package com.fingerprint.thales.main;
 
 import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.RunModesEnum;
 import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.jfr.FlightRecording;
+import com.fingerprint.thales.model.BatchRequest;
 import com.fingerprint.thales.model.RequestArg;
+import com.fingerprint.thales.model.ResponseBatch;
 import com.fingerprint.thales.model.ResponseError;
 import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.server.CaptureServer;
+import com.fingerprint.thales.server.UnixSocketServer;
 import com.fingerprint.thales.service.AcquisitionService;
 import com.fingerprint.thales.utils.ExceptionMapper;
 import com.fingerprint.thales.utils.LogLevels;
 import com.fingerprint.thales.utils.ResourceReader;
+import com.fingerprint.thales.utils.ResponseWriter;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,54 +52,410 @@ public class ApplicationThales {
   /**
    * Indica si la operacion fue exitosa.
    */
-  private static boolean success = false;
+  private static volatile boolean success = false;
+
+  /**
+   * Marca de fin de la cola de respuestas del modo daemon.
+   */
+  private static final CompletableFuture<Object> END_OF_REQUESTS = new CompletableFuture<>();
 
 
   public static void main(String[] args) {
-    String resultJson = Constants.EMPTY_STR;
     RequestArg requestArg = RequestArg.from(args);
     LogLevels.apply(requestArg.logsEnabled());
+    OutputStream stdout = requestArg.mode() == RunModesEnum.DAEMON
+            || requestArg.mode() == RunModesEnum.BATCH ? reserveStdout() : null;
+    FlightRecording.startIfConfigured();
     RESULT_LOG.info(Constants.INITIALIZATION_LOG);
 
+    if (requestArg.mode() == RunModesEnum.DAEMON) {
+      runDaemon(stdout);
+      return;
+    }
+
+    if (requestArg.mode() == RunModesEnum.SERVER) {
+      runServer();
+      return;
+    }
+
+    if (requestArg.mode() == RunModesEnum.BATCH) {
+      runBatch(stdout);
+      return;
+    }
+
     // 🧪 MOCK: si isMock es true, retornar un resultado simulado y terminar
     if (requestArg.isMock()) {
-      String mockFingerprint = ResourceReader.readResourceFile(Constants.RESOURCE_MOCK_FINGERPRINT);
-      resultJson = toPrettyJson(ResponseOk.builder()
-              .fingerprint(mockFingerprint)
-              .build());
-      success = true;
-      finallyProcess(resultJson, Constants.END_LOG_MOCK);
+      finallyProcess(toPrettyJson(mockResult()), Constants.END_LOG_MOCK);
       return;
     }
 
     // ✅ Flujo normal
+    String resultJson = Constants.EMPTY_STR;
     try {
-      AcquisitionService service = new AcquisitionService();
-      ResponseOk result = service.startAcquisition(requestArg.timeout());
+      var service = new AcquisitionService();
+      if (requestArg.isIdentify()) {
+        service.openGallery();
+      }
+      resultJson = requestArg.isBatch()
+              ? toPrettyJson(captureBatch(service, requestArg))
+              : toPrettyJson(capture(service, requestArg));
+    } catch (Exception e) {
+      resultJson = toPrettyJson(ExceptionMapper.mapAndLog(log, e));
+    } finally {
+      log.info(Constants.JVM_LATENCY_LOG,
+              System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime());
+      finallyProcess(resultJson, Constants.END_LOG);
+    }
+  }
 
-      Optional.ofNullable(result.fingerprint())
-              .filter(fp -> !fp.isBlank())
-              .orElseThrow(() -> new AcquisitionException(AcquisitionException.ErrorCode.INTERNAL_ERROR));
+  /**
+   * Modo daemon: inicializa el SDK una sola vez y atiende una captura por cada linea
+   * recibida en STDIN. Cada linea usa los mismos parametros posicionales que la CLI.
+   * Cada respuesta se escribe en STDOUT como JSON compacto de una sola linea.
+   * Termina con EOF o con los comandos "exit" / "quit".
+   * <p>
+   * Las solicitudes se encolan sin esperar la anterior y se reparten entre los escaneres
+   * conectados; las respuestas se escriben siempre en el orden en que llegaron las solicitudes.
+   * Con {@code -Dthales.socket.path} se abre además el socket binario ({@link UnixSocketServer})
+   * y con {@code -Dthales.gallery.path} la galería para las líneas en modo identify.
+   *
+   * @param stdout STDOUT reservado para las respuestas ({@link #reserveStdout()}).
+   */
+  private static void runDaemon(OutputStream stdout) {
+    String resultJson = Constants.EMPTY_STR;
+    try (AcquisitionService service = new AcquisitionService();
+         BufferedReader reader = new BufferedReader(
+                 new InputStreamReader(System.in, StandardCharsets.UTF_8));
+         ResponseWriter writer = new ResponseWriter(stdout, true)) {
+      // Socket binario opcional: se cierra en el finally, antes que el servicio.
+      UnixSocketServer socket = openSocket(service);
+      var responses = new LinkedBlockingQueue<CompletableFuture<Object>>();
+      var writerThread = new Thread(() -> writeResponses(responses, writer),
+              Constants.DAEMON_WRITER_THREAD_NAME);
+      writerThread.start();
+      try {
+        service.startDeviceWatcher();
+        service.startMetrics();
+        service.openGallery();
+        log.info(Constants.DAEMON_READY_LOG);
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String trimmed = line.trim();
+          if (trimmed.isEmpty()) continue;
+          if (Constants.DAEMON_EXIT_COMMANDS.contains(trimmed.toLowerCase())) break;
 
-      resultJson = toPrettyJson(result);
+          RequestArg requestArg = RequestArg.from(trimmed.split(Constants.WHITESPACE_REGEX));
+          responses.add(processRequest(service, requestArg));
+        }
+      } finally {
+        if (socket != null) {
+          socket.close();
+        }
+        responses.add(END_OF_REQUESTS);
+        writerThread.join();
+      }
       success = true;
     } catch (Exception e) {
-      ResponseError error = ExceptionMapper.mapAndLog(log, e);
-      resultJson = toPrettyJson(error);
+      // Error de inicializacion del SDK o de lectura de STDIN: no hay servicio que mantener vivo.
+      success = false;
+      resultJson = toPrettyJson(writeFatal(stdout, ExceptionMapper.mapAndLog(log, e)));
     } finally {
-      finallyProcess(resultJson, Constants.END_LOG);
+      finallyProcess(resultJson, Constants.DAEMON_END_LOG);
     }
   }
 
   /**
-   * Procesa el resultado final, registra los logs y termina la aplicacion.
+   * Modo servidor: inicializa el SDK una sola vez y atiende capturas por HTTP en loopback
+   * (puerto {@code -Dthales.server.port}, por defecto 8765). Ver {@link CaptureServer}.
+   * El proceso sigue vivo hasta recibir una señal de terminación; al terminar se cierran el
+   * servidor y el SDK.
+   */
+  private static void runServer() {
+    AcquisitionService service = null;
+    try {
+      service = new AcquisitionService();
+      service.startDeviceWatcher();
+      service.startMetrics();
+      service.openGallery();
+      var server = new CaptureServer(service,
+              Integer.getInteger(Constants.SERVER_PORT_PROPERTY, Constants.DEFAULT_SERVER_PORT));
+      var socket = openSocket(service);
+      var running = service;
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        RESULT_LOG.info(Constants.SERVER_END_LOG);
+        server.close();
+        if (socket != null) {
+          socket.close();
+        }
+        running.close();
+        LogLevels.shutdown();
+      }, Constants.SERVER_SHUTDOWN_THREAD_NAME));
+      server.start();
+    } catch (Exception e) {
+      // Error de inicializacion del SDK o puerto ocupado: no hay servidor que mantener vivo.
+      if (service != null) {
+        service.close();
+      }
+      success = false;
+      finallyProcess(toPrettyJson(ExceptionMapper.mapAndLog(log, e)), Constants.SERVER_END_LOG);
+    }
+  }
+
+  /**
+   * Modo batch: inicializa el SDK una sola vez y ejecuta las solicitudes JSONL
+   * ({@link BatchRequest}, una por línea) leídas de {@code -Dthales.batch.file} o, si no se
+   * indica, de STDIN. Cada resultado se escribe en STDOUT como JSON compacto de una línea, con su
+   * {@code Id}, en cuanto termina; con varios escáneres el orden puede no ser el de entrada.
+   * <p>
+   * Las líneas se leen y parsean de una en una y como mucho {@code -Dthales.batch.maxInFlight}
+   * solicitudes (por defecto, una por escáner) están en curso a la vez, así que un archivo de
+   * cualquier longitud se procesa con memoria constante. Una línea inválida produce su propio
+   * error PARAMETER y el lote continúa. Termina con EOF.
+   * <p>
+   * Si hay galería ({@code -Dthales.gallery.path}) se abre al arrancar, para las líneas con
+   * {@code identify}.
+   *
+   * @param stdout STDOUT reservado para las respuestas ({@link #reserveStdout()}).
+   */
+  private static void runBatch(OutputStream stdout) {
+    String resultJson = Constants.EMPTY_STR;
+    String file = System.getProperty(Constants.BATCH_FILE_PROPERTY);
+    try (AcquisitionService service = new AcquisitionService();
+         BufferedReader reader = openBatchInput(file);
+         ResponseWriter writer = new ResponseWriter(stdout, true)) {
+      int maxInFlight = Math.max(Constants.ONE, Integer.getInteger(Constants.BATCH_IN_FLIGHT_PROPERTY,
+              service.getRegistry().getDevices().size()));
+      var inFlight = new Semaphore(maxInFlight);
+      service.startMetrics();
+      service.openGallery();
+      log.info(Constants.BATCH_READY_LOG, file == null ? Constants.BATCH_STDIN : file, maxInFlight);
+      long start = System.currentTimeMillis();
+      long lineNumber = Constants.ZERO_LONG;
+      long processed = Constants.ZERO_LONG;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) continue;
+        inFlight.acquire();
+        processed++;
+        String id = String.valueOf(lineNumber);
+        CompletableFuture<Object> pending;
+        try {
+          BatchRequest request = BatchRequest.parse(line);
+          id = request.idOr(id);
+          pending = processRequest(service, request.toRequestArg());
+        } catch (AcquisitionException e) {
+          pending = CompletableFuture.completedFuture(ExceptionMapper.mapAndLog(log, e));
+        }
+        String requestId = id;
+        pending.whenComplete((response, error) -> {
+          try {
+            writer.write(requestId, response);
+          } catch (IOException e) {
+            log.error(Constants.EXCEPTION, e);
+          } finally {
+            inFlight.release();
+          }
+        });
+      }
+      inFlight.acquire(maxInFlight);
+      log.info(Constants.BATCH_SUMMARY_LOG, processed, System.currentTimeMillis() - start);
+      success = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      success = false;
+    } catch (Exception e) {
+      // Error de inicializacion del SDK o de lectura de la entrada.
+      success = false;
+      resultJson = toPrettyJson(writeFatal(stdout, ExceptionMapper.mapAndLog(log, e)));
+    } finally {
+      finallyProcess(resultJson, Constants.BATCH_END_LOG);
+    }
+  }
+
+  /**
+   * Reserva STDOUT para las respuestas de los modos daemon y batch: devuelve un stream sobre el
+   * descriptor de STDOUT y apunta {@code System.out} a STDERR. Los appenders de consola de
+   * logback escriben en el {@code System.out} vigente en cada evento, así que desde aquí los logs
+   * (y las marcas del logger {@code result}) salen por STDERR y ninguna línea de log se mezcla
+   * con las respuestas.
+   */
+  private static OutputStream reserveStdout() {
+    System.out.flush();
+    var stdout = new FileOutputStream(FileDescriptor.out);
+    System.setOut(System.err);
+    return stdout;
+  }
+
+  /**
+   * Escribe en STDOUT, como una respuesta más, el error que termina el modo daemon o batch.
+   *
+   * @return el mismo error, para registrarlo.
+   */
+  private static ResponseError writeFatal(OutputStream stdout, ResponseError error) {
+    try (var writer = new ResponseWriter(stdout, true)) {
+      writer.write(error);
+    } catch (IOException e) {
+      log.error(Constants.EXCEPTION, e);
+    }
+    return error;
+  }
+
+  private static BufferedReader openBatchInput(String file) throws IOException {
+    if (file == null || file.isBlank()) {
+      return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    }
+    return Files.newBufferedReader(Path.of(file.trim()), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Abre el socket binario si se configuró {@code -Dthales.socket.path}.
+   *
+   * @return el socket ya aceptando conexiones, o null si no está configurado.
+   */
+  private static UnixSocketServer openSocket(AcquisitionService service) throws IOException {
+    String path = System.getProperty(Constants.SOCKET_PATH_PROPERTY);
+    if (path == null || path.isBlank()) {
+      return null;
+    }
+    var socket = new UnixSocketServer(service, Path.of(path.trim()));
+    socket.start();
+    return socket;
+  }
+
+  /**
+   * Escribe las respuestas del modo daemon en orden de llegada hasta recibir la marca de fin.
+   */
+  private static void writeResponses(BlockingQueue<CompletableFuture<Object>> responses,
+                                     ResponseWriter writer) {
+    try {
+      CompletableFuture<Object> next;
+      while ((next = responses.take()) != END_OF_REQUESTS) {
+        writer.write(next.join());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      log.error(Constants.EXCEPTION, e);
+    }
+  }
+
+  /**
+   * Atiende una solicitud del modo daemon sin terminar el proceso.
+   *
+   * @param service    Servicio ya inicializado.
+   * @param requestArg Parametros de la solicitud.
+   * @return Respuesta futura: ResponseOk, ResponseBatch o ResponseError.
+   */
+  private static CompletableFuture<Object> processRequest(AcquisitionService service,
+                                                          RequestArg requestArg) {
+    if (requestArg.isMock()) {
+      return CompletableFuture.completedFuture(mockResult());
+    }
+    long start = System.currentTimeMillis();
+    try {
+      CompletableFuture<Object> pending = requestArg.isBatch()
+              ? service.submitBatch(requestArg.device(), requestArg.priority(),
+                              requestArg.batchObjects(), requestArg.timeout())
+                      .<Object>thenApply(ApplicationThales::batchCompleted)
+              : submit(service, requestArg).<Object>thenApply(ApplicationThales::validate);
+      return pending
+              .exceptionally(e -> ExceptionMapper.mapAndLog(log, unwrap(e)))
+              .whenComplete((response, error) ->
+                      log.info(Constants.REQUEST_LATENCY_LOG, System.currentTimeMillis() - start));
+    } catch (Exception e) {
+      return CompletableFuture.completedFuture(ExceptionMapper.mapAndLog(log, e));
+    }
+  }
+
+  /**
+   * Encola una captura: con identificación 1:N si la solicitud es identify y, si no, con la
+   * verificación 1:1 que pida (o ninguna).
+   */
+  private static CompletableFuture<ResponseOk> submit(AcquisitionService service,
+                                                      RequestArg requestArg) {
+    return requestArg.isIdentify()
+            ? service.submitIdentification(requestArg.device(), requestArg.priority(),
+                    requestArg.timeout(), requestArg.threshold(), requestArg.enroll())
+            : service.submit(requestArg.device(), requestArg.priority(),
+                    requestArg.captureObject(), requestArg.timeout(), requestArg.verification());
+  }
+
+  /**
+   * Ejecuta una captura con el servicio indicado.
+   *
+   * @param service    Servicio ya inicializado.
+   * @param requestArg Parametros de la solicitud.
+   * @return Respuesta con la huella capturada.
+   */
+  private static ResponseOk capture(AcquisitionService service, RequestArg requestArg) {
+    return validate(requestArg.isIdentify()
+            ? service.startIdentification(requestArg.device(), requestArg.priority(),
+                    requestArg.timeout(), requestArg.threshold(), requestArg.enroll())
+            : service.startAcquisition(requestArg.device(), requestArg.priority(),
+                    requestArg.timeout(), requestArg.verification()));
+  }
+
+  /**
+   * Ejecuta una captura por lotes con el servicio indicado.
+   * Los errores de cada objeto van dentro de la respuesta; el lote en sí se considera exitoso.
+   *
+   * @param service    Servicio ya inicializado.
+   * @param requestArg Parametros de la solicitud (con la lista de objetos).
+   * @return Un resultado por objeto.
+   */
+  private static ResponseBatch captureBatch(AcquisitionService service, RequestArg requestArg) {
+    return batchCompleted(
+            service.captureBatch(requestArg.device(), requestArg.batchObjects(),
+                    requestArg.timeout()));
+  }
+
+  private static ResponseBatch batchCompleted(ResponseBatch batch) {
+    success = true;
+    return batch;
+  }
+
+  /**
+   * Verifica que la respuesta contenga una huella.
+   */
+  private static ResponseOk validate(ResponseOk response) {
+    ResponseOk result = Optional.ofNullable(response)
+            .filter(ResponseOk::hasFingerprint)
+            .orElseThrow(() -> new AcquisitionException(AcquisitionException.ErrorCode.INTERNAL_ERROR));
+
+    success = true;
+    return result;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error;
+  }
+
+  /**
+   * Devuelve el resultado simulado (fingerprint en Base64 desde resources).
+   */
+  private static ResponseOk mockResult() {
+    String mockFingerprint = ResourceReader.readResourceFile(Constants.RESOURCE_MOCK_FINGERPRINT);
+    success = true;
+    return ResponseOk.builder()
+            .fingerprint(mockFingerprint)
+            .build();
+  }
+
+  /**
+   * Procesa el resultado final, registra los logs y termina la aplicacion. Los appenders son
+   * asincronos: antes de salir se vacian sus colas.
    *
    * @param resultJson Resultado en formato JSON.
    * @param endLog     Mensaje de log final.
    */
   private static void finallyProcess(String resultJson, String endLog) {
     RESULT_LOG.info(endLog);
-    RESULT_LOG.info(Constants.ARG, resultJson);
+    if (!resultJson.isEmpty()) {
+      RESULT_LOG.info(Constants.ARG, resultJson);
+    }
+    LogLevels.shutdown();
     System.exit(success ? Constants.ZERO : Constants.ONE);
   }
 
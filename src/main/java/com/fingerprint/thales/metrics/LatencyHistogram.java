@@ -0,0 +1,124 @@
+package com.fingerprint.thales.metrics;
+
+import com.fingerprint.thales.constants.Constants;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias al estilo HDR: cubetas log-lineales sobre un {@link AtomicLongArray}.
+ * <p>
+ * Cada potencia de dos se parte en {@value Constants#HISTOGRAM_SUB_BUCKETS} cubetas iguales, así
+ * que el error relativo de cualquier percentil es como mucho ~3 %, desde nanosegundos hasta
+ * ~36 minutos (los valores mayores caen en la última cubeta). Registrar un valor son dos
+ * operaciones atómicas y un CAS para el máximo: sin locks ni asignaciones, apto para el
+ * callback del SDK. Las lecturas recorren las cubetas sin detener a quien registra.
+ */
+public final class LatencyHistogram {
+
+  /**
+   * Los valores por debajo de dos potencias de sub-cubetas se guardan tal cual (cubeta lineal).
+   */
+  private static final long LINEAR_MASK = ((long) Constants.HISTOGRAM_SUB_BUCKETS << Constants.ONE) - Constants.ONE;
+
+  private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(Constants.HISTOGRAM_SUB_BUCKETS);
+
+  private static final long MAX_TRACKABLE = (Constants.ONE_LONG << Constants.HISTOGRAM_MAX_BITS) - Constants.ONE;
+
+  private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_TRACKABLE) + Constants.ONE);
+
+  private final AtomicLong sumNanos = new AtomicLong();
+
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Registra una duración en nanosegundos; las negativas se cuentan como 0.
+   */
+  public void record(long nanos) {
+    long value = Math.min(Math.max(nanos, Constants.ZERO_LONG), MAX_TRACKABLE);
+    counts.incrementAndGet(indexOf(value));
+    sumNanos.addAndGet(value);
+    long max;
+    while (value > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, value)) {
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Cubeta del valor: las dos primeras potencias de dos comparten la cubeta lineal inicial.
+   */
+  private static int indexOf(long value) {
+    int bucket = Long.SIZE - Constants.ONE - Long.numberOfLeadingZeros(value | LINEAR_MASK)
+            - SUB_BUCKET_BITS;
+    return (bucket << SUB_BUCKET_BITS) + (int) (value >>> bucket);
+  }
+
+  /**
+   * Valor más alto que cae en la cubeta {@code index}.
+   */
+  private static long highestValueAt(int index) {
+    int bucket = Math.max(Constants.ZERO, (index >>> SUB_BUCKET_BITS) - Constants.ONE);
+    long sub = index - ((long) bucket << SUB_BUCKET_BITS);
+    return ((sub + Constants.ONE) << bucket) - Constants.ONE;
+  }
+
+  /**
+   * Foto del histograma. Se calcula sobre las cubetas, así que es coherente aunque se siga
+   * registrando mientras se lee.
+   */
+  public Snapshot snapshot() {
+    long[] copy = new long[counts.length()];
+    long total = Constants.ZERO_LONG;
+    for (int i = Constants.ZERO; i < copy.length; i++) {
+      copy[i] = counts.get(i);
+      total += copy[i];
+    }
+    return new Snapshot(copy, total, sumNanos.get(), maxNanos.get());
+  }
+
+  /**
+   * Vacía el histograma.
+   */
+  public void reset() {
+    for (int i = Constants.ZERO; i < counts.length(); i++) {
+      counts.set(i, Constants.ZERO_LONG);
+    }
+    sumNanos.set(Constants.ZERO_LONG);
+    maxNanos.set(Constants.ZERO_LONG);
+  }
+
+  /**
+   * Copia de las cubetas en un instante.
+   *
+   * @param count    Valores registrados.
+   * @param sumNanos Suma de los valores, en nanosegundos.
+   * @param maxNanos Valor máximo, en nanosegundos.
+   */
+  public record Snapshot(long[] buckets, long count, long sumNanos, long maxNanos) {
+
+    /**
+     * Percentil en nanosegundos (límite superior de su cubeta, acotado por el máximo).
+     *
+     * @param quantile entre 0 y 1, p. ej. 0.99.
+     * @return 0 si no hay valores.
+     */
+    public long valueAt(double quantile) {
+      if (count == Constants.ZERO_LONG) return Constants.ZERO_LONG;
+      long rank = Math.max(Constants.ONE_LONG, (long) Math.ceil(quantile * count));
+      long seen = Constants.ZERO_LONG;
+      for (int i = Constants.ZERO; i < buckets.length; i++) {
+        seen += buckets[i];
+        if (seen >= rank) {
+          return Math.min(highestValueAt(i), maxNanos);
+        }
+      }
+      return maxNanos;
+    }
+
+    /**
+     * Media en nanosegundos; 0 si no hay valores.
+     */
+    public long mean() {
+      return count == Constants.ZERO_LONG ? Constants.ZERO_LONG : sumNanos / count;
+    }
+  }
+}
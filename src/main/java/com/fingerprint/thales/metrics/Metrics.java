@@ -0,0 +1,113 @@
+package com.fingerprint.thales.metrics;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.MetricCounterEnum;
+import com.fingerprint.thales.enums.MetricPhaseEnum;
+import com.fingerprint.thales.exception.AcquisitionException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Telemetría del proceso: un {@link LatencyHistogram} por fase ({@link MetricPhaseEnum}),
+ * contadores ({@link MetricCounterEnum}) y errores por {@link AcquisitionException.ErrorCode}.
+ * <p>
+ * Todo está preasignado en arreglos indexados por ordinal: registrar desde el callback del SDK
+ * no asigna memoria ni toma locks. Se publica por JMX ({@link MetricsMXBean}) y, opcionalmente,
+ * como textfile Prometheus ({@link PrometheusTextfileExporter}).
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Metrics {
+
+  private static final MetricPhaseEnum[] PHASES = MetricPhaseEnum.values();
+
+  private static final AcquisitionException.ErrorCode[] ERROR_CODES =
+          AcquisitionException.ErrorCode.values();
+
+  private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[PHASES.length];
+
+  private static final AtomicLongArray COUNTERS =
+          new AtomicLongArray(MetricCounterEnum.values().length);
+
+  private static final AtomicLongArray ERRORS = new AtomicLongArray(ERROR_CODES.length);
+
+  private static final AtomicBoolean REGISTERED = new AtomicBoolean();
+
+  static {
+    for (int i = Constants.ZERO; i < HISTOGRAMS.length; i++) {
+      HISTOGRAMS[i] = new LatencyHistogram();
+    }
+  }
+
+  /**
+   * Registra la duración de una fase.
+   */
+  public static void record(MetricPhaseEnum phase, long nanos) {
+    HISTOGRAMS[phase.ordinal()].record(nanos);
+  }
+
+  /**
+   * Registra el tiempo transcurrido desde {@code startNanos} ({@link System#nanoTime()}).
+   */
+  public static void recordSince(MetricPhaseEnum phase, long startNanos) {
+    record(phase, System.nanoTime() - startNanos);
+  }
+
+  public static void increment(MetricCounterEnum counter) {
+    COUNTERS.incrementAndGet(counter.ordinal());
+  }
+
+  /**
+   * Cuenta un error devuelto a un cliente (o a un objeto de un lote).
+   */
+  public static void error(AcquisitionException.ErrorCode errorCode) {
+    ERRORS.incrementAndGet(errorCode.ordinal());
+  }
+
+  public static LatencyHistogram.Snapshot snapshot(MetricPhaseEnum phase) {
+    return HISTOGRAMS[phase.ordinal()].snapshot();
+  }
+
+  public static long count(MetricCounterEnum counter) {
+    return COUNTERS.get(counter.ordinal());
+  }
+
+  public static long errors(AcquisitionException.ErrorCode errorCode) {
+    return ERRORS.get(errorCode.ordinal());
+  }
+
+  /**
+   * Vacía histogramas y contadores.
+   */
+  public static void reset() {
+    for (LatencyHistogram histogram : HISTOGRAMS) {
+      histogram.reset();
+    }
+    for (int i = Constants.ZERO; i < COUNTERS.length(); i++) {
+      COUNTERS.set(i, Constants.ZERO_LONG);
+    }
+    for (int i = Constants.ZERO; i < ERRORS.length(); i++) {
+      ERRORS.set(i, Constants.ZERO_LONG);
+    }
+  }
+
+  /**
+   * Publica las métricas en el MBeanServer de la plataforma como
+   * {@value Constants#METRICS_MBEAN_NAME}. Idempotente; un fallo solo se registra en el log.
+   */
+  public static void registerMBean() {
+    if (!REGISTERED.compareAndSet(false, true)) return;
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMXBeanImpl(),
+              new ObjectName(Constants.METRICS_MBEAN_NAME));
+    } catch (JMException e) {
+      log.warn("No se pudo registrar el MBean de métricas: {}", e.getMessage());
+    }
+  }
+}
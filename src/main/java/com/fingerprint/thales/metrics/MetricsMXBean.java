@@ -0,0 +1,40 @@
+package com.fingerprint.thales.metrics;
+
+import java.util.Map;
+
+/**
+ * Vista JMX de {@link Metrics} (p. ej. con jconsole). Las claves de los mapas son las etiquetas
+ * de fase, de contador o los nombres de {@code ErrorCode}; los tiempos van en microsegundos.
+ */
+public interface MetricsMXBean {
+
+  /**
+   * Contadores: capturas, frames y dedos falsos.
+   */
+  Map<String, Long> getCounters();
+
+  /**
+   * Errores devueltos, por código; solo los que ocurrieron al menos una vez.
+   */
+  Map<String, Long> getErrors();
+
+  /**
+   * Mediciones registradas por fase.
+   */
+  Map<String, Long> getCounts();
+
+  Map<String, Long> getMeanMicros();
+
+  Map<String, Long> getP50Micros();
+
+  Map<String, Long> getP90Micros();
+
+  Map<String, Long> getP99Micros();
+
+  Map<String, Long> getMaxMicros();
+
+  /**
+   * Vacía histogramas y contadores.
+   */
+  void reset();
+}
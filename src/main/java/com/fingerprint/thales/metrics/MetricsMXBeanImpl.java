@@ -0,0 +1,83 @@
+package com.fingerprint.thales.metrics;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.MetricCounterEnum;
+import com.fingerprint.thales.enums.MetricPhaseEnum;
+import com.fingerprint.thales.exception.AcquisitionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Implementación del MBean: cada lectura toma una foto de los histogramas.
+ */
+class MetricsMXBeanImpl implements MetricsMXBean {
+
+  @Override
+  public Map<String, Long> getCounters() {
+    var counters = new LinkedHashMap<String, Long>();
+    for (MetricCounterEnum counter : MetricCounterEnum.values()) {
+      counters.put(counter.getValue(), Metrics.count(counter));
+    }
+    return counters;
+  }
+
+  @Override
+  public Map<String, Long> getErrors() {
+    var errors = new LinkedHashMap<String, Long>();
+    for (AcquisitionException.ErrorCode errorCode : AcquisitionException.ErrorCode.values()) {
+      long count = Metrics.errors(errorCode);
+      if (count > Constants.ZERO_LONG) {
+        errors.put(errorCode.name(), count);
+      }
+    }
+    return errors;
+  }
+
+  @Override
+  public Map<String, Long> getCounts() {
+    return byPhase(LatencyHistogram.Snapshot::count);
+  }
+
+  @Override
+  public Map<String, Long> getMeanMicros() {
+    return byPhase(snapshot -> toMicros(snapshot.mean()));
+  }
+
+  @Override
+  public Map<String, Long> getP50Micros() {
+    return byPhase(snapshot -> toMicros(snapshot.valueAt(Constants.QUANTILE_P50)));
+  }
+
+  @Override
+  public Map<String, Long> getP90Micros() {
+    return byPhase(snapshot -> toMicros(snapshot.valueAt(Constants.QUANTILE_P90)));
+  }
+
+  @Override
+  public Map<String, Long> getP99Micros() {
+    return byPhase(snapshot -> toMicros(snapshot.valueAt(Constants.QUANTILE_P99)));
+  }
+
+  @Override
+  public Map<String, Long> getMaxMicros() {
+    return byPhase(snapshot -> toMicros(snapshot.maxNanos()));
+  }
+
+  @Override
+  public void reset() {
+    Metrics.reset();
+  }
+
+  private static Map<String, Long> byPhase(ToLongFunction<LatencyHistogram.Snapshot> value) {
+    var values = new LinkedHashMap<String, Long>();
+    for (MetricPhaseEnum phase : MetricPhaseEnum.values()) {
+      values.put(phase.getValue(), value.applyAsLong(Metrics.snapshot(phase)));
+    }
+    return values;
+  }
+
+  private static long toMicros(long nanos) {
+    return nanos / Constants.NANOS_PER_MICRO;
+  }
+}
@@ -0,0 +1,130 @@
+package com.fingerprint.thales.metrics;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.MetricCounterEnum;
+import com.fingerprint.thales.enums.MetricPhaseEnum;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.utils.Schedulers;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escribe {@link Metrics} periódicamente en un archivo con el formato de texto de Prometheus,
+ * para el textfile collector de node_exporter. Cada fase es un summary
+ * ({@code thales_phase_seconds}, cuantiles 0.5 / 0.9 / 0.99) y los contadores son
+ * {@code thales_<contador>_total} y {@code thales_errors_total{code=...}}.
+ * <p>
+ * El archivo se escribe en uno temporal junto al destino y se mueve de forma atómica, así que
+ * el colector nunca lee uno a medias.
+ */
+@Slf4j
+public class PrometheusTextfileExporter implements AutoCloseable {
+
+  private static final double[] QUANTILES = {
+          Constants.QUANTILE_P50, Constants.QUANTILE_P90, Constants.QUANTILE_P99};
+
+  private final Path path;
+
+  private final Path tmp;
+
+  private final ScheduledFuture<?> task;
+
+  /**
+   * @param path       Archivo de destino (p. ej. {@code /var/lib/node_exporter/thales.prom}).
+   * @param intervalMs Periodo de escritura en milisegundos.
+   */
+  public PrometheusTextfileExporter(Path path, long intervalMs) {
+    this.path = path;
+    this.tmp = path.resolveSibling(path.getFileName() + Constants.METRICS_TMP_SUFFIX);
+    long period = Math.max(Constants.MILLISECONDS, intervalMs);
+    this.task = Schedulers.shared().scheduleWithFixedDelay(this::writeSafely, period, period,
+            TimeUnit.MILLISECONDS);
+    log.info(Constants.METRICS_EXPORTER_READY_LOG, path, period);
+  }
+
+  /**
+   * Crea el exportador si se configuró {@code -Dthales.metrics.textfile}.
+   *
+   * @return el exportador ya programado, o null si no está configurado.
+   */
+  public static PrometheusTextfileExporter fromSystemProperties() {
+    String file = System.getProperty(Constants.METRICS_TEXTFILE_PROPERTY);
+    if (file == null || file.isBlank()) {
+      return null;
+    }
+    return new PrometheusTextfileExporter(Path.of(file.trim()),
+            Long.getLong(Constants.METRICS_INTERVAL_PROPERTY, Constants.DEFAULT_METRICS_INTERVAL_MS));
+  }
+
+  private void writeSafely() {
+    try {
+      write();
+    } catch (IOException | RuntimeException e) {
+      log.warn("No se pudieron escribir las métricas en {}: {}", path, e.getMessage());
+    }
+  }
+
+  /**
+   * Escribe el archivo ahora.
+   */
+  public synchronized void write() throws IOException {
+    Files.writeString(tmp, render(), StandardCharsets.UTF_8);
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Texto de exposición con el estado actual de {@link Metrics}.
+   */
+  static String render() {
+    var out = new StringBuilder();
+    out.append("# HELP thales_phase_seconds Latencia por fase de la captura.\n")
+            .append("# TYPE thales_phase_seconds summary\n");
+    for (MetricPhaseEnum phase : MetricPhaseEnum.values()) {
+      var snapshot = Metrics.snapshot(phase);
+      String label = "{phase=\"" + phase.getValue() + "\"";
+      for (double quantile : QUANTILES) {
+        out.append("thales_phase_seconds").append(label)
+                .append(",quantile=\"").append(quantile).append("\"} ")
+                .append(seconds(snapshot.valueAt(quantile))).append('\n');
+      }
+      out.append("thales_phase_seconds_sum").append(label).append("} ")
+              .append(seconds(snapshot.sumNanos())).append('\n');
+      out.append("thales_phase_seconds_count").append(label).append("} ")
+              .append(snapshot.count()).append('\n');
+    }
+    for (MetricCounterEnum counter : MetricCounterEnum.values()) {
+      String name = "thales_" + counter.getValue() + "_total";
+      out.append("# TYPE ").append(name).append(" counter\n")
+              .append(name).append(' ').append(Metrics.count(counter)).append('\n');
+    }
+    out.append("# HELP thales_errors_total Errores devueltos, por código.\n")
+            .append("# TYPE thales_errors_total counter\n");
+    for (AcquisitionException.ErrorCode errorCode : AcquisitionException.ErrorCode.values()) {
+      long count = Metrics.errors(errorCode);
+      if (count > Constants.ZERO_LONG) {
+        out.append("thales_errors_total{code=\"").append(errorCode.name()).append("\"} ")
+                .append(count).append('\n');
+      }
+    }
+    return out.toString();
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / Constants.NANOS_PER_SECOND;
+  }
+
+  /**
+   * Detiene la escritura periódica y deja el archivo con los valores finales.
+   */
+  @Override
+  public void close() {
+    task.cancel(false);
+    writeSafely();
+  }
+}
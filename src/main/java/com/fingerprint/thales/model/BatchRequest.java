@@ -0,0 +1,114 @@
+package com.fingerprint.thales.model;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.RunModesEnum;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.utils.Jsons;
+import java.io.IOException;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * Una solicitud del modo batch: una línea JSON, p. ej.
+ * {@code {"id":"r1","timeout":30,"threshold":50,"finger":"FLAT_RIGHT_INDEX","mock":false}}.
+ * Todos los campos son opcionales y toman el mismo valor por defecto que en la CLI.
+ *
+ * @param id        Identificador que se devuelve en la respuesta ({@code request_id} también
+ *                  se acepta); si falta, se usa el número de línea.
+ * @param timeout   Timeout en segundos.
+ * @param threshold Umbral de la verificación 1:1 (0-100).
+ * @param finger    Objeto(s) GBMSAPI separados por comas ({@code objects} también se acepta).
+ *                  Un solo objeto es una captura simple de ese objeto (respuesta como la de la
+ *                  CLI); con varios, la captura es por lotes (respuesta {@code Fingers}).
+ * @param device    Serial del escáner o "any".
+ * @param mock      true para devolver la huella simulada.
+ * @param priority  operator | automated.
+ * @param reference Template de referencia en Base64 para verificar la huella capturada; no se
+ *                  admite con varios objetos (PARAMETER).
+ * @param identify  true para buscar la huella en la galería (identificación 1:N, como el modo
+ *                  identify); no admite {@code finger} ni {@code reference} (PARAMETER).
+ * @param enroll    Solo con {@code identify}: identificador con el que enrolar la huella si no
+ *                  hay candidatos.
+ */
+@Builder
+public record BatchRequest(
+        @JsonProperty(Constants.FIELD_ID) @JsonAlias(Constants.FIELD_REQUEST_ID) String id,
+        @JsonProperty(Constants.PARAM_TIMEOUT) Long timeout,
+        @JsonProperty(Constants.FIELD_THRESHOLD) Integer threshold,
+        @JsonProperty(Constants.FIELD_FINGER) @JsonAlias(Constants.PARAM_OBJECTS) String finger,
+        @JsonProperty(Constants.PARAM_DEVICE) String device,
+        @JsonProperty(Constants.FIELD_MOCK) Boolean mock,
+        @JsonProperty(Constants.PARAM_PRIORITY) String priority,
+        @JsonProperty(Constants.PARAM_REFERENCE) String reference,
+        @JsonProperty(Constants.FIELD_IDENTIFY) Boolean identify,
+        @JsonProperty(Constants.PARAM_ENROLL) String enroll
+) {
+
+  /**
+   * Reader compartido (los ObjectReader son inmutables y thread-safe).
+   */
+  private static final ObjectReader READER = Jsons.readerFor(BatchRequest.class);
+
+  /**
+   * Parsea una línea JSONL.
+   *
+   * @throws AcquisitionException PARAMETER si la línea no es un objeto JSON válido.
+   */
+  public static BatchRequest parse(String line) {
+    try {
+      return READER.readValue(line);
+    } catch (IOException e) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER, e);
+    }
+  }
+
+  /**
+   * Convierte la solicitud a los mismos argumentos que usa el resto de modos. Con un solo
+   * objeto en {@code finger}, la solicitud es una captura simple de ese objeto; con
+   * {@code identify}, una identificación 1:N.
+   *
+   * @throws AcquisitionException PARAMETER si trae {@code reference} con varios objetos,
+   *                              {@code identify} con {@code finger} o {@code reference}, o
+   *                              {@code enroll} sin {@code identify}.
+   */
+  public RequestArg toRequestArg() {
+    boolean identification = Boolean.TRUE.equals(identify);
+    RequestArg request = RequestArg.from(new String[]{
+            timeout == null ? Constants.EMPTY_STR : String.valueOf(timeout),
+            threshold == null ? Constants.EMPTY_STR : String.valueOf(threshold),
+            String.valueOf(Boolean.TRUE.equals(mock)),
+            String.valueOf(Constants.DEFAULT_LOGS_ENABLED),
+            identification ? RunModesEnum.IDENTIFY.getValue() : RunModesEnum.BATCH.getValue(),
+            device == null ? Constants.EMPTY_STR : device,
+            finger == null ? Constants.EMPTY_STR : finger,
+            priority == null ? Constants.EMPTY_STR : priority,
+            reference == null ? Constants.EMPTY_STR : reference,
+            enroll == null ? Constants.EMPTY_STR : enroll
+    });
+    if (identification) {
+      // La identificación no elige objeto ni verifica: se rechaza en vez de ignorar esos campos.
+      if (!request.objects().isEmpty() || request.reference() != null) {
+        throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER);
+      }
+      return request;
+    }
+    if (request.enroll() != null) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER);
+    }
+    if (request.objects().size() == Constants.ONE) {
+      return request.toBuilder().objects(List.of()).object(request.objects().get(0)).build();
+    }
+    request.batchObjects();
+    return request;
+  }
+
+  /**
+   * Identificador de la solicitud, o {@code fallback} si la línea no trae uno.
+   */
+  public String idOr(String fallback) {
+    return id == null || id.isBlank() ? fallback : id;
+  }
+}
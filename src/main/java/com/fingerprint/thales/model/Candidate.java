@@ -0,0 +1,22 @@
+package com.fingerprint.thales.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fingerprint.thales.constants.Constants;
+
+/**
+ * Candidato de una identificación 1:N: un template de la galería y su puntuación contra la huella
+ * capturada.
+ *
+ * @param id    Identificador con el que se enroló el template.
+ * @param score Puntuación de 0 a 100 (la misma escala que la verificación 1:1).
+ */
+@JsonPropertyOrder({
+        Constants.REQUEST_ID,
+        Constants.SCORE
+})
+public record Candidate(
+        @JsonProperty(Constants.REQUEST_ID) String id,
+        @JsonProperty(Constants.SCORE) int score
+) {
+}
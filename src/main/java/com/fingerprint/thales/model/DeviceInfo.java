@@ -0,0 +1,31 @@
+package com.fingerprint.thales.model;
+
+import lombok.Builder;
+
+/**
+ * Dispositivo detectado y configurado durante la inicialización.
+ *
+ * @param deviceId                   Identificador de modelo GBMSAPI (DeviceID).
+ * @param serial                     Número de serie, sin relleno.
+ * @param type                       Nombre legible del modelo.
+ * @param scanOptions                Opciones de escaneo soportadas.
+ * @param scannableTypes             Tipos de objeto escaneables.
+ * @param obfuscatedPreviewSupported Si admite el modo OBFUSCATED_PREVIEW.
+ */
+@Builder
+public record DeviceInfo(
+        Byte deviceId,
+        String serial,
+        String type,
+        int scanOptions,
+        int scannableTypes,
+        boolean obfuscatedPreviewSupported
+) {
+
+  /**
+   * Clave del dispositivo (DeviceID + serial).
+   */
+  public DeviceKey key() {
+    return new DeviceKey(deviceId, serial);
+  }
+}
@@ -0,0 +1,22 @@
+package com.fingerprint.thales.model;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceInfoStruct;
+import com.fingerprint.thales.utils.GbmsApiDeviceUtil;
+
+/**
+ * Identidad de un escáner conectado: modelo (DeviceID) + número de serie, tal como los devuelve
+ * {@code GBMSAPI_GetAttachedDeviceList} en {@link com.fingerprint.thales.jna.FixedDeviceInfoStruct}.
+ *
+ * @param deviceId Identificador de modelo GBMSAPI.
+ * @param serial   Número de serie, sin relleno.
+ */
+public record DeviceKey(Byte deviceId, String serial) {
+
+  /**
+   * Crea la clave a partir de una entrada de la lista de dispositivos conectados.
+   */
+  public static DeviceKey from(GBMSAPI_JAVA_DeviceInfoStruct struct) {
+    return new DeviceKey(struct.DeviceID,
+            GbmsApiDeviceUtil.extractStringFromByteArray(struct.DeviceSerialNumber).trim());
+  }
+}
@@ -0,0 +1,40 @@
+package com.fingerprint.thales.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fingerprint.thales.constants.Constants;
+import lombok.Builder;
+
+/**
+ * Estado de un escáner registrado y métricas de su cola de capturas (tiempos en milisegundos).
+ */
+@Builder
+@JsonPropertyOrder({
+        Constants.SERIAL,
+        Constants.DEVICE_TYPE,
+        Constants.STATE,
+        Constants.PENDING,
+        Constants.QUEUED,
+        Constants.REJECTED,
+        Constants.EXPIRED,
+        Constants.COMPLETED,
+        Constants.QUEUE_WAIT_AVG_MS,
+        Constants.QUEUE_WAIT_MAX_MS,
+        Constants.CAPTURE_AVG_MS,
+        Constants.CAPTURE_MAX_MS
+})
+public record DeviceStatus(
+        @JsonProperty(Constants.SERIAL) String serial,
+        @JsonProperty(Constants.DEVICE_TYPE) String type,
+        @JsonProperty(Constants.STATE) String state,
+        @JsonProperty(Constants.PENDING) int pending,
+        @JsonProperty(Constants.QUEUED) int queued,
+        @JsonProperty(Constants.REJECTED) long rejected,
+        @JsonProperty(Constants.EXPIRED) long expired,
+        @JsonProperty(Constants.COMPLETED) long completed,
+        @JsonProperty(Constants.QUEUE_WAIT_AVG_MS) long queueWaitAvgMs,
+        @JsonProperty(Constants.QUEUE_WAIT_MAX_MS) long queueWaitMaxMs,
+        @JsonProperty(Constants.CAPTURE_AVG_MS) long captureAvgMs,
+        @JsonProperty(Constants.CAPTURE_MAX_MS) long captureMaxMs
+) {
+}
@@ -0,0 +1,61 @@
+package com.fingerprint.thales.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import java.util.Base64;
+import java.util.Map;
+import lombok.Builder;
+
+/**
+ * Resultado de un objeto dentro de una captura por lotes: el template o el error de ese dedo.
+ *
+ * @param object    Objeto escaneado (p. ej. FLAT_RIGHT_INDEX, SLAP_4_LEFT).
+ * @param template  Template ISO/INE capturado, o null si falló.
+ * @param templates Template en los formatos de {@code -Dthales.template.formats}, o null.
+ * @param error     Mensaje de error (formato IDEMIA), o null si se capturó.
+ * @param code      Código Thales del error (ver {@link ResponseError#code()}), o null si se
+ *                  capturó.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+        Constants.OBJECT,
+        Constants.FINGERPRINT,
+        Constants.TEMPLATES,
+        Constants.ERROR
+})
+public record FingerResult(
+        @JsonProperty(Constants.OBJECT) String object,
+        @JsonIgnore byte[] template,
+        @JsonIgnore Map<TemplateFormatEnum, byte[]> templates,
+        @JsonProperty(Constants.ERROR) String error,
+        @JsonIgnore Integer code
+) {
+
+  /**
+   * Huella en Base64, o null si el dedo falló.
+   */
+  @JsonProperty(Constants.FINGERPRINT)
+  public String fingerprint() {
+    return template == null ? null : Base64.getEncoder().encodeToString(template);
+  }
+
+  /**
+   * Templates adicionales en Base64, por formato, o null si no hay.
+   */
+  @JsonProperty(Constants.TEMPLATES)
+  public Map<String, String> templatesBase64() {
+    return ResponseOk.toBase64(templates);
+  }
+
+  /**
+   * Indica si el dedo se capturó correctamente.
+   */
+  public boolean succeeded() {
+    return error == null && template != null;
+  }
+}
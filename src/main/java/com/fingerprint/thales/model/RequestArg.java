@@ -1,25 +1,53 @@
 package com.fingerprint.thales.model;
 
 import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.CapturePriorityEnum;
+import com.fingerprint.thales.enums.RunModesEnum;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.template.Verification;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import lombok.Builder;
 
 /**
  * Modelo de argumentos de solicitud.
+ * <p>
+ * {@code object} es el objeto de una captura simple (null para el índice derecho); solo lo fija
+ * una línea del modo batch con un único {@code finger} ({@link BatchRequest#toRequestArg()}).
  */
-@Builder
+@Builder(toBuilder = true)
 public record RequestArg(
         Long timeout,
         int threshold,
         boolean isMock,
-        boolean logsEnabled
+        boolean logsEnabled,
+        RunModesEnum mode,
+        String device,
+        List<String> objects,
+        CapturePriorityEnum priority,
+        String reference,
+        String enroll,
+        String object
 ) {
 
   /**
    * Crea una instancia de RequestArg a partir de un array de Strings.
-   * El array puede contener hasta 4 elementos:
+   * El array puede contener hasta 10 elementos:
    * - args[0]: timeout en segundos (int, por defecto 30)
-   * - args[1]: isMock (boolean, por defecto false)
-   * - args[2]: logsEnabled (boolean, por defecto false)
+   * - args[1]: threshold (int, por defecto 50): puntuación mínima de la verificación 1:1
+   * - args[2]: isMock (boolean, por defecto false)
+   * - args[3]: logsEnabled (boolean, por defecto false)
+   * - args[4]: mode (cli | daemon | server | batch | identify, por defecto cli; en una línea del
+   *   daemon, identify pide la identificación 1:N de esa captura)
+   * - args[5]: device (serial del escaner o "any", por defecto any)
+   * - args[6]: objects (lista separada por comas, p. ej. FLAT_RIGHT_INDEX,SLAP_4_LEFT; si se
+   *   indica, la captura es por lotes; "-" equivale a no indicarla)
+   * - args[7]: priority (operator | automated, por defecto operator)
+   * - args[8]: reference (template ISO/ANSI/INE en Base64; si se indica, la huella capturada se
+   *   verifica contra él; "-" equivale a no indicarla)
+   * - args[9]: enroll (solo en identify: identificador con el que enrolar la huella en la
+   *   galería si no hay candidatos)
    * Si algun valor no es valido o no esta presente, se usa el valor por defecto.
    *
    * @param args Array de Strings con los parametros.
@@ -35,6 +63,18 @@ public record RequestArg(
 
     boolean logsEnabled = Constants.DEFAULT_LOGS_ENABLED;
 
+    RunModesEnum mode = RunModesEnum.CLI;
+
+    String device = Constants.DEVICE_ANY;
+
+    List<String> objects = List.of();
+
+    CapturePriorityEnum priority = CapturePriorityEnum.OPERATOR;
+
+    String reference = null;
+
+    String enroll = null;
+
     if (args != null) {
       if (args.length >= Constants.ONE)
         timeout = parseLongOrDefault(args[Constants.ZERO]);
@@ -44,6 +84,18 @@ public record RequestArg(
         isMock = parseBoolOrDefault(args[Constants.TWO]);
       if (args.length >= Constants.FOUR)
         logsEnabled = parseBoolOrDefault(args[Constants.THREE]);
+      if (args.length >= Constants.FIVE)
+        mode = RunModesEnum.fromValue(args[Constants.FOUR]);
+      if (args.length >= Constants.SIX && !args[Constants.FIVE].isBlank())
+        device = args[Constants.FIVE].trim();
+      if (args.length >= Constants.SEVEN)
+        objects = parseObjects(args[Constants.SIX]);
+      if (args.length >= Constants.EIGHT)
+        priority = CapturePriorityEnum.fromValue(args[Constants.SEVEN]);
+      if (args.length >= Constants.NINE)
+        reference = parseOptional(args[Constants.EIGHT]);
+      if (args.length >= Constants.TEN)
+        enroll = parseOptional(args[Constants.NINE]);
     }
 
     return RequestArg.builder()
@@ -51,9 +103,112 @@ public record RequestArg(
             .threshold(threshold)
             .isMock(isMock)
             .logsEnabled(logsEnabled)
+            .mode(mode)
+            .device(device)
+            .objects(objects)
+            .priority(priority)
+            .reference(reference)
+            .enroll(enroll)
             .build();
   }
 
+  /**
+   * Crea una instancia de RequestArg a partir de los parámetros de una URL del modo servidor
+   * ({@code timeout} en segundos, {@code device}, {@code objects}, {@code priority},
+   * {@code threshold}, {@code reference}, {@code enroll}). Los parámetros ausentes o inválidos toman el mismo valor
+   * por defecto que en la CLI.
+   *
+   * @param params Parámetros de la query string, ya decodificados.
+   * @return Instancia de RequestArg en modo servidor.
+   */
+  public static RequestArg fromQuery(Map<String, String> params) {
+    String timeout = params.get(Constants.PARAM_TIMEOUT);
+    String device = params.get(Constants.PARAM_DEVICE);
+    String threshold = params.get(Constants.FIELD_THRESHOLD);
+    return RequestArg.builder()
+            .timeout(timeout == null ? Constants.DEFAULT_TIMEOUT : parseLongOrDefault(timeout))
+            .threshold(threshold == null ? Constants.DEFAULT_THRESHOLD : parseIntOrDefault(threshold))
+            .isMock(Boolean.FALSE)
+            .logsEnabled(Constants.DEFAULT_LOGS_ENABLED)
+            .mode(RunModesEnum.SERVER)
+            .device(device == null || device.isBlank() ? Constants.DEVICE_ANY : device.trim())
+            .objects(parseObjects(params.get(Constants.PARAM_OBJECTS)))
+            .priority(CapturePriorityEnum.fromValue(params.get(Constants.PARAM_PRIORITY)))
+            .reference(parseOptional(params.get(Constants.PARAM_REFERENCE)))
+            .enroll(parseOptional(params.get(Constants.PARAM_ENROLL)))
+            .build();
+  }
+
+  /**
+   * Indica si la solicitud es una captura por lotes.
+   */
+  public boolean isBatch() {
+    return !objects.isEmpty();
+  }
+
+  /**
+   * Indica si la solicitud es una identificación 1:N.
+   */
+  public boolean isIdentify() {
+    return mode == RunModesEnum.IDENTIFY;
+  }
+
+  /**
+   * Objetos de la captura por lotes, comprobando que no se pidió además una verificación.
+   *
+   * @throws AcquisitionException PARAMETER si la solicitud trae {@code reference}.
+   */
+  public List<String> batchObjects() {
+    verification();
+    return objects;
+  }
+
+  /**
+   * Objeto de la captura simple.
+   */
+  public String captureObject() {
+    return object == null ? Constants.FLAT_RIGHT_INDEX : object;
+  }
+
+  /**
+   * Verificación 1:1 pedida con {@code reference}, o null si no se indicó.
+   *
+   * @throws AcquisitionException PARAMETER si la referencia no es un template válido, o si viene
+   *                              en un lote (un lote no se verifica, y descartarla en silencio
+   *                              daría por buena una captura sin comparar).
+   */
+  public Verification verification() {
+    if (isBatch()) {
+      if (reference == null || reference.isBlank()) return null;
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER,
+              new IllegalArgumentException("reference no se admite en una captura por lotes"));
+    }
+    return Verification.parse(reference, threshold);
+  }
+
+  /**
+   * Parsea la lista de objetos separada por comas, ignorando entradas vacias y "-".
+   *
+   * @param arg String a parsear.
+   * @return Lista de nombres de objeto en mayusculas.
+   */
+  private static List<String> parseObjects(String arg) {
+    if (arg == null) return List.of();
+    return Arrays.stream(arg.split(Constants.OBJECT_SEPARATOR))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty() && !Constants.NO_VALUE.equals(value))
+            .map(String::toUpperCase)
+            .toList();
+  }
+
+  /**
+   * Valor opcional: null si no viene, está vacío o es "-".
+   */
+  private static String parseOptional(String arg) {
+    if (arg == null || arg.isBlank() || Constants.NO_VALUE.equals(arg.trim())) return null;
+    return arg.trim();
+  }
+
   /**
    * Parsea un String a Long, devolviendo un valor por defecto si falla.
    *
@@ -0,0 +1,15 @@
+package com.fingerprint.thales.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fingerprint.thales.constants.Constants;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * Respuesta de una captura por lotes: un resultado por objeto, en el orden solicitado.
+ */
+@Builder
+public record ResponseBatch(
+        @JsonProperty(Constants.FINGERS) List<FingerResult> fingers
+) {
+}
@@ -70,7 +70,7 @@ public record ResponseError(
 
       // ERRORES DE CONEXIÓN / DISPOSITIVO
       case USB_DRIVER -> IdemiaError.DEVICE_CONNECT_FAILED;
-      case DEVICE_NOT_RESPONDING, ACQUISITION_TIMEOUT -> IdemiaError.TIMEOUT;
+      case DEVICE_NOT_RESPONDING, ACQUISITION_TIMEOUT, QUEUE_DEADLINE_EXCEEDED -> IdemiaError.TIMEOUT;
       case SCANNER_COMMUNICATION, USB_THREAD -> IdemiaError.COMM_PROTOCOL_ERROR;
       case DEVICE_LOCKED -> IdemiaError.DEVICE_BLOCKED;
 
@@ -92,7 +92,7 @@ public record ResponseError(
 
       // ERRORES DE CAPTURA / ADQUISICIÓN
       case ACQUISITION_THREAD -> IdemiaError.COMM_RETURN_ERROR_RANGE;
-      case ACQUISITION_ALREADY_STARTED -> IdemiaError.ABORTED;
+      case ACQUISITION_ALREADY_STARTED, ACQUISITION_CANCELLED, QUEUE_FULL -> IdemiaError.ABORTED;
       case OUTSIDE_ACQUISITION -> IdemiaError.INVALID_PARAMETER;
       case NOT_ALLOWED_FAKE_FINGER_DETECTED -> IdemiaError.FAKE_FINGER_DETECTED;
     };
@@ -1,16 +1,89 @@
 package com.fingerprint.thales.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.Builder;
 
 /**
  * Modelo de respuesta OK en formato JSON.
+ * <p>
+ * La huella puede venir ya en Base64 ({@code fingerprint}, p. ej. el mock) o como bytes del
+ * template ({@code template}); en el segundo caso el Base64 solo se genera si alguien lo pide,
+ * y {@link com.fingerprint.thales.utils.ResponseWriter} lo codifica directo sobre la salida.
+ * <p>
+ * {@code templates} lleva el mismo template en los formatos pedidos con
+ * {@code -Dthales.template.formats}; sale como el objeto {@code Templates} y es null si no se
+ * pidió ninguno.
+ * <p>
+ * {@code score} y {@code match} solo vienen en una captura con verificación 1:1 (la solicitud
+ * trae un template de referencia): puntuación de 0 a 100 y si alcanza el umbral.
+ * <p>
+ * {@code candidates} solo viene en una captura con identificación 1:N (puede estar vacío), y
+ * {@code enrolled} si además la huella se enroló en la galería.
  */
 @Builder
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+        Constants.FINGERPRINT,
+        Constants.TEMPLATES,
+        Constants.SCORE,
+        Constants.MATCH,
+        Constants.CANDIDATES,
+        Constants.ENROLLED
+})
 public record ResponseOk(
-        @JsonProperty(Constants.FINGERPRINT) String fingerprint
+        @JsonProperty(Constants.FINGERPRINT) String fingerprint,
+        @JsonIgnore byte[] template,
+        @JsonIgnore Map<TemplateFormatEnum, byte[]> templates,
+        @JsonProperty(Constants.SCORE) Integer score,
+        @JsonProperty(Constants.MATCH) Boolean match,
+        @JsonProperty(Constants.CANDIDATES) List<Candidate> candidates,
+        @JsonProperty(Constants.ENROLLED) String enrolled
 ) {
+
+  /**
+   * Huella en Base64.
+   */
+  @Override
+  @JsonProperty(Constants.FINGERPRINT)
+  public String fingerprint() {
+    if (fingerprint == null && template != null) {
+      return Base64.getEncoder().encodeToString(template);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Indica si la respuesta contiene una huella no vacía.
+   */
+  public boolean hasFingerprint() {
+    return (template != null && template.length > Constants.ZERO)
+            || (fingerprint != null && !fingerprint.isBlank());
+  }
+
+  /**
+   * Templates adicionales en Base64, por formato, o null si no hay.
+   */
+  @JsonProperty(Constants.TEMPLATES)
+  public Map<String, String> templatesBase64() {
+    return toBase64(templates);
+  }
+
+  static Map<String, String> toBase64(Map<TemplateFormatEnum, byte[]> templates) {
+    if (templates == null || templates.isEmpty()) {
+      return null;
+    }
+    var encoded = new LinkedHashMap<String, String>();
+    templates.forEach((format, bytes) ->
+            encoded.put(format.getValue(), Base64.getEncoder().encodeToString(bytes)));
+    return encoded;
+  }
 }
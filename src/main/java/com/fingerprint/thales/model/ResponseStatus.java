@@ -0,0 +1,18 @@
+package com.fingerprint.thales.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fingerprint.thales.constants.Constants;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * Respuesta de los endpoints de estado y cancelación del modo servidor.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResponseStatus(
+        @JsonProperty(Constants.DEVICES) List<DeviceStatus> devices,
+        @JsonProperty(Constants.CANCELLED) Integer cancelled
+) {
+}
@@ -0,0 +1,418 @@
+package com.fingerprint.thales.sdk;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_AcquisitionEvents;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceInfoStruct;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_ErrorCodesDefines.GBMSAPI_JAVA_ErrorCodes;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.fingerprint.thales.constants.Constants;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import lombok.Getter;
+
+/**
+ * Vista del SDK ligada a un dispositivo concreto.
+ * <p>
+ * En GBMSAPI el dispositivo actual ({@code SetCurrentDevice}) es global al proceso, así que
+ * cada llamada de configuración o consulta del dispositivo se hace bajo un lock compartido por
+ * todas las vistas del mismo {@link Selector}, seleccionando antes el dispositivo si no es el
+ * actual. Las funciones globales (carga de la librería, enumeración) pasan directo.
+ * <p>
+ * Una adquisición deja su dispositivo fijado como actual de principio a fin: desde
+ * {@code StartAcquisition} hasta que el callback de ACQUISITION_END o ACQUISITION_ERROR vuelve, o
+ * hasta que {@code StopAcquisition} termina. Mientras tanto los demás dispositivos esperan para
+ * cambiar la selección, así que las capturas de escáneres distintos no se solapan: nada garantiza
+ * que GBMSAPI aplique las llamadas del callback al dispositivo que adquiere y no al actual.
+ * <p>
+ * El lock nunca se toma en el hilo del callback (salvo un instante para soltar la reserva al
+ * final) ni se retiene durante una llamada con callbacks:
+ * <ul>
+ *   <li>{@code GetFingerprintContrast}, {@code GetIso19794_2_2005_Template} e
+ *   {@code ImageFinalization} se llaman desde el callback y pasan directo: el dispositivo que
+ *   adquiere sigue siendo el actual.</li>
+ *   <li>{@code StartAcquisition} y {@code StopAcquisition} (que espera a que el callback en curso
+ *   vuelva) seleccionan el dispositivo bajo el lock y lo dejan reservado, con el lock libre
+ *   durante la llamada.</li>
+ * </ul>
+ */
+public class DeviceBoundGbmsSdk implements GbmsSdk {
+
+  private final Selector selector;
+
+  @Getter
+  private final Byte deviceId;
+
+  @Getter
+  private final String serial;
+
+  /**
+   * Callback que se entrega al SDK: siempre el mismo objeto, para no crear un callback nativo
+   * por adquisición.
+   */
+  private final PinnedCallback pinnedCallback = new PinnedCallback();
+
+  /**
+   * Reserva de la adquisición en curso (o de la última).
+   */
+  private volatile Pin pin;
+
+  private DeviceBoundGbmsSdk(Selector selector, Byte deviceId, String serial) {
+    this.selector = selector;
+    this.deviceId = deviceId;
+    this.serial = serial;
+  }
+
+  /**
+   * Crea el selector compartido para un SDK. Todas las vistas de dispositivo sobre el mismo
+   * SDK deben salir del mismo selector.
+   */
+  public static Selector selectorFor(GbmsSdk delegate) {
+    return new Selector(delegate);
+  }
+
+  /**
+   * Serializa el cambio de dispositivo actual y recuerda cuál está seleccionado para no
+   * repetir {@code SetCurrentDevice} entre llamadas consecutivas al mismo dispositivo.
+   */
+  public static final class Selector {
+
+    private final GbmsSdk delegate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    private String current;
+
+    /**
+     * Dispositivo reservado por una adquisición o un StopAcquisition en curso, o null.
+     */
+    private String reserved;
+
+    private int reservations;
+
+    private Selector(GbmsSdk delegate) {
+      this.delegate = delegate;
+    }
+
+    /**
+     * Devuelve la vista del SDK para el dispositivo indicado.
+     */
+    public DeviceBoundGbmsSdk bind(Byte deviceId, String serial) {
+      return new DeviceBoundGbmsSdk(this, deviceId, serial);
+    }
+
+    /**
+     * Olvida el dispositivo seleccionado (p. ej. tras reinicializar la librería).
+     */
+    public void invalidate() {
+      lock.lock();
+      try {
+        current = null;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Enumera los dispositivos conectados bajo el lock, para no cruzarse con una llamada
+     * de otro dispositivo en curso (p. ej. al sondear conexiones en caliente).
+     */
+    public int getAttachedDeviceList(GBMSAPI_JAVA_DeviceInfoStruct[] devices,
+                                     IntByReference deviceCount, IntByReference usbError) {
+      lock.lock();
+      try {
+        return delegate.getAttachedDeviceList(devices, deviceCount, usbError);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Selecciona el dispositivo, esperando si otro dispositivo lo tiene reservado; debe llamarse
+     * con el lock tomado.
+     */
+    private int select(Byte deviceId, String serial) {
+      boolean interrupted = false;
+      while (reserved != null && !reserved.equals(serial)) {
+        try {
+          released.await();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (serial.equals(current)) {
+        return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+      }
+      int result = delegate.setCurrentDevice(deviceId, serial);
+      current = result == GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR ? serial : null;
+      return result;
+    }
+
+    /**
+     * Selecciona el dispositivo y lo reserva hasta {@link #release()}, sin retener el lock.
+     */
+    private int reserve(Byte deviceId, String serial) {
+      lock.lock();
+      try {
+        int result = select(deviceId, serial);
+        if (result == GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+          reserved = serial;
+          reservations++;
+        }
+        return result;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void release() {
+      lock.lock();
+      try {
+        if (--reservations == Constants.ZERO) {
+          reserved = null;
+          released.signalAll();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private int call(IntSupplier operation) {
+    selector.lock.lock();
+    try {
+      int result = selector.select(deviceId, serial);
+      return result != GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR
+              ? result : operation.getAsInt();
+    } finally {
+      selector.lock.unlock();
+    }
+  }
+
+  /**
+   * StopAcquisition: el dispositivo queda seleccionado y reservado durante la llamada, con el
+   * lock libre.
+   */
+  private int acquisitionCall(IntSupplier operation) {
+    int result = selector.reserve(deviceId, serial);
+    if (result != GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+      return result;
+    }
+    try {
+      return operation.getAsInt();
+    } finally {
+      selector.release();
+    }
+  }
+
+  private GbmsSdk delegate() {
+    return selector.delegate;
+  }
+
+  /**
+   * Reserva de una adquisición: se suelta una sola vez, sea por el evento final o por
+   * StopAcquisition.
+   */
+  private final class Pin {
+
+    private final AtomicBoolean held = new AtomicBoolean(true);
+
+    private void release() {
+      if (held.compareAndSet(true, false)) {
+        selector.release();
+      }
+    }
+  }
+
+  /**
+   * Reenvía los eventos al callback del llamante y, cuando vuelve el de ACQUISITION_END o
+   * ACQUISITION_ERROR, suelta la reserva de esa adquisición. La reserva se lee antes de reenviar:
+   * si el llamante arranca la siguiente adquisición desde el propio callback, no se suelta la
+   * nueva.
+   */
+  private final class PinnedCallback
+          implements GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface {
+
+    private volatile GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface target;
+
+    @Override
+    public int invoke(int eventCode, int frameError, int eventInfo, Pointer framePtr,
+                      int sizeX, int sizeY, double currentRate, double nominalRate,
+                      int diagnostic, Pointer userParams) {
+      Pin acquisition = pin;
+      try {
+        return target.invoke(eventCode, frameError, eventInfo, framePtr, sizeX, sizeY,
+                currentRate, nominalRate, diagnostic, userParams);
+      } finally {
+        if (acquisition != null
+                && (eventCode == GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_END
+                || eventCode == GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_ERROR)) {
+          acquisition.release();
+        }
+      }
+    }
+  }
+
+  @Override
+  public int loadLibrary() {
+    return delegate().loadLibrary();
+  }
+
+  @Override
+  public int unloadLibrary() {
+    selector.invalidate();
+    return delegate().unloadLibrary();
+  }
+
+  @Override
+  public void getMultiScanApiVersion(ByteByReference major, ByteByReference minor,
+                                     ByteByReference build, ByteByReference revision) {
+    delegate().getMultiScanApiVersion(major, minor, build, revision);
+  }
+
+  @Override
+  public int getAttachedDeviceList(GBMSAPI_JAVA_DeviceInfoStruct[] devices,
+                                   IntByReference deviceCount, IntByReference usbError) {
+    return selector.getAttachedDeviceList(devices, deviceCount, usbError);
+  }
+
+  /**
+   * La vista ya está ligada a su dispositivo: solo se acepta seleccionar ese mismo.
+   */
+  @Override
+  public int setCurrentDevice(Byte deviceId, String serialNumber) {
+    if (!serial.equals(serialNumber)) {
+      return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_PARAMETER;
+    }
+    return call(() -> GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR);
+  }
+
+  @Override
+  public int getDeviceFeatures(IntByReference features) {
+    return call(() -> delegate().getDeviceFeatures(features));
+  }
+
+  @Override
+  public int getSupportedScanOptions(IntByReference scanOptions) {
+    return call(() -> delegate().getSupportedScanOptions(scanOptions));
+  }
+
+  @Override
+  public int getScannableTypes(IntByReference scannableTypes) {
+    return call(() -> delegate().getScannableTypes(scannableTypes));
+  }
+
+  @Override
+  public int flatAutoCaptureModeIsSupported(int mode, IntByReference supported) {
+    return call(() -> delegate().flatAutoCaptureModeIsSupported(mode, supported));
+  }
+
+  @Override
+  public int setFlatAutoCaptureMode(int mode) {
+    return call(() -> delegate().setFlatAutoCaptureMode(mode));
+  }
+
+  @Override
+  public int setSelectImageTimeout(int timeout) {
+    return call(() -> delegate().setSelectImageTimeout(timeout));
+  }
+
+  @Override
+  public int setMembraneUsageForFakeFingerDetection(int membraneUsage) {
+    return call(() -> delegate().setMembraneUsageForFakeFingerDetection(membraneUsage));
+  }
+
+  @Override
+  public int enableAutoCaptureBlockForDetectedFakes(byte enable) {
+    return call(() -> delegate().enableAutoCaptureBlockForDetectedFakes(enable));
+  }
+
+  /**
+   * Selecciona el dispositivo y lo deja reservado hasta el final de la adquisición. La reserva
+   * se toma antes de la llamada porque el primer evento puede llegar antes de que vuelva.
+   */
+  @Override
+  public int startAcquisition(int objToScan, int options,
+                              GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                              Pointer userParams, int displayOptions,
+                              byte contrastLimitToDisplay, byte completenessLimitToDisplay) {
+    int result = selector.reserve(deviceId, serial);
+    if (result != GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+      return result;
+    }
+    var acquisition = new Pin();
+    pin = acquisition;
+    pinnedCallback.target = callback;
+    result = delegate().startAcquisition(objToScan, options, pinnedCallback, userParams,
+            displayOptions, contrastLimitToDisplay, completenessLimitToDisplay);
+    if (result != GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+      acquisition.release();
+    }
+    return result;
+  }
+
+  /**
+   * Al volver, la adquisición que estaba en curso ha terminado: se suelta su reserva.
+   */
+  @Override
+  public int stopAcquisition() {
+    Pin acquisition = pin;
+    try {
+      return acquisitionCall(() -> delegate().stopAcquisition());
+    } finally {
+      if (acquisition != null) {
+        acquisition.release();
+      }
+    }
+  }
+
+  /**
+   * Se llama en cada frame desde el callback: directo, sin lock ni selección (el dispositivo
+   * está fijado mientras adquiere).
+   */
+  @Override
+  public int getFingerprintContrast(ByteByReference contrast) {
+    return delegate().getFingerprintContrast(contrast);
+  }
+
+  @Override
+  public int getTemplateBufferSize(IntByReference size) {
+    return call(() -> delegate().getTemplateBufferSize(size));
+  }
+
+  /**
+   * Se llama desde el callback de ACQUISITION_END: directo, sin lock ni selección (la reserva
+   * se suelta cuando el callback vuelve).
+   */
+  @Override
+  public int getIso19794Template(Pointer buffer, int bufferSize, IntByReference templateSize) {
+    return delegate().getIso19794Template(buffer, bufferSize, templateSize);
+  }
+
+  /**
+   * Se llama desde el callback de ACQUISITION_END: directo, sin lock ni selección (la reserva
+   * se suelta cuando el callback vuelve).
+   */
+  @Override
+  public int imageFinalization(Pointer frame) {
+    return delegate().imageFinalization(frame);
+  }
+
+  @Override
+  public int vuiLedBlinkDuringAcquisition(int blink) {
+    return call(() -> delegate().vuiLedBlinkDuringAcquisition(blink));
+  }
+
+  @Override
+  public int setAutoCaptureBlocking(int blocking) {
+    return call(() -> delegate().setAutoCaptureBlocking(blocking));
+  }
+}
@@ -0,0 +1,161 @@
+package com.fingerprint.thales.sdk;
+
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementacion nativa con enlace directo ({@link DirectGbmsapi}) para las funciones de la
+ * captura, incluida {@code GBMSAPI_GetFingerprintContrast}, que se llama en cada frame.
+ * <p>
+ * El enlace se registra en {@link #loadLibrary()}, la primera llamada de la inicializacion.
+ * Si falla (DLL sin alguna de las funciones, plataforma sin soporte) se registra un aviso y
+ * todas las llamadas siguen por el proxy de {@link NativeGbmsSdk}, igual que antes.
+ */
+@Slf4j
+public class DirectGbmsSdk extends NativeGbmsSdk {
+
+  private volatile boolean direct;
+
+  @Override
+  public int loadLibrary() {
+    if (!direct) {
+      try {
+        DirectGbmsapi.register();
+        direct = true;
+        log.info("GBMSAPI enlazada con mapeo directo.");
+      } catch (LinkageError e) {
+        log.warn("Mapeo directo de GBMSAPI no disponible, se usa el proxy: {}", e.getMessage());
+      }
+    }
+    return direct ? DirectGbmsapi.GBMSAPI_LoadLibrary() : super.loadLibrary();
+  }
+
+  @Override
+  public int unloadLibrary() {
+    return direct ? DirectGbmsapi.GBMSAPI_UnloadLibrary() : super.unloadLibrary();
+  }
+
+  @Override
+  public void getMultiScanApiVersion(ByteByReference major, ByteByReference minor,
+                                     ByteByReference build, ByteByReference revision) {
+    if (direct) {
+      DirectGbmsapi.GBMSAPI_GetMultiScanAPIVersion(major.getPointer(), minor.getPointer(),
+              build.getPointer(), revision.getPointer());
+    } else {
+      super.getMultiScanApiVersion(major, minor, build, revision);
+    }
+  }
+
+  @Override
+  public int setCurrentDevice(Byte deviceId, String serialNumber) {
+    return direct ? DirectGbmsapi.GBMSAPI_SetCurrentDevice(deviceId, serialNumber)
+            : super.setCurrentDevice(deviceId, serialNumber);
+  }
+
+  @Override
+  public int getDeviceFeatures(IntByReference features) {
+    return direct ? DirectGbmsapi.GBMSAPI_GetDeviceFeatures(features.getPointer())
+            : super.getDeviceFeatures(features);
+  }
+
+  @Override
+  public int getSupportedScanOptions(IntByReference scanOptions) {
+    return direct ? DirectGbmsapi.GBMSAPI_GetSupportedScanOptions(scanOptions.getPointer())
+            : super.getSupportedScanOptions(scanOptions);
+  }
+
+  @Override
+  public int getScannableTypes(IntByReference scannableTypes) {
+    return direct ? DirectGbmsapi.GBMSAPI_GetScannableTypes(scannableTypes.getPointer())
+            : super.getScannableTypes(scannableTypes);
+  }
+
+  @Override
+  public int flatAutoCaptureModeIsSupported(int mode, IntByReference supported) {
+    return direct ? DirectGbmsapi.GBMSAPI_FlatAutoCaptureModeIsSupported(mode, supported.getPointer())
+            : super.flatAutoCaptureModeIsSupported(mode, supported);
+  }
+
+  @Override
+  public int setFlatAutoCaptureMode(int mode) {
+    return direct ? DirectGbmsapi.GBMSAPI_SetFlatAutoCaptureMode(mode)
+            : super.setFlatAutoCaptureMode(mode);
+  }
+
+  @Override
+  public int setSelectImageTimeout(int timeout) {
+    return direct ? DirectGbmsapi.GBMSAPI_SetSelectImageTimeout(timeout)
+            : super.setSelectImageTimeout(timeout);
+  }
+
+  @Override
+  public int setMembraneUsageForFakeFingerDetection(int membraneUsage) {
+    return direct ? DirectGbmsapi.GBMSAPI_SetMembraneUsageForFakeFingerDetection(membraneUsage)
+            : super.setMembraneUsageForFakeFingerDetection(membraneUsage);
+  }
+
+  @Override
+  public int enableAutoCaptureBlockForDetectedFakes(byte enable) {
+    return direct ? DirectGbmsapi.GBMSAPI_EnableAutoCaptureBlockForDetectedFakes(enable)
+            : super.enableAutoCaptureBlockForDetectedFakes(enable);
+  }
+
+  @Override
+  public int startAcquisition(int objToScan, int options,
+                              GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                              Pointer userParams, int displayOptions,
+                              byte contrastLimitToDisplay, byte completenessLimitToDisplay) {
+    if (!direct) {
+      return super.startAcquisition(objToScan, options, callback, userParams, displayOptions,
+              contrastLimitToDisplay, completenessLimitToDisplay);
+    }
+    return DirectGbmsapi.GBMSAPI_StartAcquisition(objToScan, options, callback, userParams,
+            displayOptions, contrastLimitToDisplay, completenessLimitToDisplay);
+  }
+
+  @Override
+  public int stopAcquisition() {
+    return direct ? DirectGbmsapi.GBMSAPI_StopAcquisition() : super.stopAcquisition();
+  }
+
+  @Override
+  public int getFingerprintContrast(ByteByReference contrast) {
+    return direct ? DirectGbmsapi.GBMSAPI_GetFingerprintContrast(contrast.getPointer())
+            : super.getFingerprintContrast(contrast);
+  }
+
+  @Override
+  public int getTemplateBufferSize(IntByReference size) {
+    return direct ? DirectGbmsapi.GBMSAPI_GetTemplateBufferSize(size.getPointer())
+            : super.getTemplateBufferSize(size);
+  }
+
+  @Override
+  public int getIso19794Template(Pointer buffer, int bufferSize, IntByReference templateSize) {
+    return direct ? DirectGbmsapi.GBMSAPI_GetIso19794_2_2005_Template(buffer, bufferSize,
+            templateSize.getPointer())
+            : super.getIso19794Template(buffer, bufferSize, templateSize);
+  }
+
+  @Override
+  public int imageFinalization(Pointer frame) {
+    return direct ? DirectGbmsapi.GBMSAPI_ImageFinalization(frame)
+            : super.imageFinalization(frame);
+  }
+
+  @Override
+  public int vuiLedBlinkDuringAcquisition(int blink) {
+    return direct ? DirectGbmsapi.GBMSAPI_VUI_LED_BlinkDuringAcquisition(blink)
+            : super.vuiLedBlinkDuringAcquisition(blink);
+  }
+
+  @Override
+  public int setAutoCaptureBlocking(int blocking) {
+    return direct ? DirectGbmsapi.GBMSAPI_SetAutoCaptureBlocking(blocking)
+            : super.setAutoCaptureBlocking(blocking);
+  }
+
+}
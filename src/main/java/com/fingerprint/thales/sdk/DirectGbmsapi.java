@@ -0,0 +1,83 @@
+package com.fingerprint.thales.sdk;
+
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.fingerprint.thales.constants.Constants;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Enlace directo ({@link Native#register}) de las funciones GBMSAPI que usan
+ * {@code AcquisitionInitializer} y {@code AcquisitionHandler}.
+ * <p>
+ * A diferencia del proxy {@code GBMSAPI_Library.INSTANCE}, cada llamada es un método
+ * {@code native} estático: JNA no pasa por el {@code InvocationHandler} ni convierte los
+ * argumentos por reflexión. Por eso las firmas solo usan primitivos, {@link Pointer},
+ * {@link String} y el callback; los parámetros de salida se pasan como el puntero de su
+ * {@code ByReference}. {@code GBMSAPI_GetAttachedDeviceList} no está aquí: recibe un arreglo
+ * de estructuras, que el enlace directo no admite, y sigue yendo por el proxy.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class DirectGbmsapi {
+
+  private static boolean registered;
+
+  /**
+   * Registra los métodos nativos contra la librería GBMSAPI (una sola vez).
+   *
+   * @throws UnsatisfiedLinkError si la librería o alguna de las funciones no existe.
+   */
+  static synchronized void register() {
+    if (registered) return;
+    Native.register(DirectGbmsapi.class, NativeLibrary.getInstance(Constants.GBMSAPI_LIBRARY));
+    registered = true;
+  }
+
+  static native int GBMSAPI_LoadLibrary();
+
+  static native int GBMSAPI_UnloadLibrary();
+
+  static native void GBMSAPI_GetMultiScanAPIVersion(Pointer major, Pointer minor, Pointer build,
+                                                    Pointer revision);
+
+  static native int GBMSAPI_SetCurrentDevice(byte deviceId, String serialNumber);
+
+  static native int GBMSAPI_GetDeviceFeatures(Pointer features);
+
+  static native int GBMSAPI_GetSupportedScanOptions(Pointer scanOptions);
+
+  static native int GBMSAPI_GetScannableTypes(Pointer scannableTypes);
+
+  static native int GBMSAPI_FlatAutoCaptureModeIsSupported(int mode, Pointer supported);
+
+  static native int GBMSAPI_SetFlatAutoCaptureMode(int mode);
+
+  static native int GBMSAPI_SetSelectImageTimeout(int timeout);
+
+  static native int GBMSAPI_SetMembraneUsageForFakeFingerDetection(int membraneUsage);
+
+  static native int GBMSAPI_EnableAutoCaptureBlockForDetectedFakes(byte enable);
+
+  static native int GBMSAPI_StartAcquisition(int objToScan, int options,
+                                             GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                                             Pointer userParams, int displayOptions,
+                                             byte contrastLimitToDisplay,
+                                             byte completenessLimitToDisplay);
+
+  static native int GBMSAPI_StopAcquisition();
+
+  static native int GBMSAPI_GetFingerprintContrast(Pointer contrast);
+
+  static native int GBMSAPI_GetTemplateBufferSize(Pointer size);
+
+  static native int GBMSAPI_GetIso19794_2_2005_Template(Pointer buffer, int bufferSize,
+                                                         Pointer templateSize);
+
+  static native int GBMSAPI_ImageFinalization(Pointer frame);
+
+  static native int GBMSAPI_VUI_LED_BlinkDuringAcquisition(int blink);
+
+  static native int GBMSAPI_SetAutoCaptureBlocking(int blocking);
+}
@@ -0,0 +1,223 @@
+package com.fingerprint.thales.sdk;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceInfoStruct;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.jfr.SdkCallEvent;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+import jdk.jfr.EventType;
+
+/**
+ * Decorador que emite un {@link SdkCallEvent} de Java Flight Recorder por cada llamada al SDK,
+ * con la función, su duración y el código de retorno. Permite ver en una grabación si una
+ * captura estaba bloqueada en código nativo.
+ * <p>
+ * Sin ninguna grabación activa el evento no se confirma. En la llamada por frame
+ * ({@code GetFingerprintContrast}) ni siquiera se crea: se consulta antes si el tipo de evento
+ * está habilitado, porque el análisis de escape del JIT no lo garantiza.
+ */
+public class FlightRecorderGbmsSdk implements GbmsSdk {
+
+  private static final EventType CALL_EVENT_TYPE = EventType.getEventType(SdkCallEvent.class);
+
+  private final GbmsSdk delegate;
+
+  /**
+   * @param delegate implementación real (nativa o simulada).
+   */
+  public FlightRecorderGbmsSdk(GbmsSdk delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public int loadLibrary() {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.loadLibrary();
+    return commit(event, Constants.FN_LOAD_LIBRARY, result);
+  }
+
+  @Override
+  public int unloadLibrary() {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.unloadLibrary();
+    return commit(event, Constants.FN_UNLOAD_LIBRARY, result);
+  }
+
+  @Override
+  public void getMultiScanApiVersion(ByteByReference major, ByteByReference minor,
+                                     ByteByReference build, ByteByReference revision) {
+    var event = new SdkCallEvent();
+    event.begin();
+    delegate.getMultiScanApiVersion(major, minor, build, revision);
+    commit(event, Constants.FN_GET_MULTI_SCAN_API_VERSION, Constants.ZERO);
+  }
+
+  @Override
+  public int getAttachedDeviceList(GBMSAPI_JAVA_DeviceInfoStruct[] devices,
+                                   IntByReference deviceCount, IntByReference usbError) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.getAttachedDeviceList(devices, deviceCount, usbError);
+    return commit(event, Constants.FN_GET_ATTACHED_DEVICE_LIST, result);
+  }
+
+  @Override
+  public int setCurrentDevice(Byte deviceId, String serialNumber) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.setCurrentDevice(deviceId, serialNumber);
+    return commit(event, Constants.FN_SET_CURRENT_DEVICE, result);
+  }
+
+  @Override
+  public int getDeviceFeatures(IntByReference features) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.getDeviceFeatures(features);
+    return commit(event, Constants.FN_GET_DEVICE_FEATURES, result);
+  }
+
+  @Override
+  public int getSupportedScanOptions(IntByReference scanOptions) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.getSupportedScanOptions(scanOptions);
+    return commit(event, Constants.FN_GET_SUPPORTED_SCAN_OPTIONS, result);
+  }
+
+  @Override
+  public int getScannableTypes(IntByReference scannableTypes) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.getScannableTypes(scannableTypes);
+    return commit(event, Constants.FN_GET_SCANNABLE_TYPES, result);
+  }
+
+  @Override
+  public int flatAutoCaptureModeIsSupported(int mode, IntByReference supported) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.flatAutoCaptureModeIsSupported(mode, supported);
+    return commit(event, Constants.FN_FLAT_AUTO_CAPTURE_MODE_IS_SUPPORTED, result);
+  }
+
+  @Override
+  public int setFlatAutoCaptureMode(int mode) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.setFlatAutoCaptureMode(mode);
+    return commit(event, Constants.FN_SET_FLAT_AUTO_CAPTURE_MODE, result);
+  }
+
+  @Override
+  public int setSelectImageTimeout(int timeout) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.setSelectImageTimeout(timeout);
+    return commit(event, Constants.FN_SET_SELECT_IMAGE_TIMEOUT, result);
+  }
+
+  @Override
+  public int setMembraneUsageForFakeFingerDetection(int membraneUsage) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.setMembraneUsageForFakeFingerDetection(membraneUsage);
+    return commit(event, Constants.FN_SET_MEMBRANE_USAGE_FOR_FAKE_FINGER_DETECTION, result);
+  }
+
+  @Override
+  public int enableAutoCaptureBlockForDetectedFakes(byte enable) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.enableAutoCaptureBlockForDetectedFakes(enable);
+    return commit(event, Constants.FN_ENABLE_AUTO_CAPTURE_BLOCK_FOR_DETECTED_FAKES, result);
+  }
+
+  @Override
+  public int startAcquisition(int objToScan, int options,
+                              GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                              Pointer userParams, int displayOptions, byte contrastLimitToDisplay,
+                              byte completenessLimitToDisplay) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.startAcquisition(objToScan, options, callback, userParams,
+            displayOptions, contrastLimitToDisplay, completenessLimitToDisplay);
+    return commit(event, Constants.FN_START_ACQUISITION, result);
+  }
+
+  @Override
+  public int stopAcquisition() {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.stopAcquisition();
+    return commit(event, Constants.FN_STOP_ACQUISITION, result);
+  }
+
+  /**
+   * Se llama en cada frame desde el callback: sin grabación que habilite el evento, no se crea.
+   */
+  @Override
+  public int getFingerprintContrast(ByteByReference contrast) {
+    if (!CALL_EVENT_TYPE.isEnabled()) {
+      return delegate.getFingerprintContrast(contrast);
+    }
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.getFingerprintContrast(contrast);
+    return commit(event, Constants.FN_GET_FINGERPRINT_CONTRAST, result);
+  }
+
+  @Override
+  public int getTemplateBufferSize(IntByReference size) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.getTemplateBufferSize(size);
+    return commit(event, Constants.FN_GET_TEMPLATE_BUFFER_SIZE, result);
+  }
+
+  @Override
+  public int getIso19794Template(Pointer buffer, int bufferSize, IntByReference templateSize) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.getIso19794Template(buffer, bufferSize, templateSize);
+    return commit(event, Constants.FN_GET_ISO19794_2_2005_TEMPLATE, result);
+  }
+
+  @Override
+  public int imageFinalization(Pointer frame) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.imageFinalization(frame);
+    return commit(event, Constants.FN_IMAGE_FINALIZATION, result);
+  }
+
+  @Override
+  public int vuiLedBlinkDuringAcquisition(int blink) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.vuiLedBlinkDuringAcquisition(blink);
+    return commit(event, Constants.FN_VUI_LED_BLINK_DURING_ACQUISITION, result);
+  }
+
+  @Override
+  public int setAutoCaptureBlocking(int blocking) {
+    var event = new SdkCallEvent();
+    event.begin();
+    int result = delegate.setAutoCaptureBlocking(blocking);
+    return commit(event, Constants.FN_SET_AUTO_CAPTURE_BLOCKING, result);
+  }
+
+  private static int commit(SdkCallEvent event, String function, int result) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.function = function;
+      event.result = result;
+      event.commit();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,64 @@
+package com.fingerprint.thales.sdk;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceInfoStruct;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+
+/**
+ * Puerto hacia el SDK nativo GBMSAPI.
+ * Refleja una a una las funciones de {@code GBMSAPI_Library} que usa la aplicacion,
+ * con los mismos parametros y codigos de retorno, para poder sustituir el escaner
+ * fisico por una implementacion simulada.
+ */
+public interface GbmsSdk {
+
+  int loadLibrary();
+
+  int unloadLibrary();
+
+  void getMultiScanApiVersion(ByteByReference major, ByteByReference minor,
+                              ByteByReference build, ByteByReference revision);
+
+  int getAttachedDeviceList(GBMSAPI_JAVA_DeviceInfoStruct[] devices, IntByReference deviceCount,
+                            IntByReference usbError);
+
+  int setCurrentDevice(Byte deviceId, String serialNumber);
+
+  int getDeviceFeatures(IntByReference features);
+
+  int getSupportedScanOptions(IntByReference scanOptions);
+
+  int getScannableTypes(IntByReference scannableTypes);
+
+  int flatAutoCaptureModeIsSupported(int mode, IntByReference supported);
+
+  int setFlatAutoCaptureMode(int mode);
+
+  int setSelectImageTimeout(int timeout);
+
+  int setMembraneUsageForFakeFingerDetection(int membraneUsage);
+
+  int enableAutoCaptureBlockForDetectedFakes(byte enable);
+
+  int startAcquisition(int objToScan, int options,
+                       GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                       Pointer userParams, int displayOptions, byte contrastLimitToDisplay,
+                       byte completenessLimitToDisplay);
+
+  int stopAcquisition();
+
+  int getFingerprintContrast(ByteByReference contrast);
+
+  int getTemplateBufferSize(IntByReference size);
+
+  int getIso19794Template(Pointer buffer, int bufferSize, IntByReference templateSize);
+
+  int imageFinalization(Pointer frame);
+
+  int vuiLedBlinkDuringAcquisition(int blink);
+
+  int setAutoCaptureBlocking(int blocking);
+
+}
@@ -0,0 +1,56 @@
+package com.fingerprint.thales.sdk;
+
+import com.fingerprint.thales.constants.Constants;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Selecciona la implementacion del SDK al arrancar.
+ * Con {@code -Dthales.sdk=simulated} se usa el escaner simulado; por defecto, la DLL real,
+ * con enlace directo ({@link DirectGbmsSdk}) salvo con {@code -Dthales.sdk.binding=proxy}.
+ * En ambos casos las llamadas pasan por {@link FlightRecorderGbmsSdk} (eventos JFR).
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class GbmsSdkProvider {
+
+  private static volatile GbmsSdk instance;
+
+  /**
+   * Devuelve la implementacion activa, creandola en el primer acceso.
+   */
+  public static GbmsSdk get() {
+    GbmsSdk sdk = instance;
+    if (sdk == null) {
+      synchronized (GbmsSdkProvider.class) {
+        if (instance == null) {
+          instance = create(System.getProperty(Constants.SDK_PROPERTY, Constants.SDK_NATIVE));
+        }
+        sdk = instance;
+      }
+    }
+    return sdk;
+  }
+
+  /**
+   * Fija la implementacion a usar (benchmarks, pruebas de carga).
+   */
+  public static void set(GbmsSdk sdk) {
+    instance = sdk;
+  }
+
+  private static GbmsSdk create(String type) {
+    if (Constants.SDK_SIMULATED.equalsIgnoreCase(type.trim())) {
+      var config = SimulatedScannerConfig.fromSystemProperties();
+      log.info("Usando SDK simulado: {}", config);
+      return new FlightRecorderGbmsSdk(new SimulatedGbmsSdk(config));
+    }
+    String binding = System.getProperty(Constants.SDK_BINDING_PROPERTY, Constants.SDK_BINDING_DIRECT);
+    if (Constants.SDK_BINDING_PROXY.equalsIgnoreCase(binding.trim())) {
+      return new FlightRecorderGbmsSdk(new NativeGbmsSdk());
+    }
+    return new FlightRecorderGbmsSdk(new DirectGbmsSdk());
+  }
+
+}
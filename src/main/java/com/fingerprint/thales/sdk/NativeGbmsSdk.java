@@ -0,0 +1,128 @@
+package com.fingerprint.thales.sdk;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceInfoStruct;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+
+/**
+ * Implementacion real del puerto: delega en {@code GBMSAPI_Library.INSTANCE}.
+ * La DLL solo se carga la primera vez que se invoca alguna funcion.
+ */
+public class NativeGbmsSdk implements GbmsSdk {
+
+  @Override
+  public int loadLibrary() {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_LoadLibrary();
+  }
+
+  @Override
+  public int unloadLibrary() {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_UnloadLibrary();
+  }
+
+  @Override
+  public void getMultiScanApiVersion(ByteByReference major, ByteByReference minor,
+                                     ByteByReference build, ByteByReference revision) {
+    GBMSAPI_Library.INSTANCE.GBMSAPI_GetMultiScanAPIVersion(major, minor, build, revision);
+  }
+
+  @Override
+  public int getAttachedDeviceList(GBMSAPI_JAVA_DeviceInfoStruct[] devices,
+                                   IntByReference deviceCount, IntByReference usbError) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_GetAttachedDeviceList(devices, deviceCount, usbError);
+  }
+
+  @Override
+  public int setCurrentDevice(Byte deviceId, String serialNumber) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_SetCurrentDevice(deviceId, serialNumber);
+  }
+
+  @Override
+  public int getDeviceFeatures(IntByReference features) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_GetDeviceFeatures(features);
+  }
+
+  @Override
+  public int getSupportedScanOptions(IntByReference scanOptions) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_GetSupportedScanOptions(scanOptions);
+  }
+
+  @Override
+  public int getScannableTypes(IntByReference scannableTypes) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_GetScannableTypes(scannableTypes);
+  }
+
+  @Override
+  public int flatAutoCaptureModeIsSupported(int mode, IntByReference supported) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_FlatAutoCaptureModeIsSupported(mode, supported);
+  }
+
+  @Override
+  public int setFlatAutoCaptureMode(int mode) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_SetFlatAutoCaptureMode(mode);
+  }
+
+  @Override
+  public int setSelectImageTimeout(int timeout) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_SetSelectImageTimeout(timeout);
+  }
+
+  @Override
+  public int setMembraneUsageForFakeFingerDetection(int membraneUsage) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_SetMembraneUsageForFakeFingerDetection(membraneUsage);
+  }
+
+  @Override
+  public int enableAutoCaptureBlockForDetectedFakes(byte enable) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_EnableAutoCaptureBlockForDetectedFakes(enable);
+  }
+
+  @Override
+  public int startAcquisition(int objToScan, int options,
+                              GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                              Pointer userParams, int displayOptions,
+                              byte contrastLimitToDisplay, byte completenessLimitToDisplay) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_StartAcquisition(objToScan, options, callback,
+            userParams, displayOptions, contrastLimitToDisplay, completenessLimitToDisplay);
+  }
+
+  @Override
+  public int stopAcquisition() {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_StopAcquisition();
+  }
+
+  @Override
+  public int getFingerprintContrast(ByteByReference contrast) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_GetFingerprintContrast(contrast);
+  }
+
+  @Override
+  public int getTemplateBufferSize(IntByReference size) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_GetTemplateBufferSize(size);
+  }
+
+  @Override
+  public int getIso19794Template(Pointer buffer, int bufferSize, IntByReference templateSize) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_GetIso19794_2_2005_Template(buffer, bufferSize,
+            templateSize);
+  }
+
+  @Override
+  public int imageFinalization(Pointer frame) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_ImageFinalization(frame);
+  }
+
+  @Override
+  public int vuiLedBlinkDuringAcquisition(int blink) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_VUI_LED_BlinkDuringAcquisition(blink);
+  }
+
+  @Override
+  public int setAutoCaptureBlocking(int blocking) {
+    return GBMSAPI_Library.INSTANCE.GBMSAPI_SetAutoCaptureBlocking(blocking);
+  }
+
+}
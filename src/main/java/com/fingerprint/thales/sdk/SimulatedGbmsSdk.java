@@ -0,0 +1,410 @@
+package com.fingerprint.thales.sdk;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_AcquisitionEvents;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_EventInfo;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceInfoStruct;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceName;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_ErrorCodesDefines.GBMSAPI_JAVA_ErrorCodes;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.fingerprint.thales.constants.Constants;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escaner simulado en proceso. Emula los dispositivos conectados y, en cada
+ * {@link #startAcquisition}, lanza un hilo propio (como el hilo de adquisicion de la DLL)
+ * que invoca el callback con SCANNER_STARTED, VALID_FRAME_ACQUIRED a los fps configurados,
+ * PREVIEW_PHASE_END y ACQUISITION_END con un template ISO 19794-2:2005 sintetico.
+ * Permite perfilar y hacer pruebas de carga del flujo completo sin hardware.
+ */
+@Slf4j
+public class SimulatedGbmsSdk implements GbmsSdk {
+
+  private static final byte[] FMR_MAGIC = {'F', 'M', 'R', 0};
+
+  private static final byte[] FMR_VERSION_20 = {' ', '2', '0', 0};
+
+  @Getter
+  private final SimulatedScannerConfig config;
+
+  private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+  private final Map<String, byte[]> lastTemplates = new ConcurrentHashMap<>();
+
+  /**
+   * Seriales con la autocaptura bloqueada: la vista previa sigue sin dedo hasta desbloquear.
+   */
+  private final Set<String> autoCaptureBlocked = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong captureCounter = new AtomicLong();
+
+  /**
+   * Sesión cuyo hilo de adquisición es el hilo actual: como en la DLL, las funciones que se
+   * llaman desde el callback se aplican al dispositivo que está adquiriendo, no al actual.
+   */
+  private final ThreadLocal<Session> callbackSession = new ThreadLocal<>();
+
+  private volatile String currentSerial;
+
+  /**
+   * Escáneres conectados en este momento (los primeros N de la configuración).
+   */
+  private volatile int attachedDevices;
+
+  public SimulatedGbmsSdk(SimulatedScannerConfig config) {
+    this.config = config;
+    this.currentSerial = serialOf(Constants.ZERO);
+    this.attachedDevices = config.devices();
+  }
+
+  /**
+   * Simula conectar o desconectar escáneres en caliente: quedan conectados los primeros
+   * {@code count} de la configuración.
+   */
+  public void setAttachedDevices(int count) {
+    attachedDevices = Math.max(Constants.ZERO, Math.min(count, config.devices()));
+  }
+
+  @Override
+  public int loadLibrary() {
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int unloadLibrary() {
+    sessions.values().forEach(Session::stop);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public void getMultiScanApiVersion(ByteByReference major, ByteByReference minor,
+                                     ByteByReference build, ByteByReference revision) {
+    major.setValue((byte) Constants.ZERO);
+    minor.setValue((byte) Constants.ZERO);
+    build.setValue((byte) Constants.ZERO);
+    revision.setValue((byte) Constants.ONE);
+  }
+
+  @Override
+  public int getAttachedDeviceList(GBMSAPI_JAVA_DeviceInfoStruct[] devices,
+                                   IntByReference deviceCount, IntByReference usbError) {
+    int count = Math.min(attachedDevices, devices.length);
+    for (int i = Constants.ZERO; i < count; i++) {
+      devices[i].DeviceID = GBMSAPI_JAVA_DeviceName.GBMSAPI_DN_CSD101;
+      byte[] serial = serialOf(i).getBytes(StandardCharsets.US_ASCII);
+      System.arraycopy(serial, Constants.ZERO, devices[i].DeviceSerialNumber, Constants.ZERO,
+              Math.min(serial.length, devices[i].DeviceSerialNumber.length));
+    }
+    deviceCount.setValue(count);
+    usbError.setValue(Constants.ZERO);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int setCurrentDevice(Byte deviceId, String serialNumber) {
+    String serial = serialNumber == null ? Constants.EMPTY_STR : serialNumber.trim();
+    for (int i = Constants.ZERO; i < attachedDevices; i++) {
+      if (serialOf(i).equals(serial)) {
+        currentSerial = serial;
+        return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+      }
+    }
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_DEVICE_NOT_FOUND;
+  }
+
+  @Override
+  public int getDeviceFeatures(IntByReference features) {
+    features.setValue(Constants.ZERO);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int getSupportedScanOptions(IntByReference scanOptions) {
+    scanOptions.setValue(Constants.ZERO);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int getScannableTypes(IntByReference scannableTypes) {
+    scannableTypes.setValue(-Constants.ONE);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int flatAutoCaptureModeIsSupported(int mode, IntByReference supported) {
+    supported.setValue(Constants.ZERO);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int setFlatAutoCaptureMode(int mode) {
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int setSelectImageTimeout(int timeout) {
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int setMembraneUsageForFakeFingerDetection(int membraneUsage) {
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int enableAutoCaptureBlockForDetectedFakes(byte enable) {
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int startAcquisition(int objToScan, int options,
+                              GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                              Pointer userParams, int displayOptions,
+                              byte contrastLimitToDisplay, byte completenessLimitToDisplay) {
+    String serial = currentSerial;
+    var session = new Session(serial, callback, userParams);
+    if (sessions.putIfAbsent(serial, session) != null) {
+      return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_ACQUISITION_ALREADY_STARTED;
+    }
+    session.start();
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int stopAcquisition() {
+    Session session = sessions.get(currentSerial);
+    if (session == null) {
+      return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_OUTSIDE_ACQUISITION;
+    }
+    session.stop();
+    // Como la DLL, StopAcquisition espera a que el callback en curso vuelva (salvo que se llame
+    // desde el propio callback) y al volver el dispositivo admite una nueva adquisicion.
+    session.await();
+    sessions.remove(session.serial, session);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int getFingerprintContrast(ByteByReference contrast) {
+    Session session = callbackSession.get();
+    if (session == null) {
+      session = sessions.get(currentSerial);
+    }
+    contrast.setValue(session == null ? Constants.ZERO_B : (byte) session.contrast);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int getTemplateBufferSize(IntByReference size) {
+    size.setValue(Constants.SIM_TEMPLATE_BUFFER_SIZE);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int getIso19794Template(Pointer buffer, int bufferSize, IntByReference templateSize) {
+    Session session = callbackSession.get();
+    byte[] template = lastTemplates.get(session == null ? currentSerial : session.serial);
+    if (template == null) {
+      return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_OUTSIDE_ACQUISITION;
+    }
+    if (bufferSize < template.length) {
+      return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_PARAMETER;
+    }
+    buffer.write(Constants.ZERO_LONG, template, Constants.ZERO, template.length);
+    templateSize.setValue(template.length);
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int imageFinalization(Pointer frame) {
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int vuiLedBlinkDuringAcquisition(int blink) {
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  @Override
+  public int setAutoCaptureBlocking(int blocking) {
+    if (blocking != Constants.ZERO) {
+      autoCaptureBlocked.add(currentSerial);
+    } else {
+      autoCaptureBlocked.remove(currentSerial);
+    }
+    return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+  }
+
+  /**
+   * Numero de serie del dispositivo simulado en la posicion indicada.
+   */
+  public static String serialOf(int index) {
+    return Constants.SIM_SERIAL_PREFIX + index;
+  }
+
+  /**
+   * Genera un template ISO 19794-2:2005 con una sola vista y minucias pseudoaleatorias.
+   */
+  static byte[] buildIsoTemplate(Random random, int width, int height, int minutiae) {
+    int count = Math.min(minutiae, Constants.SIM_MAX_MINUTIAE);
+    int length = Constants.ISO_HEADER_LENGTH + Constants.ISO_VIEW_HEADER_LENGTH
+            + count * Constants.ISO_MINUTIA_LENGTH + Constants.TWO;
+    ByteBuffer buf = ByteBuffer.allocate(length);
+    buf.put(FMR_MAGIC).put(FMR_VERSION_20);
+    buf.putInt(length);
+    buf.putShort((short) Constants.ZERO);
+    buf.putShort((short) width).putShort((short) height);
+    buf.putShort((short) Constants.SIM_RESOLUTION_PPCM).putShort((short) Constants.SIM_RESOLUTION_PPCM);
+    buf.put((byte) Constants.ONE).put(Constants.ZERO_B);
+
+    buf.put((byte) Constants.TWO).put(Constants.ZERO_B);
+    buf.put((byte) (Constants.SIM_MIN_QUALITY + random.nextInt(Constants.SIM_QUALITY_SPREAD)));
+    buf.put((byte) count);
+    for (int i = Constants.ZERO; i < count; i++) {
+      int type = random.nextBoolean() ? Constants.ONE : Constants.TWO;
+      buf.putShort((short) ((type << 14) | random.nextInt(Math.max(Constants.ONE, width))));
+      buf.putShort((short) random.nextInt(Math.max(Constants.ONE, height)));
+      buf.put((byte) random.nextInt(256));
+      buf.put((byte) (Constants.SIM_MIN_QUALITY + random.nextInt(Constants.SIM_QUALITY_SPREAD)));
+    }
+    buf.putShort((short) Constants.ZERO);
+    return buf.array();
+  }
+
+  /**
+   * Una adquisicion en curso sobre un dispositivo simulado.
+   */
+  private final class Session implements Runnable {
+
+    private final String serial;
+    private final GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback;
+    private final Pointer userParams;
+    private final Thread thread;
+    private volatile boolean stopped;
+    private volatile int contrast;
+
+    private Session(String serial, GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                    Pointer userParams) {
+      this.serial = serial;
+      this.callback = callback;
+      this.userParams = userParams;
+      this.thread = new Thread(this, Constants.SIM_THREAD_NAME + serial);
+      this.thread.setDaemon(true);
+    }
+
+    private void start() {
+      thread.start();
+    }
+
+    private void stop() {
+      stopped = true;
+      LockSupport.unpark(thread);
+    }
+
+    /**
+     * Espera a que el hilo de adquisición termine, salvo que sea el hilo actual.
+     */
+    private void await() {
+      if (Thread.currentThread() == thread) return;
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void run() {
+      callbackSession.set(this);
+      int width = config.width();
+      int height = config.height();
+      var frame = new Memory(Math.max(Constants.ONE, (long) width * height));
+      frame.write(Constants.ZERO_LONG, syntheticFrame(width, height), Constants.ZERO, width * height);
+      double rate = config.fps();
+      long periodNanos = config.fps() > Constants.ZERO
+              ? TimeUnit.SECONDS.toNanos(1) / config.fps() : Constants.ZERO_LONG;
+
+      try {
+        pause(TimeUnit.MILLISECONDS.toNanos(config.startDelayMs()));
+        if (stopped) return;
+        fire(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_SCANNER_STARTED, Constants.ZERO,
+                Pointer.NULL, Constants.ZERO, Constants.ZERO, rate);
+
+        int frames = config.previewFrames();
+        long next = System.nanoTime();
+        int i = Constants.ZERO;
+        while (i < frames && !stopped) {
+          // Con la autocaptura bloqueada la vista previa no avanza: no hay dedo.
+          boolean blocked = autoCaptureBlocked.contains(serial);
+          // El dedo "aparece" tras el primer tercio de la vista previa.
+          contrast = !blocked && i >= frames / Constants.THREE
+                  ? Constants.SIM_FINGER_CONTRAST : Constants.ZERO;
+          fire(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED, Constants.ZERO,
+                  frame, width, height, rate);
+          if (!blocked) i++;
+          next += blocked ? Math.max(periodNanos, Constants.SIM_IDLE_FRAME_NANOS) : periodNanos;
+          pause(next - System.nanoTime());
+        }
+        if (stopped) return;
+        fire(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_PREVIEW_PHASE_END, Constants.ZERO,
+                Pointer.NULL, Constants.ZERO, Constants.ZERO, rate);
+
+        var random = new Random(config.hashCode() * 31L + captureCounter.incrementAndGet());
+        lastTemplates.put(serial, buildIsoTemplate(random, width, height, config.minutiae()));
+        if (stopped) return;
+        // Como la DLL, la sesion queda libre antes de notificar el fin: el llamante puede
+        // iniciar la siguiente adquisicion desde el propio callback.
+        sessions.remove(serial, this);
+        fire(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_END,
+                GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_ACQUISITION_PHASE
+                        | GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_IS_ISO_19794_2_2005_TEMPLATE,
+                frame, width, height, rate);
+      } catch (Exception ex) {
+        log.error("Error en el hilo de adquisicion simulado: {}", ex.getMessage(), ex);
+      } finally {
+        contrast = Constants.ZERO;
+        sessions.remove(serial, this);
+        callbackSession.remove();
+      }
+    }
+
+    private void fire(int event, int eventInfo, Pointer framePtr, int width, int height,
+                      double rate) {
+      callback.invoke(event, Constants.ZERO, eventInfo, framePtr, width, height, rate, rate,
+              Constants.ZERO, userParams);
+    }
+
+    private void pause(long nanos) {
+      long deadline = System.nanoTime() + nanos;
+      long remaining = nanos;
+      while (remaining > Constants.ZERO_LONG && !stopped) {
+        LockSupport.parkNanos(remaining);
+        remaining = deadline - System.nanoTime();
+      }
+    }
+
+    private byte[] syntheticFrame(int width, int height) {
+      byte[] pixels = new byte[width * height];
+      for (int y = Constants.ZERO; y < height; y++) {
+        for (int x = Constants.ZERO; x < width; x++) {
+          pixels[y * width + x] = (byte) ((x ^ y) & 0xFF);
+        }
+      }
+      return pixels;
+    }
+  }
+
+}
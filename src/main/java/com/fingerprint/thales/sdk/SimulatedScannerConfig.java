@@ -0,0 +1,47 @@
+package com.fingerprint.thales.sdk;
+
+import com.fingerprint.thales.constants.Constants;
+import lombok.Builder;
+
+/**
+ * Parametros del escaner simulado. Se leen de propiedades del sistema
+ * ({@code -Dthales.sim.*}) o se construyen con el builder desde benchmarks.
+ */
+@Builder
+public record SimulatedScannerConfig(
+        int fps,
+        int width,
+        int height,
+        int previewFrames,
+        int minutiae,
+        long startDelayMs,
+        int devices
+) {
+
+  /**
+   * Crea la configuracion a partir de las propiedades del sistema, usando valores por
+   * defecto para las ausentes o invalidas.
+   */
+  public static SimulatedScannerConfig fromSystemProperties() {
+    return SimulatedScannerConfig.builder()
+            .fps(intProperty(Constants.SIM_FPS_PROPERTY, Constants.SIM_DEFAULT_FPS))
+            .width(intProperty(Constants.SIM_WIDTH_PROPERTY, Constants.SIM_DEFAULT_WIDTH))
+            .height(intProperty(Constants.SIM_HEIGHT_PROPERTY, Constants.SIM_DEFAULT_HEIGHT))
+            .previewFrames(intProperty(Constants.SIM_PREVIEW_FRAMES_PROPERTY,
+                    Constants.SIM_DEFAULT_PREVIEW_FRAMES))
+            .minutiae(intProperty(Constants.SIM_MINUTIAE_PROPERTY, Constants.SIM_DEFAULT_MINUTIAE))
+            .startDelayMs(intProperty(Constants.SIM_START_DELAY_PROPERTY, Constants.ZERO))
+            .devices(intProperty(Constants.SIM_DEVICES_PROPERTY, Constants.ONE))
+            .build();
+  }
+
+  private static int intProperty(String key, int defaultValue) {
+    try {
+      int value = Integer.parseInt(System.getProperty(key, String.valueOf(defaultValue)).trim());
+      return value >= Constants.ZERO ? value : defaultValue;
+    } catch (Exception ignored) {
+      return defaultValue;
+    }
+  }
+
+}
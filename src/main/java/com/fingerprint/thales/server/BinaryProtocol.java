@@ -0,0 +1,250 @@
+package com.fingerprint.thales.server;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.idemia.IdemiaError;
+import com.fingerprint.thales.model.FingerResult;
+import com.fingerprint.thales.model.ResponseBatch;
+import com.fingerprint.thales.model.ResponseError;
+import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.model.ResponseStatus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Formato binario del socket local ({@link UnixSocketServer}). Todo entero va en big-endian y
+ * cada trama lleva delante su longitud (int, sin contarse a sí misma).
+ * <pre>
+ * Solicitud: version(1) op(1) timeoutMs(4) deviceLen(1) device objectsLen(2) objects
+ *            op: 1 = captura (lote si objects no está vacío), 2 = cancelar
+ * Respuesta: version(1) tipo(1) ...
+ *   0 template:  len(4) bytes ISO/INE
+ *   1 error:     codigoThales(4) codigoIdemia(4)
+ *   2 lote:      n(2) y por objeto: nameLen(1) name codigoThales(4)
+ *                seguido de len(4) bytes si el código es 0, o de codigoIdemia(4) si no
+ *   3 cancelado: n(4)
+ * </pre>
+ * Los textos (serial, objetos separados por comas, nombre de objeto) van en UTF-8 y su longitud
+ * se cuenta en bytes; los que llevan longitud de un byte no pueden pasar de 255 bytes, y una
+ * solicitud que lo incumple se rechaza con PARAMETER. El template viaja tal cual lo devuelve el
+ * SDK, sin Base64.
+ * <p>
+ * La solicitud no lleva {@code priority} ni {@code verification}: por el socket toda captura
+ * entra con prioridad operator y sin verificación 1:1 (para eso está el servidor HTTP).
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BinaryProtocol {
+
+  /**
+   * Solicitud decodificada.
+   *
+   * @param op        {@link Constants#OP_CAPTURE} o {@link Constants#OP_CANCEL}.
+   * @param timeoutMs Tiempo máximo de inactividad en milisegundos.
+   * @param device    Serial o "any".
+   * @param objects   Objetos del lote; vacío para una captura simple.
+   */
+  public record Request(byte op, int timeoutMs, String device, List<String> objects) {
+  }
+
+  // ========== SOLICITUDES ==========
+
+  /**
+   * Escribe la trama completa (con longitud) y deja el buffer listo para leer.
+   */
+  public static ByteBuffer encodeRequest(ByteBuffer out, Request request) {
+    byte[] device = shortText(request.device());
+    request.objects().forEach(BinaryProtocol::shortText);
+    byte[] objects = String.join(Constants.OBJECT_SEPARATOR, request.objects())
+            .getBytes(StandardCharsets.UTF_8);
+    if (objects.length > Constants.PROTOCOL_MAX_TEXT) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER,
+              new IllegalArgumentException("Lista de objetos demasiado larga: " + objects.length));
+    }
+    out.clear();
+    out.putInt(Constants.SEVEN + device.length + Constants.TWO + objects.length);
+    out.put(Constants.PROTOCOL_VERSION).put(request.op()).putInt(request.timeoutMs());
+    out.put((byte) device.length).put(device);
+    out.putShort((short) objects.length).put(objects);
+    return out.flip();
+  }
+
+  /**
+   * Lee el cuerpo de una solicitud (sin la longitud).
+   *
+   * @throws AcquisitionException PARAMETER si la versión no coincide, la trama es inválida o
+   *                              algún objeto pasa de 255 bytes (no cabría en la respuesta).
+   */
+  public static Request decodeRequest(ByteBuffer body) {
+    try {
+      checkVersion(body.get());
+      byte op = body.get();
+      int timeoutMs = body.getInt();
+      String device = readText(body, Byte.toUnsignedInt(body.get()));
+      String objects = readText(body, Short.toUnsignedInt(body.getShort()));
+      List<String> names = objects.isBlank() ? List.of()
+              : Arrays.stream(objects.split(Constants.OBJECT_SEPARATOR))
+                      .map(String::trim).filter(o -> !o.isEmpty())
+                      .map(String::toUpperCase).toList();
+      names.forEach(BinaryProtocol::shortText);
+      return new Request(op, timeoutMs, device.isBlank() ? Constants.DEVICE_ANY : device, names);
+    } catch (RuntimeException e) {
+      if (e instanceof AcquisitionException ae) throw ae;
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER, e);
+    }
+  }
+
+  // ========== RESPUESTAS ==========
+
+  /**
+   * Bytes de carga que ocupará la respuesta fuera de la cabecera.
+   */
+  public static int payloadSize(Object response) {
+    if (response instanceof ResponseOk ok) {
+      return ok.template() == null ? Constants.ZERO : ok.template().length;
+    }
+    if (response instanceof ResponseBatch batch) {
+      int size = Constants.ZERO;
+      for (FingerResult finger : batch.fingers()) {
+        size += Constants.ONE + shortText(finger.object()).length + Constants.EIGHT
+                + (finger.template() == null ? Constants.ZERO : finger.template().length);
+      }
+      return size;
+    }
+    return Constants.ZERO;
+  }
+
+  /**
+   * Codifica la respuesta: longitud y metadatos en {@code header}, template(s) en
+   * {@code payload}. Ambos quedan listos para una escritura con gathering.
+   *
+   * @param payload buffer con al menos {@link #payloadSize(Object)} bytes libres.
+   */
+  public static void encodeResponse(Object response, ByteBuffer header, ByteBuffer payload) {
+    header.clear().position(Constants.PROTOCOL_LENGTH_BYTES);
+    header.put(Constants.PROTOCOL_VERSION);
+    payload.clear();
+    if (response instanceof ResponseOk ok && ok.template() != null) {
+      header.put(Constants.RESPONSE_TEMPLATE).putInt(ok.template().length);
+      payload.put(ok.template());
+    } else if (response instanceof ResponseBatch batch) {
+      header.put(Constants.RESPONSE_BATCH).putShort((short) batch.fingers().size());
+      for (FingerResult finger : batch.fingers()) {
+        encodeFinger(finger, payload);
+      }
+    } else if (response instanceof ResponseStatus status && status.cancelled() != null) {
+      header.put(Constants.RESPONSE_CANCELLED).putInt(status.cancelled());
+    } else {
+      ResponseError error = response instanceof ResponseError err ? err
+              : ResponseError.from(new AcquisitionException(AcquisitionException.ErrorCode.NO_FINGERPRINT));
+      int thales = codeOf(error.code());
+      header.put(Constants.RESPONSE_ERROR).putInt(thales).putInt(idemiaCodeOf(thales));
+    }
+    payload.flip();
+    header.putInt(Constants.ZERO,
+            header.position() - Constants.PROTOCOL_LENGTH_BYTES + payload.remaining());
+    header.flip();
+  }
+
+  private static void encodeFinger(FingerResult finger, ByteBuffer payload) {
+    byte[] name = shortText(finger.object());
+    payload.put((byte) name.length).put(name);
+    if (finger.succeeded()) {
+      payload.putInt(AcquisitionException.ErrorCode.NO_ERROR.getCode())
+              .putInt(finger.template().length).put(finger.template());
+    } else {
+      int thales = codeOf(finger.code());
+      payload.putInt(thales).putInt(idemiaCodeOf(thales));
+    }
+  }
+
+  /**
+   * Lee el cuerpo de una respuesta (sin la longitud) y lo convierte al modelo de la CLI:
+   * ResponseOk, ResponseBatch, ResponseError o ResponseStatus (cancelación).
+   */
+  public static Object decodeResponse(ByteBuffer body) {
+    checkVersion(body.get());
+    byte type = body.get();
+    return switch (type) {
+      case Constants.RESPONSE_TEMPLATE -> ResponseOk.builder()
+              .template(readBytes(body, body.getInt())).build();
+      case Constants.RESPONSE_BATCH -> decodeBatch(body);
+      case Constants.RESPONSE_CANCELLED -> ResponseStatus.builder().cancelled(body.getInt()).build();
+      case Constants.RESPONSE_ERROR -> toError(body.getInt(), body.getInt());
+      default -> throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER,
+              new IllegalArgumentException("Tipo de respuesta desconocido: " + type));
+    };
+  }
+
+  private static ResponseBatch decodeBatch(ByteBuffer body) {
+    int count = Short.toUnsignedInt(body.getShort());
+    var fingers = new ArrayList<FingerResult>(count);
+    for (int i = Constants.ZERO; i < count; i++) {
+      var finger = FingerResult.builder()
+              .object(readText(body, Byte.toUnsignedInt(body.get())));
+      int thales = body.getInt();
+      if (thales == AcquisitionException.ErrorCode.NO_ERROR.getCode()) {
+        finger.template(readBytes(body, body.getInt()));
+      } else {
+        ResponseError error = toError(thales, body.getInt());
+        finger.error(error.idemiaErrorMessage()).code(thales);
+      }
+      fingers.add(finger.build());
+    }
+    return ResponseBatch.builder().fingers(List.copyOf(fingers)).build();
+  }
+
+  private static ResponseError toError(int thales, int idemia) {
+    var errorCode = AcquisitionException.ErrorCode.fromCode(thales);
+    return ResponseError.builder()
+            .error(Constants.ACQUISITION_EXCEPTION)
+            .code(thales)
+            .message(errorCode.getMessage())
+            .idemiaErrorMessage(IdemiaError.fromCode(idemia).format(errorCode.name()))
+            .build();
+  }
+
+  private static int codeOf(Integer thales) {
+    return thales == null ? AcquisitionException.ErrorCode.INTERNAL_ERROR.getCode() : thales;
+  }
+
+  private static int idemiaCodeOf(int thales) {
+    return ResponseError.mapThalesToIdemia(AcquisitionException.ErrorCode.fromCode(thales)).getCode();
+  }
+
+  private static void checkVersion(byte version) {
+    if (version != Constants.PROTOCOL_VERSION) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER,
+              new IllegalArgumentException("Versión de protocolo no soportada: " + version));
+    }
+  }
+
+  /**
+   * Texto en UTF-8 para un campo con longitud de un byte.
+   *
+   * @throws AcquisitionException PARAMETER si pasa de 255 bytes.
+   */
+  private static byte[] shortText(String text) {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > Constants.PROTOCOL_MAX_SHORT_TEXT) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER,
+              new IllegalArgumentException("Texto de más de " + Constants.PROTOCOL_MAX_SHORT_TEXT
+                      + " bytes: " + bytes.length));
+    }
+    return bytes;
+  }
+
+  private static String readText(ByteBuffer body, int length) {
+    return new String(readBytes(body, length), StandardCharsets.UTF_8);
+  }
+
+  private static byte[] readBytes(ByteBuffer body, int length) {
+    byte[] bytes = new byte[length];
+    body.get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,236 @@
+package com.fingerprint.thales.server;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.model.RequestArg;
+import com.fingerprint.thales.model.ResponseError;
+import com.fingerprint.thales.model.ResponseStatus;
+import com.fingerprint.thales.service.AcquisitionService;
+import com.fingerprint.thales.utils.ExceptionMapper;
+import com.fingerprint.thales.utils.ResponseWriter;
+import com.fingerprint.thales.utils.Schedulers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servidor HTTP local (solo loopback) sobre un {@link AcquisitionService} ya inicializado.
+ * <p>
+ * Sustituye al modelo de un proceso por captura: el front-end hace
+ * {@code POST /capture?timeout=30&device=any[&objects=...][&priority=automated]} y recibe el mismo JSON que la CLI
+ * ({@code Fingerprint}, {@code Fingers} o {@code Error}). {@code GET /status} devuelve el estado
+ * de cada escáner y {@code POST /cancel?device=...} cancela la captura en curso.
+ * {@code POST /identify?threshold=40[&enroll=...]} captura y busca la huella en la galería
+ * ({@code Candidates}, y {@code Enrolled} si se enroló).
+ * <p>
+ * Cada solicitud se atiende en su propio hilo (de un pool que crece según la demanda) que
+ * espera la captura; las capturas se encolan por prioridad y orden de llegada en la cola de cada
+ * escáner, así que los llamantes concurrentes esperan su turno en lugar de recibir
+ * ACQUISITION_ALREADY_STARTED. Con la cola llena se responde 503 (QUEUE_FULL).
+ */
+@Slf4j
+public class CaptureServer implements AutoCloseable {
+
+  private final AcquisitionService service;
+
+  private final int port;
+
+  private final ExecutorService executor;
+
+  /**
+   * Servidor del JDK, creado en {@link #start()}.
+   */
+  private volatile HttpServer server;
+
+  /**
+   * @param service Servicio ya inicializado.
+   * @param port    Puerto en loopback; 0 para uno libre.
+   */
+  public CaptureServer(AcquisitionService service, int port) {
+    this.service = service;
+    this.port = port;
+    this.executor = Schedulers.newPerTaskExecutor(Constants.SERVER_THREAD_NAME);
+  }
+
+  /**
+   * Abre el puerto y empieza a aceptar conexiones.
+   *
+   * @throws IOException si el puerto no está disponible.
+   */
+  public void start() throws IOException {
+    // Sin TCP_NODELAY cada respuesta pequeña espera el ACK retrasado del cliente (~40 ms). El
+    // HttpServer del JDK lee la propiedad una sola vez, al crear el primer servidor: debe
+    // fijarse antes de HttpServer.create.
+    if (System.getProperty(Constants.HTTP_SERVER_NODELAY_PROPERTY) == null) {
+      System.setProperty(Constants.HTTP_SERVER_NODELAY_PROPERTY, Boolean.TRUE.toString());
+    }
+    var server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port), Constants.ZERO);
+    server.createContext(Constants.PATH_CAPTURE, this::handleCapture);
+    server.createContext(Constants.PATH_STATUS, this::handleStatus);
+    server.createContext(Constants.PATH_CANCEL, this::handleCancel);
+    server.createContext(Constants.PATH_IDENTIFY, this::handleIdentify);
+    server.setExecutor(executor);
+    this.server = server;
+    server.start();
+    log.info(Constants.SERVER_READY_LOG, getAddress().getHostString(), getPort());
+  }
+
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * POST /capture: captura (o lote si viene {@code objects}) y espera el resultado.
+   */
+  private void handleCapture(HttpExchange exchange) throws IOException {
+    if (!allow(exchange, Constants.METHOD_POST)) return;
+    long start = System.currentTimeMillis();
+    Object response;
+    try {
+      RequestArg requestArg = RequestArg.fromQuery(parseQuery(exchange));
+      CompletableFuture<?> pending = requestArg.isBatch()
+              ? service.submitBatch(requestArg.device(), requestArg.priority(),
+                      requestArg.batchObjects(), requestArg.timeout())
+              : service.submit(requestArg.device(), requestArg.priority(), requestArg.timeout(),
+                      requestArg.verification());
+      response = pending.join();
+    } catch (Exception e) {
+      response = ExceptionMapper.mapAndLog(log, unwrap(e));
+    }
+    log.info(Constants.REQUEST_LATENCY_LOG, System.currentTimeMillis() - start);
+    send(exchange, response);
+  }
+
+  /**
+   * POST /identify: captura y busca la huella en la galería; con {@code enroll}, la enrola si no
+   * hay candidatos.
+   */
+  private void handleIdentify(HttpExchange exchange) throws IOException {
+    if (!allow(exchange, Constants.METHOD_POST)) return;
+    long start = System.currentTimeMillis();
+    Object response;
+    try {
+      RequestArg requestArg = RequestArg.fromQuery(parseQuery(exchange));
+      response = service.submitIdentification(requestArg.device(), requestArg.priority(),
+              requestArg.timeout(), requestArg.threshold(), requestArg.enroll()).join();
+    } catch (Exception e) {
+      response = ExceptionMapper.mapAndLog(log, unwrap(e));
+    }
+    log.info(Constants.REQUEST_LATENCY_LOG, System.currentTimeMillis() - start);
+    send(exchange, response);
+  }
+
+  /**
+   * GET /status: estado y capturas pendientes de cada escáner.
+   */
+  private void handleStatus(HttpExchange exchange) throws IOException {
+    if (!allow(exchange, Constants.METHOD_GET)) return;
+    send(exchange, ResponseStatus.builder().devices(service.status()).build());
+  }
+
+  /**
+   * POST /cancel: cancela la captura en curso del escáner indicado (o de todos).
+   */
+  private void handleCancel(HttpExchange exchange) throws IOException {
+    if (!allow(exchange, Constants.METHOD_POST)) return;
+    Object response;
+    try {
+      int cancelled = service.cancel(parseQuery(exchange).get(Constants.PARAM_DEVICE));
+      response = ResponseStatus.builder().cancelled(cancelled).build();
+    } catch (Exception e) {
+      response = ExceptionMapper.mapAndLog(log, e);
+    }
+    send(exchange, response);
+  }
+
+  private static boolean allow(HttpExchange exchange, String method) throws IOException {
+    if (method.equalsIgnoreCase(exchange.getRequestMethod())) {
+      return true;
+    }
+    exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_METHOD, -Constants.ONE);
+    exchange.close();
+    return false;
+  }
+
+  /**
+   * Escribe la respuesta con el mismo formato compacto del modo daemon.
+   */
+  private static void send(HttpExchange exchange, Object response) throws IOException {
+    var body = new ByteArrayOutputStream();
+    try (var writer = new ResponseWriter(body, true)) {
+      writer.write(response);
+    }
+    exchange.getResponseHeaders().set(Constants.HEADER_CONTENT_TYPE, Constants.CONTENT_TYPE_JSON);
+    exchange.sendResponseHeaders(statusOf(response), body.size());
+    try (OutputStream out = exchange.getResponseBody()) {
+      body.writeTo(out);
+    }
+  }
+
+  /**
+   * Código HTTP de una respuesta: 200 salvo errores, que se clasifican por código Thales.
+   */
+  private static int statusOf(Object response) {
+    if (!(response instanceof ResponseError error)) {
+      return HttpURLConnection.HTTP_OK;
+    }
+    var code = AcquisitionException.ErrorCode.fromCode(
+            error.code() == null ? AcquisitionException.ErrorCode.UNKNOWN.getCode() : error.code());
+    return switch (code) {
+      case PARAMETER, OBJECT_TYPE_NOT_SUPPORTED -> HttpURLConnection.HTTP_BAD_REQUEST;
+      case DEVICE_NOT_FOUND, INIT_NO_DEVICES_FOUND -> HttpURLConnection.HTTP_NOT_FOUND;
+      case ACQUISITION_TIMEOUT, QUEUE_DEADLINE_EXCEEDED -> HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+      case QUEUE_FULL -> HttpURLConnection.HTTP_UNAVAILABLE;
+      case ACQUISITION_CANCELLED -> HttpURLConnection.HTTP_CONFLICT;
+      default -> HttpURLConnection.HTTP_INTERNAL_ERROR;
+    };
+  }
+
+  private static Map<String, String> parseQuery(HttpExchange exchange) {
+    var params = new HashMap<String, String>();
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null || query.isEmpty()) return params;
+    for (String pair : query.split(Constants.QUERY_SEPARATOR)) {
+      int eq = pair.indexOf(Constants.QUERY_ASSIGN);
+      if (eq <= Constants.ZERO) continue;
+      params.put(URLDecoder.decode(pair.substring(Constants.ZERO, eq), StandardCharsets.UTF_8),
+              URLDecoder.decode(pair.substring(eq + Constants.ONE), StandardCharsets.UTF_8));
+    }
+    return params;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error;
+  }
+
+  /**
+   * Deja de aceptar conexiones y libera los hilos de solicitudes. No cierra el servicio.
+   */
+  @Override
+  public void close() {
+    var current = server;
+    if (current != null) {
+      current.stop(Constants.ZERO);
+    }
+    executor.shutdownNow();
+  }
+}
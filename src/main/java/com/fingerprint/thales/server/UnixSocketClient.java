@@ -0,0 +1,85 @@
+package com.fingerprint.thales.server;
+
+import com.fingerprint.thales.constants.Constants;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Cliente mínimo del socket binario ({@link UnixSocketServer}). Una instancia es una conexión
+ * y no es thread-safe: para capturas en paralelo, un cliente por hilo.
+ * <p>
+ * Las respuestas se devuelven con los mismos modelos de la CLI: ResponseOk (con el template en
+ * bytes), ResponseBatch, ResponseError o ResponseStatus (cancelación).
+ */
+public class UnixSocketClient implements AutoCloseable {
+
+  private final SocketChannel channel;
+
+  private final ByteBuffer request = ByteBuffer.allocate(Constants.PROTOCOL_MAX_REQUEST);
+
+  private final ByteBuffer length = ByteBuffer.allocate(Constants.PROTOCOL_LENGTH_BYTES);
+
+  private ByteBuffer response = ByteBuffer.allocate(Constants.PROTOCOL_PAYLOAD_CAPACITY);
+
+  public UnixSocketClient(Path path) throws IOException {
+    this.channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+    channel.connect(UnixDomainSocketAddress.of(path));
+  }
+
+  /**
+   * Captura en el dispositivo indicado ("any" para cualquiera) y espera el resultado.
+   */
+  public Object capture(String device, int timeoutMs) throws IOException {
+    return call(new BinaryProtocol.Request(Constants.OP_CAPTURE, timeoutMs, device, List.of()));
+  }
+
+  /**
+   * Captura por lotes en un mismo dispositivo.
+   */
+  public Object captureBatch(String device, List<String> objects, int timeoutMs)
+          throws IOException {
+    return call(new BinaryProtocol.Request(Constants.OP_CAPTURE, timeoutMs, device, objects));
+  }
+
+  /**
+   * Cancela la captura en curso del dispositivo ("any" para todos). Debe enviarse por una
+   * conexión distinta de la que espera la captura.
+   */
+  public Object cancel(String device) throws IOException {
+    return call(new BinaryProtocol.Request(Constants.OP_CANCEL, Constants.ZERO, device, List.of()));
+  }
+
+  private Object call(BinaryProtocol.Request call) throws IOException {
+    BinaryProtocol.encodeRequest(request, call);
+    while (request.hasRemaining()) {
+      channel.write(request);
+    }
+
+    length.clear();
+    readFully(length);
+    int size = length.getInt(Constants.ZERO);
+    if (size > response.capacity()) {
+      response = ByteBuffer.allocate(size);
+    }
+    response.clear().limit(size);
+    readFully(response);
+    return BinaryProtocol.decodeResponse(response.flip());
+  }
+
+  private void readFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < Constants.ZERO) throw new EOFException();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
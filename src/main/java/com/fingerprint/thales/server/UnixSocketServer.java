@@ -0,0 +1,198 @@
+package com.fingerprint.thales.server;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.model.ResponseStatus;
+import com.fingerprint.thales.service.AcquisitionService;
+import com.fingerprint.thales.utils.ExceptionMapper;
+import com.fingerprint.thales.utils.Schedulers;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Segunda puerta de entrada del daemon para clientes del mismo equipo: un socket de dominio
+ * Unix con el protocolo binario de {@link BinaryProtocol}.
+ * <p>
+ * Frente al JSON por STDOUT, el template viaja en bytes (sin el tercio extra de Base64) y los
+ * errores como códigos numéricos Thales / IDEMIA, sin parseo de texto en el cliente. Cada
+ * conexión tiene su hilo y sus buffers directos; la respuesta se escribe con una sola escritura
+ * con gathering (cabecera + template).
+ * Cada conexión procesa sus solicitudes en orden; para capturas en paralelo se abren varias.
+ */
+@Slf4j
+public class UnixSocketServer implements AutoCloseable {
+
+  private final AcquisitionService service;
+
+  @Getter
+  private final Path path;
+
+  private final ServerSocketChannel server;
+
+  private final ExecutorService connections;
+
+  private final Thread acceptor;
+
+  /**
+   * @param service Servicio ya inicializado.
+   * @param path    Ruta del socket; si ya existe un archivo en ella se reemplaza.
+   */
+  public UnixSocketServer(AcquisitionService service, Path path) throws IOException {
+    this.service = service;
+    this.path = path;
+    Files.deleteIfExists(path);
+    this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(path));
+    this.connections = Schedulers.newPerTaskExecutor(Constants.SOCKET_THREAD_NAME);
+    this.acceptor = new Thread(this::acceptLoop, Constants.SOCKET_ACCEPT_THREAD_NAME);
+    acceptor.setDaemon(true);
+  }
+
+  /**
+   * Empieza a aceptar conexiones.
+   */
+  public void start() {
+    acceptor.start();
+    log.info(Constants.SOCKET_READY_LOG, path);
+  }
+
+  private void acceptLoop() {
+    while (server.isOpen()) {
+      try {
+        SocketChannel channel = server.accept();
+        connections.execute(() -> serve(channel));
+      } catch (AsynchronousCloseException e) {
+        return;
+      } catch (IOException e) {
+        log.error("Error al aceptar conexión en {}: {}", path, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Atiende una conexión hasta que el cliente la cierre.
+   */
+  private void serve(SocketChannel channel) {
+    var connection = new Connection(channel);
+    try (channel) {
+      while (true) {
+        ByteBuffer body = connection.readRequest();
+        if (body == null) return;
+        connection.writeResponse(handle(body));
+      }
+    } catch (IOException e) {
+      log.warn("Conexión cerrada con error: {}", e.toString());
+    }
+  }
+
+  private Object handle(ByteBuffer body) {
+    long start = System.currentTimeMillis();
+    try {
+      var request = BinaryProtocol.decodeRequest(body);
+      if (request.op() == Constants.OP_CANCEL) {
+        return ResponseStatus.builder().cancelled(service.cancel(request.device())).build();
+      }
+      if (request.op() != Constants.OP_CAPTURE) {
+        throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER);
+      }
+      long timeout = request.timeoutMs() > Constants.ZERO
+              ? request.timeoutMs() : Constants.DEFAULT_TIMEOUT;
+      CompletableFuture<?> pending = request.objects().isEmpty()
+              ? service.submit(request.device(), timeout)
+              : service.submitBatch(request.device(), request.objects(), timeout);
+      return pending.join();
+    } catch (Exception e) {
+      return ExceptionMapper.mapAndLog(log, unwrap(e));
+    } finally {
+      log.info(Constants.REQUEST_LATENCY_LOG, System.currentTimeMillis() - start);
+    }
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error;
+  }
+
+  @Override
+  public void close() {
+    try {
+      server.close();
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("No se pudo cerrar el socket {}: {}", path, e.getMessage());
+    }
+    connections.shutdownNow();
+  }
+
+  /**
+   * Buffers directos de una conexión, reutilizados entre solicitudes.
+   */
+  private static final class Connection {
+
+    private final SocketChannel channel;
+
+    private final ByteBuffer length = ByteBuffer.allocateDirect(Constants.PROTOCOL_LENGTH_BYTES);
+
+    private final ByteBuffer request = ByteBuffer.allocateDirect(Constants.PROTOCOL_MAX_REQUEST);
+
+    private final ByteBuffer header = ByteBuffer.allocateDirect(Constants.PROTOCOL_HEADER_CAPACITY);
+
+    private ByteBuffer payload = ByteBuffer.allocateDirect(Constants.PROTOCOL_PAYLOAD_CAPACITY);
+
+    private final ByteBuffer[] frame = {header, payload};
+
+    private Connection(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    /**
+     * @return el cuerpo de la siguiente solicitud, o null si el cliente cerró la conexión.
+     */
+    private ByteBuffer readRequest() throws IOException {
+      length.clear();
+      if (!readFully(length, true)) return null;
+      int size = length.getInt(Constants.ZERO);
+      if (size <= Constants.ZERO || size > request.capacity()) {
+        throw new IOException("Longitud de solicitud inválida: " + size);
+      }
+      request.clear().limit(size);
+      readFully(request, false);
+      return request.flip();
+    }
+
+    private boolean readFully(ByteBuffer buffer, boolean eofAllowed) throws IOException {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < Constants.ZERO) {
+          if (eofAllowed && buffer.position() == Constants.ZERO) return false;
+          throw new EOFException();
+        }
+      }
+      return true;
+    }
+
+    private void writeResponse(Object response) throws IOException {
+      int needed = BinaryProtocol.payloadSize(response);
+      if (needed > payload.capacity()) {
+        payload = ByteBuffer.allocateDirect(Math.max(needed, payload.capacity() * Constants.TWO));
+        frame[Constants.ONE] = payload;
+      }
+      BinaryProtocol.encodeResponse(response, header, payload);
+      while (payload.hasRemaining() || header.hasRemaining()) {
+        channel.write(frame);
+      }
+    }
+  }
+}
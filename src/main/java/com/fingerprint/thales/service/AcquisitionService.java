@@ -1,40 +1,343 @@
 package com.fingerprint.thales.service;
 
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.AcquisitionStatesEnum;
+import com.fingerprint.thales.enums.CapturePriorityEnum;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.gallery.Identification;
+import com.fingerprint.thales.gallery.TemplateGallery;
+import com.fingerprint.thales.metrics.Metrics;
+import com.fingerprint.thales.metrics.PrometheusTextfileExporter;
+import com.fingerprint.thales.model.DeviceStatus;
+import com.fingerprint.thales.model.ResponseBatch;
 import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.sdk.GbmsSdk;
+import com.fingerprint.thales.sdk.GbmsSdkProvider;
 import com.fingerprint.thales.service.core.AcquisitionHandler;
 import com.fingerprint.thales.service.core.AcquisitionInitializer;
+import com.fingerprint.thales.service.core.DeviceCapabilityRegistry;
+import com.fingerprint.thales.service.core.DeviceRegistry;
+import com.fingerprint.thales.service.core.DeviceWatcher;
+import com.fingerprint.thales.service.core.ScannerDevice;
+import com.fingerprint.thales.template.Verification;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Servicio de adquisicion. Una instancia mantiene el SDK inicializado y puede atender
+ * varias capturas consecutivas (modo daemon) sin volver a cargar la libreria.
+ * Con varios escaneres conectados, las capturas se reparten entre ellos; las adquisiciones se
+ * turnan porque el dispositivo actual de GBMSAPI es global ({@link
+ * com.fingerprint.thales.sdk.DeviceBoundGbmsSdk}).
+ * Con {@code -Dthales.gallery.path} además identifica huellas contra una galería local (1:N).
+ */
 @Getter
 @Setter
 @Slf4j
-public class AcquisitionService {
+public class AcquisitionService implements AutoCloseable {
+
+  private final GbmsSdk sdk;
 
   private final AcquisitionInitializer initializer;
 
-  private final AcquisitionHandler handler;
+  private final DeviceRegistry registry;
+
+  private final DeviceWatcher watcher;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private PrometheusTextfileExporter metricsExporter;
+
+  @Setter(AccessLevel.NONE)
+  private volatile TemplateGallery gallery;
 
   /**
-   * Constructor - initializes SDK Thales.
+   * Constructor - initializes SDK Thales (implementación elegida por {@link GbmsSdkProvider}).
    */
   public AcquisitionService() {
-    this.initializer = new AcquisitionInitializer();
-    this.handler = new AcquisitionHandler();
+    this(GbmsSdkProvider.get());
+  }
+
+  /**
+   * Constructor - initializes SDK Thales with the given implementation.
+   */
+  public AcquisitionService(GbmsSdk sdk) {
+    this.sdk = sdk;
+    this.initializer = new AcquisitionInitializer(sdk, new DeviceCapabilityRegistry());
     log.info("Inicializando SDK Thales...");
     initializer.initialize();
+    this.registry = new DeviceRegistry(initializer.getSelector(), initializer.getCapabilities(),
+            initializer.getDevices());
+    this.watcher = new DeviceWatcher(initializer, registry);
+  }
+
+  /**
+   * Activa la detección de escáneres conectados o desconectados en caliente.
+   * Solo tiene sentido en procesos de larga duración (modo daemon).
+   */
+  public void startDeviceWatcher() {
+    watcher.start();
   }
 
   /**
-   * Inicia el proceso de adquisición biométrica.
+   * Publica las métricas por JMX y, con {@code -Dthales.metrics.textfile}, las escribe
+   * periódicamente como textfile Prometheus. Solo tiene sentido en procesos de larga duración.
+   */
+  public void startMetrics() {
+    Metrics.registerMBean();
+    if (metricsExporter == null) {
+      metricsExporter = PrometheusTextfileExporter.fromSystemProperties();
+    }
+  }
+
+  /**
+   * Abre la galería de {@code -Dthales.gallery.path} y construye su índice de candidatos, si la
+   * propiedad está configurada. Conviene llamarlo al arrancar: con cientos de miles de templates
+   * el índice tarda unos segundos.
+   *
+   * @throws AcquisitionException INTERNAL_ERROR si la galería no se puede abrir.
+   */
+  public synchronized void openGallery() {
+    if (gallery != null) return;
+    try {
+      gallery = TemplateGallery.fromSystemProperties();
+    } catch (IOException e) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.INTERNAL_ERROR, e);
+    }
+  }
+
+  /**
+   * Inicia el proceso de adquisición biométrica en cualquier dispositivo libre.
    *
    * @param timeout Tiempo máximo de espera en milisegundos.
-   * @return ResponseOk con la huella capturada en Base64.
+   * @return ResponseOk con la huella capturada.
    */
   public ResponseOk startAcquisition(Long timeout) {
+    return startAcquisition(null, timeout);
+  }
+
+  /**
+   * Inicia el proceso de adquisición biométrica y espera el resultado.
+   *
+   * @param serial  Serial del dispositivo, o null / "any" para cualquiera.
+   * @param timeout Tiempo máximo de espera en milisegundos.
+   * @return ResponseOk con la huella capturada.
+   */
+  public ResponseOk startAcquisition(String serial, Long timeout) {
+    return startAcquisition(serial, CapturePriorityEnum.OPERATOR, timeout);
+  }
+
+  /**
+   * Inicia el proceso de adquisición biométrica con la prioridad indicada y espera el resultado.
+   *
+   * @param serial   Serial del dispositivo, o null / "any" para cualquiera.
+   * @param priority Clase de prioridad de la solicitud.
+   * @param timeout  Tiempo máximo de espera en milisegundos; también es el plazo para empezar.
+   * @return ResponseOk con la huella capturada.
+   */
+  public ResponseOk startAcquisition(String serial, CapturePriorityEnum priority, Long timeout) {
+    return startAcquisition(serial, priority, timeout, null);
+  }
+
+  /**
+   * Igual que {@link #startAcquisition(String, CapturePriorityEnum, Long)}, verificando la
+   * huella capturada contra un template de referencia.
+   *
+   * @param verification Referencia y umbral, o null para no verificar.
+   * @return ResponseOk con la huella capturada y, si se verificó, la puntuación.
+   */
+  public ResponseOk startAcquisition(String serial, CapturePriorityEnum priority, Long timeout,
+                                     Verification verification) {
+    return await(submit(serial, priority, timeout, verification));
+  }
+
+  /**
+   * Encola una captura de operador sin bloquear al llamante.
+   *
+   * @param serial  Serial del dispositivo, o null / "any" para cualquiera.
+   * @param timeout Tiempo máximo de espera en milisegundos.
+   */
+  public CompletableFuture<ResponseOk> submit(String serial, Long timeout) {
+    return submit(serial, CapturePriorityEnum.OPERATOR, timeout);
+  }
+
+  /**
+   * Encola una captura sin bloquear al llamante.
+   *
+   * @param serial   Serial del dispositivo, o null / "any" para cualquiera.
+   * @param priority Clase de prioridad de la solicitud.
+   * @param timeout  Tiempo máximo de espera en milisegundos; también es el plazo para empezar.
+   * @throws AcquisitionException QUEUE_FULL si la cola del dispositivo no admite más.
+   */
+  public CompletableFuture<ResponseOk> submit(String serial, CapturePriorityEnum priority,
+                                              Long timeout) {
+    return submit(serial, priority, timeout, null);
+  }
+
+  /**
+   * Encola una captura con verificación 1:1 sin bloquear al llamante. La comparación corre en
+   * el proceso, justo después de extraer el template.
+   *
+   * @param verification Referencia y umbral, o null para no verificar.
+   * @throws AcquisitionException QUEUE_FULL si la cola del dispositivo no admite más.
+   */
+  public CompletableFuture<ResponseOk> submit(String serial, CapturePriorityEnum priority,
+                                              Long timeout, Verification verification) {
     log.info("Iniciando proceso de adquisición...");
-    return handler.captureFingerprint(timeout);
+    return registry.submit(serial, priority, timeout, verification);
+  }
+
+  /**
+   * Igual que {@link #submit(String, CapturePriorityEnum, Long, Verification)}, escaneando el
+   * objeto indicado en vez del índice derecho. La respuesta es la de una captura simple.
+   *
+   * @param object Nombre GBMSAPI del objeto (p. ej. SLAP_4_LEFT).
+   * @throws AcquisitionException PARAMETER si el objeto no es válido; QUEUE_FULL si la cola del
+   *                              dispositivo no admite más.
+   */
+  public CompletableFuture<ResponseOk> submit(String serial, CapturePriorityEnum priority,
+                                              String object, Long timeout,
+                                              Verification verification) {
+    int code = AcquisitionHandler.resolveObject(object);
+    log.info("Iniciando proceso de adquisición de {}...", object);
+    return registry.submit(serial, priority, code, timeout, verification);
+  }
+
+  /**
+   * Captura una huella y la identifica contra la galería (1:N); espera el resultado.
+   *
+   * @param serial    Serial del dispositivo, o null / "any" para cualquiera.
+   * @param priority  Clase de prioridad de la solicitud.
+   * @param timeout   Tiempo máximo de espera en milisegundos.
+   * @param threshold Puntuación mínima (0-100) de un candidato.
+   * @param enrollAs  Identificador para enrolar la huella si no hay candidatos, o null.
+   * @return ResponseOk con la huella, los candidatos y, si se enroló, su identificador.
+   */
+  public ResponseOk startIdentification(String serial, CapturePriorityEnum priority, Long timeout,
+                                        int threshold, String enrollAs) {
+    return await(submitIdentification(serial, priority, timeout, threshold, enrollAs));
+  }
+
+  /**
+   * Encola una captura con identificación 1:N sin bloquear al llamante. La búsqueda corre en el
+   * proceso, justo después de extraer el template; la puntuación de candidatos se reparte en el
+   * pool fork-join de la galería.
+   *
+   * @throws AcquisitionException PARAMETER si no hay galería abierta ({@link #openGallery()}) o
+   *                              {@code enrollAs} no es válido; QUEUE_FULL si la cola del
+   *                              dispositivo no admite más.
+   */
+  public CompletableFuture<ResponseOk> submitIdentification(String serial,
+                                                            CapturePriorityEnum priority,
+                                                            Long timeout, int threshold,
+                                                            String enrollAs) {
+    TemplateGallery current = gallery;
+    if (current == null) {
+      log.error("Identificación 1:N sin galería: configure -D{}", Constants.GALLERY_PATH_PROPERTY);
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER);
+    }
+    var identification = new Identification(current, threshold, enrollAs);
+    log.info("Iniciando proceso de adquisición con identificación 1:N...");
+    return registry.submit(serial, priority, timeout, identification);
+  }
+
+  /**
+   * Captura varios objetos seguidos en un mismo dispositivo y espera el resultado.
+   *
+   * @param serial  Serial del dispositivo, o null / "any" para cualquiera.
+   * @param objects Nombres GBMSAPI de los objetos, en orden (p. ej. FLAT_RIGHT_INDEX).
+   * @param timeout Tiempo máximo de espera por objeto en milisegundos.
+   * @return Un resultado por objeto; los fallos individuales no interrumpen el lote.
+   */
+  public ResponseBatch captureBatch(String serial, List<String> objects, Long timeout) {
+    return await(submitBatch(serial, CapturePriorityEnum.OPERATOR, objects, timeout));
+  }
+
+  /**
+   * Encola una captura por lotes de operador sin bloquear al llamante.
+   */
+  public CompletableFuture<ResponseBatch> submitBatch(String serial, List<String> objects,
+                                                      Long timeout) {
+    return submitBatch(serial, CapturePriorityEnum.OPERATOR, objects, timeout);
+  }
+
+  /**
+   * Encola una captura por lotes con la prioridad indicada sin bloquear al llamante.
+   */
+  public CompletableFuture<ResponseBatch> submitBatch(String serial, CapturePriorityEnum priority,
+                                                      List<String> objects, Long timeout) {
+    log.info("Iniciando captura por lotes...");
+    return registry.submitBatch(serial, priority, objects, timeout);
+  }
+
+  /**
+   * Cancela la captura en curso en un dispositivo o, con null / "any", en todos.
+   *
+   * @return número de capturas canceladas.
+   */
+  public int cancel(String serial) {
+    log.info("Cancelando captura en {}...", serial);
+    return registry.cancel(serial);
+  }
+
+  /**
+   * Estado actual de cada escáner registrado, con las métricas de su cola.
+   */
+  public List<DeviceStatus> status() {
+    return registry.getDevices().stream()
+            .map(AcquisitionService::statusOf)
+            .toList();
+  }
+
+  private static DeviceStatus statusOf(ScannerDevice device) {
+    var stats = device.getScheduler().stats();
+    return DeviceStatus.builder()
+            .serial(device.getSerial())
+            .type(device.getInfo().type())
+            .state(AcquisitionStatesEnum.getAcquisitionStateString(
+                    device.getHandler().getAcqState()))
+            .pending(device.getPending())
+            .queued(stats.queued())
+            .rejected(stats.rejected())
+            .expired(stats.expired())
+            .completed(stats.completed())
+            .queueWaitAvgMs(stats.queueWaitAvgMs())
+            .queueWaitMaxMs(stats.queueWaitMaxMs())
+            .captureAvgMs(stats.captureAvgMs())
+            .captureMaxMs(stats.captureMaxMs())
+            .build();
+  }
+
+  private static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      throw new AcquisitionException(AcquisitionException.ErrorCode.INTERNAL_ERROR, e);
+    }
+  }
+
+  /**
+   * Libera la libreria GBMSAPI. Se invoca al terminar el modo daemon.
+   */
+  @Override
+  public void close() {
+    log.info("Liberando SDK Thales...");
+    watcher.close();
+    registry.close();
+    sdk.unloadLibrary();
+    if (metricsExporter != null) {
+      metricsExporter.close();
+    }
+    if (gallery != null) {
+      gallery.close();
+    }
   }
 
-}
\ No newline at end of file
+}
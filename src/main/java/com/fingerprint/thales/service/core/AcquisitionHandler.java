@@ -8,186 +8,718 @@ import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JA
 import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_ScannableObjects;
 import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_ErrorCodesDefines.GBMSAPI_JAVA_ErrorCodes;
 import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
-import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_DLL_WRAPPER;
 import com.fingerprint.thales.constants.Constants;
 import com.fingerprint.thales.enums.AcquisitionStatesEnum;
+import com.fingerprint.thales.enums.DeviceSettingsEnum;
+import com.fingerprint.thales.enums.MetricCounterEnum;
+import com.fingerprint.thales.enums.MetricPhaseEnum;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
 import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.gallery.Identification;
+import com.fingerprint.thales.jfr.CapturePhaseEvent;
+import com.fingerprint.thales.jfr.SdkCallbackEvent;
+import com.fingerprint.thales.metrics.Metrics;
+import com.fingerprint.thales.model.Candidate;
 import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.sdk.GbmsSdk;
+import com.fingerprint.thales.template.MinutiaeMatcher;
+import com.fingerprint.thales.template.MinutiaeTemplate;
+import com.fingerprint.thales.template.TemplateCheck;
+import com.fingerprint.thales.template.TemplateCodec;
+import com.fingerprint.thales.template.Verification;
 import com.fingerprint.thales.utils.BiometricAdapter;
 import com.fingerprint.thales.utils.GbmsApiDeviceUtil;
+import com.fingerprint.thales.utils.Schedulers;
+import com.sun.jna.CallbackThreadInitializer;
 import com.sun.jna.Memory;
+import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.ByteByReference;
 import com.sun.jna.ptr.IntByReference;
-import java.util.ArrayList;
-import java.util.Base64;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import jdk.jfr.EventType;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Inicia el proceso de adquisicion de huella.
- * Implementa los callbacks del SDK y devuelve un ResponseOk con la huella en Base64.
+ * Implementa los callbacks del SDK y devuelve un ResponseOk con el template de la huella.
+ * <p>
+ * El hilo nativo del callback solo copia cada evento en una {@link CallbackEventQueue} y
+ * vuelve; la lógica de cada evento (estado, métricas, logs, template) corre en el hilo
+ * consumidor del handler, en el mismo orden en que llegaron. La excepción es ACQUISITION_END:
+ * GBMSAPI exige {@code GetIso19794_2_2005_Template} e {@code ImageFinalization} dentro del
+ * callback, con el frame del driver aún válido, así que se llaman ahí y al consumidor solo le
+ * llegan sus resultados.
  */
 @Slf4j
 @Getter
-public class AcquisitionHandler implements GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface {
+public class AcquisitionHandler implements GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface,
+        AutoCloseable {
+
+  private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+  /**
+   * Tipos JFR consultados antes de crear cada evento: sin grabación que los habilite, el callback
+   * y las transiciones no asignan nada (el análisis de escape no lo garantiza, el evento pasa por
+   * varias llamadas).
+   */
+  private static final EventType CALLBACK_EVENT_TYPE = EventType.getEventType(SdkCallbackEvent.class);
+
+  private static final EventType PHASE_EVENT_TYPE = EventType.getEventType(CapturePhaseEvent.class);
+
+  // === SDK ===
+  private final GbmsSdk sdk;
 
   // === Acquisition State ===
-  private boolean acqBusy;
-  private boolean frameReady;
-  private boolean acqEnded;
-  private int acqState;
-  private int acqContrast;
-  private int acqDiagnostics;
+  /**
+   * Palabra de estado atómica: código de {@link AcquisitionStatesEnum} en los bits bajos y
+   * generación de la captura en los altos. Las transiciones se hacen por CAS desde el hilo
+   * del llamante, el callback del SDK y el planificador; solo quien gana la transición a un
+   * estado terminal completa el resultado.
+   */
+  @Getter(AccessLevel.NONE)
+  private final AtomicInteger stateWord = new AtomicInteger(
+          pack(Constants.ZERO, AcquisitionStatesEnum.IDLE));
+  private volatile int acqContrast;
   private int acqOldDiagnostic;
 
   // === Object to Scan ===
   private int objToScan = GBMSAPI_JAVA_ScannableObjects.GBMSAPI_JAVA_SBT_NO_OBJECT;
 
+  // === Acquisition Options (solo desde el hilo que inicia las capturas) ===
+  @Getter(AccessLevel.NONE)
+  private final Map<Integer, Integer> optionsByType = new HashMap<>();
+  private final DeviceSettings settings;
+
   // === Acquisition Data ===
-  private byte[] acqFrame;
-  private Timer acqTimer;
+  private final FrameBufferPool framePool = new FrameBufferPool(Constants.FRAME_POOL_SLOTS);
+  private FrameBufferPool.Frame acqFrame;
+
+  // === Completion ===
+  private volatile CompletableFuture<ResponseOk> completion;
+  private ScheduledFuture<?> inactivityCheck;
 
   // === Diagnostics ===
-  private final List<String> diagnosticsList = new ArrayList<>();
+  private volatile int reportedDiagnostics;
+
+  // === Callback scratch (reutilizado en cada frame: el callback no asigna memoria) ===
+  @Getter(AccessLevel.NONE)
+  private final CallbackEventQueue callbacks;
+  private final ByteByReference contrastRef = new ByteByReference();
+
+  // === Template (lo lee el callback de ACQUISITION_END; el buffer nativo se reutiliza y solo
+  // crece, y se dimensiona en el hilo que inicia la captura) ===
+  @Getter(AccessLevel.NONE)
+  private Memory templateBuffer;
+  @Getter(AccessLevel.NONE)
+  private final IntByReference templateBufferSize = new IntByReference();
+  @Getter(AccessLevel.NONE)
+  private final IntByReference templateSize = new IntByReference();
+  @Getter(AccessLevel.NONE)
+  private final Set<TemplateFormatEnum> templateFormats =
+          TemplateFormatEnum.parseList(System.getProperty(Constants.TEMPLATE_FORMATS_PROPERTY));
+  @Getter(AccessLevel.NONE)
+  private final MinutiaeTemplate isoView = new MinutiaeTemplate();
+  @Getter(AccessLevel.NONE)
+  private MinutiaeMatcher matcher;
+  @Getter(AccessLevel.NONE)
+  private volatile TemplateCheck check;
+  private long frameCount;
+  private boolean fakeFingerCounted;
 
   // === Last Response ===
-  private ResponseOk lastResponse;
+  private volatile ResponseOk lastResponse;
 
   private volatile long lastActivityTime = Constants.ZERO_LONG;
 
+  // === Latency ===
+  private volatile long captureStartNanos;
+  private volatile long firstFrameNanos;
+
+  // === Armed session (pre-arranque especulativo) ===
+  /**
+   * Generación de la sesión armada que nadie ha adoptado todavía, o NOT_ARMED. Protegida por
+   * {@code armLock}: armar, adoptar y desarmar son raros y pueden venir de hilos distintos
+   * (hilo del dispositivo y planificador de la ventana de espera).
+   */
+  @Getter(AccessLevel.NONE)
+  private final ReentrantLock armLock = new ReentrantLock();
+  @Getter(AccessLevel.NONE)
+  private int armedGeneration = Constants.NOT_ARMED;
+  @Getter(AccessLevel.NONE)
+  private int armedObject;
+  @Getter(AccessLevel.NONE)
+  private ScheduledFuture<?> armedIdleCheck;
+  /**
+   * Último valor enviado a SetAutoCaptureBlocking. Protegido por {@code armLock}.
+   */
+  @Getter(AccessLevel.NONE)
+  private boolean autoCaptureBlocked;
+  private volatile boolean lastCaptureArmed;
+
+  /**
+   * @param sdk implementación del SDK GBMSAPI (nativa o simulada).
+   */
+  public AcquisitionHandler(GbmsSdk sdk) {
+    this(sdk, new DeviceSettings());
+  }
+
+  /**
+   * @param sdk      implementación del SDK GBMSAPI (nativa o simulada).
+   * @param settings ajustes ya aplicados en el dispositivo (compartidos con
+   *                 {@link DeviceCapabilityRegistry}).
+   */
+  public AcquisitionHandler(GbmsSdk sdk, DeviceSettings settings) {
+    this.sdk = sdk;
+    this.settings = settings;
+    int id = INSTANCES.getAndIncrement();
+    this.callbacks = new CallbackEventQueue(Constants.CALLBACK_QUEUE_CAPACITY,
+            Constants.CALLBACK_CONSUMER_THREAD_NAME + id, this::dispatch);
+    // El hilo nativo queda adjunto a la JVM entre callbacks, con nombre y como daemon.
+    Native.setCallbackThreadInitializer(this, new CallbackThreadInitializer(true, false,
+            Constants.CALLBACK_NATIVE_THREAD_NAME + id));
+  }
+
   /**
    * Inicia el proceso de adquisición de huella.
+   * El resultado se entrega en cuanto el callback recibe ACQUISITION_END o ACQUISITION_ERROR;
+   * el timeout de inactividad lo vigila el planificador compartido.
    *
-   * @param timeout tiempo máximo de espera en milisegundos.
+   * @param timeout tiempo máximo de inactividad en milisegundos.
    * @return ResponseOk con la huella en base64 o null si no se obtuvo.
    */
   public ResponseOk captureFingerprint(Long timeout) {
+    return captureFingerprint(timeout, null);
+  }
+
+  /**
+   * Igual que {@link #captureFingerprint(Long)}, verificando la huella contra una referencia o
+   * buscándola en la galería en cuanto se extrae el template.
+   *
+   * @param timeout tiempo máximo de inactividad en milisegundos.
+   * @param check   verificación 1:1 o identificación 1:N, o null para solo capturar.
+   * @return ResponseOk con la huella y, según el caso, la puntuación o los candidatos.
+   */
+  public ResponseOk captureFingerprint(Long timeout, TemplateCheck check) {
+    return captureFingerprint(resolveObject(Constants.FLAT_RIGHT_INDEX), timeout, check);
+  }
+
+  /**
+   * Inicia la adquisición de un objeto concreto (dedo, slap, pulgares...).
+   *
+   * @param object  objeto GBMSAPI a escanear (ver {@link #resolveObject(String)}).
+   * @param timeout tiempo máximo de inactividad en milisegundos.
+   * @return ResponseOk con el template capturado.
+   */
+  public ResponseOk captureFingerprint(int object, Long timeout) {
+    return captureFingerprint(object, timeout, null);
+  }
+
+  /**
+   * Adquisición de un objeto concreto con verificación 1:1 o identificación 1:N.
+   *
+   * @param object  objeto GBMSAPI a escanear (ver {@link #resolveObject(String)}).
+   * @param timeout tiempo máximo de inactividad en milisegundos.
+   * @param check   verificación 1:1 o identificación 1:N, o null para solo capturar.
+   * @return ResponseOk con la huella y, según el caso, la puntuación o los candidatos.
+   */
+  public ResponseOk captureFingerprint(int object, Long timeout, TemplateCheck check) {
     log.info("Iniciando adquisición de huella (timeout={}ms)...", timeout);
-    resetAcquisitionState();
+    this.check = check;
+    long requestedNanos = System.nanoTime();
+    var pending = new CompletableFuture<ResponseOk>();
+    int generation = adoptArmed(object, pending, requestedNanos);
+    lastCaptureArmed = generation != Constants.NOT_ARMED;
+    if (!lastCaptureArmed) {
+      generation = startCold(object, pending, requestedNanos);
+    }
 
-    objToScan = GBMSAPI_JAVA_ScanObjectsUtilities
-            .GBMSAPI_JAVA_GetObjectToScanFromString(Constants.FLAT_RIGHT_INDEX);
+    scheduleInactivityCheck(pending, generation, timeout, timeout);
+    try {
+      ResponseOk response = pending.get();
+      long endNanos = System.nanoTime();
+      recordCapture(endNanos);
+      log.info("Adquisición finalizada correctamente.");
+      log.info("Latencias: primer frame={}ms, captura={}ms, armado={}", getTimeToFirstFrameMs(),
+              toMillis(endNanos - captureStartNanos), lastCaptureArmed);
+      return response;
+    } catch (ExecutionException e) {
+      throw toAcquisitionException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("La adquisición fue interrumpida: {}", e.getMessage());
+      if (transition(generation, AcquisitionStatesEnum.SCANNER_ERROR)) {
+        stopAcquisition();
+      }
+      return ResponseOk.builder().fingerprint(null).build();
+    } finally {
+      inactivityCheck.cancel(false);
+      this.check = null;
+    }
+  }
 
-    if (objToScan == GBMSAPI_JAVA_ScannableObjects.GBMSAPI_JAVA_SBT_NO_OBJECT) {
-      throw new AcquisitionException(AcquisitionException.ErrorCode.INTERNAL_ERROR,
-              new RuntimeException("Objeto a escanear no válido"));
+  /**
+   * Métricas de una captura correcta: duración total y tiempo de dedo (del primer frame al
+   * final).
+   */
+  private void recordCapture(long endNanos) {
+    Metrics.increment(MetricCounterEnum.CAPTURES);
+    Metrics.record(MetricPhaseEnum.CAPTURE, endNanos - captureStartNanos);
+    long first = firstFrameNanos;
+    if (first != Constants.ZERO_LONG) {
+      Metrics.record(MetricPhaseEnum.FINGER, endNanos - first);
     }
+  }
+
+  /**
+   * Arranque en frío: reinicia el estado, aplica la configuración y llama a StartAcquisition.
+   *
+   * @return generación de la captura iniciada.
+   */
+  private int startCold(int object, CompletableFuture<ResponseOk> pending, long requestedNanos) {
+    int generation = beginCapture();
+    resetAcquisitionState();
 
+    objToScan = object;
     int acqOptions = prepareAcquisitionOptions(objToScan);
+    prepareTemplateBuffer();
 
-    int result = GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_StartAcquisition(
-            objToScan, acqOptions, this, Pointer.NULL,
+    completion = pending;
+    lastActivityTime = System.currentTimeMillis();
+    captureStartNanos = requestedNanos;
+    callbacks.start();
+    // La generación viaja como userParams: los eventos tardíos de una captura anterior se ignoran.
+    int result = sdk.startAcquisition(
+            objToScan, acqOptions, this, Pointer.createConstant(generation),
             Constants.ZERO, Constants.ZERO_B, Constants.ZERO_B);
 
     if (result != GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
       resetAcquisitionState();
+      endCapture(generation);
       GbmsApiDeviceUtil.throwIfError(result);
     }
+    return generation;
+  }
 
-    acqState = AcquisitionStatesEnum.SCANNER_START.getCode();
-    startResultPolling();
+  // ========== SESIÓN ARMADA ==========
 
-    lastActivityTime = System.currentTimeMillis();
-    synchronized (this) {
-      while (!acqEnded) {
-        long sinceLastActivity = System.currentTimeMillis() - lastActivityTime;
-
-        if (sinceLastActivity >= timeout) {
-          stopAcquisition();
-          resetAcquisitionState();
-          throw new AcquisitionException(AcquisitionException.ErrorCode.ACQUISITION_TIMEOUT);
-        }
-        try {
-          this.wait(Constants.POLLING_INTERVAL_MS);
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-          log.error("La adquisición fue interrumpida: {}", e.getMessage());
-          break;
-        }
-      }
+  /**
+   * Pre-arranca la siguiente adquisición del mismo objeto que la última captura correcta: el
+   * escáner queda en vista previa con la autocaptura bloqueada y el LED en reposo, sin nadie
+   * esperando. La siguiente solicitud del mismo objeto adopta la sesión ya en marcha y se salta
+   * el reinicio, la configuración y el arranque del escáner; si no llega ninguna en
+   * {@code idleMs}, la sesión se detiene. Debe llamarse desde el hilo que inicia las capturas.
+   *
+   * @param idleMs ventana de espera en milisegundos.
+   * @return true si el escáner quedó armado.
+   */
+  public boolean arm(long idleMs) {
+    if (idleMs <= Constants.ZERO_LONG
+            || getAcqState() != AcquisitionStatesEnum.ACQUISITION_END.getCode()) {
+      return false;
     }
+    armLock.lock();
+    try {
+      if (armedGeneration != Constants.NOT_ARMED) return false;
+      int object = objToScan;
+      int generation = beginCapture();
+      resetAcquisitionState();
+      int acqOptions = prepareAcquisitionOptions(object);
+      prepareTemplateBuffer();
+      blockAutoCapture(true);
+      sdk.vuiLedBlinkDuringAcquisition(Constants.ZERO);
+      callbacks.start();
 
-    log.info("Adquisición finalizada correctamente.");
-    return getLastResponse() != null ? getLastResponse()
-            : ResponseOk.builder().fingerprint(null).build();
+      int result = sdk.startAcquisition(
+              object, acqOptions, this, Pointer.createConstant(generation),
+              Constants.ZERO, Constants.ZERO_B, Constants.ZERO_B);
+      if (result != GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+        blockAutoCapture(false);
+        endCapture(generation);
+        log.warn("No se pudo armar el escáner: {}", result);
+        return false;
+      }
+      armedGeneration = generation;
+      armedObject = object;
+      armedIdleCheck = Schedulers.shared().schedule(() -> disarm(generation), idleMs,
+              TimeUnit.MILLISECONDS);
+      log.info("Escáner armado en vista previa (espera máxima {} ms).", idleMs);
+      return true;
+    } finally {
+      armLock.unlock();
+    }
   }
 
   /**
-   * Inicia el polling periódico para verificar resultados de adquisición.
+   * Detiene la sesión armada, si la hay.
    */
-  private void startResultPolling() {
-    acqTimer = new Timer();
-    acqTimer.scheduleAtFixedRate(new TimerTask() {
-      @Override
-      public void run() {
-        if (acqState != AcquisitionStatesEnum.IDLE.getCode()) {
-          handleAcquisitionResults();
-          if (acqEnded && acqTimer != null) acqTimer.cancel();
-        }
+  public void disarm() {
+    armLock.lock();
+    try {
+      if (armedGeneration != Constants.NOT_ARMED) {
+        log.info("Desarmando escáner...");
+        releaseArmed(armedGeneration);
       }
-    }, 100, 100);
-    log.info("Polling de adquisición iniciado.");
+    } finally {
+      armLock.unlock();
+    }
   }
 
-  private int prepareAcquisitionOptions(int objToScan) {
-    int options = Constants.ZERO;
-    int objTypeMask = GBMSAPI_JAVA_ScanObjectsUtilities.GBMSAPI_JAVA_GetTypeFromObject(objToScan);
+  private void disarm(int generation) {
+    armLock.lock();
+    try {
+      if (armedGeneration == generation) {
+        log.info("Escáner desarmado: ninguna solicitud en la ventana de espera.");
+        releaseArmed(generation);
+      }
+    } finally {
+      armLock.unlock();
+    }
+  }
+
+  /**
+   * Entrega la sesión armada a la solicitud si es del mismo objeto y sigue viva; si no, la
+   * detiene para arrancar en frío.
+   *
+   * @return generación adoptada, o NOT_ARMED.
+   */
+  private int adoptArmed(int object, CompletableFuture<ResponseOk> pending, long requestedNanos) {
+    armLock.lock();
+    try {
+      int generation = armedGeneration;
+      if (generation == Constants.NOT_ARMED) return Constants.NOT_ARMED;
+      if (object != armedObject || !isLive(generation)) {
+        releaseArmed(generation);
+        return Constants.NOT_ARMED;
+      }
+      armedGeneration = Constants.NOT_ARMED;
+      armedIdleCheck.cancel(false);
 
-    if (GBMSAPI_JAVA_ScanObjectsUtilities.IsFlatType(objTypeMask)) {
-      options |= GBMSAPI_JAVA_AcquisitionOptions.GBMSAPI_JAVA_AO_AUTOCAPTURE;
-      GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_SetSelectImageTimeout(Constants.ZERO);
+      firstFrameNanos = Constants.ZERO_LONG;
+      fakeFingerCounted = false;
+      captureStartNanos = requestedNanos;
+      lastActivityTime = System.currentTimeMillis();
+      // A partir de aquí los callbacks trabajan para esta solicitud.
+      completion = pending;
+      blockAutoCapture(false);
+      if (!isLive(generation) && !pending.isDone()) {
+        // La sesión terminó mientras se adoptaba: arranque en frío.
+        completion = null;
+        return Constants.NOT_ARMED;
+      }
+      log.info("Sesión armada adoptada por la solicitud.");
+      return generation;
+    } finally {
+      armLock.unlock();
     }
+  }
 
-    GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-            .GBMSAPI_SetMembraneUsageForFakeFingerDetection(Constants.ONE);
-    GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-            .GBMSAPI_EnableAutoCaptureBlockForDetectedFakes(Constants.ZERO_B);
+  /**
+   * Libera la sesión armada: vuelve a IDLE y detiene la adquisición si seguía en marcha.
+   * Requiere {@code armLock}.
+   */
+  private void releaseArmed(int generation) {
+    armedGeneration = Constants.NOT_ARMED;
+    if (armedIdleCheck != null) {
+      armedIdleCheck.cancel(false);
+    }
+    while (isLive(generation)) {
+      int word = stateWord.get();
+      if (generationOf(word) == generation
+              && stateWord.compareAndSet(word, pack(generation, AcquisitionStatesEnum.IDLE))) {
+        phaseChanged(generation, AcquisitionStatesEnum.fromCode(stateOf(word)),
+                AcquisitionStatesEnum.IDLE);
+        stopAcquisition();
+        break;
+      }
+    }
+    blockAutoCapture(false);
+  }
 
-    return options;
+  /**
+   * Indica si la captura {@code generation} sigue en marcha (no terminó ni fue reemplazada).
+   */
+  private boolean isLive(int generation) {
+    int word = stateWord.get();
+    var state = AcquisitionStatesEnum.fromCode(stateOf(word));
+    return generationOf(word) == generation && state != null
+            && state != AcquisitionStatesEnum.IDLE && !state.isTerminal();
   }
 
-  private void resetAcquisitionState() {
-    acqDiagnostics = acqOldDiagnostic = Constants.ZERO;
-    acqBusy = frameReady = acqEnded = false;
-    acqContrast = Constants.ZERO;
-    acqFrame = null;
-    acqState = AcquisitionStatesEnum.IDLE.getCode();
-    acqTimer = null;
-    diagnosticsList.clear();
-    log.info("Estado de adquisición reiniciado.");
+  /**
+   * Bloquea o desbloquea la autocaptura si cambia. Requiere {@code armLock}.
+   */
+  private void blockAutoCapture(boolean block) {
+    if (autoCaptureBlocked == block) return;
+    sdk.setAutoCaptureBlocking(block ? Constants.ONE : Constants.ZERO);
+    autoCaptureBlocked = block;
   }
 
-  private void handleAcquisitionResults() {
-    if (acqBusy) return;
+  /**
+   * Programa la verificación de inactividad: si no hubo actividad del dedo durante
+   * {@code timeout} ms, la captura termina con ACQUISITION_TIMEOUT.
+   */
+  private void scheduleInactivityCheck(CompletableFuture<ResponseOk> pending, int generation,
+                                       long timeout, long delayMs) {
+    inactivityCheck = Schedulers.shared().schedule(
+            () -> checkInactivity(pending, generation, timeout), delayMs, TimeUnit.MILLISECONDS);
+  }
 
-    try {
-      acqBusy = true;
-      if (frameReady) {
-        frameReady = false;
-        if (acqDiagnostics != acqOldDiagnostic) {
-          processDiagnostics(acqDiagnostics);
-          acqOldDiagnostic = acqDiagnostics;
-        }
+  private void checkInactivity(CompletableFuture<ResponseOk> pending, int generation,
+                               long timeout) {
+    if (pending.isDone()) return;
+
+    long remaining = lastActivityTime + timeout - System.currentTimeMillis();
+    if (remaining > Constants.ZERO_LONG) {
+      scheduleInactivityCheck(pending, generation, timeout, remaining);
+      return;
+    }
+    if (transition(generation, AcquisitionStatesEnum.SCANNER_ERROR)) {
+      stopAcquisition();
+      pending.completeExceptionally(
+              new AcquisitionException(AcquisitionException.ErrorCode.ACQUISITION_TIMEOUT));
+    }
+  }
+
+  /**
+   * Cancela la captura en curso, si la hay: detiene la adquisición y el llamante recibe
+   * ACQUISITION_CANCELLED. Puede invocarse desde cualquier hilo.
+   *
+   * @return true si había una captura en curso y se canceló.
+   */
+  public boolean cancel() {
+    int generation = generationOf(stateWord.get());
+    CompletableFuture<ResponseOk> pending = completion;
+    if (pending == null || !transition(generation, AcquisitionStatesEnum.SCANNER_ERROR)) {
+      return false;
+    }
+    log.info("Cancelando adquisición en curso...");
+    stopAcquisition();
+    pending.completeExceptionally(
+            new AcquisitionException(AcquisitionException.ErrorCode.ACQUISITION_CANCELLED));
+    return true;
+  }
+
+  // ========== MÁQUINA DE ESTADOS ==========
+
+  /**
+   * Estado actual de la adquisición (código de {@link AcquisitionStatesEnum}).
+   */
+  public int getAcqState() {
+    return stateOf(stateWord.get());
+  }
+
+  /**
+   * Reserva el handler para una nueva captura: pasa de IDLE o de un estado terminal a
+   * SCANNER_START con una generación nueva.
+   *
+   * @return generación asignada a la captura.
+   */
+  private int beginCapture() {
+    while (true) {
+      int word = stateWord.get();
+      var current = AcquisitionStatesEnum.fromCode(stateOf(word));
+      if (current != AcquisitionStatesEnum.IDLE && (current == null || !current.isTerminal())) {
+        throw new AcquisitionException(AcquisitionException.ErrorCode.ACQUISITION_ALREADY_STARTED);
+      }
+      int generation = (generationOf(word) + Constants.ONE) & Constants.STATE_GENERATION_MASK;
+      if (stateWord.compareAndSet(word, pack(generation, AcquisitionStatesEnum.SCANNER_START))) {
+        phaseChanged(generation, current, AcquisitionStatesEnum.SCANNER_START);
+        return generation;
       }
+    }
+  }
+
+  /**
+   * Devuelve el handler a IDLE si la captura no llegó a iniciarse.
+   */
+  private void endCapture(int generation) {
+    if (stateWord.compareAndSet(pack(generation, AcquisitionStatesEnum.SCANNER_START),
+            pack(generation, AcquisitionStatesEnum.IDLE))) {
+      phaseChanged(generation, AcquisitionStatesEnum.SCANNER_START, AcquisitionStatesEnum.IDLE);
+    }
+  }
 
-      if (acqState == AcquisitionStatesEnum.ACQUISITION_END.getCode()
-              || acqState == AcquisitionStatesEnum.SCANNER_ERROR.getCode()) {
-        acqState = AcquisitionStatesEnum.IDLE.getCode();
+  /**
+   * Intenta pasar la captura {@code generation} al estado {@code target}.
+   * Falla si la generación ya no es la actual o si la captura ya terminó. Para estados
+   * terminales solo un hilo obtiene {@code true}.
+   */
+  private boolean transition(int generation, AcquisitionStatesEnum target) {
+    while (true) {
+      int word = stateWord.get();
+      if (generationOf(word) != generation) return false;
+
+      var current = AcquisitionStatesEnum.fromCode(stateOf(word));
+      if (current == null || current == AcquisitionStatesEnum.IDLE || current.isTerminal()) {
+        return false;
+      }
+      if (current == target) return true;
+      if (stateWord.compareAndSet(word, pack(generation, target))) {
+        phaseChanged(generation, current, target);
+        return true;
       }
-    } catch (Exception ex) {
-      log.error("Error procesando resultados de adquisición: {}", ex.getMessage(), ex);
-      stopAcquisition();
-    } finally {
-      acqBusy = false;
     }
   }
 
+  /**
+   * Emite el evento JFR de la transición (sin grabación activa no hace nada ni crea el evento).
+   */
+  private static void phaseChanged(int generation, AcquisitionStatesEnum from,
+                                   AcquisitionStatesEnum to) {
+    if (!PHASE_EVENT_TYPE.isEnabled()) return;
+    var event = new CapturePhaseEvent();
+    if (event.shouldCommit()) {
+      event.generation = generation;
+      event.from = from.name();
+      event.to = to.name();
+      event.commit();
+    }
+  }
+
+  private static int pack(int generation, AcquisitionStatesEnum state) {
+    return (generation << Constants.STATE_CODE_BITS) | state.getCode();
+  }
+
+  private static int stateOf(int word) {
+    return word & Constants.STATE_CODE_MASK;
+  }
+
+  private static int generationOf(int word) {
+    return word >>> Constants.STATE_CODE_BITS;
+  }
+
+  private static int generationOf(Pointer userParams) {
+    return (int) Pointer.nativeValue(userParams);
+  }
+
+  private AcquisitionException toAcquisitionException(Throwable cause) {
+    if (cause instanceof AcquisitionException ae) {
+      return ae;
+    }
+    return new AcquisitionException(AcquisitionException.ErrorCode.INTERNAL_ERROR,
+            cause instanceof Exception ex ? ex : new RuntimeException(cause));
+  }
+
+  /**
+   * Tiempo desde que llegó la solicitud hasta el primer VALID_FRAME_ACQUIRED que recibe: en
+   * frío incluye el reinicio, la configuración y el arranque del escáner; con una sesión armada,
+   * solo la espera al siguiente frame.
+   *
+   * @return milisegundos, o -1 si aún no llegó ningún frame.
+   */
+  public long getTimeToFirstFrameMs() {
+    long first = firstFrameNanos;
+    return first == Constants.ZERO_LONG ? -Constants.ONE : toMillis(first - captureStartNanos);
+  }
+
+  private static long toMillis(long nanos) {
+    return nanos / Constants.NANOS_PER_MILLI;
+  }
+
+  /**
+   * Convierte el nombre de un objeto (p. ej. "FLAT_RIGHT_INDEX", "SLAP_4_LEFT") a su código
+   * GBMSAPI.
+   *
+   * @throws AcquisitionException PARAMETER si el nombre no corresponde a ningún objeto.
+   */
+  public static int resolveObject(String objectName) {
+    int object = GBMSAPI_JAVA_ScanObjectsUtilities.GBMSAPI_JAVA_GetObjectToScanFromString(
+            objectName == null ? Constants.EMPTY_STR : objectName.trim());
+    if (object == GBMSAPI_JAVA_ScannableObjects.GBMSAPI_JAVA_SBT_NO_OBJECT) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER,
+              new IllegalArgumentException("Objeto a escanear no válido: " + objectName));
+    }
+    return object;
+  }
+
+  /**
+   * Opciones de StartAcquisition para el objeto. Las opciones se calculan una vez por tipo de
+   * objeto y la configuración del dispositivo (timeout de selección, detección de dedos falsos)
+   * solo se envía si no está ya vigente en {@link DeviceSettings}: ni en una sesión por lotes
+   * ni entre capturas del modo daemon se repite.
+   */
+  private int prepareAcquisitionOptions(int objToScan) {
+    int objTypeMask = GBMSAPI_JAVA_ScanObjectsUtilities.GBMSAPI_JAVA_GetTypeFromObject(objToScan);
+    boolean flat = GBMSAPI_JAVA_ScanObjectsUtilities.IsFlatType(objTypeMask);
+
+    if (flat) {
+      applySetting(DeviceSettingsEnum.SELECT_IMAGE_TIMEOUT, Constants.ZERO);
+    }
+    applySetting(DeviceSettingsEnum.MEMBRANE_USAGE, Constants.ONE);
+    applySetting(DeviceSettingsEnum.AUTO_CAPTURE_BLOCK_FAKES, Constants.ZERO);
+
+    return optionsByType.computeIfAbsent(objTypeMask, type -> flat
+            ? GBMSAPI_JAVA_AcquisitionOptions.GBMSAPI_JAVA_AO_AUTOCAPTURE : Constants.ZERO);
+  }
+
+  /**
+   * Ejecuta el setter nativo del ajuste solo si el valor no está ya aplicado.
+   */
+  private void applySetting(DeviceSettingsEnum setting, int value) {
+    if (settings.isApplied(setting, value)) {
+      return;
+    }
+    int result = switch (setting) {
+      case SELECT_IMAGE_TIMEOUT -> sdk.setSelectImageTimeout(value);
+      case MEMBRANE_USAGE -> sdk.setMembraneUsageForFakeFingerDetection(value);
+      case AUTO_CAPTURE_BLOCK_FAKES -> sdk.enableAutoCaptureBlockForDetectedFakes((byte) value);
+      case FLAT_AUTO_CAPTURE_MODE -> sdk.setFlatAutoCaptureMode(value);
+    };
+    if (result == GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+      settings.markApplied(setting, value);
+    } else {
+      log.warn("No se pudo aplicar {} = {}: {}", setting, value, result);
+    }
+  }
+
+  /**
+   * Dimensiona el buffer nativo del template antes de arrancar: en el callback de
+   * ACQUISITION_END solo se llama a {@code GetIso19794_2_2005_Template}.
+   */
+  private void prepareTemplateBuffer() {
+    int result = sdk.getTemplateBufferSize(templateBufferSize);
+    int bufferSize = templateBufferSize.getValue();
+    if (result != GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR
+            || bufferSize <= Constants.ZERO) {
+      log.error("Tamaño de buffer de template no válido: {} ({})", bufferSize, result);
+      return;
+    }
+    if (templateBuffer == null || templateBuffer.size() < bufferSize) {
+      templateBuffer = new Memory(bufferSize);
+    }
+  }
+
+  private void resetAcquisitionState() {
+    acqOldDiagnostic = Constants.ZERO;
+    acqContrast = Constants.ZERO;
+    if (acqFrame != null) {
+      acqFrame.release();
+      acqFrame = null;
+    }
+    completion = null;
+    lastResponse = null;
+    captureStartNanos = firstFrameNanos = Constants.ZERO_LONG;
+    reportedDiagnostics = Constants.ZERO;
+    frameCount = Constants.ZERO_LONG;
+    fakeFingerCounted = false;
+    log.info("Estado de adquisición reiniciado.");
+  }
+
   private void stopAcquisition() {
-    GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_StopAcquisition();
+    sdk.stopAcquisition();
   }
 
   // ========== CALLBACKS DEL SDK ==========
@@ -196,121 +728,436 @@ public class AcquisitionHandler implements GBMSAPI_JAVA_AcquisitionEventsManager
   public int invoke(int eventCode, int frameError, int eventInfo, Pointer framePtr,
                     int sizeX, int sizeY, double currentRate, double nominalRate,
                     int diagnostic, Pointer userParams) {
-    acqBusy = true;
-    frameReady = false;
+    long start = System.nanoTime();
+    SdkCallbackEvent event = null;
+    if (CALLBACK_EVENT_TYPE.isEnabled()) {
+      event = new SdkCallbackEvent();
+      event.begin();
+    }
+    int generation = generationOf(userParams);
+    try {
+      enqueue(eventCode, frameError, eventInfo, framePtr, sizeX, sizeY, diagnostic, generation,
+              start);
+      return Constants.ONE;
+    } catch (Exception ex) {
+      log.error("Excepción en invoke(): {}", ex.getMessage(), ex);
+      return Constants.ZERO;
+    } finally {
+      Metrics.recordSince(MetricPhaseEnum.CALLBACK_RETURN, start);
+      if (event != null) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.eventCode = eventCode;
+          event.frameError = frameError;
+          event.eventInfo = eventInfo;
+          event.sizeX = sizeX;
+          event.sizeY = sizeY;
+          event.frameSize = (long) sizeX * sizeY;
+          event.currentRate = currentRate;
+          event.nominalRate = nominalRate;
+          event.diagnostic = diagnostic;
+          event.generation = generation;
+          event.commit();
+        }
+      }
+    }
+  }
+
+  /**
+   * Copia el evento en la cola del consumidor (hilo nativo). El frame se copia aquí porque el
+   * buffer del SDK solo es válido durante el callback, y el contraste se lee aquí porque se
+   * refiere al frame que se está entregando. En ACQUISITION_END se leen también el template y
+   * se finaliza la imagen ({@link #readAcquisitionEnd}).
+   * <p>
+   * Ninguna de estas lecturas toma locks: el contraste, el template y la finalización van
+   * directos al SDK ({@link com.fingerprint.thales.sdk.DeviceBoundGbmsSdk}) y el frame se copia
+   * sobre un slot preasignado de {@link FrameBufferPool}.
+   * <p>
+   * Los frames de una captura que ya no es la actual se ignoran, y si la cola solo tiene libre
+   * la reserva de los eventos de control, el frame se descarta ({@code dropped_frames}). El hilo
+   * nativo nunca espera al consumidor: con la cola llena, un evento de fin va al slot aparte de
+   * la cola y los demás eventos de control se descartan (el siguiente frame o el fin hacen la
+   * misma transición de estado).
+   */
+  private void enqueue(int eventCode, int frameError, int eventInfo, Pointer framePtr,
+                       int sizeX, int sizeY, int diagnostic, int generation, long start) {
+    boolean frameEvent =
+            eventCode == GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED;
+    if (frameEvent) {
+      if (generationOf(stateWord.get()) != generation) return;
+      if (callbacks.remainingCapacity() <= Constants.CALLBACK_QUEUE_RESERVED) {
+        Metrics.increment(MetricCounterEnum.DROPPED_FRAMES);
+        return;
+      }
+    }
+    boolean overflow = false;
+    var slot = callbacks.claim();
+    if (slot == null && (eventCode == GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_END
+            || eventCode == GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_ERROR)) {
+      slot = callbacks.claimOverflow();
+      overflow = true;
+    }
+    if (slot == null) {
+      Metrics.increment(MetricCounterEnum.DROPPED_EVENTS);
+      return;
+    }
+    // Sesión armada sin solicitud: nadie va a usar el frame ni el contraste.
+    boolean requested = completion != null;
+    boolean hasFrame = framePtr != null && sizeX > Constants.ZERO && sizeY > Constants.ZERO;
+    slot.contrast = Constants.ZERO;
+    slot.template = null;
+    slot.templateResult = GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+    slot.templateNanos = Constants.ZERO_LONG;
+    slot.finalized = false;
+    if (frameEvent && requested) {
+      sdk.getFingerprintContrast(contrastRef);
+      slot.contrast = Byte.toUnsignedInt(contrastRef.getValue());
+    }
+    boolean endEvent = eventCode == GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_END;
+    if (endEvent && requested && generationOf(stateWord.get()) == generation) {
+      readAcquisitionEnd(slot, eventInfo, framePtr, hasFrame, diagnostic);
+    }
+    slot.frame = (frameEvent || endEvent) && requested && hasFrame
+            ? framePool.copyFrom(framePtr, sizeX, sizeY) : null;
+    slot.eventCode = eventCode;
+    slot.frameError = frameError;
+    slot.eventInfo = eventInfo;
+    slot.sizeX = sizeX;
+    slot.sizeY = sizeY;
+    slot.diagnostic = diagnostic;
+    slot.generation = generation;
+    slot.enqueuedNanos = start;
+    if (overflow) {
+      callbacks.publishOverflow();
+    } else {
+      callbacks.publish();
+    }
+  }
 
+  /**
+   * Parte nativa de ACQUISITION_END, en el propio callback como pide GBMSAPI: lee el template
+   * ISO en el buffer del handler y lo copia a su tamaño exacto ({@code outSize}, sin el relleno
+   * del buffer), y finaliza la imagen sobre el frame del driver, antes de copiarlo. El resto
+   * (adaptador, formatos, verificación) queda para el consumidor.
+   */
+  private void readAcquisitionEnd(CallbackEventQueue.Event slot, int eventInfo, Pointer framePtr,
+                                  boolean hasFrame, int diagnostic) {
+    if ((eventInfo & GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_IS_ISO_19794_2_2005_TEMPLATE)
+            != Constants.ZERO && templateBuffer != null) {
+      long start = System.nanoTime();
+      int bufferSize = (int) templateBuffer.size();
+      templateSize.setValue(bufferSize);
+      int result = sdk.getIso19794Template(templateBuffer, bufferSize, templateSize);
+      if (result == GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+        int length = Math.max(Constants.ZERO, Math.min(templateSize.getValue(), bufferSize));
+        slot.template = templateBuffer.getByteArray(Constants.ZERO_LONG, length);
+      }
+      slot.templateResult = result;
+      slot.templateNanos = System.nanoTime() - start;
+    }
+    if (hasFrame && GbmsApiDeviceUtil.isDiagnosticAcceptable(diagnostic)) {
+      sdk.imageFinalization(framePtr);
+      slot.finalized = true;
+    }
+  }
+
+  /**
+   * Procesa un evento de la cola (hilo consumidor). La referencia al frame del evento se
+   * libera al terminar; quien lo conserve hace {@code retain()}.
+   */
+  private void dispatch(CallbackEventQueue.Event event) {
+    long start = System.nanoTime();
+    Metrics.record(MetricPhaseEnum.CALLBACK_QUEUE_WAIT, start - event.enqueuedNanos);
+    var frame = event.frame;
+    int generation = event.generation;
     try {
-      switch (eventCode) {
+      switch (event.eventCode) {
         case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_SCANNER_STARTED ->
-                handleScannerStarted();
+                handleScannerStarted(generation);
         case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED ->
-                handleFrameAcquired(framePtr, sizeX, sizeY, diagnostic);
+                handleFrameAcquired(generation, frame, event.contrast, event.sizeX,
+                        event.sizeY, event.diagnostic);
         case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_PREVIEW_PHASE_END ->
-                handlePreviewPhaseEnd();
+                handlePreviewPhaseEnd(generation);
         case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_END ->
-                lastResponse = handleAcquisitionEnd(eventInfo, framePtr, sizeX, sizeY, diagnostic);
+                handleAcquisitionEnd(generation, event);
         case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_ERROR ->
-                handleAcquisitionError(frameError);
-        default -> log.warn("Evento no manejado: {}", eventCode);
+                handleAcquisitionError(generation, event.frameError);
+        default -> log.warn("Evento no manejado: {}", event.eventCode);
       }
-      return Constants.ONE;
-    } catch (Exception ex) {
-      log.error("Excepción en invoke(): {}", ex.getMessage(), ex);
-      return Constants.ZERO;
     } finally {
-      acqBusy = false;
+      if (frame != null) {
+        frame.release();
+      }
+      var phase = callbackPhase(event.eventCode);
+      if (phase != null) {
+        Metrics.recordSince(phase, start);
+      }
     }
   }
 
-  private void handleScannerStarted() {
+  /**
+   * Fase de métricas de cada evento del callback; null para eventos no manejados.
+   */
+  private static MetricPhaseEnum callbackPhase(int eventCode) {
+    return switch (eventCode) {
+      case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_SCANNER_STARTED ->
+              MetricPhaseEnum.CALLBACK_SCANNER_STARTED;
+      case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED ->
+              MetricPhaseEnum.CALLBACK_VALID_FRAME;
+      case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_PREVIEW_PHASE_END ->
+              MetricPhaseEnum.CALLBACK_PREVIEW_END;
+      case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_END ->
+              MetricPhaseEnum.CALLBACK_ACQUISITION_END;
+      case GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_ERROR ->
+              MetricPhaseEnum.CALLBACK_ACQUISITION_ERROR;
+      default -> null;
+    };
+  }
+
+  private void handleScannerStarted(int generation) {
     log.info("Evento: SCANNER_STARTED");
-    acqState = AcquisitionStatesEnum.SCANNER_START.getCode();
+    transition(generation, AcquisitionStatesEnum.SCANNER_START);
   }
 
-  private void handlePreviewPhaseEnd() {
+  private void handlePreviewPhaseEnd(int generation) {
     log.info("Evento: PREVIEW_PHASE_END");
-    acqState = AcquisitionStatesEnum.ACQUISITION.getCode();
+    transition(generation, AcquisitionStatesEnum.ACQUISITION);
   }
 
-  private void handleFrameAcquired(Pointer framePtr, int width, int height, int diagnostic) {
-    var contrastRef = new ByteByReference();
-    GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_GetFingerprintContrast(contrastRef);
-    acqContrast = Byte.toUnsignedInt(contrastRef.getValue());
+  private void handleFrameAcquired(int generation, FrameBufferPool.Frame frame, int contrast,
+                                   int width, int height, int diagnostic) {
+    if (!transition(generation, AcquisitionStatesEnum.PREVIEW)) return;
+    // Sesión armada sin solicitud: el frame no tiene destinatario.
+    if (completion == null) return;
+
+    Metrics.increment(MetricCounterEnum.FRAMES);
+    if (firstFrameNanos == Constants.ZERO_LONG) {
+      firstFrameNanos = System.nanoTime();
+      Metrics.record(MetricPhaseEnum.FIRST_FRAME, firstFrameNanos - captureStartNanos);
+    }
+    if (!fakeFingerCounted && (diagnostic
+            & GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_FAKE_FINGER_DETECTED_AUTO_CAPTURE_BLOCKED)
+            != Constants.ZERO) {
+      fakeFingerCounted = true;
+      Metrics.increment(MetricCounterEnum.FAKE_FINGERS);
+    }
+
+    acqContrast = contrast;
 
     if (acqContrast > Constants.ZERO) {
       lastActivityTime = System.currentTimeMillis();
     }
 
-    log.info("Frame adquirido ({}x{}), contraste={}", width, height, acqContrast);
+    if (frameCount++ % Constants.FRAME_LOG_SAMPLE == Constants.ZERO_LONG && log.isInfoEnabled()) {
+      log.info("Frame adquirido ({}x{}), contraste={}, frames={}", width, height, acqContrast,
+              frameCount);
+    }
 
-    if (framePtr != null && width > Constants.ZERO && height > Constants.ZERO) {
-      acqFrame = GbmsApiDeviceUtil.getImageBytesFromFramePtr(framePtr, width, height);
-      frameReady = true;
+    if (frame != null) {
+      storeFrame(frame);
     }
 
-    acqDiagnostics = diagnostic;
-    acqState = AcquisitionStatesEnum.PREVIEW.getCode();
+    if (diagnostic != acqOldDiagnostic) {
+      acqOldDiagnostic = diagnostic;
+      processDiagnostics(diagnostic);
+    }
   }
 
-  private ResponseOk handleAcquisitionEnd(int eventInfo, Pointer framePtr, int width, int height,
-                                          int diagnostic) {
-    String base64Fingerprint = null;
+  /**
+   * Conserva el frame como el último de la captura y libera el anterior.
+   */
+  private void storeFrame(FrameBufferPool.Frame frame) {
+    var previous = acqFrame;
+    acqFrame = frame.retain();
+    if (previous != null) previous.release();
+  }
+
+  private void handleAcquisitionEnd(int generation, CallbackEventQueue.Event event) {
     log.info("Evento: ACQUISITION_END");
-    GbmsApiDeviceUtil.decodeEventFlags(eventInfo);
+    if (!transition(generation, AcquisitionStatesEnum.ACQUISITION_END)) {
+      log.warn("ACQUISITION_END ignorado: la captura ya había terminado.");
+      return;
+    }
+    var pending = completion;
+    if (pending == null) {
+      log.warn("ACQUISITION_END de una sesión armada sin solicitud: se descarta.");
+      return;
+    }
+    try {
+      var response = buildAcquisitionResult(event);
+      lastResponse = response;
+      pending.complete(response);
+    } catch (Exception ex) {
+      pending.completeExceptionally(
+              new AcquisitionException(AcquisitionException.ErrorCode.INTERNAL_ERROR, ex));
+      throw ex;
+    }
+  }
+
+  private ResponseOk buildAcquisitionResult(CallbackEventQueue.Event event) {
+    var result = ResponseOk.builder();
+    GbmsApiDeviceUtil.decodeEventFlags(event.eventInfo);
 
-    boolean finalize = GbmsApiDeviceUtil.isDiagnosticAcceptable(diagnostic);
-    if ((eventInfo & GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_IS_ISO_19794_2_2005_TEMPLATE) != Constants.ZERO) {
-      base64Fingerprint = extractIsoTemplate();
+    if ((event.eventInfo & GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_IS_ISO_19794_2_2005_TEMPLATE)
+            != Constants.ZERO) {
+      processIsoTemplate(result, event);
     }
 
-    if (finalize && framePtr != null) {
-      GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_ImageFinalization(framePtr);
-      acqFrame = GbmsApiDeviceUtil.getImageBytesFromFramePtr(framePtr, width, height);
+    if (event.finalized && event.frame != null) {
+      storeFrame(event.frame);
     }
 
-    acqState = AcquisitionStatesEnum.ACQUISITION_END.getCode();
-    acqEnded = true;
+    return result.build();
+  }
 
-    return ResponseOk.builder().fingerprint(base64Fingerprint).build();
+  /**
+   * Procesa el template que el callback leyó del SDK: la copia ya tiene exactamente los bytes
+   * producidos ({@code outSize}) y el adaptador INE trabaja sobre ella, sin otra más. Los
+   * formatos adicionales, la verificación y la identificación salen del buffer nativo del
+   * handler, que nadie reescribe hasta el ACQUISITION_END de la siguiente captura.
+   */
+  private void processIsoTemplate(ResponseOk.ResponseOkBuilder result,
+                                  CallbackEventQueue.Event event) {
+    long start = System.nanoTime();
+    int res = event.templateResult;
+    if (res != GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+      log.error("Error generando ISO Template: {}", res);
+      return;
+    }
+    byte[] template = event.template;
+    if (template == null) {
+      log.error("Error generando ISO Template: no hay buffer de template");
+      return;
+    }
+    int length = template.length;
+    long adapterStart = System.nanoTime();
+    BiometricAdapter.adapterINE(template);
+    Metrics.recordSince(MetricPhaseEnum.TEMPLATE_ADAPTER, adapterStart);
+    result.template(template);
+    TemplateCheck pendingCheck = check;
+    boolean parsed = parseIsoView(length, pendingCheck);
+    if (parsed) {
+      result.templates(convertTemplate());
+    }
+    if (pendingCheck instanceof Verification pendingVerification) {
+      verify(result, pendingVerification, parsed);
+    } else if (pendingCheck instanceof Identification identification) {
+      identify(result, identification, parsed);
+    }
+    Metrics.record(MetricPhaseEnum.TEMPLATE_EXTRACTION,
+            event.templateNanos + System.nanoTime() - start);
+    log.info("ISO Template generado correctamente ({} bytes)", length);
   }
 
-  private String extractIsoTemplate() {
-    var sizeRef = new IntByReference();
-    GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_GetTemplateBufferSize(sizeRef);
-    var buffer = new Memory(sizeRef.getValue());
-    var outSize = new IntByReference(sizeRef.getValue());
-    int res = GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-            .GBMSAPI_GetIso19794_2_2005_Template(buffer, sizeRef.getValue(), outSize);
 
-    if (res == GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
-      byte[] template = buffer.getByteArray(Constants.ZERO, sizeRef.getValue());
-      byte[] newFileBytes = BiometricAdapter.adapterINE(template);
-      String base64 = Base64.getEncoder().encodeToString(newFileBytes);
-      log.info("ISO Template generado correctamente ({} bytes)", outSize.getValue());
-      return base64;
-    } else {
-      log.error("Error generando ISO Template: {}", res);
-      return null;
+  /**
+   * Analiza el registro ISO una vez sobre el buffer nativo, sin copiarlo, si hace falta para los
+   * formatos adicionales, para verificar o para identificar. Si no se puede analizar solo se registra: la huella
+   * principal sale igual.
+   *
+   * @return true si {@code isoView} quedó con el template de esta captura.
+   */
+  private boolean parseIsoView(int length, TemplateCheck pendingCheck) {
+    if (templateFormats.isEmpty() && pendingCheck == null) return false;
+    try {
+      isoView.wrap(templateBuffer.getByteBuffer(Constants.ZERO_LONG, length));
+      return true;
+    } catch (IllegalArgumentException e) {
+      log.warn("No se pudo analizar el template ISO: {}", e.getMessage());
+      return false;
     }
   }
 
-  private void handleAcquisitionError(int errorCode) {
-    acqState = AcquisitionStatesEnum.SCANNER_ERROR.getCode();
-    acqEnded = true;
+  /**
+   * Template en los formatos de {@code -Dthales.template.formats}, cada uno escrito en una pasada
+   * desde {@code isoView}.
+   *
+   * @return los templates por formato, o null si no se pidió ninguno.
+   */
+  private Map<TemplateFormatEnum, byte[]> convertTemplate() {
+    if (templateFormats.isEmpty()) return null;
+    long start = System.nanoTime();
+    var templates = TemplateCodec.encode(isoView, templateFormats);
+    Metrics.recordSince(MetricPhaseEnum.TEMPLATE_CODEC, start);
+    return templates;
+  }
+
+  /**
+   * Verificación 1:1 contra la referencia de la solicitud, en el mismo hilo y sin ir al
+   * matcher central. Si el template capturado no se pudo analizar, la puntuación es 0.
+   */
+  private void verify(ResponseOk.ResponseOkBuilder result, Verification pendingVerification,
+                      boolean parsed) {
+    long start = System.nanoTime();
+    if (matcher == null) {
+      matcher = new MinutiaeMatcher();
+    }
+    int score = parsed ? matcher.score(isoView, pendingVerification.reference()) : Constants.ZERO;
+    boolean match = pendingVerification.matches(score);
+    Metrics.recordSince(MetricPhaseEnum.TEMPLATE_MATCH, start);
+    log.info("Verificación 1:1: puntuación {} (umbral {}), {}", score,
+            pendingVerification.threshold(), match ? "coincide" : "no coincide");
+    result.score(score).match(match);
+  }
+
+  /**
+   * Identificación 1:N en la galería y, si se pidió y no hay candidatos, alta de la huella. La
+   * búsqueda reparte la puntuación de candidatos en el pool de la galería; este hilo espera el
+   * resultado. Si el template capturado no se pudo analizar no se busca ni se enrola.
+   */
+  private void identify(ResponseOk.ResponseOkBuilder result, Identification identification,
+                        boolean parsed) {
+    if (!parsed) {
+      result.candidates(List.of());
+      return;
+    }
+    var gallery = identification.gallery();
+    List<Candidate> candidates = gallery.identify(isoView, identification.threshold());
+    result.candidates(candidates);
+    if (identification.enrollAs() == null || !candidates.isEmpty()) return;
     try {
-      GbmsApiDeviceUtil.throwIfError(errorCode);
-    } catch (AcquisitionException ex) {
-      log.error("Error en adquisición: {}", ex.getMessage());
+      gallery.append(identification.enrollAs(), isoView);
+      gallery.force();
+      log.info("Huella enrolada en la galería como {}", identification.enrollAs());
+      result.enrolled(identification.enrollAs());
+    } catch (UncheckedIOException e) {
+      // La captura ya está hecha: se entrega sin Enrolled y el llamante puede reintentar el alta.
+      log.error("No se pudo enrolar la huella como {}: {}", identification.enrollAs(),
+              e.getMessage());
+    }
+  }
+
+  private void handleAcquisitionError(int generation, int errorCode) {
+    var ex = new AcquisitionException(AcquisitionException.ErrorCode.fromCode(errorCode));
+    log.error("Error en adquisición: {}", ex.getMessage());
+    var pending = completion;
+    if (transition(generation, AcquisitionStatesEnum.SCANNER_ERROR) && pending != null) {
+      pending.completeExceptionally(ex);
     }
   }
 
+  /**
+   * Detiene el hilo consumidor de los callbacks. Los eventos que lleguen después se descartan.
+   */
+  @Override
+  public void close() {
+    callbacks.stop();
+  }
+
+  /**
+   * Diagnósticos visibles reportados durante la captura actual.
+   */
+  public List<String> getDiagnosticsList() {
+    return GbmsApiDeviceUtil.getDiagsToDisplay(reportedDiagnostics);
+  }
+
   private void processDiagnostics(int diag) {
-    var newDiags = GbmsApiDeviceUtil.getDiagsToDisplay(diag);
-    for (var newDiag : newDiags) {
-      if (!diagnosticsList.contains(newDiag)) {
-        diagnosticsList.add(newDiag);
-        log.warn("Nuevo diagnóstico: {}", newDiag);
-      }
+    int newDiags = GbmsApiDeviceUtil.displayableDiagnostics(diag) & ~reportedDiagnostics;
+    if (newDiags != Constants.ZERO) {
+      reportedDiagnostics |= newDiags;
+      GbmsApiDeviceUtil.forEachDiagnostic(newDiags,
+              message -> log.warn("Nuevo diagnóstico: {}", message));
     }
 
     diag &= ~(GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_VSROLL_ROLL_DIRECTION_DOWN
@@ -318,15 +1165,31 @@ public class AcquisitionHandler implements GBMSAPI_JAVA_AcquisitionEventsManager
             | GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_VSROLL_ROLL_DIRECTION_RIGHT
             | GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_VSROLL_ROLL_DIRECTION_UP);
 
-    log.info("Configurando LED blink (diag={})", diag);
+    if (log.isDebugEnabled()) {
+      log.debug("Configurando LED blink (diag={})", diag);
+    }
     if (diag != Constants.ZERO) {
-      GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-              .GBMSAPI_VUI_LED_BlinkDuringAcquisition(Constants.ONE);
+      sdk.vuiLedBlinkDuringAcquisition(Constants.ONE);
     } else {
-      GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-              .GBMSAPI_VUI_LED_BlinkDuringAcquisition(Constants.ZERO);
-      GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-              .GBMSAPI_SetAutoCaptureBlocking(Constants.ZERO);
+      sdk.vuiLedBlinkDuringAcquisition(Constants.ZERO);
+      unblockAutoCapture();
+    }
+  }
+
+  /**
+   * Desbloquea la autocaptura desde el callback, salvo con una sesión armada sin adoptar (ahí el
+   * bloqueo es lo que impide capturar sin nadie esperando). Con {@code tryLock}: si otro hilo
+   * está armando, adoptando o desarmando, ese hilo deja el bloqueo como corresponde, y el
+   * callback nunca espera a un hilo que puede estar parando la adquisición.
+   */
+  private void unblockAutoCapture() {
+    if (!armLock.tryLock()) return;
+    try {
+      if (armedGeneration == Constants.NOT_ARMED) {
+        blockAutoCapture(false);
+      }
+    } finally {
+      armLock.unlock();
     }
   }
 }
@@ -3,31 +3,66 @@ package com.fingerprint.thales.service.core;
 import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceInfoConstants;
 import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceInfoStruct;
 import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_FlatAutoCaptureModes;
-import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_DLL_WRAPPER;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_ErrorCodesDefines.GBMSAPI_JAVA_ErrorCodes;
 import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.DeviceSettingsEnum;
+import com.fingerprint.thales.enums.MetricPhaseEnum;
 import com.fingerprint.thales.exception.AcquisitionException;
 import com.fingerprint.thales.jna.FixedDeviceInfoStruct;
+import com.fingerprint.thales.metrics.Metrics;
+import com.fingerprint.thales.model.DeviceInfo;
+import com.fingerprint.thales.model.DeviceKey;
+import com.fingerprint.thales.sdk.DeviceBoundGbmsSdk;
+import com.fingerprint.thales.sdk.GbmsSdk;
 import com.fingerprint.thales.utils.GbmsApiDeviceUtil;
 import com.sun.jna.ptr.ByteByReference;
 import com.sun.jna.ptr.IntByReference;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Encargado de inicializar y configurar el dispositivo biométrico Thales.
- * Carga la librería GBMSAPI, detecta dispositivos conectados y deja el escáner listo.
+ * Encargado de inicializar y configurar los dispositivos biométricos Thales.
+ * Carga la librería GBMSAPI, detecta los dispositivos conectados y deja cada escáner listo.
+ * Las capacidades de cada dispositivo se sondean una sola vez y quedan en
+ * {@link DeviceCapabilityRegistry}.
  */
 @Slf4j
 @Getter
 public class AcquisitionInitializer {
 
+  private final GbmsSdk sdk;
+
+  private final DeviceBoundGbmsSdk.Selector selector;
+
+  private final DeviceCapabilityRegistry capabilities;
+
   private GBMSAPI_JAVA_DeviceInfoStruct[] structList;
+  private List<DeviceInfo> devices = List.of();
   private String deviceType = Constants.NOT_AVAILABLE;
   private String deviceSerial = Constants.NOT_AVAILABLE;
   private int deviceScanOptions;
   private int deviceScannableTypes;
   private boolean obfuscatedPreviewSupported;
 
+  /**
+   * @param sdk implementación del SDK GBMSAPI (nativa o simulada).
+   */
+  public AcquisitionInitializer(GbmsSdk sdk) {
+    this(sdk, new DeviceCapabilityRegistry());
+  }
+
+  /**
+   * @param sdk          implementación del SDK GBMSAPI (nativa o simulada).
+   * @param capabilities caché de capacidades compartida.
+   */
+  public AcquisitionInitializer(GbmsSdk sdk, DeviceCapabilityRegistry capabilities) {
+    this.sdk = sdk;
+    this.selector = DeviceBoundGbmsSdk.selectorFor(sdk);
+    this.capabilities = capabilities;
+  }
+
   /**
    * Inicializa completamente el SDK y el dispositivo.
    * Carga la librería, detecta dispositivos y configura el escáner.
@@ -35,10 +70,12 @@ public class AcquisitionInitializer {
   public void initialize() {
     log.info("=== Inicializando SDK y dispositivo Thales ===");
 
+    long start = System.nanoTime();
     resetScannerState();
     try {
       initializeGbmsApi();
       refreshDeviceList();
+      Metrics.recordSince(MetricPhaseEnum.INITIALIZE, start);
       log.info("Inicialización de dispositivo completada correctamente.");
     } catch (AcquisitionException e) {
       resetScannerState();
@@ -56,107 +93,153 @@ public class AcquisitionInitializer {
    */
   private void initializeGbmsApi() {
     log.info("Cargando librería GBMSAPI...");
+    long start = System.nanoTime();
     GbmsApiDeviceUtil.throwIfError(
-            GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_LoadLibrary()
+            sdk.loadLibrary()
                                   );
+    Metrics.recordSince(MetricPhaseEnum.LOAD_LIBRARY, start);
+    // Librería recién cargada: ningún ajuste previo sigue vigente.
+    selector.invalidate();
+    capabilities.clearSettings();
 
     var v1 = new ByteByReference();
     var v2 = new ByteByReference();
     var v3 = new ByteByReference();
     var v4 = new ByteByReference();
 
-    GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-            .GBMSAPI_GetMultiScanAPIVersion(v1, v2, v3, v4);
+    sdk.getMultiScanApiVersion(v1, v2, v3, v4);
 
     log.info("Versión SDK GBMSAPI: {}.{}.{}.{}", v1.getValue(), v2.getValue(), v3.getValue(), v4.getValue());
   }
 
   /**
-   * Escanea los dispositivos conectados y configura el primero disponible.
+   * Escanea los dispositivos conectados y configura cada uno de ellos.
    */
   private void refreshDeviceList() {
     log.info("Escaneando dispositivos conectados...");
 
-    structList = (FixedDeviceInfoStruct[]) new FixedDeviceInfoStruct().toArray(
-            GBMSAPI_JAVA_DeviceInfoConstants.GBMSAPI_JAVA_MAX_PLUGGED_DEVICE_NUM);
+    List<DeviceKey> attached = listAttachedDevices();
+    if (attached.isEmpty()) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.INIT_NO_DEVICES_FOUND);
+    }
+
+    log.info("Se detectaron {} dispositivo(s).", attached.size());
+    var configured = new ArrayList<DeviceInfo>(attached.size());
+    for (int i = Constants.ZERO; i < attached.size(); i++) {
+      var key = attached.get(i);
+      log.info("Device[{}] TYPE: {}, SN: {}", i,
+              GbmsApiDeviceUtil.gbmsApiExampleGetDevNameFromDevID(key.deviceId()), key.serial());
+      configured.add(configure(key));
+    }
+    devices = List.copyOf(configured);
+
+    // Compatibilidad: el primer dispositivo sigue expuesto como "el" escáner.
+    deviceType = devices.get(Constants.ZERO).type();
+    deviceSerial = devices.get(Constants.ZERO).serial();
+    deviceScanOptions = devices.get(Constants.ZERO).scanOptions();
+    deviceScannableTypes = devices.get(Constants.ZERO).scannableTypes();
+    obfuscatedPreviewSupported = devices.get(Constants.ZERO).obfuscatedPreviewSupported();
+  }
+
+  /**
+   * Consulta los dispositivos conectados (una llamada nativa). También la usa
+   * {@link DeviceWatcher} para detectar conexiones y desconexiones.
+   *
+   * @return claves de los dispositivos conectados; vacía si no hay ninguno.
+   */
+  public synchronized List<DeviceKey> listAttachedDevices() {
+    long start = System.nanoTime();
+    if (structList == null) {
+      structList = (FixedDeviceInfoStruct[]) new FixedDeviceInfoStruct().toArray(
+              GBMSAPI_JAVA_DeviceInfoConstants.GBMSAPI_JAVA_MAX_PLUGGED_DEVICE_NUM);
+    }
 
     var deviceCount = new IntByReference();
     var usbError = new IntByReference();
 
     GbmsApiDeviceUtil.throwIfError(
-            GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-                    .GBMSAPI_GetAttachedDeviceList(structList, deviceCount, usbError)
+            selector.getAttachedDeviceList(structList, deviceCount, usbError)
                                   );
 
     int count = deviceCount.getValue();
-    if (count == Constants.ZERO) {
-      throw new AcquisitionException(AcquisitionException.ErrorCode.INIT_NO_DEVICES_FOUND);
-    }
-
-    log.info("Se detectaron {} dispositivo(s).", count);
+    var keys = new ArrayList<DeviceKey>(count);
     for (int i = Constants.ZERO; i < count; i++) {
-      var devType = GbmsApiDeviceUtil.gbmsApiExampleGetDevNameFromDevID(structList[i].DeviceID);
-      var serial = GbmsApiDeviceUtil.extractStringFromByteArray(structList[i].DeviceSerialNumber);
-      log.info("Device[{}] TYPE: {}, SN: {}", i, devType, serial);
+      keys.add(DeviceKey.from(structList[i]));
     }
-
-    setupScanner(count);
+    Metrics.recordSince(MetricPhaseEnum.DEVICE_ENUMERATION, start);
+    return keys;
   }
 
   /**
-   * Configura y activa el primer dispositivo disponible.
+   * Deja un dispositivo listo para capturar: obtiene sus capacidades (de la caché o
+   * sondeándolo) y aplica los ajustes que aún no estén vigentes.
    */
-  private void setupScanner(int deviceCount) {
-    if (deviceCount <= Constants.ZERO) {
-      throw new AcquisitionException(AcquisitionException.ErrorCode.INIT_NO_DEVICES_FOUND);
+  public DeviceInfo configure(DeviceKey key) {
+    long start = System.nanoTime();
+    var deviceSdk = selector.bind(key.deviceId(), key.serial());
+    var entry = capabilities.getOrProbe(key, k -> probe(deviceSdk, k));
+    var info = entry.info();
+
+    if (info.obfuscatedPreviewSupported()) {
+      int mode = GBMSAPI_JAVA_FlatAutoCaptureModes.GBMSAPI_FAM_OBFUSCATED_PREVIEW;
+      if (!entry.settings().isApplied(DeviceSettingsEnum.FLAT_AUTO_CAPTURE_MODE, mode)) {
+        int result = deviceSdk.setFlatAutoCaptureMode(mode);
+        if (result == GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR) {
+          entry.settings().markApplied(DeviceSettingsEnum.FLAT_AUTO_CAPTURE_MODE, mode);
+        }
+        log.info("Modo OBFUSCATED_PREVIEW habilitado, resultado: {}", result);
+      }
     }
 
-    deviceType = GbmsApiDeviceUtil.gbmsApiExampleGetDevNameFromDevID(
-            structList[Constants.ZERO].DeviceID);
-    deviceSerial = GbmsApiDeviceUtil.extractStringFromByteArray(
-            structList[Constants.ZERO].DeviceSerialNumber);
+    Metrics.recordSince(MetricPhaseEnum.DEVICE_CONFIGURE, start);
+    log.info("Escáner inicializado exitosamente: {} ({})", info.type(), info.serial());
+    return info;
+  }
 
+  /**
+   * Consulta las capacidades de un dispositivo.
+   */
+  private DeviceInfo probe(GbmsSdk deviceSdk, DeviceKey key) {
+    log.info("Sondeando capacidades de {}...", key.serial());
     GbmsApiDeviceUtil.throwIfError(
-            GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-                    .GBMSAPI_SetCurrentDevice(structList[Constants.ZERO].DeviceID, deviceSerial)
+            deviceSdk.setCurrentDevice(key.deviceId(), key.serial())
                                   );
 
     var ref = new IntByReference();
 
     // Obtener características y opciones del dispositivo
     GbmsApiDeviceUtil.throwIfError(
-            GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_GetDeviceFeatures(ref));
+            deviceSdk.getDeviceFeatures(ref));
     GbmsApiDeviceUtil.throwIfError(
-            GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_GetSupportedScanOptions(ref));
-    deviceScanOptions = ref.getValue();
+            deviceSdk.getSupportedScanOptions(ref));
+    int scanOptions = ref.getValue();
 
     // Tipos escaneables
     GbmsApiDeviceUtil.throwIfError(
-            GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE.GBMSAPI_GetScannableTypes(ref));
-    deviceScannableTypes = ref.getValue();
+            deviceSdk.getScannableTypes(ref));
+    int scannableTypes = ref.getValue();
 
     // Verificar modo Obfuscated Preview
     GbmsApiDeviceUtil.throwIfError(
-            GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-                    .GBMSAPI_FlatAutoCaptureModeIsSupported(
+            deviceSdk.flatAutoCaptureModeIsSupported(
                             GBMSAPI_JAVA_FlatAutoCaptureModes.GBMSAPI_FAM_OBFUSCATED_PREVIEW, ref)
                                   );
 
-    obfuscatedPreviewSupported = ref.getValue() != Constants.ZERO;
-    if (obfuscatedPreviewSupported) {
-      int result = GBMSAPI_JAVA_DLL_WRAPPER.GBMSAPI_Library.INSTANCE
-              .GBMSAPI_SetFlatAutoCaptureMode(
-                      GBMSAPI_JAVA_FlatAutoCaptureModes.GBMSAPI_FAM_OBFUSCATED_PREVIEW);
-      log.info("Modo OBFUSCATED_PREVIEW habilitado, resultado: {}", result);
-    }
-
-    log.info("Escáner inicializado exitosamente: {} ({})", deviceType, deviceSerial);
+    return DeviceInfo.builder()
+            .deviceId(key.deviceId())
+            .serial(key.serial())
+            .type(GbmsApiDeviceUtil.gbmsApiExampleGetDevNameFromDevID(key.deviceId()))
+            .scanOptions(scanOptions)
+            .scannableTypes(scannableTypes)
+            .obfuscatedPreviewSupported(ref.getValue() != Constants.ZERO)
+            .build();
   }
 
   /**
    * Limpia el estado interno del escáner.
    */
   private void resetScannerState() {
+    devices = List.of();
     deviceType = deviceSerial = Constants.NOT_AVAILABLE;
     deviceScanOptions = deviceScannableTypes = Constants.ZERO;
     obfuscatedPreviewSupported = false;
@@ -0,0 +1,83 @@
+package com.fingerprint.thales.service.core;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_ScanObjectsUtilities;
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.jfr.FlightRecording;
+import com.fingerprint.thales.metrics.Metrics;
+import com.fingerprint.thales.model.DeviceInfo;
+import com.fingerprint.thales.model.FingerResult;
+import com.fingerprint.thales.model.ResponseBatch;
+import com.fingerprint.thales.model.ResponseError;
+import com.fingerprint.thales.model.ResponseOk;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Captura por lotes: varios objetos (dedos planos, slaps, pulgares...) uno detrás de otro sobre
+ * el mismo dispositivo ya inicializado, en una sola respuesta.
+ * <p>
+ * El error de un objeto se reporta en su propio {@link FingerResult} y el lote continúa con el
+ * siguiente.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BatchCaptureSession {
+
+  private final AcquisitionHandler handler;
+
+  private final DeviceInfo device;
+
+  /**
+   * Captura los objetos en el orden recibido.
+   *
+   * @param objects Nombres GBMSAPI de los objetos (p. ej. FLAT_RIGHT_INDEX, SLAP_4_LEFT).
+   * @param timeout Tiempo máximo de inactividad por objeto, en milisegundos.
+   */
+  public ResponseBatch run(List<String> objects, Long timeout) {
+    log.info("Iniciando captura por lotes de {} objeto(s) en {}", objects.size(), device.serial());
+    var results = new ArrayList<FingerResult>(objects.size());
+    for (String object : objects) {
+      results.add(captureOne(object, timeout));
+    }
+    return ResponseBatch.builder().fingers(List.copyOf(results)).build();
+  }
+
+  private FingerResult captureOne(String objectName, Long timeout) {
+    var result = FingerResult.builder().object(objectName);
+    try {
+      int object = AcquisitionHandler.resolveObject(objectName);
+      checkSupported(object);
+      ResponseOk response = handler.captureFingerprint(object, timeout);
+      if (response == null || !response.hasFingerprint()) {
+        throw new AcquisitionException(AcquisitionException.ErrorCode.INTERNAL_ERROR);
+      }
+      return result.template(response.template()).templates(response.templates()).build();
+    } catch (AcquisitionException ae) {
+      log.error("Falló la captura de {}: {}", objectName, ae.getMessage());
+      Metrics.error(ae.getErrorCode());
+      FlightRecording.dumpOnError(ae);
+      return failed(result, ResponseError.from(ae));
+    } catch (Exception ex) {
+      log.error("Falló la captura de {}: {}", objectName, ex.getMessage(), ex);
+      Metrics.error(AcquisitionException.ErrorCode.UNKNOWN);
+      return failed(result, ResponseError.fromUnknown(ex));
+    }
+  }
+
+  private static FingerResult failed(FingerResult.FingerResultBuilder result, ResponseError error) {
+    return result.error(error.idemiaErrorMessage()).code(error.code()).build();
+  }
+
+  /**
+   * Rechaza sin tocar el SDK los objetos cuyo tipo no admite el escáner.
+   */
+  private void checkSupported(int object) {
+    int type = GBMSAPI_JAVA_ScanObjectsUtilities.GBMSAPI_JAVA_GetTypeFromObject(object);
+    if ((device.scannableTypes() & type) == Constants.ZERO) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.OBJECT_TYPE_NOT_SUPPORTED);
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package com.fingerprint.thales.service.core;
+
+import com.fingerprint.thales.constants.Constants;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cola SPSC preasignada entre el hilo nativo del callback (único productor) y el hilo
+ * consumidor de un {@link AcquisitionHandler}.
+ * <p>
+ * El productor reserva un slot con {@link #claim()}, copia el evento en él y lo publica con
+ * {@link #publish()}: no asigna memoria, no toma locks y nunca espera. El consumidor procesa los
+ * eventos en orden de llegada y se duerme con {@code park} cuando la cola está vacía; el
+ * productor solo lo despierta si está dormido.
+ * <p>
+ * Con el anillo lleno, un evento de fin (ACQUISITION_END / ERROR) va a un slot aparte
+ * ({@link #claimOverflow()}) que el consumidor procesa justo después de los eventos publicados
+ * antes que él, así que el orden se mantiene.
+ */
+@Slf4j
+final class CallbackEventQueue {
+
+  private final Event[] events;
+
+  private final int mask;
+
+  /**
+   * Siguiente posición a consumir (la escribe solo el consumidor).
+   */
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * Siguiente posición a publicar (la escribe solo el productor).
+   */
+  private final AtomicLong tail = new AtomicLong();
+
+  private final Consumer<Event> handler;
+
+  private final String threadName;
+
+  private volatile Thread consumer;
+
+  private volatile boolean parked;
+
+  private final Event overflow = new Event();
+
+  /**
+   * Posición del anillo tras la que va el evento de {@link #overflow}; se escribe antes de
+   * {@code overflowReady}.
+   */
+  private long overflowPosition;
+
+  private volatile boolean overflowReady;
+
+  /**
+   * @param capacity   número de slots (potencia de dos).
+   * @param threadName nombre del hilo consumidor.
+   * @param handler    procesa cada evento en el hilo consumidor.
+   */
+  CallbackEventQueue(int capacity, String threadName, Consumer<Event> handler) {
+    if (Integer.bitCount(capacity) != Constants.ONE) {
+      throw new IllegalArgumentException("La capacidad debe ser potencia de dos: " + capacity);
+    }
+    this.events = new Event[capacity];
+    for (int i = Constants.ZERO; i < capacity; i++) {
+      events[i] = new Event();
+    }
+    this.mask = capacity - Constants.ONE;
+    this.threadName = threadName;
+    this.handler = handler;
+  }
+
+  /**
+   * Arranca el hilo consumidor si no está en marcha.
+   */
+  synchronized void start() {
+    if (consumer != null) return;
+    var thread = new Thread(this::drain, threadName);
+    thread.setDaemon(true);
+    consumer = thread;
+    thread.start();
+  }
+
+  /**
+   * Detiene el hilo consumidor; los eventos pendientes se descartan.
+   */
+  synchronized void stop() {
+    Thread thread = consumer;
+    if (thread == null) return;
+    consumer = null;
+    LockSupport.unpark(thread);
+    try {
+      thread.join(Constants.CALLBACK_STOP_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  boolean isRunning() {
+    return consumer != null;
+  }
+
+  /**
+   * Slots libres, vistos desde el productor.
+   */
+  int remainingCapacity() {
+    return events.length - (int) (tail.get() - head.get());
+  }
+
+  /**
+   * Slot donde el productor escribe el siguiente evento, o null si la cola está llena.
+   */
+  Event claim() {
+    long position = tail.get();
+    return position - head.get() < events.length ? events[(int) position & mask] : null;
+  }
+
+  /**
+   * Publica el slot obtenido con {@link #claim()} y despierta al consumidor si está dormido.
+   */
+  void publish() {
+    tail.set(tail.get() + Constants.ONE);
+    wakeUp();
+  }
+
+  /**
+   * Slot aparte para un evento de fin con el anillo lleno, o null si ya está ocupado.
+   */
+  Event claimOverflow() {
+    return overflowReady ? null : overflow;
+  }
+
+  /**
+   * Publica el slot obtenido con {@link #claimOverflow()}: va después de todo lo publicado en el
+   * anillo hasta ahora.
+   */
+  void publishOverflow() {
+    overflowPosition = tail.get();
+    overflowReady = true;
+    wakeUp();
+  }
+
+  private void wakeUp() {
+    if (parked) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  private void drain() {
+    Thread self = Thread.currentThread();
+    long position = head.get();
+    while (consumer == self) {
+      if (overflowReady && position == overflowPosition) {
+        process(overflow);
+        overflowReady = false;
+        continue;
+      }
+      if (position == tail.get()) {
+        parked = true;
+        // Volver a mirar tras marcarse dormido: publish() lee 'parked' después de escribir 'tail'.
+        if (position == tail.get() && !overflowReady && consumer == self) {
+          LockSupport.parkNanos(this, Constants.CALLBACK_IDLE_PARK_NANOS);
+        }
+        parked = false;
+        continue;
+      }
+      try {
+        process(events[(int) position & mask]);
+      } finally {
+        head.set(++position);
+      }
+    }
+  }
+
+  private void process(Event event) {
+    try {
+      handler.accept(event);
+    } catch (RuntimeException e) {
+      log.error("Excepción procesando el callback {}: {}", event.eventCode, e.getMessage(), e);
+    } finally {
+      event.frame = null;
+      event.template = null;
+    }
+  }
+
+  /**
+   * Copia de un evento del SDK. Los campos se reescriben en cada uso del slot.
+   */
+  static final class Event {
+
+    int eventCode;
+    int frameError;
+    int eventInfo;
+    int sizeX;
+    int sizeY;
+    int diagnostic;
+    int generation;
+    int contrast;
+    long enqueuedNanos;
+
+    /**
+     * Copia del frame en el anillo de {@link FrameBufferPool}, con una referencia a cargo del
+     * consumidor; null si el evento no trae frame o no había slot libre.
+     */
+    FrameBufferPool.Frame frame;
+
+    /**
+     * ACQUISITION_END: template ISO leído en el callback, a su tamaño exacto, o null.
+     */
+    byte[] template;
+
+    /**
+     * ACQUISITION_END: código de retorno de {@code GetIso19794_2_2005_Template}.
+     */
+    int templateResult;
+
+    /**
+     * ACQUISITION_END: tiempo de la lectura del template en el callback.
+     */
+    long templateNanos;
+
+    /**
+     * ACQUISITION_END: el callback llamó a {@code ImageFinalization} sobre el frame antes de
+     * copiarlo.
+     */
+    boolean finalized;
+  }
+}
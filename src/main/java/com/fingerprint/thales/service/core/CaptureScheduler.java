@@ -0,0 +1,318 @@
+package com.fingerprint.thales.service.core;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.CapturePriorityEnum;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.utils.Schedulers;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cola de capturas de un escáner con control de admisión.
+ * <p>
+ * Un único hilo de trabajo ejecuta las capturas una a una, por prioridad
+ * ({@link CapturePriorityEnum}) y, dentro de cada clase, por orden de llegada. La cola tiene una
+ * capacidad máxima: si está llena, una captura de operador desplaza al último reintento
+ * automático en espera y cualquier otra se rechaza con QUEUE_FULL. Cada solicitud trae un plazo
+ * para empezar; si vence mientras espera, sale de la cola con QUEUE_DEADLINE_EXCEEDED.
+ * <p>
+ * Se mide por separado la espera en cola y la duración de la captura ({@link Stats}).
+ */
+@Slf4j
+public class CaptureScheduler implements AutoCloseable {
+
+  private static final Comparator<Ticket<?>> ORDER = Comparator
+          .<Ticket<?>>comparingInt(ticket -> ticket.priority.ordinal())
+          .thenComparingLong(ticket -> ticket.sequence);
+
+  private final String name;
+
+  private final int capacity;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition notEmpty = lock.newCondition();
+
+  private final PriorityQueue<Ticket<?>> queue = new PriorityQueue<>(ORDER);
+
+  private final Thread worker;
+
+  private final Runnable afterCapture;
+
+  private long nextSequence;
+
+  private boolean running;
+
+  private volatile boolean closed;
+
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong expired = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong queueWaitTotalNanos = new AtomicLong();
+  private final AtomicLong queueWaitMaxNanos = new AtomicLong();
+  private final AtomicLong captureTotalNanos = new AtomicLong();
+  private final AtomicLong captureMaxNanos = new AtomicLong();
+
+  /**
+   * @param name     Nombre del dispositivo (para el hilo y los logs).
+   * @param capacity Máximo de capturas en espera (sin contar la que está en curso).
+   */
+  public CaptureScheduler(String name, int capacity) {
+    this(name, capacity, () -> { });
+  }
+
+  /**
+   * @param name         Nombre del dispositivo (para el hilo y los logs).
+   * @param capacity     Máximo de capturas en espera (sin contar la que está en curso).
+   * @param afterCapture Se ejecuta en el hilo de trabajo tras entregar cada resultado (p. ej.
+   *                     para armar el escáner); sus errores se registran y no detienen la cola.
+   */
+  public CaptureScheduler(String name, int capacity, Runnable afterCapture) {
+    this.name = name;
+    this.capacity = Math.max(Constants.ONE, capacity);
+    this.afterCapture = afterCapture;
+    this.worker = new Thread(this::workLoop, Constants.DEVICE_THREAD_NAME + name);
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Capacidad configurada con {@code -Dthales.queue.capacity} (por defecto 8).
+   */
+  public static int configuredCapacity() {
+    return Integer.getInteger(Constants.QUEUE_CAPACITY_PROPERTY, Constants.DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Encola una captura.
+   *
+   * @param priority   Clase de prioridad.
+   * @param deadlineMs Plazo máximo de espera en cola, en milisegundos.
+   * @param capture    Captura a ejecutar en el hilo del dispositivo.
+   * @return el resultado futuro; falla con QUEUE_FULL, QUEUE_DEADLINE_EXCEEDED o el error de
+   *         la captura.
+   */
+  public <T> CompletableFuture<T> submit(CapturePriorityEnum priority, long deadlineMs,
+                                         Supplier<T> capture) {
+    var ticket = new Ticket<>(priority, capture);
+    Ticket<?> evicted = null;
+    lock.lock();
+    try {
+      if (closed) {
+        throw new AcquisitionException(AcquisitionException.ErrorCode.ACQUISITION_CANCELLED);
+      }
+      if (queue.size() >= capacity) {
+        evicted = priority == CapturePriorityEnum.OPERATOR ? lastAutomated() : null;
+        if (evicted == null) {
+          rejected.incrementAndGet();
+          log.warn("Cola de {} llena ({}): solicitud {} rechazada.", name, capacity, priority);
+          throw new AcquisitionException(AcquisitionException.ErrorCode.QUEUE_FULL);
+        }
+        queue.remove(evicted);
+      }
+      ticket.sequence = nextSequence++;
+      // Se programa con el lock tomado: el hilo de trabajo no puede tomar el ticket sin plazo.
+      ticket.expiry = Schedulers.shared().schedule(() -> expire(ticket),
+              Math.max(Constants.ZERO_LONG, deadlineMs), TimeUnit.MILLISECONDS);
+      queue.add(ticket);
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+
+    if (evicted != null) {
+      rejected.incrementAndGet();
+      log.warn("Cola de {} llena: reintento automático desplazado por una captura de operador.", name);
+      evicted.fail(AcquisitionException.ErrorCode.QUEUE_FULL);
+    }
+    return ticket.result;
+  }
+
+  /**
+   * Último reintento automático en espera (el que menos perdería al salir), o null.
+   */
+  private Ticket<?> lastAutomated() {
+    Ticket<?> last = null;
+    for (Ticket<?> queued : queue) {
+      if (queued.priority == CapturePriorityEnum.AUTOMATED
+              && (last == null || queued.sequence > last.sequence)) {
+        last = queued;
+      }
+    }
+    return last;
+  }
+
+  private void expire(Ticket<?> ticket) {
+    boolean removed;
+    lock.lock();
+    try {
+      removed = queue.remove(ticket);
+    } finally {
+      lock.unlock();
+    }
+    if (removed) {
+      expired.incrementAndGet();
+      log.warn("Captura en {} descartada: venció su plazo en cola.", name);
+      ticket.fail(AcquisitionException.ErrorCode.QUEUE_DEADLINE_EXCEEDED);
+    }
+  }
+
+  private void workLoop() {
+    while (true) {
+      Ticket<?> ticket;
+      lock.lock();
+      try {
+        running = false;
+        while (queue.isEmpty() && !closed) {
+          notEmpty.awaitUninterruptibly();
+        }
+        if (closed) return;
+        ticket = queue.poll();
+        running = true;
+      } finally {
+        lock.unlock();
+      }
+      ticket.expiry.cancel(false);
+      run(ticket);
+      try {
+        afterCapture.run();
+      } catch (RuntimeException e) {
+        log.warn("Error tras la captura en {}: {}", name, e.getMessage());
+      }
+    }
+  }
+
+  private <T> void run(Ticket<T> ticket) {
+    long started = System.nanoTime();
+    long waited = started - ticket.enqueuedNanos;
+    record(queueWaitTotalNanos, queueWaitMaxNanos, waited);
+    try {
+      ticket.result.complete(ticket.capture.get());
+    } catch (Throwable e) {
+      ticket.result.completeExceptionally(e);
+    } finally {
+      long took = System.nanoTime() - started;
+      record(captureTotalNanos, captureMaxNanos, took);
+      completed.incrementAndGet();
+      log.info(Constants.QUEUE_LATENCY_LOG, name,
+              waited / Constants.NANOS_PER_MILLI, took / Constants.NANOS_PER_MILLI);
+    }
+  }
+
+  private static void record(AtomicLong total, AtomicLong max, long nanos) {
+    total.addAndGet(nanos);
+    max.accumulateAndGet(nanos, Math::max);
+  }
+
+  /**
+   * Capturas en espera más la que está en curso.
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return queue.size() + (running ? Constants.ONE : Constants.ZERO);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Foto de las métricas de la cola.
+   */
+  public Stats stats() {
+    long done = completed.get();
+    return new Stats(queueSize(), rejected.get(), expired.get(), done,
+            average(queueWaitTotalNanos.get(), done), queueWaitMaxNanos.get() / Constants.NANOS_PER_MILLI,
+            average(captureTotalNanos.get(), done), captureMaxNanos.get() / Constants.NANOS_PER_MILLI);
+  }
+
+  private int queueSize() {
+    lock.lock();
+    try {
+      return queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static long average(long totalNanos, long count) {
+    return count == Constants.ZERO_LONG ? Constants.ZERO_LONG
+            : totalNanos / count / Constants.NANOS_PER_MILLI;
+  }
+
+  /**
+   * Métricas de la cola de un dispositivo; los tiempos en milisegundos.
+   *
+   * @param queued         Capturas esperando turno.
+   * @param rejected       Rechazadas o desplazadas por cola llena.
+   * @param expired        Descartadas por vencer su plazo en cola.
+   * @param completed      Capturas ejecutadas (con éxito o con error).
+   * @param queueWaitAvgMs Espera media en cola.
+   * @param queueWaitMaxMs Espera máxima en cola.
+   * @param captureAvgMs   Duración media de la captura.
+   * @param captureMaxMs   Duración máxima de la captura.
+   */
+  public record Stats(int queued, long rejected, long expired, long completed,
+                      long queueWaitAvgMs, long queueWaitMaxMs,
+                      long captureAvgMs, long captureMaxMs) {
+  }
+
+  /**
+   * Detiene el hilo de trabajo; las capturas en espera terminan con ACQUISITION_CANCELLED.
+   * La captura en curso, si la hay, se cancela con {@link AcquisitionHandler#cancel()}.
+   */
+  @Override
+  public void close() {
+    var pending = new ArrayList<Ticket<?>>();
+    lock.lock();
+    try {
+      if (closed) return;
+      closed = true;
+      pending.addAll(queue);
+      queue.clear();
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    pending.forEach(ticket -> ticket.fail(AcquisitionException.ErrorCode.ACQUISITION_CANCELLED));
+  }
+
+  /**
+   * Una solicitud en espera.
+   */
+  private static final class Ticket<T> {
+
+    private final CapturePriorityEnum priority;
+
+    private final Supplier<T> capture;
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    private final long enqueuedNanos = System.nanoTime();
+
+    private long sequence;
+
+    private ScheduledFuture<?> expiry;
+
+    private Ticket(CapturePriorityEnum priority, Supplier<T> capture) {
+      this.priority = priority;
+      this.capture = capture;
+    }
+
+    private void fail(AcquisitionException.ErrorCode errorCode) {
+      if (expiry != null) {
+        expiry.cancel(false);
+      }
+      result.completeExceptionally(new AcquisitionException(errorCode));
+    }
+  }
+}
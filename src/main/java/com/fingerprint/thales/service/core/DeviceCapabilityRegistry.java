@@ -0,0 +1,67 @@
+package com.fingerprint.thales.service.core;
+
+import com.fingerprint.thales.model.DeviceInfo;
+import com.fingerprint.thales.model.DeviceKey;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché de capacidades por dispositivo (DeviceID + serial).
+ * <p>
+ * Guarda lo que devolvieron GetDeviceFeatures, GetSupportedScanOptions, GetScannableTypes y
+ * FlatAutoCaptureModeIsSupported, junto con los ajustes ya aplicados ({@link DeviceSettings}),
+ * para no volver a sondear ni a configurar un dispositivo conocido. {@link DeviceWatcher}
+ * invalida las entradas cuando un dispositivo se desconecta.
+ */
+@Slf4j
+public class DeviceCapabilityRegistry {
+
+  private final Map<DeviceKey, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Capacidades sondeadas y ajustes aplicados de un dispositivo.
+   *
+   * @param info     Capacidades del dispositivo.
+   * @param settings Ajustes aplicados.
+   */
+  public record Entry(DeviceInfo info, DeviceSettings settings) {
+  }
+
+  /**
+   * Devuelve la entrada del dispositivo, sondeándolo solo si no estaba en caché.
+   *
+   * @param key   Dispositivo.
+   * @param probe Sondeo nativo de capacidades (solo se invoca en caso de fallo de caché).
+   */
+  public Entry getOrProbe(DeviceKey key, Function<DeviceKey, DeviceInfo> probe) {
+    Entry cached = entries.get(key);
+    if (cached != null) {
+      log.debug("Capacidades de {} obtenidas de la caché.", key.serial());
+      return cached;
+    }
+    return entries.computeIfAbsent(key, k -> new Entry(probe.apply(k), new DeviceSettings()));
+  }
+
+  /**
+   * Descarta la entrada de un dispositivo desconectado.
+   */
+  public void invalidate(DeviceKey key) {
+    if (entries.remove(key) != null) {
+      log.info("Capacidades de {} invalidadas.", key.serial());
+    }
+  }
+
+  /**
+   * Olvida los ajustes aplicados de todos los dispositivos (la librería se recargó).
+   */
+  public void clearSettings() {
+    entries.values().forEach(entry -> entry.settings().clear());
+  }
+
+  public Set<DeviceKey> keys() {
+    return Set.copyOf(entries.keySet());
+  }
+}
@@ -0,0 +1,184 @@
+package com.fingerprint.thales.service.core;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.CapturePriorityEnum;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.model.DeviceInfo;
+import com.fingerprint.thales.model.ResponseBatch;
+import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.sdk.DeviceBoundGbmsSdk;
+import com.fingerprint.thales.sdk.GbmsSdk;
+import com.fingerprint.thales.template.TemplateCheck;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro de los escáneres conectados, indexado por número de serie.
+ * <p>
+ * Cada dispositivo tiene su {@link ScannerDevice} (handler + hilo de comandos) y todos comparten
+ * un {@link DeviceBoundGbmsSdk.Selector}, porque {@code SetCurrentDevice} es global en GBMSAPI.
+ * Una solicitud puede dirigirse a un serial concreto o a "cualquier" dispositivo; en ese caso se
+ * elige el que tenga menos capturas pendientes. {@link DeviceWatcher} agrega y quita
+ * dispositivos en caliente.
+ */
+@Slf4j
+public class DeviceRegistry implements AutoCloseable {
+
+  private final Map<String, ScannerDevice> devices = new ConcurrentHashMap<>();
+
+  private final DeviceBoundGbmsSdk.Selector selector;
+
+  private final DeviceCapabilityRegistry capabilities;
+
+  /**
+   * @param sdk   SDK ya inicializado.
+   * @param infos Dispositivos detectados y configurados por {@link AcquisitionInitializer}.
+   */
+  public DeviceRegistry(GbmsSdk sdk, List<DeviceInfo> infos) {
+    this(DeviceBoundGbmsSdk.selectorFor(sdk), new DeviceCapabilityRegistry(), infos);
+  }
+
+  /**
+   * @param selector     Selector compartido con {@link AcquisitionInitializer}.
+   * @param capabilities Caché de capacidades y ajustes aplicados.
+   * @param infos        Dispositivos detectados y configurados.
+   */
+  public DeviceRegistry(DeviceBoundGbmsSdk.Selector selector,
+                        DeviceCapabilityRegistry capabilities, List<DeviceInfo> infos) {
+    this.selector = selector;
+    this.capabilities = capabilities;
+    infos.forEach(this::register);
+    log.info("Dispositivos registrados: {}", devices.keySet());
+  }
+
+  /**
+   * Registra un dispositivo recién conectado.
+   */
+  public void add(DeviceInfo info) {
+    register(info);
+    log.info("Dispositivo {} agregado. Registrados: {}", info.serial(), devices.keySet());
+  }
+
+  /**
+   * Quita un dispositivo desconectado; sus capturas pendientes se cancelan.
+   */
+  public void remove(String serial) {
+    ScannerDevice device = devices.remove(serial);
+    if (device != null) {
+      device.close();
+      log.info("Dispositivo {} quitado. Registrados: {}", serial, devices.keySet());
+    }
+  }
+
+  public boolean contains(String serial) {
+    return devices.containsKey(serial);
+  }
+
+  private void register(DeviceInfo info) {
+    var settings = capabilities.getOrProbe(info.key(), key -> info).settings();
+    devices.put(info.serial(),
+            new ScannerDevice(info, selector.bind(info.deviceId(), info.serial()), settings));
+  }
+
+  /**
+   * Encola una captura.
+   *
+   * @param serial       Serial del dispositivo, o null / vacío / "any" para cualquiera.
+   * @param priority     Clase de prioridad de la solicitud.
+   * @param timeout      Tiempo máximo de inactividad en milisegundos.
+   * @param check        Verificación 1:1 o identificación 1:N de la huella capturada, o null.
+   */
+  public CompletableFuture<ResponseOk> submit(String serial, CapturePriorityEnum priority,
+                                              Long timeout, TemplateCheck check) {
+    return route(serial).submit(priority, timeout, check);
+  }
+
+  /**
+   * Encola una captura de un objeto concreto.
+   *
+   * @param object Código GBMSAPI del objeto (ver {@link AcquisitionHandler#resolveObject}).
+   */
+  public CompletableFuture<ResponseOk> submit(String serial, CapturePriorityEnum priority,
+                                              int object, Long timeout, TemplateCheck check) {
+    return route(serial).submit(priority, object, timeout, check);
+  }
+
+  /**
+   * Encola una captura por lotes en un único dispositivo.
+   *
+   * @param serial   Serial del dispositivo, o null / vacío / "any" para cualquiera.
+   * @param priority Clase de prioridad de la solicitud.
+   * @param objects  Nombres GBMSAPI de los objetos, en orden.
+   * @param timeout  Tiempo máximo de inactividad por objeto, en milisegundos.
+   */
+  public CompletableFuture<ResponseBatch> submitBatch(String serial, CapturePriorityEnum priority,
+                                                      List<String> objects, Long timeout) {
+    return route(serial).submitBatch(priority, objects, timeout);
+  }
+
+  /**
+   * Cancela la captura en curso en un dispositivo o, con "any", en todos.
+   *
+   * @return número de capturas canceladas.
+   * @throws AcquisitionException DEVICE_NOT_FOUND si el serial no está conectado.
+   */
+  public int cancel(String serial) {
+    if (!isAnyDevice(serial)) {
+      return route(serial).cancel() ? Constants.ONE : Constants.ZERO;
+    }
+    int cancelled = Constants.ZERO;
+    for (ScannerDevice device : devices.values()) {
+      if (device.cancel()) cancelled++;
+    }
+    return cancelled;
+  }
+
+  /**
+   * Devuelve el dispositivo para una solicitud.
+   *
+   * @throws AcquisitionException DEVICE_NOT_FOUND si el serial no está conectado.
+   */
+  public ScannerDevice route(String serial) {
+    if (isAnyDevice(serial)) {
+      return leastBusy();
+    }
+    ScannerDevice device = devices.get(serial.trim());
+    if (device == null) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.DEVICE_NOT_FOUND);
+    }
+    return device;
+  }
+
+  /**
+   * Primer dispositivo libre o, si todos están ocupados, el que tenga menos pendientes.
+   */
+  private ScannerDevice leastBusy() {
+    ScannerDevice best = null;
+    for (ScannerDevice device : devices.values()) {
+      int pending = device.getPending();
+      if (pending == Constants.ZERO) return device;
+      if (best == null || pending < best.getPending()) best = device;
+    }
+    if (best == null) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.INIT_NO_DEVICES_FOUND);
+    }
+    return best;
+  }
+
+  private static boolean isAnyDevice(String serial) {
+    return serial == null || serial.isBlank() || Constants.DEVICE_ANY.equalsIgnoreCase(serial.trim());
+  }
+
+  public Collection<ScannerDevice> getDevices() {
+    return devices.values();
+  }
+
+  @Override
+  public void close() {
+    devices.values().forEach(ScannerDevice::close);
+  }
+}
@@ -0,0 +1,47 @@
+package com.fingerprint.thales.service.core;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.DeviceSettingsEnum;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Últimos valores aplicados en un dispositivo para cada {@link DeviceSettingsEnum}.
+ * Permite omitir los setters nativos cuyo valor ya está vigente.
+ */
+public class DeviceSettings {
+
+  /**
+   * Valor fuera del rango de int: "nunca aplicado".
+   */
+  private static final long NOT_APPLIED = Long.MIN_VALUE;
+
+  private final AtomicLongArray applied;
+
+  public DeviceSettings() {
+    applied = new AtomicLongArray(DeviceSettingsEnum.values().length);
+    clear();
+  }
+
+  /**
+   * Indica si el ajuste ya tiene ese valor en el dispositivo.
+   */
+  public boolean isApplied(DeviceSettingsEnum setting, int value) {
+    return applied.get(setting.ordinal()) == value;
+  }
+
+  /**
+   * Registra que el setter nativo se ejecutó correctamente con ese valor.
+   */
+  public void markApplied(DeviceSettingsEnum setting, int value) {
+    applied.set(setting.ordinal(), value);
+  }
+
+  /**
+   * Olvida todos los valores (p. ej. el dispositivo se desconectó o se recargó la librería).
+   */
+  public void clear() {
+    for (int i = Constants.ZERO; i < applied.length(); i++) {
+      applied.set(i, NOT_APPLIED);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.fingerprint.thales.service.core;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.model.DeviceKey;
+import com.fingerprint.thales.utils.Schedulers;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Detecta conexiones y desconexiones de escáneres en caliente.
+ * <p>
+ * Cada cierto intervalo ({@code -Dthales.deviceWatchMs}, 0 lo desactiva) enumera los
+ * dispositivos conectados con una sola llamada nativa y la compara con el registro: los nuevos
+ * se configuran y registran (sondeando capacidades solo si no están en caché) y los que
+ * desaparecieron se quitan e invalidan en {@link DeviceCapabilityRegistry}.
+ */
+@Slf4j
+public class DeviceWatcher implements AutoCloseable {
+
+  private final AcquisitionInitializer initializer;
+
+  private final DeviceRegistry registry;
+
+  private ScheduledFuture<?> task;
+
+  public DeviceWatcher(AcquisitionInitializer initializer, DeviceRegistry registry) {
+    this.initializer = initializer;
+    this.registry = registry;
+  }
+
+  /**
+   * Inicia el sondeo periódico si el intervalo configurado es mayor que cero.
+   */
+  public synchronized void start() {
+    long intervalMs = Long.getLong(Constants.DEVICE_WATCH_PROPERTY, Constants.DEFAULT_DEVICE_WATCH_MS);
+    if (task != null || intervalMs <= Constants.ZERO_LONG) {
+      return;
+    }
+    task = Schedulers.shared().scheduleWithFixedDelay(
+            this::poll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    log.info("Detección de dispositivos en caliente cada {} ms.", intervalMs);
+  }
+
+  /**
+   * Compara los dispositivos conectados con los registrados y aplica la diferencia.
+   */
+  void poll() {
+    try {
+      List<DeviceKey> attached = initializer.listAttachedDevices();
+      Set<String> attachedSerials = new HashSet<>();
+      for (DeviceKey key : attached) {
+        attachedSerials.add(key.serial());
+      }
+
+      for (DeviceKey known : initializer.getCapabilities().keys()) {
+        if (!attachedSerials.contains(known.serial())) {
+          log.warn("Dispositivo {} desconectado.", known.serial());
+          registry.remove(known.serial());
+          initializer.getCapabilities().invalidate(known);
+          initializer.getSelector().invalidate();
+        }
+      }
+
+      for (DeviceKey key : attached) {
+        if (!registry.contains(key.serial())) {
+          log.info("Dispositivo {} conectado.", key.serial());
+          registry.add(initializer.configure(key));
+        }
+      }
+    } catch (Exception e) {
+      log.warn("Error al sondear dispositivos conectados: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (task != null) {
+      task.cancel(false);
+      task = null;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.fingerprint.thales.service.core;
+
+import com.fingerprint.thales.constants.Constants;
+import com.sun.jna.Pointer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Anillo de buffers reutilizables para los frames de la vista previa.
+ * Cada VALID_FRAME_ACQUIRED se copia con una sola lectura nativa sobre un slot libre en lugar
+ * de crear un byte[] nuevo; los slots solo crecen si llega un frame mayor.
+ * <p>
+ * Semantica de liberacion: {@link #copyFrom} devuelve el frame con una referencia a cargo del
+ * llamante; quien quiera conservarlo mas alla del siguiente frame debe hacer {@link Frame#retain()}
+ * y luego {@link Frame#release()}. El slot vuelve al anillo cuando no quedan referencias.
+ */
+@Slf4j
+public class FrameBufferPool {
+
+  private final Frame[] slots;
+
+  private int next;
+
+  @Getter
+  private long droppedFrames;
+
+  public FrameBufferPool(int slotCount) {
+    slots = new Frame[slotCount];
+    for (int i = Constants.ZERO; i < slotCount; i++) {
+      slots[i] = new Frame();
+    }
+  }
+
+  /**
+   * Copia el frame nativo en un slot libre. Debe llamarse desde un unico hilo productor
+   * (el callback del SDK).
+   *
+   * @return el frame copiado, o null si todos los slots siguen en uso (frame descartado).
+   */
+  public Frame copyFrom(Pointer framePtr, int width, int height) {
+    int length = width * height;
+    for (int i = Constants.ZERO; i < slots.length; i++) {
+      Frame slot = slots[next];
+      next = (next + Constants.ONE) % slots.length;
+      if (slot.refCount.compareAndSet(Constants.ZERO, Constants.ONE)) {
+        slot.fill(framePtr, width, height, length);
+        return slot;
+      }
+    }
+    droppedFrames++;
+    return null;
+  }
+
+  /**
+   * Un slot del anillo con el ultimo contenido copiado.
+   */
+  @Getter
+  public static final class Frame {
+
+    private byte[] data = new byte[Constants.ZERO];
+    private int width;
+    private int height;
+    private int length;
+    private final AtomicInteger refCount = new AtomicInteger();
+
+    private void fill(Pointer framePtr, int width, int height, int length) {
+      if (data.length < length) {
+        data = new byte[length];
+      }
+      framePtr.read(Constants.ZERO_LONG, data, Constants.ZERO, length);
+      this.width = width;
+      this.height = height;
+      this.length = length;
+    }
+
+    /**
+     * Vista de solo lectura de los pixeles validos del frame.
+     */
+    public ByteBuffer view() {
+      return ByteBuffer.wrap(data, Constants.ZERO, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Agrega una referencia al frame para conservarlo.
+     */
+    public Frame retain() {
+      refCount.incrementAndGet();
+      return this;
+    }
+
+    /**
+     * Libera una referencia; el slot se reutiliza cuando llega a cero.
+     */
+    public void release() {
+      refCount.decrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.fingerprint.thales.service.core;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.CapturePriorityEnum;
+import com.fingerprint.thales.model.DeviceInfo;
+import com.fingerprint.thales.model.ResponseBatch;
+import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.sdk.DeviceBoundGbmsSdk;
+import com.fingerprint.thales.template.TemplateCheck;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Un escáner conectado: su vista del SDK, su propio {@link AcquisitionHandler} y su
+ * {@link CaptureScheduler}. Las capturas del mismo dispositivo se ejecutan una detrás de otra,
+ * por prioridad y orden de llegada, con cola acotada y plazo de espera; las de dispositivos
+ * distintos se encolan por separado, pero sus adquisiciones se turnan
+ * ({@link DeviceBoundGbmsSdk}).
+ */
+@Slf4j
+public class ScannerDevice implements AutoCloseable {
+
+  @Getter
+  private final DeviceInfo info;
+
+  @Getter
+  private final AcquisitionHandler handler;
+
+  private final BatchCaptureSession batch;
+
+  @Getter
+  private final CaptureScheduler scheduler;
+
+  /**
+   * Ventana de espera de la sesión armada ({@code -Dthales.armed.idleMs}); 0 la desactiva.
+   */
+  private final long armedIdleMs = Long.getLong(Constants.ARMED_IDLE_PROPERTY,
+          Constants.DEFAULT_ARMED_IDLE_MS);
+
+  public ScannerDevice(DeviceInfo info, DeviceBoundGbmsSdk sdk) {
+    this(info, sdk, new DeviceSettings());
+  }
+
+  /**
+   * @param info     Capacidades del dispositivo.
+   * @param sdk      Vista del SDK ligada al dispositivo.
+   * @param settings Ajustes ya aplicados, tomados de {@link DeviceCapabilityRegistry}.
+   */
+  public ScannerDevice(DeviceInfo info, DeviceBoundGbmsSdk sdk, DeviceSettings settings) {
+    this.info = info;
+    this.handler = new AcquisitionHandler(sdk, settings);
+    this.batch = new BatchCaptureSession(handler, info);
+    this.scheduler = new CaptureScheduler(info.serial(), CaptureScheduler.configuredCapacity(),
+            this::armIfEnabled);
+  }
+
+  /**
+   * Tras cada captura correcta deja el escáner armado para la siguiente solicitud, si el modo
+   * armado está activo. Corre en el hilo del dispositivo, después de entregar el resultado.
+   */
+  private void armIfEnabled() {
+    if (armedIdleMs > Constants.ZERO_LONG) {
+      handler.arm(armedIdleMs);
+    }
+  }
+
+  /**
+   * Encola una captura. El plazo para empezar es el mismo timeout de la solicitud: si en ese
+   * tiempo no le llega el turno, falla con QUEUE_DEADLINE_EXCEEDED.
+   *
+   * @param priority     clase de prioridad de la solicitud.
+   * @param timeout      tiempo máximo de inactividad en milisegundos.
+   * @param check        verificación 1:1 o identificación 1:N de la huella capturada, o null.
+   */
+  public CompletableFuture<ResponseOk> submit(CapturePriorityEnum priority, Long timeout,
+                                              TemplateCheck check) {
+    return scheduler.submit(priority, timeout, () -> handler.captureFingerprint(timeout, check));
+  }
+
+  /**
+   * Igual que {@link #submit(CapturePriorityEnum, Long, TemplateCheck)}, escaneando un objeto
+   * concreto en vez del índice derecho.
+   *
+   * @param object código GBMSAPI del objeto (ver {@link AcquisitionHandler#resolveObject}).
+   */
+  public CompletableFuture<ResponseOk> submit(CapturePriorityEnum priority, int object,
+                                              Long timeout, TemplateCheck check) {
+    return scheduler.submit(priority, timeout,
+            () -> handler.captureFingerprint(object, timeout, check));
+  }
+
+  /**
+   * Encola una captura por lotes; todos los objetos se capturan seguidos en este dispositivo.
+   *
+   * @param priority clase de prioridad de la solicitud.
+   * @param objects  Nombres GBMSAPI de los objetos, en orden.
+   * @param timeout  Tiempo máximo de inactividad por objeto, en milisegundos.
+   */
+  public CompletableFuture<ResponseBatch> submitBatch(CapturePriorityEnum priority,
+                                                      List<String> objects, Long timeout) {
+    return scheduler.submit(priority, timeout, () -> batch.run(objects, timeout));
+  }
+
+  /**
+   * Cancela la captura en curso en este dispositivo; las encoladas siguen su turno.
+   *
+   * @return true si había una captura en curso.
+   */
+  public boolean cancel() {
+    return handler.cancel();
+  }
+
+  public String getSerial() {
+    return info.serial();
+  }
+
+  /**
+   * Número de capturas encoladas o en curso.
+   */
+  public int getPending() {
+    return scheduler.size();
+  }
+
+  /**
+   * Vacía la cola, cancela la captura en curso, detiene la sesión armada y el hilo de los
+   * callbacks.
+   */
+  @Override
+  public void close() {
+    scheduler.close();
+    handler.cancel();
+    handler.disarm();
+    handler.close();
+  }
+}
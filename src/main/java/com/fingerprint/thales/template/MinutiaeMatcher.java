@@ -0,0 +1,262 @@
+package com.fingerprint.thales.template;
+
+import com.fingerprint.thales.constants.Constants;
+import java.util.Arrays;
+
+/**
+ * Comparador 1:1 de minucias para la verificación local.
+ * <p>
+ * La alineación se busca con una transformada de Hough: cada par (minucia de la muestra,
+ * minucia de la referencia) vota por la rotación que iguala sus ángulos y la traslación que
+ * lleva una sobre otra. Las celdas más votadas se evalúan emparejando las minucias alineadas
+ * (distancia y ángulo dentro de tolerancia, cada minucia de la referencia una sola vez) y la
+ * puntuación es el porcentaje de minucias emparejadas: {@code 200 * pares / (n + m)}, de 0 a 100.
+ * <p>
+ * Las coordenadas se tratan como píxeles de imagen (y hacia abajo) y los ángulos en unidades ISO
+ * (360/256°, sentido antihorario); senos y cosenos salen de tablas de 256 entradas. Las minucias
+ * se copian a arreglos primitivos y la tabla de votos no se limpia entre comparaciones (cada
+ * celda lleva la marca de la comparación que la ocupó), así que una comparación no reserva
+ * memoria salvo para crecer los arreglos con un template mayor que los anteriores. No es
+ * thread-safe: una instancia por hilo.
+ */
+public final class MinutiaeMatcher {
+
+  private static final float[] COS = new float[Constants.ISO_ANGLE_STEPS];
+
+  private static final float[] SIN = new float[Constants.ISO_ANGLE_STEPS];
+
+  private static final int ANGLE_MASK = Constants.ISO_ANGLE_STEPS - Constants.ONE;
+
+  private static final int ROTATION_REMAINDER_MASK =
+          (Constants.ONE << Constants.MATCH_ROTATION_BIN_SHIFT) - Constants.ONE;
+
+  private static final int TRANSLATION_BITS = 10;
+
+  private static final int TRANSLATION_MASK = (Constants.ONE << TRANSLATION_BITS) - Constants.ONE;
+
+  private static final int ROTATION_KEY_SHIFT = TRANSLATION_BITS * Constants.TWO;
+
+  private static final int TABLE_SIZE = Constants.ONE << Constants.MATCH_VOTE_TABLE_BITS;
+
+  private static final int TABLE_MASK = TABLE_SIZE - Constants.ONE;
+
+  /** Celdas ocupables (75 %): con la tabla llena, los pares que abrirían una celda nueva no votan. */
+  private static final int TABLE_MAX_LOAD = TABLE_SIZE / Constants.FOUR * Constants.THREE;
+
+  private static final int HASH_SHIFT = Integer.SIZE - Constants.MATCH_VOTE_TABLE_BITS;
+
+  private static final int HASH_MULTIPLIER = 0x9E3779B1;
+
+  // Campos de cada celda, contiguos para que una celda ocupe media línea de caché.
+  private static final int STAMP = 0;
+  private static final int KEY = 1;
+  private static final int COUNT = 2;
+  private static final int ROTATION = 3;
+  private static final int DX = 4;
+  private static final int DY = 5;
+  private static final int CELL_SHIFT = 3;
+
+  private static final int DISTANCE_TOLERANCE_SQUARED =
+          Constants.MATCH_DISTANCE_TOLERANCE * Constants.MATCH_DISTANCE_TOLERANCE;
+
+  static {
+    for (int angle = Constants.ZERO; angle < Constants.ISO_ANGLE_STEPS; angle++) {
+      double radians = Math.PI * Constants.TWO * angle / Constants.ISO_ANGLE_STEPS;
+      COS[angle] = (float) Math.cos(radians);
+      SIN[angle] = (float) Math.sin(radians);
+    }
+  }
+
+  // Minucias de la primera vista de cada template; ángulo en unidades ISO.
+  private int[] probeX = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  private int[] probeY = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  private int[] probeAngle = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  private int[] referenceX = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  private int[] referenceY = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  private int[] referenceAngle = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  private boolean[] referenceUsed = new boolean[Constants.INITIAL_MINUTIAE_CAPACITY];
+
+  // Tabla de votos con direccionamiento abierto: marca, clave (rotación, dx, dy), votos y sumas
+  // para la alineación media. Los índices de usedSlots y peaks apuntan al inicio de la celda.
+  private final int[] votes = new int[TABLE_SIZE << CELL_SHIFT];
+  private final int[] usedSlots = new int[TABLE_MAX_LOAD];
+  private final int[] peaks = new int[Constants.MATCH_PEAKS];
+  private int usedCount;
+  private int stamp;
+
+  /**
+   * Puntuación de 0 a 100 entre la primera vista de cada template. Si las resoluciones difieren,
+   * las coordenadas de la referencia se escalan a la resolución de la muestra.
+   */
+  public int score(MinutiaeTemplate probe, MinutiaeTemplate reference) {
+    int probeCount = loadProbe(probe);
+    int referenceCount = loadReference(reference, probe.getXResolution(),
+            probe.getYResolution());
+    if (probeCount == Constants.ZERO || referenceCount == Constants.ZERO) {
+      return Constants.ZERO;
+    }
+    vote(probeCount, referenceCount);
+    int peakCount = findPeaks();
+    int matched = Constants.ZERO;
+    for (int peak = Constants.ZERO; peak < peakCount; peak++) {
+      matched = Math.max(matched, pair(peaks[peak], probeCount, referenceCount));
+    }
+    return Math.min(Constants.MATCH_MAX_SCORE,
+            Constants.TWO * Constants.MATCH_MAX_SCORE * matched / (probeCount + referenceCount));
+  }
+
+  private int loadProbe(MinutiaeTemplate template) {
+    int count = firstViewCount(template);
+    if (probeX.length < count) {
+      probeX = new int[count];
+      probeY = new int[count];
+      probeAngle = new int[count];
+    }
+    int first = count == Constants.ZERO ? Constants.ZERO : template.firstMinutia(Constants.ZERO);
+    for (int i = Constants.ZERO; i < count; i++) {
+      probeX[i] = template.x(first + i);
+      probeY[i] = template.y(first + i);
+      probeAngle[i] = template.isoAngle(first + i);
+    }
+    return count;
+  }
+
+  private int loadReference(MinutiaeTemplate template, int xResolution, int yResolution) {
+    int count = firstViewCount(template);
+    if (referenceX.length < count) {
+      referenceX = new int[count];
+      referenceY = new int[count];
+      referenceAngle = new int[count];
+      referenceUsed = new boolean[count];
+    }
+    int xFrom = scaleFrom(template.getXResolution(), xResolution);
+    int yFrom = scaleFrom(template.getYResolution(), yResolution);
+    int first = count == Constants.ZERO ? Constants.ZERO : template.firstMinutia(Constants.ZERO);
+    for (int i = Constants.ZERO; i < count; i++) {
+      referenceX[i] = template.x(first + i) * xResolution / xFrom;
+      referenceY[i] = template.y(first + i) * yResolution / yFrom;
+      referenceAngle[i] = template.isoAngle(first + i);
+    }
+    return count;
+  }
+
+  /**
+   * Divisor para escalar la referencia: su resolución, o la de la muestra (sin escalar) si
+   * alguna de las dos no viene informada.
+   */
+  private static int scaleFrom(int referenceResolution, int probeResolution) {
+    return referenceResolution == Constants.ZERO || probeResolution == Constants.ZERO
+            ? Math.max(Constants.ONE, probeResolution) : referenceResolution;
+  }
+
+  private static int firstViewCount(MinutiaeTemplate template) {
+    return template.getViewCount() == Constants.ZERO
+            ? Constants.ZERO : template.minutiaeCount(Constants.ZERO);
+  }
+
+  private void vote(int probeCount, int referenceCount) {
+    if (++stamp == Constants.ZERO) {
+      Arrays.fill(votes, Constants.ZERO);
+      stamp = Constants.ONE;
+    }
+    usedCount = Constants.ZERO;
+    for (int i = Constants.ZERO; i < probeCount; i++) {
+      int x = probeX[i];
+      int y = probeY[i];
+      int angle = probeAngle[i];
+      for (int j = Constants.ZERO; j < referenceCount; j++) {
+        int rotation = (referenceAngle[j] - angle) & ANGLE_MASK;
+        float cos = COS[rotation];
+        float sin = SIN[rotation];
+        int dx = referenceX[j] - (int) (x * cos + y * sin);
+        int dy = referenceY[j] - (int) (y * cos - x * sin);
+        int key = (rotation >>> Constants.MATCH_ROTATION_BIN_SHIFT) << ROTATION_KEY_SHIFT
+                | ((dx >> Constants.MATCH_TRANSLATION_BIN_SHIFT) & TRANSLATION_MASK) << TRANSLATION_BITS
+                | (dy >> Constants.MATCH_TRANSLATION_BIN_SHIFT) & TRANSLATION_MASK;
+        int slot = (key * HASH_MULTIPLIER) >>> HASH_SHIFT;
+        int cell = slot << CELL_SHIFT;
+        while (votes[cell + STAMP] == stamp && votes[cell + KEY] != key) {
+          slot = (slot + Constants.ONE) & TABLE_MASK;
+          cell = slot << CELL_SHIFT;
+        }
+        if (votes[cell + STAMP] != stamp) {
+          if (usedCount == TABLE_MAX_LOAD) continue;
+          votes[cell + STAMP] = stamp;
+          votes[cell + KEY] = key;
+          votes[cell + COUNT] = Constants.ZERO;
+          votes[cell + ROTATION] = Constants.ZERO;
+          votes[cell + DX] = Constants.ZERO;
+          votes[cell + DY] = Constants.ZERO;
+          usedSlots[usedCount++] = cell;
+        }
+        votes[cell + COUNT]++;
+        votes[cell + ROTATION] += rotation & ROTATION_REMAINDER_MASK;
+        votes[cell + DX] += dx;
+        votes[cell + DY] += dy;
+      }
+    }
+  }
+
+  /**
+   * Las {@link Constants#MATCH_PEAKS} celdas más votadas, de más a menos votos.
+   *
+   * @return cuántas hay (menos si se votaron menos celdas).
+   */
+  private int findPeaks() {
+    int found = Constants.ZERO;
+    for (int used = Constants.ZERO; used < usedCount; used++) {
+      int cell = usedSlots[used];
+      int count = votes[cell + COUNT];
+      if (found == Constants.MATCH_PEAKS && count <= votes[peaks[found - Constants.ONE] + COUNT]) {
+        continue;
+      }
+      int position = found < Constants.MATCH_PEAKS ? found++ : found - Constants.ONE;
+      while (position > Constants.ZERO && votes[peaks[position - Constants.ONE] + COUNT] < count) {
+        peaks[position] = peaks[position - Constants.ONE];
+        position--;
+      }
+      peaks[position] = cell;
+    }
+    return found;
+  }
+
+  /**
+   * Minucias emparejadas con la alineación media de los votos de la celda: cada minucia de la
+   * muestra toma la de la referencia más cercana aún libre dentro de tolerancia.
+   */
+  private int pair(int cell, int probeCount, int referenceCount) {
+    int count = votes[cell + COUNT];
+    int rotation = ((votes[cell + KEY] >>> ROTATION_KEY_SHIFT) << Constants.MATCH_ROTATION_BIN_SHIFT)
+            + votes[cell + ROTATION] / count & ANGLE_MASK;
+    float cos = COS[rotation];
+    float sin = SIN[rotation];
+    float dx = (float) votes[cell + DX] / count;
+    float dy = (float) votes[cell + DY] / count;
+    Arrays.fill(referenceUsed, Constants.ZERO, referenceCount, false);
+    int matched = Constants.ZERO;
+    for (int i = Constants.ZERO; i < probeCount; i++) {
+      float x = probeX[i] * cos + probeY[i] * sin + dx;
+      float y = probeY[i] * cos - probeX[i] * sin + dy;
+      int angle = probeAngle[i] + rotation;
+      int best = -Constants.ONE;
+      float bestDistance = DISTANCE_TOLERANCE_SQUARED;
+      for (int j = Constants.ZERO; j < referenceCount; j++) {
+        if (referenceUsed[j]) continue;
+        float ex = referenceX[j] - x;
+        float ey = referenceY[j] - y;
+        float distance = ex * ex + ey * ey;
+        if (distance > bestDistance) continue;
+        int turn = (referenceAngle[j] - angle) & ANGLE_MASK;
+        if (Math.min(turn, Constants.ISO_ANGLE_STEPS - turn) <= Constants.MATCH_ANGLE_TOLERANCE) {
+          best = j;
+          bestDistance = distance;
+        }
+      }
+      if (best >= Constants.ZERO) {
+        referenceUsed[best] = true;
+        matched++;
+      }
+    }
+    return matched;
+  }
+}
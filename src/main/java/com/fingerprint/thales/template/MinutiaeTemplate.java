@@ -0,0 +1,346 @@
+package com.fingerprint.thales.template;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Vista de un registro de minucias ISO 19794-2:2005, ANSI INCITS 378-2004 o INE sobre un
+ * {@link ByteBuffer}.
+ * <p>
+ * {@link #wrap(ByteBuffer)} recorre el registro una vez y deja las minucias en arreglos
+ * primitivos (tipo, x, y, ángulo, calidad), sin un objeto por minucia; los datos extendidos de
+ * cada vista no se copian, solo se anotan su posición y longitud en el buffer. La misma instancia
+ * se reutiliza entre registros y sus arreglos solo crecen, así que analizar un template no reserva
+ * memoria en régimen estable. No es thread-safe, y el buffer no debe cambiar mientras la vista
+ * esté en uso.
+ * <p>
+ * Los ángulos se guardan en la unidad del formato de origen ({@link #angle(int)}):
+ * 360/256° en ISO y 2° en ANSI / INE. {@link #isoAngle(int)} y {@link #ansiAngle(int)} los
+ * devuelven convertidos.
+ */
+@Getter
+public final class MinutiaeTemplate {
+
+  private static final int LENGTH_OFFSET = 8;
+
+  private static final int ANSI_LONG_LENGTH_OFFSET = 10;
+
+  private static final int BYTE_MASK = 0xFF;
+
+  private static final int SHORT_MASK = 0xFFFF;
+
+  private ByteBuffer buffer;
+
+  /** Índice absoluto del inicio del registro en {@link #buffer}. */
+  private int offset;
+
+  private TemplateFormatEnum format;
+
+  /** Longitud del registro en bytes, según su cabecera. */
+  private int length;
+
+  /** CBEFF product owner (solo ANSI / INE; 0 en ISO). */
+  private int cbeffOwner;
+
+  /** CBEFF product type (solo ANSI / INE; 0 en ISO). */
+  private int cbeffType;
+
+  /** Equipo de captura: certificación (4 bits) e identificador (12 bits). */
+  private int equipment;
+
+  private int width;
+
+  private int height;
+
+  /** Resolución horizontal en píxeles por centímetro. */
+  private int xResolution;
+
+  /** Resolución vertical en píxeles por centímetro. */
+  private int yResolution;
+
+  private int viewCount;
+
+  /** Total de minucias de todas las vistas. */
+  private int minutiaeCount;
+
+  // Por vista.
+  @Getter(AccessLevel.NONE)
+  private int[] fingerPositions = new int[Constants.ONE];
+  @Getter(AccessLevel.NONE)
+  private int[] viewNumbers = new int[Constants.ONE];
+  @Getter(AccessLevel.NONE)
+  private int[] impressionTypes = new int[Constants.ONE];
+  @Getter(AccessLevel.NONE)
+  private int[] fingerQualities = new int[Constants.ONE];
+  @Getter(AccessLevel.NONE)
+  private int[] viewFirstMinutia = new int[Constants.ONE];
+  @Getter(AccessLevel.NONE)
+  private int[] viewMinutiae = new int[Constants.ONE];
+  @Getter(AccessLevel.NONE)
+  private int[] extendedDataOffsets = new int[Constants.ONE];
+  @Getter(AccessLevel.NONE)
+  private int[] extendedDataLengths = new int[Constants.ONE];
+
+  // Por minucia; las de la vista v empiezan en viewFirstMinutia[v].
+  @Getter(AccessLevel.NONE)
+  private int[] types = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  @Getter(AccessLevel.NONE)
+  private int[] xs = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  @Getter(AccessLevel.NONE)
+  private int[] ys = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  @Getter(AccessLevel.NONE)
+  private int[] angles = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+  @Getter(AccessLevel.NONE)
+  private int[] qualities = new int[Constants.INITIAL_MINUTIAE_CAPACITY];
+
+  /**
+   * Analiza el registro que empieza en la posición actual de {@code buffer} (la posición y el
+   * orden de bytes del buffer no cambian). El formato se detecta por la cabecera.
+   *
+   * @return esta misma vista.
+   * @throws IllegalArgumentException si el registro no es ISO / ANSI o está truncado.
+   */
+  public MinutiaeTemplate wrap(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.offset = buffer.position();
+    int available = buffer.remaining();
+    this.format = detect(buffer, offset, available);
+    int cursor = offset + LENGTH_OFFSET;
+    if (format == TemplateFormatEnum.ISO) {
+      length = (int) u32(buffer, cursor);
+      cursor += Constants.FOUR;
+      cbeffOwner = Constants.ZERO;
+      cbeffType = Constants.ZERO;
+    } else {
+      length = u16(buffer, cursor);
+      cursor += Constants.TWO;
+      if (length == Constants.ZERO) {
+        length = (int) u32(buffer, cursor);
+        cursor += Constants.FOUR;
+      }
+      cbeffOwner = u16(buffer, cursor);
+      cbeffType = u16(buffer, cursor + Constants.TWO);
+      cursor += Constants.FOUR;
+    }
+    equipment = u16(buffer, cursor);
+    width = u16(buffer, cursor + 2);
+    height = u16(buffer, cursor + 4);
+    xResolution = u16(buffer, cursor + 6);
+    yResolution = u16(buffer, cursor + 8);
+    viewCount = u8(buffer, cursor + 10);
+    cursor += 12;
+    ensureViewCapacity(viewCount);
+
+    int end = offset + length;
+    int minutia = Constants.ZERO;
+    for (int view = Constants.ZERO; view < viewCount; view++) {
+      require(cursor + Constants.ISO_VIEW_HEADER_LENGTH <= end, view);
+      fingerPositions[view] = u8(buffer, cursor);
+      int numberAndImpression = u8(buffer, cursor + 1);
+      viewNumbers[view] = numberAndImpression >>> Constants.VIEW_NUMBER_SHIFT;
+      impressionTypes[view] = numberAndImpression & Constants.IMPRESSION_TYPE_MASK;
+      fingerQualities[view] = u8(buffer, cursor + 2);
+      int count = u8(buffer, cursor + 3);
+      cursor += Constants.ISO_VIEW_HEADER_LENGTH;
+      require(cursor + count * Constants.ISO_MINUTIA_LENGTH + Constants.TWO <= end, view);
+      ensureMinutiaeCapacity(minutia + count);
+      viewFirstMinutia[view] = minutia;
+      viewMinutiae[view] = count;
+      for (int i = Constants.ZERO; i < count; i++, minutia++) {
+        int typeAndX = u16(buffer, cursor);
+        types[minutia] = typeAndX >>> Constants.MINUTIA_TYPE_SHIFT;
+        xs[minutia] = typeAndX & Constants.MINUTIA_COORDINATE_MASK;
+        ys[minutia] = u16(buffer, cursor + 2) & Constants.MINUTIA_COORDINATE_MASK;
+        angles[minutia] = u8(buffer, cursor + 4);
+        qualities[minutia] = u8(buffer, cursor + 5);
+        cursor += Constants.ISO_MINUTIA_LENGTH;
+      }
+      int extended = u16(buffer, cursor);
+      cursor += Constants.TWO;
+      require(cursor + extended <= end, view);
+      extendedDataOffsets[view] = cursor;
+      extendedDataLengths[view] = extended;
+      cursor += extended;
+    }
+    minutiaeCount = minutia;
+    return this;
+  }
+
+  /**
+   * Formato del registro que empieza en {@code offset}, sin analizarlo.
+   * <p>
+   * ISO y ANSI comparten el identificador {@code FMR\0} y la versión; se distinguen por el campo
+   * de longitud, de 4 bytes en ISO y de 2 (o 0 seguido de 4) en ANSI. Si los dos encajan con los
+   * bytes disponibles se prefiere el que coincide exactamente. INE es el ANSI con el CBEFF de INE.
+   *
+   * @throws IllegalArgumentException si no es un registro de minucias reconocible.
+   */
+  public static TemplateFormatEnum detect(ByteBuffer buffer, int offset, int available) {
+    if (available < Constants.ISO_HEADER_LENGTH
+            || u8(buffer, offset) != 'F' || u8(buffer, offset + 1) != 'M'
+            || u8(buffer, offset + 2) != 'R' || u8(buffer, offset + 3) != Constants.ZERO) {
+      throw new IllegalArgumentException("El template no es un registro FMR de minucias");
+    }
+    long isoLength = u32(buffer, offset + LENGTH_OFFSET);
+    long ansiLength = u16(buffer, offset + LENGTH_OFFSET);
+    int ansiHeader = Constants.ANSI_HEADER_LENGTH;
+    if (ansiLength == Constants.ZERO && available >= ANSI_LONG_LENGTH_OFFSET + Constants.FOUR) {
+      ansiLength = u32(buffer, offset + ANSI_LONG_LENGTH_OFFSET);
+      ansiHeader += Constants.ANSI_LONG_LENGTH_EXTRA;
+    }
+    boolean iso = isoLength >= Constants.ISO_HEADER_LENGTH && isoLength <= available;
+    boolean ansi = ansiLength >= ansiHeader && ansiLength <= available;
+    if (iso && (!ansi || isoLength == available)) {
+      return TemplateFormatEnum.ISO;
+    }
+    if (!ansi) {
+      throw new IllegalArgumentException(
+              "Longitud del template no válida para " + available + " bytes disponibles");
+    }
+    int cbeff = offset + LENGTH_OFFSET + Constants.TWO + ansiHeader - Constants.ANSI_HEADER_LENGTH;
+    return u16(buffer, cbeff) == Constants.INE_CBEFF_OWNER
+            && u16(buffer, cbeff + Constants.TWO) == Constants.INE_CBEFF_TYPE
+            ? TemplateFormatEnum.INE : TemplateFormatEnum.ANSI;
+  }
+
+  public int fingerPosition(int view) {
+    return fingerPositions[view];
+  }
+
+  public int viewNumber(int view) {
+    return viewNumbers[view];
+  }
+
+  public int impressionType(int view) {
+    return impressionTypes[view];
+  }
+
+  public int fingerQuality(int view) {
+    return fingerQualities[view];
+  }
+
+  /**
+   * Índice de la primera minucia de la vista.
+   */
+  public int firstMinutia(int view) {
+    return viewFirstMinutia[view];
+  }
+
+  public int minutiaeCount(int view) {
+    return viewMinutiae[view];
+  }
+
+  /**
+   * Índice absoluto en {@link #getBuffer()} de los datos extendidos de la vista.
+   */
+  public int extendedDataOffset(int view) {
+    return extendedDataOffsets[view];
+  }
+
+  public int extendedDataLength(int view) {
+    return extendedDataLengths[view];
+  }
+
+  /**
+   * Tipo de minucia: 1 terminación, 2 bifurcación, 0 otra.
+   */
+  public int type(int minutia) {
+    return types[minutia];
+  }
+
+  public int x(int minutia) {
+    return xs[minutia];
+  }
+
+  public int y(int minutia) {
+    return ys[minutia];
+  }
+
+  /**
+   * Ángulo en la unidad del formato de origen.
+   */
+  public int angle(int minutia) {
+    return angles[minutia];
+  }
+
+  /**
+   * Ángulo en unidades ISO (360/256°, de 0 a 255).
+   */
+  public int isoAngle(int minutia) {
+    return format.isAnsi() ? ansiToIsoAngle(angles[minutia]) : angles[minutia];
+  }
+
+  /**
+   * Ángulo en unidades ANSI (2°, de 0 a 179).
+   */
+  public int ansiAngle(int minutia) {
+    return format.isAnsi() ? angles[minutia] : isoToAnsiAngle(angles[minutia]);
+  }
+
+  public int quality(int minutia) {
+    return qualities[minutia];
+  }
+
+  /**
+   * Unidades ISO (360/256°) a unidades ANSI (2°), redondeando al más cercano.
+   */
+  public static int isoToAnsiAngle(int iso) {
+    // iso * (360 / 256) / 2 = iso * 45 / 64
+    return ((iso * 90 + 64) >> 7) % Constants.ANSI_ANGLE_STEPS;
+  }
+
+  /**
+   * Unidades ANSI (2°) a unidades ISO (360/256°), redondeando al más cercano.
+   */
+  public static int ansiToIsoAngle(int ansi) {
+    // ansi * 2 / (360 / 256) = ansi * 64 / 45
+    return ((ansi * 128 + 45) / 90) % Constants.ISO_ANGLE_STEPS;
+  }
+
+  private void ensureViewCapacity(int views) {
+    if (fingerPositions.length >= views) return;
+    fingerPositions = Arrays.copyOf(fingerPositions, views);
+    viewNumbers = Arrays.copyOf(viewNumbers, views);
+    impressionTypes = Arrays.copyOf(impressionTypes, views);
+    fingerQualities = Arrays.copyOf(fingerQualities, views);
+    viewFirstMinutia = Arrays.copyOf(viewFirstMinutia, views);
+    viewMinutiae = Arrays.copyOf(viewMinutiae, views);
+    extendedDataOffsets = Arrays.copyOf(extendedDataOffsets, views);
+    extendedDataLengths = Arrays.copyOf(extendedDataLengths, views);
+  }
+
+  private void ensureMinutiaeCapacity(int minutiae) {
+    if (types.length >= minutiae) return;
+    int capacity = Math.max(minutiae, types.length * Constants.TWO);
+    types = Arrays.copyOf(types, capacity);
+    xs = Arrays.copyOf(xs, capacity);
+    ys = Arrays.copyOf(ys, capacity);
+    angles = Arrays.copyOf(angles, capacity);
+    qualities = Arrays.copyOf(qualities, capacity);
+  }
+
+  private void require(boolean condition, int view) {
+    if (!condition) {
+      throw new IllegalArgumentException(
+              "Template " + format + " truncado en la vista " + view + " (" + length + " bytes)");
+    }
+  }
+
+  // Lecturas big-endian byte a byte: no dependen del orden configurado en el buffer.
+
+  private static int u8(ByteBuffer buffer, int index) {
+    return buffer.get(index) & BYTE_MASK;
+  }
+
+  private static int u16(ByteBuffer buffer, int index) {
+    return (u8(buffer, index) << 8 | u8(buffer, index + 1)) & SHORT_MASK;
+  }
+
+  private static long u32(ByteBuffer buffer, int index) {
+    return (long) u16(buffer, index) << 16 | u16(buffer, index + 2);
+  }
+}
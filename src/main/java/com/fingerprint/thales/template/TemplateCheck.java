@@ -0,0 +1,9 @@
+package com.fingerprint.thales.template;
+
+/**
+ * Comparación que acompaña a una captura y se ejecuta en cuanto se extrae el template, sobre la
+ * vista ISO ya analizada: verificación 1:1 ({@link Verification}) o identificación 1:N
+ * ({@link com.fingerprint.thales.gallery.Identification}).
+ */
+public interface TemplateCheck {
+}
@@ -0,0 +1,146 @@
+package com.fingerprint.thales.template;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Escribe un {@link MinutiaeTemplate} en formato ISO 19794-2:2005, ANSI INCITS 378-2004 o INE.
+ * <p>
+ * Cada registro se escribe en una sola pasada desde la vista: cabecera con la longitud ya
+ * calculada, y por cada vista sus minucias (con el ángulo convertido si cambia la unidad) y sus
+ * datos extendidos, copiados tal cual del buffer de origen. A diferencia de
+ * {@link com.fingerprint.thales.utils.BiometricAdapter#adapterINE(byte[])}, la cabecera se
+ * reescribe entera, así que la longitud y la posición de cada campo corresponden al formato de
+ * destino.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TemplateCodec {
+
+  private static final byte[] FMR_MAGIC = {'F', 'M', 'R', 0};
+
+  private static final byte[] FMR_VERSION_20 = {' ', '2', '0', 0};
+
+  /**
+   * Bytes que ocupa la vista escrita en {@code format}.
+   */
+  public static int encodedLength(MinutiaeTemplate template, TemplateFormatEnum format) {
+    int length = format.isAnsi() ? Constants.ANSI_HEADER_LENGTH : Constants.ISO_HEADER_LENGTH;
+    for (int view = Constants.ZERO; view < template.getViewCount(); view++) {
+      length += Constants.ISO_VIEW_HEADER_LENGTH
+              + template.minutiaeCount(view) * Constants.ISO_MINUTIA_LENGTH
+              + Constants.TWO + template.extendedDataLength(view);
+    }
+    if (format.isAnsi() && length > Constants.ANSI_SHORT_LENGTH_MAX) {
+      length += Constants.ANSI_LONG_LENGTH_EXTRA;
+    }
+    return length;
+  }
+
+  /**
+   * Escribe la vista en {@code format} a partir de la posición actual de {@code out}, que
+   * avanza lo escrito. El orden de bytes de {@code out} se respeta al terminar.
+   *
+   * @return bytes escritos.
+   * @throws IllegalArgumentException si no cabe en lo que queda de {@code out}.
+   */
+  public static int encode(MinutiaeTemplate template, TemplateFormatEnum format, ByteBuffer out) {
+    int length = encodedLength(template, format);
+    if (out.remaining() < length) {
+      throw new IllegalArgumentException(
+              "El template " + format + " ocupa " + length + " bytes y quedan " + out.remaining());
+    }
+    ByteOrder order = out.order();
+    out.order(ByteOrder.BIG_ENDIAN);
+    try {
+      writeHeader(template, format, length, out);
+      boolean convertAngles = template.getFormat().isAnsi() != format.isAnsi();
+      ByteBuffer source = template.getBuffer();
+      for (int view = Constants.ZERO; view < template.getViewCount(); view++) {
+        int count = template.minutiaeCount(view);
+        out.put((byte) template.fingerPosition(view));
+        out.put((byte) (template.viewNumber(view) << Constants.VIEW_NUMBER_SHIFT
+                | template.impressionType(view)));
+        out.put((byte) template.fingerQuality(view));
+        out.put((byte) count);
+        int first = template.firstMinutia(view);
+        for (int i = first; i < first + count; i++) {
+          int angle = template.angle(i);
+          if (convertAngles) {
+            angle = format.isAnsi()
+                    ? MinutiaeTemplate.isoToAnsiAngle(angle)
+                    : MinutiaeTemplate.ansiToIsoAngle(angle);
+          }
+          out.putShort((short) (template.type(i) << Constants.MINUTIA_TYPE_SHIFT | template.x(i)));
+          out.putShort((short) template.y(i));
+          out.put((byte) angle);
+          out.put((byte) template.quality(i));
+        }
+        int extended = template.extendedDataLength(view);
+        out.putShort((short) extended);
+        out.put(out.position(), source, template.extendedDataOffset(view), extended);
+        out.position(out.position() + extended);
+      }
+    } finally {
+      out.order(order);
+    }
+    return length;
+  }
+
+  /**
+   * La vista escrita en {@code format}, en un arreglo del tamaño exacto.
+   */
+  public static byte[] encode(MinutiaeTemplate template, TemplateFormatEnum format) {
+    byte[] encoded = new byte[encodedLength(template, format)];
+    encode(template, format, ByteBuffer.wrap(encoded));
+    return encoded;
+  }
+
+  /**
+   * La vista escrita en cada uno de los formatos pedidos, sin volver a analizar el origen.
+   */
+  public static Map<TemplateFormatEnum, byte[]> encode(MinutiaeTemplate template,
+                                                       Set<TemplateFormatEnum> formats) {
+    var encoded = new EnumMap<TemplateFormatEnum, byte[]>(TemplateFormatEnum.class);
+    for (TemplateFormatEnum format : formats) {
+      encoded.put(format, encode(template, format));
+    }
+    return encoded;
+  }
+
+  private static void writeHeader(MinutiaeTemplate template, TemplateFormatEnum format,
+                                  int length, ByteBuffer out) {
+    out.put(FMR_MAGIC).put(FMR_VERSION_20);
+    int equipment = template.getEquipment();
+    if (format == TemplateFormatEnum.ISO) {
+      out.putInt(length);
+    } else {
+      if (length > Constants.ANSI_SHORT_LENGTH_MAX) {
+        out.putShort((short) Constants.ZERO).putInt(length);
+      } else {
+        out.putShort((short) length);
+      }
+      int owner = Constants.ZERO;
+      int type = Constants.ZERO;
+      if (format == TemplateFormatEnum.INE) {
+        owner = Constants.INE_CBEFF_OWNER;
+        type = Constants.INE_CBEFF_TYPE;
+        equipment = Constants.ZERO;
+      } else if (template.getFormat() == TemplateFormatEnum.ANSI) {
+        owner = template.getCbeffOwner();
+        type = template.getCbeffType();
+      }
+      out.putShort((short) owner).putShort((short) type);
+    }
+    out.putShort((short) equipment);
+    out.putShort((short) template.getWidth()).putShort((short) template.getHeight());
+    out.putShort((short) template.getXResolution()).putShort((short) template.getYResolution());
+    out.put((byte) template.getViewCount()).put(Constants.ZERO_B);
+  }
+}
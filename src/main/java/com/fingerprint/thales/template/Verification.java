@@ -0,0 +1,44 @@
+package com.fingerprint.thales.template;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Verificación 1:1 pedida junto con una captura: el template de referencia que trae el llamante,
+ * ya analizado, y el umbral de coincidencia.
+ *
+ * @param reference Template de referencia (ISO, ANSI o INE).
+ * @param threshold Puntuación mínima (0-100) para considerar que la huella coincide.
+ */
+public record Verification(MinutiaeTemplate reference, int threshold) implements TemplateCheck {
+
+  /**
+   * Analiza la referencia en Base64. En la query string un {@code +} sin codificar llega como
+   * espacio, así que los espacios se leen como {@code +}.
+   *
+   * @return la verificación, o null si no se indicó referencia.
+   * @throws AcquisitionException PARAMETER si la referencia no es un template válido.
+   */
+  public static Verification parse(String base64, int threshold) {
+    if (base64 == null || base64.isBlank()) return null;
+    try {
+      byte[] template = Base64.getDecoder().decode(base64.trim().replace(' ', '+'));
+      var reference = new MinutiaeTemplate().wrap(ByteBuffer.wrap(template));
+      if (reference.getViewCount() == Constants.ZERO) {
+        throw new IllegalArgumentException("El template de referencia no tiene vistas");
+      }
+      return new Verification(reference, threshold);
+    } catch (IllegalArgumentException e) {
+      throw new AcquisitionException(AcquisitionException.ErrorCode.PARAMETER, e);
+    }
+  }
+
+  /**
+   * Indica si la puntuación alcanza el umbral.
+   */
+  public boolean matches(int score) {
+    return score >= threshold;
+  }
+}
@@ -2,6 +2,8 @@ package com.fingerprint.thales.utils;
 
 import com.fingerprint.thales.constants.Constants;
 import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.jfr.FlightRecording;
+import com.fingerprint.thales.metrics.Metrics;
 import com.fingerprint.thales.model.ResponseError;
 import lombok.experimental.UtilityClass;
 import org.slf4j.Logger;
@@ -13,7 +15,9 @@ import org.slf4j.Logger;
 public class ExceptionMapper {
 
   /**
-   * Mapea una excepción a un ResponseError y la registra en el log.
+   * Mapea una excepción a un ResponseError, la registra en el log y la cuenta en
+   * {@link Metrics} por código de error. Los errores de adquisición vuelcan además la
+   * grabación JFR continua ({@link FlightRecording}), si está activa.
    *
    * @param log       Logger para registrar la excepción.
    * @param throwable Excepción a mapear.
@@ -25,10 +29,13 @@ public class ExceptionMapper {
       final var code = errorCode.getCode();
       final var msg = errorCode.getMessage();
       log.error(Constants.ACQUISITION_EXCEPTION_LOG, code, msg, ae);
+      Metrics.error(errorCode);
+      FlightRecording.dumpOnError(ae);
       return ResponseError.from(ae);
     }
 
     log.error(Constants.EXCEPTION, throwable);
+    Metrics.error(AcquisitionException.ErrorCode.UNKNOWN);
     return ResponseError.fromUnknown(throwable);
   }
 
@@ -6,11 +6,11 @@ import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JA
 import com.fingerprint.thales.constants.Constants;
 import com.fingerprint.thales.exception.AcquisitionException;
 import com.fingerprint.thales.exception.AcquisitionException.ErrorCode;
-import com.sun.jna.Pointer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,22 +19,57 @@ import lombok.extern.slf4j.Slf4j;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class GbmsApiDeviceUtil {
 
-  private static final Map<Integer, String> DIAGNOSTIC_MESSAGES = Map.ofEntries(
-          Map.entry(GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_SCANNER_SURFACE_NOT_NORMA,
-                  "SUPERFICIE DEL ESCANER SUCIA"),
-          Map.entry(GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_SCANNER_FAILURE,
-                  "FALLA EN EL ILUMINADOR"),
-          Map.entry(GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_DRY_FINGER,
-                  "DEDO SECO"),
-          Map.entry(GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_WET_FINGER,
-                  "DEDO HUMEDO"),
-          Map.entry(GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_EXT_LIGHT_TOO_STRONG,
-                  "LUZ EXTERNA DEMASIADO INTENSA"));
+  /**
+   * Tablas precalculadas de diagnósticos visibles: bit del SDK y su mensaje, en paralelo.
+   */
+  private static final int[] DIAGNOSTIC_BITS = {
+          GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_SCANNER_SURFACE_NOT_NORMA,
+          GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_SCANNER_FAILURE,
+          GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_DRY_FINGER,
+          GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_WET_FINGER,
+          GBMSAPI_JAVA_DiagnosticMessages.GBMSAPI_JAVA_DM_EXT_LIGHT_TOO_STRONG
+  };
+
+  private static final String[] DIAGNOSTIC_MESSAGES = {
+          "SUPERFICIE DEL ESCANER SUCIA",
+          "FALLA EN EL ILUMINADOR",
+          "DEDO SECO",
+          "DEDO HUMEDO",
+          "LUZ EXTERNA DEMASIADO INTENSA"
+  };
+
+  private static final int DISPLAYABLE_DIAGNOSTICS_MASK = maskOf(DIAGNOSTIC_BITS);
 
   public static List<String> getDiagsToDisplay(int diagnostic) {
-    return DIAGNOSTIC_MESSAGES.entrySet().stream()
-            .filter(entry -> (diagnostic & entry.getKey()) != Constants.ZERO)
-            .map(Map.Entry::getValue).toList();
+    var messages = new ArrayList<String>(DIAGNOSTIC_BITS.length);
+    forEachDiagnostic(diagnostic, messages::add);
+    return messages;
+  }
+
+  /**
+   * Filtra el valor de diagnóstico del SDK a los bits que tienen mensaje visible.
+   */
+  public static int displayableDiagnostics(int diagnostic) {
+    return diagnostic & DISPLAYABLE_DIAGNOSTICS_MASK;
+  }
+
+  /**
+   * Recorre los mensajes de los bits visibles presentes en {@code diagnostic}, sin asignar memoria.
+   */
+  public static void forEachDiagnostic(int diagnostic, Consumer<String> action) {
+    int bits = displayableDiagnostics(diagnostic);
+    for (int i = Constants.ZERO; i < DIAGNOSTIC_BITS.length && bits != Constants.ZERO; i++) {
+      if ((bits & DIAGNOSTIC_BITS[i]) != Constants.ZERO) {
+        action.accept(DIAGNOSTIC_MESSAGES[i]);
+        bits &= ~DIAGNOSTIC_BITS[i];
+      }
+    }
+  }
+
+  private static int maskOf(int[] bits) {
+    int mask = Constants.ZERO;
+    for (int bit : bits) mask |= bit;
+    return mask;
   }
 
   private static final Map<Byte, String> DEVICE_NAMES = new HashMap<>();
@@ -90,15 +125,8 @@ public class GbmsApiDeviceUtil {
     return new String(binary);
   }
 
-  public static byte[] getImageBytesFromFramePtr(Pointer framePtr, int width, int height) {
-    try {
-      return framePtr.getByteArray(0L, width * height);
-    } catch (Exception ex) {
-      return new byte[Constants.ZERO];
-    }
-  }
-
   public static void decodeEventFlags(int info) {
+    if (!log.isDebugEnabled()) return;
     var flags = new ArrayList<String>();
     if ((info & GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_ACQUISITION_PHASE) != Constants.ZERO)
       flags.add(Constants.FLAG_ACQUISITION_PHASE);
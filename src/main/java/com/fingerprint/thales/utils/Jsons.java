@@ -1,9 +1,16 @@
 package com.fingerprint.thales.utils;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.MetricPhaseEnum;
+import com.fingerprint.thales.metrics.Metrics;
 import com.fingerprint.thales.model.ResponseError;
 import java.util.Map;
 import lombok.NoArgsConstructor;
@@ -24,24 +31,57 @@ public final class Jsons {
           .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
           .setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
+  /**
+   * Writer "pretty" reutilizable (los ObjectWriter son inmutables y thread-safe).
+   */
+  private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+  /**
+   * Factory para los generadores de {@link ResponseWriter}: sin separador entre valores raíz,
+   * el salto de línea lo escribe el propio writer.
+   */
+  private static final JsonFactory STREAM_FACTORY = new JsonFactoryBuilder()
+          .rootValueSeparator((String) null)
+          .build();
+
   /**
    * Convierte el Object a un String JSON con formato "pretty" (con saltos de
    * línea y sangrías). Si el objeto es una instancia de ResponseError, se
    * formatea el mensaje de error para incluir el código de error.
    */
   public static String toPrettyJson(Object value) {
+    long start = System.nanoTime();
     try {
       if (value instanceof ResponseError err) {
-        return MAPPER.writerWithDefaultPrettyPrinter()
-                .writeValueAsString(Map.of(Constants.ERROR, err.idemiaErrorMessage()));
+        return PRETTY_WRITER.writeValueAsString(Map.of(Constants.ERROR, err.idemiaErrorMessage()));
       }
-      return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(value);
+      return PRETTY_WRITER.writeValueAsString(value);
     } catch (Exception e) {
       log.error(Constants.LOG_ERR_JSON_SERIALIZE_PRETTY, safeClass(value), e);
       return Constants.ERROR_MAPPER;
+    } finally {
+      Metrics.recordSince(MetricPhaseEnum.JSON_OUTPUT, start);
     }
   }
 
+  /**
+   * Writer compacto compartido, con la misma configuración que el mapper.
+   */
+  static ObjectWriter writer() {
+    return MAPPER.writer();
+  }
+
+  /**
+   * Reader reutilizable para el tipo indicado; ignora campos desconocidos.
+   */
+  public static ObjectReader readerFor(Class<?> type) {
+    return MAPPER.readerFor(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+
+  static JsonFactory factory() {
+    return STREAM_FACTORY;
+  }
+
   /**
    * Devuelve el nombre de la clase del objeto, o "null" si el objeto es nulo.
    */
@@ -22,4 +22,12 @@ public class LogLevels {
     root.setLevel(logsEnabled ? Level.INFO : Level.WARN);
   }
 
+  /**
+   * Detiene logback vaciando las colas de los appenders asíncronos, de modo que el JSON de
+   * resultado queda escrito antes de terminar el proceso. Después no se registra nada más.
+   */
+  public static void shutdown() {
+    ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+  }
+
 }
@@ -0,0 +1,176 @@
+package com.fingerprint.thales.utils;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.Separators;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.MetricPhaseEnum;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import com.fingerprint.thales.metrics.Metrics;
+import com.fingerprint.thales.model.Candidate;
+import com.fingerprint.thales.model.FingerResult;
+import com.fingerprint.thales.model.ResponseBatch;
+import com.fingerprint.thales.model.ResponseError;
+import com.fingerprint.thales.model.ResponseOk;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Escribe las respuestas directamente sobre un {@link OutputStream}, una por línea.
+ * <p>
+ * A diferencia de {@link Jsons#toPrettyJson(Object)} no construye el JSON como String: reutiliza
+ * un único {@link JsonGenerator} y codifica el template en Base64 mientras lo escribe.
+ * El formato de cada respuesta es el mismo que el de la CLI ({@code Fingerprint} /
+ * {@code Templates} / {@code Score} / {@code Match} / {@code Candidates} / {@code Enrolled} /
+ * {@code Error} / {@code Fingers});
+ * en modo compacto ocupa una sola línea.
+ * <p>
+ * El stream no se cierra al cerrar el writer.
+ */
+public final class ResponseWriter implements Flushable, AutoCloseable {
+
+  private final JsonGenerator generator;
+
+  private final ObjectWriter objectWriter;
+
+  /**
+   * @param out     Destino de las respuestas (p. ej. System.out).
+   * @param compact true para una respuesta por línea; false para el formato "pretty" de la CLI.
+   */
+  public ResponseWriter(OutputStream out, boolean compact) throws IOException {
+    this.generator = Jsons.factory().createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    if (!compact) {
+      generator.setPrettyPrinter(new DefaultPrettyPrinter(
+              Separators.createDefaultInstance().withRootSeparator(null)));
+    }
+    this.objectWriter = Jsons.writer();
+  }
+
+  /**
+   * Escribe una respuesta seguida de salto de línea y hace flush.
+   * ResponseOk y ResponseError se escriben campo a campo; cualquier otro objeto se serializa
+   * con el ObjectWriter compartido.
+   */
+  public synchronized void write(Object value) throws IOException {
+    write(null, value);
+  }
+
+  /**
+   * Igual que {@link #write(Object)}, pero con el identificador de la solicitud como primer
+   * campo ({@code Id}) para respuestas que salen fuera de orden (modo batch). El identificador
+   * solo se escribe en ResponseOk, ResponseBatch y ResponseError.
+   *
+   * @param id Identificador de la solicitud, o null para omitirlo.
+   */
+  public synchronized void write(String id, Object value) throws IOException {
+    long start = System.nanoTime();
+    if (value instanceof ResponseOk ok) {
+      writeOk(id, ok);
+    } else if (value instanceof ResponseBatch batch) {
+      writeBatch(id, batch);
+    } else if (value instanceof ResponseError err) {
+      writeError(id, err);
+    } else {
+      objectWriter.writeValue(generator, value);
+    }
+    generator.writeRaw(Constants.NEW_LINE);
+    generator.flush();
+    Metrics.recordSince(MetricPhaseEnum.JSON_OUTPUT, start);
+  }
+
+  private void writeStart(String id) throws IOException {
+    generator.writeStartObject();
+    if (id != null) {
+      generator.writeStringField(Constants.REQUEST_ID, id);
+    }
+  }
+
+  private void writeOk(String id, ResponseOk ok) throws IOException {
+    writeStart(id);
+    byte[] template = ok.template();
+    if (template != null) {
+      generator.writeFieldName(Constants.FINGERPRINT);
+      generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, template, Constants.ZERO,
+              template.length);
+    } else if (ok.fingerprint() != null) {
+      generator.writeStringField(Constants.FINGERPRINT, ok.fingerprint());
+    }
+    writeTemplates(ok.templates());
+    if (ok.score() != null) {
+      generator.writeNumberField(Constants.SCORE, ok.score());
+      generator.writeBooleanField(Constants.MATCH, Boolean.TRUE.equals(ok.match()));
+    }
+    if (ok.candidates() != null) {
+      generator.writeArrayFieldStart(Constants.CANDIDATES);
+      for (Candidate candidate : ok.candidates()) {
+        generator.writeStartObject();
+        generator.writeStringField(Constants.REQUEST_ID, candidate.id());
+        generator.writeNumberField(Constants.SCORE, candidate.score());
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+    }
+    if (ok.enrolled() != null) {
+      generator.writeStringField(Constants.ENROLLED, ok.enrolled());
+    }
+    generator.writeEndObject();
+  }
+
+  private void writeBatch(String id, ResponseBatch batch) throws IOException {
+    writeStart(id);
+    generator.writeArrayFieldStart(Constants.FINGERS);
+    for (FingerResult finger : batch.fingers()) {
+      generator.writeStartObject();
+      generator.writeStringField(Constants.OBJECT, finger.object());
+      byte[] template = finger.template();
+      if (template != null) {
+        generator.writeFieldName(Constants.FINGERPRINT);
+        generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, template, Constants.ZERO,
+                template.length);
+      }
+      writeTemplates(finger.templates());
+      if (finger.error() != null) {
+        generator.writeStringField(Constants.ERROR, finger.error());
+      }
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+  }
+
+  /**
+   * Objeto {@code Templates}: un campo Base64 por formato adicional. Nada si no hay.
+   */
+  private void writeTemplates(Map<TemplateFormatEnum, byte[]> templates) throws IOException {
+    if (templates == null || templates.isEmpty()) return;
+    generator.writeObjectFieldStart(Constants.TEMPLATES);
+    for (var entry : templates.entrySet()) {
+      byte[] template = entry.getValue();
+      generator.writeFieldName(entry.getKey().getValue());
+      generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, template, Constants.ZERO,
+              template.length);
+    }
+    generator.writeEndObject();
+  }
+
+  private void writeError(String id, ResponseError err) throws IOException {
+    writeStart(id);
+    generator.writeStringField(Constants.ERROR, err.idemiaErrorMessage());
+    generator.writeEndObject();
+  }
+
+  @Override
+  public synchronized void flush() throws IOException {
+    generator.flush();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    generator.close();
+  }
+}
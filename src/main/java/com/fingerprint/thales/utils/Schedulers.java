@@ -0,0 +1,53 @@
+package com.fingerprint.thales.utils;
+
+import com.fingerprint.thales.constants.Constants;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NoArgsConstructor;
+
+/**
+ * Planificador compartido para tareas cortas (timeouts de inactividad, diagnosticos).
+ * Un unico hilo daemon para todo el proceso: las capturas no crean hilos propios.
+ * Tambien crea los executors de un hilo por solicitud del modo servidor.
+ */
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class Schedulers {
+
+  private static final ScheduledThreadPoolExecutor SHARED = createShared();
+
+  /**
+   * Devuelve el planificador compartido.
+   */
+  public static ScheduledExecutorService shared() {
+    return SHARED;
+  }
+
+  /**
+   * Executor de un hilo por tarea para atender solicitudes que pasan casi todo el tiempo
+   * esperando la captura: un pool de hilos daemon que crece según la demanda y reutiliza los
+   * hilos libres.
+   *
+   * @param namePrefix prefijo del nombre de los hilos.
+   */
+  public static ExecutorService newPerTaskExecutor(String namePrefix) {
+    var counter = new AtomicLong();
+    return Executors.newCachedThreadPool(runnable -> {
+      var thread = new Thread(runnable, namePrefix + counter.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static ScheduledThreadPoolExecutor createShared() {
+    var executor = new ScheduledThreadPoolExecutor(Constants.ONE, runnable -> {
+      var thread = new Thread(runnable, Constants.SCHEDULER_THREAD_NAME);
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+}
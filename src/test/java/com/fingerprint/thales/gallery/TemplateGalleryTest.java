@@ -0,0 +1,81 @@
+package com.fingerprint.thales.gallery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.template.SyntheticMinutiae;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Recall de la identificación 1:N con una galería sintética: cada muestra es una recaptura de un
+ * template enrolado y el primer candidato debe ser ese template, también tras reabrir la galería
+ * desde disco.
+ */
+class TemplateGalleryTest {
+
+  private static final int SUBJECTS = 1000;
+
+  private static final int MINUTIAE = 40;
+
+  private static final int PROBES = 200;
+
+  private static final double MIN_RECALL = 0.95;
+
+  private static final int THRESHOLD = 30;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void recapturedProbesFindTheirTemplate() throws IOException {
+    var random = new Random(7);
+    int[][][] subjects = new int[SUBJECTS][][];
+    try (var gallery = TemplateGallery.open(directory, 2, Constants.GALLERY_DEFAULT_CANDIDATES)) {
+      for (int i = 0; i < SUBJECTS; i++) {
+        subjects[i] = SyntheticMinutiae.random(random, MINUTIAE);
+        gallery.append("S" + i, SyntheticMinutiae.iso(subjects[i]));
+      }
+      gallery.force();
+      assertRecall(gallery, subjects, random);
+    }
+
+    try (var reopened = TemplateGallery.open(directory, 2, Constants.GALLERY_DEFAULT_CANDIDATES)) {
+      assertEquals(SUBJECTS, reopened.size());
+      assertRecall(reopened, subjects, random);
+    }
+  }
+
+  @Test
+  void impostorFindsNoCandidateOverTheThreshold() throws IOException {
+    var random = new Random(11);
+    try (var gallery = TemplateGallery.open(directory, 2, Constants.GALLERY_DEFAULT_CANDIDATES)) {
+      for (int i = 0; i < SUBJECTS; i++) {
+        gallery.append("S" + i, SyntheticMinutiae.iso(SyntheticMinutiae.random(random, MINUTIAE)));
+      }
+      for (int i = 0; i < PROBES / 4; i++) {
+        var impostor = SyntheticMinutiae.template(SyntheticMinutiae.random(random, MINUTIAE));
+        assertEquals(0, gallery.identify(impostor, THRESHOLD).size(), "impostor " + i);
+      }
+    }
+  }
+
+  private static void assertRecall(TemplateGallery gallery, int[][][] subjects, Random random) {
+    int found = 0;
+    for (int i = 0; i < PROBES; i++) {
+      int subject = random.nextInt(SUBJECTS);
+      var probe = SyntheticMinutiae.template(
+              SyntheticMinutiae.recapture(random, subjects[subject]));
+      var candidates = gallery.identify(probe, THRESHOLD);
+      if (!candidates.isEmpty() && candidates.get(0).id().equals("S" + subject)) {
+        found++;
+      }
+    }
+    double recall = found / (double) PROBES;
+    assertTrue(recall >= MIN_RECALL, "recall " + recall + " con " + SUBJECTS + " templates");
+  }
+}
@@ -0,0 +1,108 @@
+package com.fingerprint.thales.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BatchRequestTest {
+
+  private static final String REFERENCE = Base64.getEncoder().encodeToString(isoTemplate());
+
+  @Test
+  void withoutFingerIsASingleCaptureOfTheRightIndex() {
+    var request = BatchRequest.parse("{\"id\":\"r1\",\"timeout\":5}").toRequestArg();
+
+    assertFalse(request.isBatch());
+    assertEquals(Constants.FLAT_RIGHT_INDEX, request.captureObject());
+    assertEquals(5_000L, request.timeout());
+  }
+
+  @Test
+  void singleFingerIsASingleCaptureOfThatObject() {
+    var request = BatchRequest.parse("{\"finger\":\"slap_4_left\"}").toRequestArg();
+
+    assertFalse(request.isBatch());
+    assertEquals("SLAP_4_LEFT", request.captureObject());
+    assertNull(request.verification());
+  }
+
+  @Test
+  void singleFingerKeepsItsReference() {
+    var request = BatchRequest.parse("{\"finger\":\"FLAT_RIGHT_INDEX\",\"threshold\":60,"
+            + "\"reference\":\"" + REFERENCE + "\"}").toRequestArg();
+
+    assertFalse(request.isBatch());
+    var verification = request.verification();
+    assertNotNull(verification);
+    assertEquals(60, verification.threshold());
+  }
+
+  @Test
+  void severalFingersAreABatch() {
+    var request = BatchRequest.parse("{\"objects\":\"FLAT_RIGHT_INDEX, SLAP_4_LEFT\"}")
+            .toRequestArg();
+
+    assertTrue(request.isBatch());
+    assertEquals(List.of("FLAT_RIGHT_INDEX", "SLAP_4_LEFT"), request.objects());
+    assertNull(request.verification());
+  }
+
+  @Test
+  void severalFingersWithReferenceAreRejected() {
+    var line = BatchRequest.parse("{\"finger\":\"FLAT_RIGHT_INDEX,SLAP_4_LEFT\","
+            + "\"reference\":\"" + REFERENCE + "\"}");
+
+    var e = assertThrows(AcquisitionException.class, line::toRequestArg);
+    assertEquals(AcquisitionException.ErrorCode.PARAMETER, e.getErrorCode());
+  }
+
+  @Test
+  void identifyCarriesThresholdAndEnroll() {
+    var request = BatchRequest.parse("{\"identify\":true,\"threshold\":40,"
+            + "\"enroll\":\"EXP-0042\"}").toRequestArg();
+
+    assertTrue(request.isIdentify());
+    assertFalse(request.isBatch());
+    assertEquals(40, request.threshold());
+    assertEquals("EXP-0042", request.enroll());
+  }
+
+  @Test
+  void fieldsThatDoNotApplyToIdentifyAreRejected() {
+    // finger y reference no aplican a la identificación; enroll solo aplica a ella.
+    var lines = List.of(
+            BatchRequest.parse("{\"identify\":true,\"finger\":\"SLAP_4_LEFT\"}"),
+            BatchRequest.parse("{\"identify\":true,\"reference\":\"" + REFERENCE + "\"}"),
+            BatchRequest.parse("{\"enroll\":\"EXP-0042\"}"));
+
+    for (BatchRequest line : lines) {
+      var e = assertThrows(AcquisitionException.class, line::toRequestArg);
+      assertEquals(AcquisitionException.ErrorCode.PARAMETER, e.getErrorCode());
+    }
+  }
+
+  /**
+   * Registro ISO 19794-2:2005 mínimo: una vista con una minucia.
+   */
+  private static byte[] isoTemplate() {
+    int length = 24 + 4 + 6 + 2;
+    return ByteBuffer.allocate(length)
+            .put(new byte[]{'F', 'M', 'R', 0, ' ', '2', '0', 0}).putInt(length)
+            .putShort((short) 0).putShort((short) 400).putShort((short) 500)
+            .putShort((short) 197).putShort((short) 197).put((byte) 1).put((byte) 0)
+            .put((byte) 2).put((byte) 0).put((byte) 60).put((byte) 1)
+            .putShort((short) (1 << 14 | 100)).putShort((short) 200).put((byte) 64).put((byte) 60)
+            .putShort((short) 0)
+            .array();
+  }
+}
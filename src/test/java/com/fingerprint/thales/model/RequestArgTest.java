@@ -0,0 +1,46 @@
+package com.fingerprint.thales.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fingerprint.thales.exception.AcquisitionException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RequestArgTest {
+
+  @Test
+  void batchWithoutReferenceHasNoVerification() {
+    var request = RequestArg.from(new String[]{"30", "40", "false", "false", "cli", "any",
+            "FLAT_RIGHT_INDEX,SLAP_4_LEFT"});
+
+    assertEquals(List.of("FLAT_RIGHT_INDEX", "SLAP_4_LEFT"), request.batchObjects());
+    assertNull(request.verification());
+  }
+
+  @Test
+  void batchWithReferenceIsRejectedInEveryMode() {
+    // La referencia no se analiza: basta con que venga para rechazar el lote.
+    var cli = RequestArg.from(new String[]{"30", "40", "false", "false", "daemon", "any",
+            "FLAT_RIGHT_INDEX", "operator", "Rk1SACAy"});
+    var http = RequestArg.fromQuery(Map.of("objects", "FLAT_RIGHT_INDEX,SLAP_4_LEFT",
+            "reference", "Rk1SACAy"));
+
+    for (RequestArg request : List.of(cli, http)) {
+      var e = assertThrows(AcquisitionException.class, request::batchObjects);
+      assertEquals(AcquisitionException.ErrorCode.PARAMETER, e.getErrorCode());
+    }
+  }
+
+  @Test
+  void emptyOrDashQueryReferenceHasNoVerification() {
+    for (String reference : List.of("", " ", "-")) {
+      var request = RequestArg.fromQuery(Map.of("reference", reference));
+
+      assertNull(request.reference());
+      assertNull(request.verification());
+    }
+  }
+}
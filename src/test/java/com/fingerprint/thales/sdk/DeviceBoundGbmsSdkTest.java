@@ -0,0 +1,148 @@
+package com.fingerprint.thales.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_DeviceCharacteristicsDefines.GBMSAPI_JAVA_DeviceName;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.fingerprint.thales.service.core.AcquisitionHandler;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Dos escáneres capturando a la vez sobre el mismo SDK: ninguna llamada del callback
+ * (contraste, template, finalización) se hace con otro dispositivo como actual.
+ */
+class DeviceBoundGbmsSdkTest {
+
+  private static final int ROUNDS = 20;
+
+  @Test
+  void acquisitionKeepsItsDeviceSelectedUntilTheEnd() throws Exception {
+    var config = SimulatedScannerConfig.builder()
+            .fps(500)
+            .width(400)
+            .height(500)
+            .previewFrames(30)
+            .minutiae(40)
+            .devices(2)
+            .build();
+    var sdk = new CurrentDeviceSdk(config);
+    var selector = DeviceBoundGbmsSdk.selectorFor(sdk);
+    List<AcquisitionHandler> handlers = List.of(
+            new AcquisitionHandler(selector.bind(deviceId(), SimulatedGbmsSdk.serialOf(0))),
+            new AcquisitionHandler(selector.bind(deviceId(), SimulatedGbmsSdk.serialOf(1))));
+
+    ExecutorService devices = Executors.newFixedThreadPool(handlers.size());
+    try {
+      List<Future<Integer>> captures = new ArrayList<>();
+      for (var handler : handlers) {
+        captures.add(devices.submit(() -> {
+          int fingerprints = 0;
+          for (int round = 0; round < ROUNDS; round++) {
+            if (handler.captureFingerprint(10_000L).hasFingerprint()) {
+              fingerprints++;
+            }
+          }
+          return fingerprints;
+        }));
+      }
+      for (var capture : captures) {
+        assertEquals(ROUNDS, capture.get(60, TimeUnit.SECONDS));
+      }
+    } finally {
+      devices.shutdownNow();
+    }
+
+    assertTrue(sdk.callbackCalls.get() > 0, "el callback debe consultar el SDK");
+    assertEquals(0, sdk.wrongDevice.get(), "llamadas del callback con otro dispositivo actual");
+  }
+
+  private static Byte deviceId() {
+    return (byte) GBMSAPI_JAVA_DeviceName.GBMSAPI_DN_CSD101;
+  }
+
+  /**
+   * Escáner simulado que, como haría una DLL que aplica todo al dispositivo actual, cuenta las
+   * llamadas del callback hechas mientras otro dispositivo está seleccionado.
+   */
+  private static final class CurrentDeviceSdk extends SimulatedGbmsSdk {
+
+    private final ThreadLocal<String> acquiring = new ThreadLocal<>();
+
+    private final AtomicInteger callbackCalls = new AtomicInteger();
+
+    private final AtomicInteger wrongDevice = new AtomicInteger();
+
+    private volatile String current = serialOf(0);
+
+    private CurrentDeviceSdk(SimulatedScannerConfig config) {
+      super(config);
+    }
+
+    @Override
+    public int setCurrentDevice(Byte deviceId, String serialNumber) {
+      int result = super.setCurrentDevice(deviceId, serialNumber);
+      current = serialNumber;
+      return result;
+    }
+
+    @Override
+    public int startAcquisition(int objToScan, int options,
+                                GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface target,
+                                Pointer userParams, int displayOptions,
+                                byte contrastLimitToDisplay, byte completenessLimitToDisplay) {
+      String serial = current;
+      GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback =
+              (eventCode, frameError, eventInfo, framePtr, sizeX, sizeY, currentRate,
+               nominalRate, diagnostic, params) -> {
+                acquiring.set(serial);
+                try {
+                  return target.invoke(eventCode, frameError, eventInfo, framePtr, sizeX, sizeY,
+                          currentRate, nominalRate, diagnostic, params);
+                } finally {
+                  acquiring.remove();
+                }
+              };
+      return super.startAcquisition(objToScan, options, callback, userParams, displayOptions,
+              contrastLimitToDisplay, completenessLimitToDisplay);
+    }
+
+    @Override
+    public int getFingerprintContrast(ByteByReference contrast) {
+      checkCurrent();
+      return super.getFingerprintContrast(contrast);
+    }
+
+    @Override
+    public int getIso19794Template(Pointer buffer, int bufferSize, IntByReference templateSize) {
+      checkCurrent();
+      return super.getIso19794Template(buffer, bufferSize, templateSize);
+    }
+
+    @Override
+    public int imageFinalization(Pointer frame) {
+      checkCurrent();
+      return super.imageFinalization(frame);
+    }
+
+    private void checkCurrent() {
+      String serial = acquiring.get();
+      if (serial != null) {
+        callbackCalls.incrementAndGet();
+        if (!serial.equals(current)) {
+          wrongDevice.incrementAndGet();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.fingerprint.thales.server;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.model.FingerResult;
+import com.fingerprint.thales.model.ResponseBatch;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BinaryProtocolTest {
+
+  /**
+   * 128 caracteres de dos bytes en UTF-8: cabe como texto Java pero no en 255 bytes.
+   */
+  private static final String LONG_NAME = "Ñ".repeat(128);
+
+  @Test
+  void requestRoundTripKeepsUtf8Texts() {
+    var request = new BinaryProtocol.Request(Constants.OP_CAPTURE, 30_000, "SN-Ñ1",
+            List.of("FLAT_RIGHT_INDEX", "DEDO_ÍNDICE"));
+
+    var decoded = BinaryProtocol.decodeRequest(body(BinaryProtocol.encodeRequest(
+            ByteBuffer.allocate(Constants.PROTOCOL_MAX_REQUEST), request)));
+
+    assertEquals(request, decoded);
+  }
+
+  @Test
+  void objectLongerThan255BytesIsRejected() {
+    var buffer = ByteBuffer.allocate(Constants.PROTOCOL_MAX_REQUEST);
+    assertParameter(() -> BinaryProtocol.encodeRequest(buffer, new BinaryProtocol.Request(
+            Constants.OP_CAPTURE, 0, "any", List.of(LONG_NAME))));
+    assertParameter(() -> BinaryProtocol.encodeRequest(buffer, new BinaryProtocol.Request(
+            Constants.OP_CAPTURE, 0, "x".repeat(256), List.of())));
+
+    // Un cliente que no valida: el servidor rechaza el objeto en vez de truncarlo al responder.
+    byte[] name = LONG_NAME.getBytes(StandardCharsets.UTF_8);
+    var raw = ByteBuffer.allocate(Constants.PROTOCOL_MAX_REQUEST)
+            .put(Constants.PROTOCOL_VERSION).put(Constants.OP_CAPTURE).putInt(0)
+            .put((byte) 0).putShort((short) name.length).put(name).flip();
+    assertParameter(() -> BinaryProtocol.decodeRequest(raw));
+  }
+
+  @Test
+  void batchResponseRoundTripCountsNameBytes() {
+    String name = "Ñ".repeat(127);
+    byte[] template = {1, 2, 3, 4, 5};
+    var batch = ResponseBatch.builder().fingers(List.of(
+            FingerResult.builder().object(name).template(template).build(),
+            FingerResult.builder().object("SLAP_4_LEFT").error("fallo")
+                    .code(AcquisitionException.ErrorCode.ACQUISITION_TIMEOUT.getCode()).build()))
+            .build();
+
+    var header = ByteBuffer.allocate(Constants.PROTOCOL_HEADER_CAPACITY);
+    var payload = ByteBuffer.allocate(BinaryProtocol.payloadSize(batch));
+    BinaryProtocol.encodeResponse(batch, header, payload);
+    assertEquals(payload.capacity(), payload.remaining());
+
+    var frame = ByteBuffer.allocate(header.remaining() + payload.remaining())
+            .put(header).put(payload).flip();
+    var decoded = (ResponseBatch) BinaryProtocol.decodeResponse(body(frame));
+
+    assertEquals(2, decoded.fingers().size());
+    assertEquals(name, decoded.fingers().get(0).object());
+    assertArrayEquals(template, decoded.fingers().get(0).template());
+    assertEquals("SLAP_4_LEFT", decoded.fingers().get(1).object());
+    assertEquals(AcquisitionException.ErrorCode.ACQUISITION_TIMEOUT.getCode(),
+            decoded.fingers().get(1).code());
+  }
+
+  @Test
+  void batchResponseWithLongNameIsRejected() {
+    var batch = ResponseBatch.builder().fingers(List.of(
+            FingerResult.builder().object(LONG_NAME).template(new byte[]{1}).build())).build();
+
+    assertParameter(() -> BinaryProtocol.payloadSize(batch));
+  }
+
+  /**
+   * Quita la longitud de la trama y comprueba que coincide con el resto.
+   */
+  private static ByteBuffer body(ByteBuffer frame) {
+    int length = frame.getInt();
+    assertEquals(frame.remaining(), length);
+    return frame.slice();
+  }
+
+  private static void assertParameter(Runnable call) {
+    var e = assertThrows(AcquisitionException.class, call::run);
+    assertEquals(AcquisitionException.ErrorCode.PARAMETER, e.getErrorCode());
+  }
+}
@@ -0,0 +1,117 @@
+package com.fingerprint.thales.service.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_AcquisitionEvents;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.fingerprint.thales.sdk.SimulatedGbmsSdk;
+import com.fingerprint.thales.sdk.SimulatedScannerConfig;
+import com.sun.jna.Pointer;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * El camino del callback nativo no reserva memoria por frame: tras el calentamiento, los bytes
+ * reservados por el hilo del callback ({@link com.sun.management.ThreadMXBean}) no crecen a lo
+ * largo de una vista previa del escáner simulado.
+ */
+class AcquisitionHandlerAllocationTest {
+
+  private static final int WARMUP_FRAMES = 1500;
+
+  private static final int MEASURED_FRAMES = 1500;
+
+  /**
+   * Margen para asignaciones puntuales ajenas al frame (p. ej. una recompilación que desoptimiza
+   * un método una vez); con una asignación por frame se supera con creces.
+   */
+  private static final long TOLERANCE_BYTES = 1024;
+
+  @Test
+  void callbackPathDoesNotAllocatePerFrame() {
+    var config = SimulatedScannerConfig.builder()
+            .fps(2000)
+            .width(400)
+            .height(500)
+            .previewFrames(WARMUP_FRAMES + MEASURED_FRAMES + 1)
+            .minutiae(40)
+            .devices(1)
+            .build();
+    var sdk = new MeasuringSdk(config);
+    var handler = new AcquisitionHandler(sdk);
+
+    var response = handler.captureFingerprint(30_000L);
+
+    assertTrue(response.hasFingerprint(), "la captura simulada debe terminar con huella");
+    assertEquals(MEASURED_FRAMES, sdk.callback.measuredFrames);
+    long allocated = sdk.callback.allocatedBytes;
+    assertTrue(allocated <= TOLERANCE_BYTES, "el callback reservó " + allocated + " bytes en "
+            + MEASURED_FRAMES + " frames");
+  }
+
+  /**
+   * Escáner simulado que envuelve el callback del handler para medir su hilo.
+   */
+  private static final class MeasuringSdk extends SimulatedGbmsSdk {
+
+    private MeasuringCallback callback;
+
+    private MeasuringSdk(SimulatedScannerConfig config) {
+      super(config);
+    }
+
+    @Override
+    public int startAcquisition(int objToScan, int options,
+                                GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface target,
+                                Pointer userParams, int displayOptions,
+                                byte contrastLimitToDisplay, byte completenessLimitToDisplay) {
+      callback = new MeasuringCallback(target);
+      return super.startAcquisition(objToScan, options, callback, userParams, displayOptions,
+              contrastLimitToDisplay, completenessLimitToDisplay);
+    }
+  }
+
+  /**
+   * Lee los bytes reservados por el hilo actual al empezar y al acabar la ventana medida. La
+   * lectura va fuera de la llamada al handler, así que solo se mide su camino.
+   */
+  private static final class MeasuringCallback
+          implements GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface {
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface target;
+
+    private int frames;
+
+    private long startBytes;
+
+    private volatile int measuredFrames;
+
+    private volatile long allocatedBytes = -1;
+
+    private MeasuringCallback(GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface target) {
+      this.target = target;
+    }
+
+    @Override
+    public int invoke(int eventCode, int frameError, int eventInfo, Pointer framePtr,
+                      int sizeX, int sizeY, double currentRate, double nominalRate,
+                      int diagnostic, Pointer userParams) {
+      boolean frame =
+              eventCode == GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED;
+      if (frame && frames == WARMUP_FRAMES) {
+        startBytes = threads.getCurrentThreadAllocatedBytes();
+      }
+      int result = target.invoke(eventCode, frameError, eventInfo, framePtr, sizeX, sizeY,
+              currentRate, nominalRate, diagnostic, userParams);
+      if (frame && ++frames == WARMUP_FRAMES + MEASURED_FRAMES) {
+        allocatedBytes = threads.getCurrentThreadAllocatedBytes() - startBytes;
+        measuredFrames = frames - WARMUP_FRAMES;
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,278 @@
+package com.fingerprint.thales.service.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_AcquisitionEvents;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_AcquisitionProcessDefines.GBMSAPI_JAVA_EventInfo;
+import GBMSAPI_JAVA_Defines.GBMSAPI_JAVA_ErrorCodesDefines.GBMSAPI_JAVA_ErrorCodes;
+import GBMSAPI_JAVA_LibraryFunctions.GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface;
+import com.fingerprint.thales.exception.AcquisitionException;
+import com.fingerprint.thales.model.ResponseOk;
+import com.fingerprint.thales.sdk.SimulatedGbmsSdk;
+import com.fingerprint.thales.sdk.SimulatedScannerConfig;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Prueba de estrés de la palabra de estado ({@code AtomicInteger} con la generación en los bits
+ * altos) de {@link AcquisitionHandler}.
+ * <p>
+ * Cada vuelta lanza una captura (beginCapture), y un hilo "nativo" entrega los eventos de la
+ * captura actual mezclados al azar con eventos tardíos (frames, ACQUISITION_END y
+ * ACQUISITION_ERROR) de las generaciones anteriores, mientras otro hilo puede cancelar en un
+ * momento cualquiera. Algunas vueltas hacen fallar StartAcquisition (endCapture), y su
+ * generación pasa a ser de las tardías. Los eventos tardíos de una captura siguen llegando
+ * mientras arranca la siguiente.
+ * <p>
+ * En cada vuelta la captura tiene que acabar exactamente de una forma: cancelada si
+ * {@code cancel()} devolvió true, y si no con la huella. Un ACQUISITION_END perdido deja la
+ * captura colgada (se detecta con un plazo), y un evento tardío aceptado la termina sin huella
+ * o con error.
+ */
+class AcquisitionHandlerGenerationStressTest {
+
+  private static final int ROUNDS = 1500;
+
+  private static final long CAPTURE_TIMEOUT_MS = 30_000;
+
+  private static final long ROUND_DEADLINE_SECONDS = 10;
+
+  private static final int WIDTH = 64;
+
+  private static final int HEIGHT = 64;
+
+  private final ExecutorService requester = Executors.newSingleThreadExecutor();
+
+  private final ExecutorService canceller = Executors.newSingleThreadExecutor();
+
+  /**
+   * Un único productor, como el hilo de adquisición de la DLL: la cola del handler es SPSC.
+   */
+  private final ExecutorService nativeThread = Executors.newSingleThreadExecutor();
+
+  private final Random random = new Random(42);
+
+  private AcquisitionHandler handler;
+
+  @AfterEach
+  void tearDown() {
+    requester.shutdownNow();
+    canceller.shutdownNow();
+    nativeThread.shutdownNow();
+    if (handler != null) handler.close();
+  }
+
+  @Test
+  void neverLosesEndNorAcceptsStaleGeneration() throws Exception {
+    var sdk = new ScriptedSdk();
+    handler = new AcquisitionHandler(sdk);
+    int completed = 0;
+    int cancelled = 0;
+
+    for (int round = 0; round < ROUNDS; round++) {
+      sdk.failNextStart = random.nextInt(8) == 0;
+      boolean cancel = random.nextInt(3) == 0;
+      long cancelDelayNanos = random.nextInt(200_000);
+
+      Future<ResponseOk> capture = requester.submit(() -> handler.captureFingerprint(CAPTURE_TIMEOUT_MS));
+      Future<Boolean> cancelResult = cancel
+              ? canceller.submit(() -> {
+                LockSupport.parkNanos(cancelDelayNanos);
+                return handler.cancel();
+              })
+              : null;
+
+      Outcome outcome = outcomeOf(capture);
+      boolean cancelWon = cancelResult != null && cancelResult.get(ROUND_DEADLINE_SECONDS,
+              TimeUnit.SECONDS);
+      if (sdk.lastStartFailed) {
+        assertEquals(Outcome.FAILED, outcome, "vuelta " + round + ": StartAcquisition falló");
+      } else if (cancelWon) {
+        assertEquals(Outcome.CANCELLED, outcome, "vuelta " + round + ": cancel() devolvió true");
+        cancelled++;
+      } else {
+        assertEquals(Outcome.FINGERPRINT, outcome, "vuelta " + round
+                + ": se perdió ACQUISITION_END o se aceptó un evento de otra generación");
+        completed++;
+      }
+    }
+    nativeThread.shutdown();
+    assertTrue(nativeThread.awaitTermination(ROUND_DEADLINE_SECONDS, TimeUnit.SECONDS));
+    assertTrue(completed > 0 && cancelled > 0, "completadas=" + completed + ", canceladas="
+            + cancelled);
+  }
+
+  private static Outcome outcomeOf(Future<ResponseOk> capture) throws InterruptedException {
+    try {
+      ResponseOk response = capture.get(ROUND_DEADLINE_SECONDS, TimeUnit.SECONDS);
+      return response.hasFingerprint() ? Outcome.FINGERPRINT : Outcome.EMPTY;
+    } catch (TimeoutException e) {
+      return Outcome.HUNG;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof AcquisitionException ae) {
+        return ae.getErrorCode() == AcquisitionException.ErrorCode.ACQUISITION_CANCELLED
+                ? Outcome.CANCELLED : Outcome.FAILED;
+      }
+      fail(e.getCause());
+      return null;
+    }
+  }
+
+  private enum Outcome {
+    FINGERPRINT, EMPTY, CANCELLED, FAILED, HUNG
+  }
+
+  /**
+   * Un evento del callback con la generación que lleva en userParams.
+   */
+  private record Fire(int eventCode, int frameError, int eventInfo, int generation) {
+
+    private static Fire of(int eventCode, int generation) {
+      return new Fire(eventCode, 0, 0, generation);
+    }
+
+    private static Fire end(int generation) {
+      return new Fire(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_END, 0,
+              GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_ACQUISITION_PHASE
+                      | GBMSAPI_JAVA_EventInfo.GBMSAPI_JAVA_EI_IS_ISO_19794_2_2005_TEMPLATE,
+              generation);
+    }
+
+    private static Fire error(int generation) {
+      return new Fire(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_ACQUISITION_ERROR,
+              GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_INTERNAL, 0, generation);
+    }
+  }
+
+  /**
+   * SDK que no lanza su propio hilo: cada StartAcquisition deja en el hilo "nativo" el guion de
+   * eventos de la captura, mezclado con los tardíos de las dos generaciones anteriores.
+   */
+  private final class ScriptedSdk extends SimulatedGbmsSdk {
+
+    private final Memory frame = new Memory((long) WIDTH * HEIGHT);
+
+    private final byte[] template = buildIso(new Random(7), 30);
+
+    private volatile boolean failNextStart;
+
+    private volatile boolean lastStartFailed;
+
+    private int[] stale = {};
+
+    private ScriptedSdk() {
+      super(SimulatedScannerConfig.builder().fps(0).width(WIDTH).height(HEIGHT).devices(1).build());
+      frame.clear();
+    }
+
+    @Override
+    public int startAcquisition(int objToScan, int options,
+                                GBMSAPI_JAVA_AcquisitionEventsManagerCallbackInterface callback,
+                                Pointer userParams, int displayOptions,
+                                byte contrastLimitToDisplay, byte completenessLimitToDisplay) {
+      int generation = (int) Pointer.nativeValue(userParams);
+      int[] previous = stale;
+      stale = new int[]{generation, previous.length > 0 ? previous[0] : generation};
+      lastStartFailed = failNextStart;
+      if (lastStartFailed) {
+        return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_DEVICE_NOT_RESPONDING;
+      }
+      List<Fire> script = script(generation, previous);
+      nativeThread.execute(() -> {
+        for (Fire fire : script) {
+          callback.invoke(fire.eventCode(), fire.frameError(), fire.eventInfo(), frame, WIDTH,
+                  HEIGHT, 0, 0, 0, Pointer.createConstant(fire.generation()));
+          if (random.nextInt(4) == 0) Thread.yield();
+        }
+      });
+      return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+    }
+
+    /**
+     * Eventos de la captura en orden, con los tardíos intercalados al azar y, tras el fin,
+     * algunos duplicados de la propia captura que ya llegan con la siguiente en marcha.
+     */
+    private List<Fire> script(int generation, int[] previous) {
+      List<Fire> late = new ArrayList<>();
+      for (int old : previous) {
+        late.add(Fire.of(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED, old));
+        late.add(Fire.end(old));
+        late.add(Fire.error(old));
+      }
+      Collections.shuffle(late, random);
+      List<Fire> current = new ArrayList<>();
+      current.add(Fire.of(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_SCANNER_STARTED, generation));
+      for (int i = random.nextInt(4); i > 0; i--) {
+        current.add(Fire.of(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED,
+                generation));
+      }
+      current.add(Fire.of(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_PREVIEW_PHASE_END, generation));
+      current.add(Fire.end(generation));
+
+      List<Fire> script = new ArrayList<>();
+      int c = 0;
+      int l = 0;
+      while (c < current.size() || l < late.size()) {
+        if (l < late.size() && (c == current.size() || random.nextBoolean())) {
+          script.add(late.get(l++));
+        } else {
+          script.add(current.get(c++));
+        }
+      }
+      if (random.nextBoolean()) {
+        script.add(Fire.end(generation));
+        script.add(Fire.of(GBMSAPI_JAVA_AcquisitionEvents.GBMSAPI_JAVA_AE_VALID_FRAME_ACQUIRED,
+                generation));
+      }
+      return script;
+    }
+
+    @Override
+    public int stopAcquisition() {
+      return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+    }
+
+    @Override
+    public int getIso19794Template(Pointer buffer, int bufferSize, IntByReference templateSize) {
+      buffer.write(0, template, 0, template.length);
+      templateSize.setValue(template.length);
+      return GBMSAPI_JAVA_ErrorCodes.GBMSAPI_JAVA_ERROR_CODE_NO_ERROR;
+    }
+  }
+
+  /**
+   * Registro ISO 19794-2:2005 de una vista (400x500 a 197 ppcm) con minucias al azar.
+   */
+  private static byte[] buildIso(Random random, int count) {
+    int length = 24 + 4 + count * 6 + 2;
+    ByteBuffer buf = ByteBuffer.allocate(length);
+    buf.put(new byte[]{'F', 'M', 'R', 0, ' ', '2', '0', 0}).putInt(length);
+    buf.putShort((short) 0).putShort((short) 400).putShort((short) 500)
+            .putShort((short) 197).putShort((short) 197).put((byte) 1).put((byte) 0);
+    buf.put((byte) 2).put((byte) 0).put((byte) 60).put((byte) count);
+    for (int i = 0; i < count; i++) {
+      buf.putShort((short) (1 << 14 | 30 + random.nextInt(340)))
+              .putShort((short) (30 + random.nextInt(440)))
+              .put((byte) random.nextInt(256)).put((byte) 60);
+    }
+    buf.putShort((short) 0);
+    return buf.array();
+  }
+}
@@ -0,0 +1,82 @@
+package com.fingerprint.thales.service.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Con el anillo lleno, el evento de fin va al slot aparte y se procesa justo después de lo ya
+ * publicado, sin que el productor espere.
+ */
+class CallbackEventQueueTest {
+
+  private static final int CAPACITY = 8;
+
+  @Test
+  void overflowEventKeepsOrderWhenRingIsFull() throws InterruptedException {
+    var consumerBlocked = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    List<Integer> processed = new CopyOnWriteArrayList<>();
+    var done = new CountDownLatch(CAPACITY + 1);
+    var queue = new CallbackEventQueue(CAPACITY, "callback-queue-test", event -> {
+      if (event.generation == 0) {
+        consumerBlocked.countDown();
+        await(release);
+      }
+      processed.add(event.generation);
+      done.countDown();
+    });
+    queue.start();
+    try {
+      publish(queue, 0);
+      assertTrue(consumerBlocked.await(5, TimeUnit.SECONDS));
+      // El slot del evento 0 sigue ocupado mientras se procesa.
+      for (int i = 1; i < CAPACITY; i++) {
+        publish(queue, i);
+      }
+      assertNull(queue.claim(), "el anillo debería estar lleno");
+
+      var overflow = queue.claimOverflow();
+      assertNotNull(overflow);
+      overflow.generation = CAPACITY;
+      queue.publishOverflow();
+      assertNull(queue.claimOverflow(), "el slot aparte ya está ocupado");
+
+      release.countDown();
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+      assertEquals(IntStream.rangeClosed(0, CAPACITY).boxed().toList(), processed);
+      // El slot aparte se libera justo después de que el handler vuelva.
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (queue.claimOverflow() == null && System.nanoTime() < deadline) {
+        Thread.yield();
+      }
+      assertNotNull(queue.claimOverflow(), "el slot aparte se libera al procesarlo");
+    } finally {
+      release.countDown();
+      queue.stop();
+    }
+  }
+
+  private static void publish(CallbackEventQueue queue, int generation) {
+    var slot = queue.claim();
+    assertNotNull(slot);
+    slot.generation = generation;
+    queue.publish();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
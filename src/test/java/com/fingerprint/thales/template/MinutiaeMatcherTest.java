@@ -0,0 +1,63 @@
+package com.fingerprint.thales.template;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Precisión del comparador con minucias sintéticas: los pares genuinos (la misma huella
+ * recapturada con rotación, traslación, ruido, pérdidas y espurias) superan el umbral de 30 de los
+ * ejemplos del README y los impostores quedan por debajo.
+ */
+class MinutiaeMatcherTest {
+
+  private static final int THRESHOLD = 30;
+
+  private static final int PAIRS = 200;
+
+  private final MinutiaeMatcher matcher = new MinutiaeMatcher();
+
+  @Test
+  void identicalTemplateScoresTheMaximum() {
+    var template = SyntheticMinutiae.template(SyntheticMinutiae.random(new Random(1), 40));
+
+    assertEquals(Constants.MATCH_MAX_SCORE, matcher.score(template, template));
+  }
+
+  @Test
+  void genuinePairsPassAndImpostorsDoNot() {
+    var random = new Random(7);
+    for (int count : new int[]{30, 40, 80}) {
+      int genuineBelow = 0;
+      int genuineSum = 0;
+      int impostorMax = 0;
+      for (int pair = 0; pair < PAIRS; pair++) {
+        int[][] finger = SyntheticMinutiae.random(random, count);
+        // La mitad de las referencias en ANSI: el comparador trabaja en unidades ISO.
+        var reference = pair % 2 == 0
+                ? new MinutiaeTemplate().wrap(ByteBuffer.wrap(TemplateCodec.encode(
+                        SyntheticMinutiae.template(finger), TemplateFormatEnum.ANSI)))
+                : SyntheticMinutiae.template(finger);
+        var genuine = SyntheticMinutiae.template(SyntheticMinutiae.recapture(random, finger));
+        var impostor = SyntheticMinutiae.template(SyntheticMinutiae.random(random, count));
+
+        int score = matcher.score(genuine, reference);
+        genuineSum += score;
+        if (score < THRESHOLD) {
+          genuineBelow++;
+        }
+        impostorMax = Math.max(impostorMax, matcher.score(impostor, reference));
+      }
+      assertTrue(genuineBelow <= PAIRS / 100, count + " minucias: " + genuineBelow + " de "
+              + PAIRS + " genuinos bajo el umbral");
+      assertTrue(genuineSum / PAIRS >= 2 * THRESHOLD, count + " minucias: media genuina "
+              + genuineSum / PAIRS);
+      assertTrue(impostorMax < THRESHOLD, count + " minucias: impostor con " + impostorMax);
+    }
+  }
+}
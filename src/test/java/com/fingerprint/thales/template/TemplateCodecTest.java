@@ -0,0 +1,171 @@
+package com.fingerprint.thales.template;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fingerprint.thales.constants.Constants;
+import com.fingerprint.thales.enums.TemplateFormatEnum;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TemplateCodecTest {
+
+  private static final int EQUIPMENT = 0x1234;
+
+  @Test
+  void sameFormatIsByteIdentical() {
+    var random = new Random(1);
+    byte[] iso = iso(random, 2, 40, 5);
+    byte[] ansi = TemplateCodec.encode(wrap(iso), TemplateFormatEnum.ANSI);
+
+    assertEquals(TemplateFormatEnum.ANSI, wrap(ansi).getFormat());
+    assertArrayEquals(iso, TemplateCodec.encode(wrap(iso), TemplateFormatEnum.ISO));
+    assertArrayEquals(ansi, TemplateCodec.encode(wrap(ansi), TemplateFormatEnum.ANSI));
+  }
+
+  @Test
+  void isoThroughAnsiKeepsMinutiaeAndExtendedData() {
+    var random = new Random(2);
+    var source = wrap(iso(random, 3, 60, 7));
+
+    var ansi = wrap(TemplateCodec.encode(source, TemplateFormatEnum.ANSI));
+    var back = wrap(TemplateCodec.encode(ansi, TemplateFormatEnum.ISO));
+
+    assertEquals(TemplateFormatEnum.ISO, back.getFormat());
+    assertEquals(EQUIPMENT, ansi.getEquipment());
+    assertSameMinutiae(source, back);
+    for (int i = 0; i < source.getMinutiaeCount(); i++) {
+      // Ida y vuelta por unidades de 2°: como mucho una unidad ISO de diferencia.
+      int difference = Math.abs(source.angle(i) - back.angle(i));
+      difference = Math.min(difference, Constants.ISO_ANGLE_STEPS - difference);
+      assertTrue(difference <= 1, "minucia " + i + ": " + source.angle(i) + " -> "
+              + back.angle(i));
+      assertEquals(MinutiaeTemplate.isoToAnsiAngle(source.angle(i)), ansi.angle(i));
+    }
+  }
+
+  @Test
+  void ansiThroughIsoIsIdempotent() {
+    var random = new Random(3);
+    byte[] ansi = TemplateCodec.encode(wrap(iso(random, 2, 50, 3)), TemplateFormatEnum.ANSI);
+
+    byte[] iso = TemplateCodec.encode(wrap(ansi), TemplateFormatEnum.ISO);
+
+    assertArrayEquals(ansi, TemplateCodec.encode(wrap(iso), TemplateFormatEnum.ANSI));
+  }
+
+  @Test
+  void ineCarriesItsCbeffAndNoEquipment() {
+    var random = new Random(4);
+    var source = wrap(iso(random, 1, 40, 0));
+
+    var ine = wrap(TemplateCodec.encode(source, TemplateFormatEnum.INE));
+
+    assertEquals(TemplateFormatEnum.INE, ine.getFormat());
+    assertEquals(Constants.INE_CBEFF_OWNER, ine.getCbeffOwner());
+    assertEquals(Constants.INE_CBEFF_TYPE, ine.getCbeffType());
+    assertEquals(0, ine.getEquipment());
+    assertEquals(source.getWidth(), ine.getWidth());
+    assertEquals(source.getXResolution(), ine.getXResolution());
+    assertSameMinutiae(source, ine);
+  }
+
+  @Test
+  void largeAnsiUsesTheLongLength() {
+    var random = new Random(5);
+    byte[] iso = iso(random, 255, 255, 3);
+    var source = wrap(iso);
+
+    byte[] ansi = TemplateCodec.encode(source, TemplateFormatEnum.ANSI);
+
+    assertTrue(ansi.length > Constants.ANSI_SHORT_LENGTH_MAX);
+    assertEquals(iso.length - Constants.ISO_HEADER_LENGTH,
+            ansi.length - Constants.ANSI_HEADER_LENGTH - Constants.ANSI_LONG_LENGTH_EXTRA);
+    var view = wrap(ansi);
+    assertEquals(TemplateFormatEnum.ANSI, view.getFormat());
+    assertEquals(255, view.getViewCount());
+    assertSameMinutiae(source, view);
+    assertArrayEquals(ansi, TemplateCodec.encode(view, TemplateFormatEnum.ANSI));
+  }
+
+  @Test
+  void encodeIntoBufferAdvancesAndKeepsByteOrder() {
+    var random = new Random(6);
+    var source = wrap(iso(random, 1, 30, 0));
+    int length = TemplateCodec.encodedLength(source, TemplateFormatEnum.ANSI);
+    var out = ByteBuffer.allocate(length + 3).order(ByteOrder.LITTLE_ENDIAN);
+    out.position(3);
+
+    assertEquals(length, TemplateCodec.encode(source, TemplateFormatEnum.ANSI, out));
+
+    assertEquals(length + 3, out.position());
+    assertEquals(ByteOrder.LITTLE_ENDIAN, out.order());
+    assertArrayEquals(TemplateCodec.encode(source, TemplateFormatEnum.ANSI),
+            Arrays.copyOfRange(out.array(), 3, length + 3));
+  }
+
+  /**
+   * Misma estructura, coordenadas, tipos, calidades y datos extendidos; el ángulo se compara
+   * aparte porque depende de la unidad de cada formato.
+   */
+  private static void assertSameMinutiae(MinutiaeTemplate expected, MinutiaeTemplate actual) {
+    assertEquals(expected.getViewCount(), actual.getViewCount());
+    assertEquals(expected.getMinutiaeCount(), actual.getMinutiaeCount());
+    for (int view = 0; view < expected.getViewCount(); view++) {
+      assertEquals(expected.fingerPosition(view), actual.fingerPosition(view));
+      assertEquals(expected.viewNumber(view), actual.viewNumber(view));
+      assertEquals(expected.impressionType(view), actual.impressionType(view));
+      assertEquals(expected.fingerQuality(view), actual.fingerQuality(view));
+      assertEquals(expected.minutiaeCount(view), actual.minutiaeCount(view));
+      assertArrayEquals(extendedData(expected, view), extendedData(actual, view));
+    }
+    for (int i = 0; i < expected.getMinutiaeCount(); i++) {
+      assertEquals(expected.type(i), actual.type(i));
+      assertEquals(expected.x(i), actual.x(i));
+      assertEquals(expected.y(i), actual.y(i));
+      assertEquals(expected.quality(i), actual.quality(i));
+    }
+  }
+
+  private static byte[] extendedData(MinutiaeTemplate template, int view) {
+    byte[] data = new byte[template.extendedDataLength(view)];
+    template.getBuffer().get(template.extendedDataOffset(view), data);
+    return data;
+  }
+
+  private static MinutiaeTemplate wrap(byte[] template) {
+    return new MinutiaeTemplate().wrap(ByteBuffer.wrap(template));
+  }
+
+  /**
+   * Registro ISO 19794-2:2005 aleatorio: {@code views} vistas de {@code minutiae} minucias, cada
+   * una seguida de {@code extended} bytes de datos extendidos.
+   */
+  private static byte[] iso(Random random, int views, int minutiae, int extended) {
+    int length = Constants.ISO_HEADER_LENGTH
+            + views * (4 + minutiae * 6 + 2 + extended);
+    var buffer = ByteBuffer.allocate(length)
+            .put(new byte[]{'F', 'M', 'R', 0, ' ', '2', '0', 0}).putInt(length)
+            .putShort((short) EQUIPMENT).putShort((short) 400).putShort((short) 500)
+            .putShort((short) 197).putShort((short) 197).put((byte) views).put((byte) 0);
+    for (int view = 0; view < views; view++) {
+      buffer.put((byte) (view % 10 + 1)).put((byte) (view % 16 << 4 | 1)).put((byte) 60)
+              .put((byte) minutiae);
+      for (int i = 0; i < minutiae; i++) {
+        buffer.putShort((short) ((1 + random.nextInt(2)) << 14 | random.nextInt(400)))
+                .putShort((short) random.nextInt(500))
+                .put((byte) random.nextInt(256))
+                .put((byte) random.nextInt(101));
+      }
+      buffer.putShort((short) extended);
+      for (int i = 0; i < extended; i++) {
+        buffer.put((byte) (view + i));
+      }
+    }
+    return buffer.array();
+  }
+}